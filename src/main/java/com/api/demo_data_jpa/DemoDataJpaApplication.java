@@ -6,14 +6,23 @@ import java.util.List;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
 //import org.springframework.context.annotation.Bean;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import com.api.demo_data_jpa.model.Author;
 import com.api.demo_data_jpa.repository.AuthorRepository;
+import com.api.demo_data_jpa.support.OptimisticRetryExecutor;
 
-@SpringBootApplication
+// R2DBC sem auto-configuração: o ReactiveAuthorReader monta o próprio pool, e um bean ConnectionFactory/ReactiveTransactionManager
+// faria o Spring Boot desistir do DataSource e do JpaTransactionManager
+@SpringBootApplication(exclude = { R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class })
 @EnableJpaAuditing
+@EnableScheduling
+@EnableAsync
 public class DemoDataJpaApplication {
 
 	public static void main(String[] args) {
@@ -21,7 +30,7 @@ public class DemoDataJpaApplication {
 	}
 
 	//@Bean
-	public CommandLineRunner commandLineRunner(AuthorRepository authorRepository) {
+	public CommandLineRunner commandLineRunner(AuthorRepository authorRepository, OptimisticRetryExecutor retryExecutor) {
 		return args -> {
 			var author1 = Author.builder()
 					.firstName("Daniel")
@@ -92,13 +101,15 @@ public class DemoDataJpaApplication {
 			}
 
 			// Exemplo alterar autor por id
-			Author authorToUpdate = authorRepository.findById(1).orElse(null);
+			// Ler + alterar + salvar dentro do retryExecutor: se outro save() alterar o autor no meio (conflito de @Version), a operação é refeita com o estado atual
+			Author authorToUpdate = retryExecutor.execute(() -> authorRepository.findById(1).map(author -> {
+				author.setFirstName("Daniel Updated");
+				author.setLastName("Penelva Updated");
+				author.setEmail("daniel.penelva@gmail.com");
+				author.setAge(38);
+				return authorRepository.save(author);
+			}).orElse(null));
 			if (authorToUpdate != null) {
-				authorToUpdate.setFirstName("Daniel Updated");
-				authorToUpdate.setLastName("Penelva Updated");
-				authorToUpdate.setEmail("daniel.penelva@gmail.com");
-				authorToUpdate.setAge(38);
-				authorRepository.save(authorToUpdate);
 				System.out.println("Autor atualizado: " + authorToUpdate.getFirstName() + " " + authorToUpdate.getLastName());
 			} else {
 				System.out.println("Autor não encontrado para atualização.");
@@ -113,6 +124,8 @@ public class DemoDataJpaApplication {
  * @SpringBootApplication: Anotação que marca a classe como uma aplicação Spring Boot.
  *      - scanBasePackages: Especifica os pacotes a serem escaneados pelo Spring para componentes, configurações e serviços.
  * 	    - exclude: Permite excluir classes de configuração específicas do Spring Boot.
+ * @EnableScheduling: Habilita a execução de métodos anotados com @Scheduled (ex: reconciliação do AuthorAgeHistogram).
+ * @EnableAsync: Métodos @Async rodam no applicationTaskExecutor do Spring Boot (threads virtuais com spring.threads.virtual.enabled=true).
  * @Bean: Indica que o método deve ser registrado como um bean no contexto do Spring.
  * CommandLineRunner: Interface que permite executar código após a inicialização do aplicativo Spring Boot.
  *      - args: Argumentos de linha de comando passados para o aplicativo.
@@ -122,4 +135,5 @@ public class DemoDataJpaApplication {
  *      - findById: Método para recuperar uma entidade Author pelo ID.
  *      - deleteById: Método para excluir uma entidade Author pelo ID.
  *      - findByEmail: Método personalizado para encontrar um Author pelo email.
+ * OptimisticRetryExecutor: Repete a operação (em uma transação nova) quando o save() falha por conflito de versão (@Version).
 */
\ No newline at end of file
@@ -0,0 +1,349 @@
+package com.api.demo_data_jpa.aggregate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+
+import com.api.demo_data_jpa.autocomplete.CourseAutocompleteService;
+import com.api.demo_data_jpa.cache.AuthorQueryCacheInvalidator;
+import com.api.demo_data_jpa.model.Author;
+import com.api.demo_data_jpa.model.BaseEntity;
+import com.api.demo_data_jpa.model.Book;
+import com.api.demo_data_jpa.model.Course;
+import com.api.demo_data_jpa.model.File;
+import com.api.demo_data_jpa.model.Lecture;
+import com.api.demo_data_jpa.model.Resource;
+import com.api.demo_data_jpa.model.Section;
+import com.api.demo_data_jpa.model.Text;
+import com.api.demo_data_jpa.model.Video;
+import com.api.demo_data_jpa.model.embedded.Address;
+import com.api.demo_data_jpa.statistics.AuthorAgeHistogram;
+import com.api.demo_data_jpa.zipcode.ZipCodeLookupService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+
+@Service
+public class AggregatePersistService {
+
+    private static final String INSERT_AUTHOR =
+        "INSERT INTO author_tbl (first_name, last_name, email, age, street_name, house_number, zip_code, created_at, last_modified_at, version)"
+        + " VALUES (:firstName, :lastName, :email, :age, :streetName, :houseNumber, :zipCode, :now, :now, 0)";
+    private static final String INSERT_BOOK =
+        "INSERT INTO book_tbl (title, author_id, created_at, last_modified_at, version) VALUES (:title, :authorId, :now, :now, 0)";
+    private static final String INSERT_COURSE =
+        "INSERT INTO course_tbl (name, description, created_at, last_modified_at, version) VALUES (:name, :description, :now, :now, 0)";
+    private static final String INSERT_COURSE_AUTHOR =
+        "INSERT INTO courses_authors (course_id, author_id) VALUES (:courseId, :authorId)";
+    private static final String INSERT_SECTION =
+        "INSERT INTO section_tbl (name, section_order, course_id, created_at, last_modified_at, version)"
+        + " VALUES (:name, :sectionOrder, :courseId, :now, :now, 0)";
+    private static final String INSERT_LECTURE =
+        "INSERT INTO lecture_tbl (name, lecture_order, section_id, resource_id, created_at, last_modified_at, version)"
+        + " VALUES (:name, :lectureOrder, :sectionId, :resourceId, :now, :now, 0)";
+
+    // Resource usa TABLE_PER_CLASS: cada subtipo tem a sua própria tabela com as colunas herdadas
+    private static final String INSERT_RESOURCE = "INSERT INTO resource (id, name, size, url, content_hash) VALUES (:id, :name, :size, :url, :contentHash)";
+    private static final String INSERT_VIDEO = "INSERT INTO video (id, name, size, url, content_hash, length) VALUES (:id, :name, :size, :url, :contentHash, :length)";
+    private static final String INSERT_FILE = "INSERT INTO file (id, name, size, url, content_hash, type) VALUES (:id, :name, :size, :url, :contentHash, :type)";
+    private static final String INSERT_TEXT = "INSERT INTO text (id, name, size, url, content_hash, content) VALUES (:id, :name, :size, :url, :contentHash, :content)";
+
+    private static final String[] ID_COLUMN = { "id" };
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Os INSERTs via JDBC não passam pelos EntityListeners do Author, então as estruturas em memória são avisadas aqui
+    @Autowired
+    private AuthorAgeHistogram histogram;
+
+    @Autowired
+    private AuthorQueryCacheInvalidator cacheInvalidator;
+
+    @Autowired
+    private ZipCodeLookupService zipCodeLookupService;
+
+    // Mesmo motivo para o Course (CourseAutocompleteListener)
+    @Autowired
+    private CourseAutocompleteService courseAutocompleteService;
+
+    // Linhas por batch JDBC (com rewriteBatchedStatements=true na URL, cada batch vira um INSERT multi-linhas no MySQL)
+    @Value("${app.aggregate-persist.batch-size:1000}")
+    private int batchSize;
+
+    // Linhas gravadas por tabela e quantidade de batches enviados ao banco
+    public record Result(Map<String, Integer> rowsByTable, int batches, long elapsedMillis) {
+    }
+
+
+    /* ==== API ==== */
+
+    // Author + Books: todos os autores em batches, depois todos os livros (author_id resolvido em memória)
+    @Transactional
+    public Result persistAuthors(Collection<Author> authors) {
+        Context context = new Context();
+        insertAuthors(context, authors);
+        return context.result();
+    }
+
+    // Course + Sections + Lectures + Resources (e autores novos ligados aos cursos)
+    // Ordem dos INSERTs: autores/livros -> cursos -> courses_authors -> seções -> recursos (por subtipo) -> palestras
+    @Transactional
+    public Result persistCourses(Collection<Course> courses) {
+        Context context = new Context();
+
+        List<Author> newAuthors = new ArrayList<>();
+        for (Course course : courses) {
+            for (Author author : nullToEmpty(course.getAuthors())) {
+                if (author.getId() == null) {
+                    newAuthors.add(author);
+                }
+            }
+        }
+        insertAuthors(context, distinct(newAuthors));
+
+        List<Course> newCourses = courses.stream().filter(course -> course.getId() == null).toList();
+        insertWithGeneratedIds(context, "course_tbl", INSERT_COURSE, newCourses, course -> audited(course)
+            .addValue("name", course.getName())
+            .addValue("description", course.getDescription()), BaseEntity::setId);
+        for (Course course : newCourses) {
+            courseAutocompleteService.courseSaved(course.getId(), course.getName(), course.getDescription());
+        }
+
+        List<MapSqlParameterSource> links = new ArrayList<>();
+        List<Section> sections = new ArrayList<>();
+        for (Course course : newCourses) {
+            for (Author author : distinct(nullToEmpty(course.getAuthors()))) {
+                links.add(new MapSqlParameterSource("courseId", course.getId()).addValue("authorId", author.getId()));
+            }
+            for (Section section : nullToEmpty(course.getSections())) {
+                section.setCourse(course);
+                sections.add(section);
+            }
+        }
+        insert(context, "courses_authors", INSERT_COURSE_AUTHOR, links, Function.identity());
+
+        insertWithGeneratedIds(context, "section_tbl", INSERT_SECTION, sections, section -> audited(section)
+            .addValue("name", section.getName())
+            .addValue("sectionOrder", section.getSectionOrder())
+            .addValue("courseId", section.getCourse().getId()), Section::setId);
+
+        List<Lecture> lectures = new ArrayList<>();
+        List<Resource> resources = new ArrayList<>();
+        for (Section section : sections) {
+            for (Lecture lecture : nullToEmpty(section.getLectures())) {
+                lecture.setSection(section);
+                if (lecture.getResource() == null) {
+                    throw new IllegalArgumentException("Lecture sem Resource (resource_id é obrigatório): " + lecture.getName());
+                }
+                if (lecture.getResource().getId() == null) {
+                    resources.add(lecture.getResource());
+                }
+                lectures.add(lecture);
+            }
+        }
+        insertResources(context, resources);
+
+        insertWithGeneratedIds(context, "lecture_tbl", INSERT_LECTURE, lectures, lecture -> audited(lecture)
+            .addValue("name", lecture.getName())
+            .addValue("lectureOrder", lecture.getLectureOrder())
+            .addValue("sectionId", lecture.getSection().getId())
+            .addValue("resourceId", lecture.getResource().getId()), Lecture::setId);
+
+        return context.result();
+    }
+
+
+    /* ==== INSERTs por tipo ==== */
+
+    private void insertAuthors(Context context, Collection<Author> authors) {
+        List<Author> newAuthors = authors.stream().filter(author -> author.getId() == null).toList();
+        insertWithGeneratedIds(context, "author_tbl", INSERT_AUTHOR, newAuthors, author -> {
+            Address address = author.getAddress() != null ? author.getAddress() : new Address();
+            return audited(author)
+                .addValue("firstName", author.getFirstName())
+                .addValue("lastName", author.getLastName())
+                .addValue("email", author.getEmail())
+                .addValue("age", author.getAge())
+                .addValue("streetName", address.getStreetName())
+                .addValue("houseNumber", address.getHouseNumber())
+                .addValue("zipCode", address.getZipCode());
+        }, BaseEntity::setId);
+
+        List<Book> books = new ArrayList<>();
+        for (Author author : newAuthors) {
+            for (Book book : nullToEmpty(author.getBooks())) {
+                book.setAuthor(author);
+                books.add(book);
+            }
+        }
+        insertWithGeneratedIds(context, "book_tbl", INSERT_BOOK, books, book -> audited(book)
+            .addValue("title", book.getTitle())
+            .addValue("authorId", book.getAuthor().getId()), BaseEntity::setId);
+
+        for (Author author : newAuthors) {
+            histogram.increment(author.getAge());
+            cacheInvalidator.rowChanged(null, null, author.getFirstName(), author.getAge());
+            zipCodeLookupService.authorSaved(author.getId(), author.getAddress() != null ? author.getAddress().getZipCode() : null);
+        }
+    }
+
+    // Os ids do Resource vêm do gerador TABLE do Hibernate (hibernate_sequences, blocos de 1000 - ver @TableGenerator no Resource),
+    // então os INSERTs não precisam devolver chaves e cada subtipo vai em seus próprios batches
+    private void insertResources(Context context, List<Resource> resources) {
+        if (resources.isEmpty()) {
+            return;
+        }
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        BeforeExecutionGenerator generator = (BeforeExecutionGenerator) session.getFactory()
+            .getMappingMetamodel().getEntityDescriptor(Resource.class).getGenerator();
+
+        List<Video> videos = new ArrayList<>();
+        List<File> files = new ArrayList<>();
+        List<Text> texts = new ArrayList<>();
+        List<Resource> plain = new ArrayList<>();
+        for (Resource resource : resources) {
+            resource.setId(((Number) generator.generate(session, resource, null, EventType.INSERT)).intValue());
+            if (resource instanceof Video video) {
+                videos.add(video);
+            } else if (resource instanceof File file) {
+                files.add(file);
+            } else if (resource instanceof Text text) {
+                texts.add(text);
+            } else {
+                plain.add(resource);
+            }
+        }
+
+        insert(context, "resource", INSERT_RESOURCE, plain, AggregatePersistService::resourceParams);
+        insert(context, "video", INSERT_VIDEO, videos, video -> resourceParams(video).addValue("length", video.getLength()));
+        insert(context, "file", INSERT_FILE, files, file -> resourceParams(file).addValue("type", file.getType()));
+        insert(context, "text", INSERT_TEXT, texts, text -> resourceParams(text).addValue("content", text.getContent()));
+    }
+
+
+    /* ==== Batches JDBC ==== */
+
+    // Batch com chaves geradas (IDENTITY): os ids voltam na mesma ordem das linhas e são gravados nas entidades,
+    // assim o próximo tipo do agregado já encontra a chave estrangeira em memória
+    private <T> void insertWithGeneratedIds(Context context, String table, String sql, List<T> rows,
+                                            Function<T, MapSqlParameterSource> params, BiConsumer<T, Integer> setId) {
+        for (List<T> chunk : chunks(rows)) {
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(sql, toParams(chunk, params), keyHolder, ID_COLUMN);
+            List<Map<String, Object>> keys = keyHolder.getKeyList();
+            if (keys.size() != chunk.size()) {
+                throw new IllegalStateException("Esperava " + chunk.size() + " chaves geradas em " + table + ", recebeu " + keys.size());
+            }
+            for (int i = 0; i < chunk.size(); i++) {
+                setId.accept(chunk.get(i), ((Number) keys.get(i).values().iterator().next()).intValue());
+            }
+            context.batchSent(table, chunk.size());
+        }
+    }
+
+    private <T> void insert(Context context, String table, String sql, List<T> rows, Function<T, MapSqlParameterSource> params) {
+        for (List<T> chunk : chunks(rows)) {
+            jdbcTemplate.batchUpdate(sql, toParams(chunk, params));
+            context.batchSent(table, chunk.size());
+        }
+    }
+
+    private <T> List<List<T>> chunks(List<T> rows) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            chunks.add(rows.subList(from, Math.min(from + batchSize, rows.size())));
+        }
+        return chunks;
+    }
+
+    private static <T> SqlParameterSource[] toParams(List<T> rows, Function<T, MapSqlParameterSource> params) {
+        return rows.stream().map(params).toArray(SqlParameterSource[]::new);
+    }
+
+    // created_at / last_modified_at: o AuditingEntityListener não roda em INSERTs via JDBC (version começa em 0, como no persist())
+    private static MapSqlParameterSource audited(BaseEntity entity) {
+        LocalDateTime now = LocalDateTime.now();
+        entity.setCreatedAt(now);
+        entity.setLastModifiedAt(now);
+        entity.setVersion(0L);
+        return new MapSqlParameterSource("now", Timestamp.valueOf(now));
+    }
+
+    private static MapSqlParameterSource resourceParams(Resource resource) {
+        return new MapSqlParameterSource("id", resource.getId())
+            .addValue("name", resource.getName())
+            .addValue("size", resource.getSize())
+            .addValue("url", resource.getUrl())
+            .addValue("contentHash", resource.getContentHash());
+    }
+
+    private static <T> List<T> nullToEmpty(List<T> list) {
+        return list != null ? list : List.of();
+    }
+
+    // O mesmo autor pode aparecer em vários cursos: compara por identidade (ainda não tem id)
+    private static <T> List<T> distinct(List<T> list) {
+        Set<T> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        return list.stream().filter(seen::add).toList();
+    }
+
+
+    private static class Context {
+
+        private final long startedAtNanos = System.nanoTime();
+        private final Map<String, Integer> rowsByTable = new LinkedHashMap<>();
+        private int batches;
+
+        void batchSent(String table, int rows) {
+            rowsByTable.merge(table, rows, Integer::sum);
+            batches++;
+        }
+
+        Result result() {
+            return new Result(rowsByTable, batches, (System.nanoTime() - startedAtNanos) / 1_000_000);
+        }
+
+    }
+
+}
+
+/* Anotação:
+ * Persistência de agregados em lote:
+ *  - Com GenerationType.IDENTITY o Hibernate precisa do id de cada linha logo após o INSERT, então save()/cascade grava entidade por entidade
+ *    (Course, Section, Lecture, Resource intercalados) e o batching JDBC fica desligado.
+ *  - Aqui o grafo inteiro é achatado por tipo: um batch por tipo (no máximo batch-size linhas), na ordem das chaves estrangeiras.
+ * NamedParameterJdbcTemplate.batchUpdate(sql, params, keyHolder, colunas): Executa o batch e devolve as chaves geradas (getGeneratedKeys) na ordem das linhas.
+ * GeneratedKeyHolder: Guarda as chaves geradas; os ids são copiados para as entidades para resolver as chaves estrangeiras em memória.
+ * BeforeExecutionGenerator: Gerador de id do Hibernate usado antes do INSERT (aqui, o gerador TABLE do Resource).
+ * rewriteBatchedStatements=true (URL do MySQL): O driver junta o batch em INSERTs multi-linhas, um round trip por batch.
+ *
+ * Observação:
+ *  - As entidades gravadas não ficam no contexto de persistência (para alterá-las depois, use findById ou merge).
+ *  - Entidades que já têm id são apenas referenciadas (ex: autor existente ligado a um curso novo).
+*/
@@ -0,0 +1,141 @@
+package com.api.demo_data_jpa.association;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+
+// Vínculos curso <-> autor linha a linha na tabela courses_authors, sem carregar Course.authors.
+// Pela coleção (bag), adicionar ou remover UM autor faz o Hibernate carregar todos os autores do curso,
+// apagar todas as linhas do curso e inserir todas de novo.
+@Service
+public class CourseAuthorLinkService {
+
+    // Trava a linha do curso: dois addAuthors no mesmo curso passam um de cada vez pelo SELECT_EXISTING + INSERT
+    private static final String LOCK_COURSE =
+        "SELECT id FROM course_tbl WHERE id = :courseId FOR UPDATE";
+    private static final String SELECT_EXISTING =
+        "SELECT author_id FROM courses_authors WHERE course_id = :courseId AND author_id IN (:authorIds)";
+    private static final String INSERT_LINK =
+        "INSERT INTO courses_authors (course_id, author_id) VALUES (:courseId, :authorId)";
+    private static final String DELETE_LINKS =
+        "DELETE FROM courses_authors WHERE course_id = :courseId AND author_id IN (:authorIds)";
+    private static final String COUNT_LINKS =
+        "SELECT COUNT(*) FROM courses_authors WHERE course_id = :courseId";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Tamanho dos batches de INSERT e das listas IN (...) de SELECT/DELETE
+    @Value("${app.course-authors.batch-size:1000}")
+    private int batchSize;
+
+
+    /* ==== API ==== */
+
+    // Insere só os vínculos que ainda não existem. Retorna quantas linhas foram inseridas.
+    @Transactional
+    public int addAuthors(Integer courseId, Collection<Integer> authorIds) {
+        if (jdbcTemplate.queryForList(LOCK_COURSE, Map.of("courseId", courseId), Integer.class).isEmpty()) {
+            throw new IllegalArgumentException("Curso não encontrado: " + courseId);
+        }
+        List<Integer> missing = new ArrayList<>();
+        for (List<Integer> chunk : chunks(authorIds)) {
+            Set<Integer> existing = new HashSet<>(jdbcTemplate.queryForList(SELECT_EXISTING,
+                new MapSqlParameterSource("courseId", courseId).addValue("authorIds", chunk), Integer.class));
+            for (Integer authorId : chunk) {
+                if (!existing.contains(authorId)) {
+                    missing.add(authorId);
+                }
+            }
+        }
+        for (List<Integer> chunk : chunks(missing)) {
+            jdbcTemplate.batchUpdate(INSERT_LINK, chunk.stream()
+                .map(authorId -> new MapSqlParameterSource("courseId", courseId).addValue("authorId", authorId))
+                .toArray(SqlParameterSource[]::new));
+        }
+        if (!missing.isEmpty()) {
+            touchCourse(courseId);
+        }
+        return missing.size();
+    }
+
+    // Apaga só os vínculos informados. Retorna quantas linhas foram apagadas.
+    @Transactional
+    public int removeAuthors(Integer courseId, Collection<Integer> authorIds) {
+        int deleted = 0;
+        for (List<Integer> chunk : chunks(authorIds)) {
+            deleted += jdbcTemplate.update(DELETE_LINKS, new MapSqlParameterSource("courseId", courseId).addValue("authorIds", chunk));
+        }
+        if (deleted > 0) {
+            touchCourse(courseId);
+        }
+        return deleted;
+    }
+
+    // @Transactional aqui também: chamada interna (this.addAuthors) não passa pelo proxy do Spring
+    @Transactional
+    public int addAuthor(Integer courseId, Integer authorId) {
+        return addAuthors(courseId, List.of(authorId));
+    }
+
+    @Transactional
+    public int removeAuthor(Integer courseId, Integer authorId) {
+        return removeAuthors(courseId, List.of(authorId));
+    }
+
+    public long countAuthors(Integer courseId) {
+        return jdbcTemplate.queryForObject(COUNT_LINKS, Map.of("courseId", courseId), Long.class);
+    }
+
+
+    /* ==== Auxiliares ==== */
+
+    // Mesmo efeito de alterar a coleção pelo Hibernate: a versão do Course (dono da associação) é incrementada,
+    // então quem leu o curso antes e tentar salvar recebe conflito de lock otimista em vez de sobrescrever
+    private void touchCourse(Integer courseId) {
+        entityManager.createQuery("UPDATE Course c SET c.version = c.version + 1 WHERE c.id = :id")
+            .setParameter("id", courseId)
+            .executeUpdate();
+    }
+
+    // Sem ids repetidos e em pedaços de batchSize
+    private List<List<Integer>> chunks(Collection<Integer> ids) {
+        List<Integer> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += batchSize) {
+            chunks.add(distinct.subList(from, Math.min(from + batchSize, distinct.size())));
+        }
+        return chunks;
+    }
+
+}
+
+/* Anotação:
+ * Bag (List sem @OrderColumn): Coleção sem identidade por linha; o Hibernate não sabe qual linha da tabela de junção corresponde a qual
+ *  elemento, então qualquer alteração vira DELETE de todas as linhas do curso + INSERT de todas de novo.
+ * Aqui cada alteração toca só as linhas envolvidas: SELECT (para não duplicar) + INSERT em batch, ou DELETE ... IN (...).
+ * SELECT ... FOR UPDATE no curso: Sem a trava, duas transações veriam "vínculo não existe" e as duas inseririam (check-then-act).
+ *  - O índice único (course_id, author_id) no Course barra a duplicata mesmo assim; a trava evita que uma delas falhe por isso.
+ * UPDATE Course ... version + 1: UPDATE em massa via JPQL não incrementa a versão sozinho (igual ao AuthorRepository).
+ *
+ * Observação:
+ *  - Um Course.authors já carregado no contexto de persistência atual não enxerga as alterações (use refresh ou uma nova transação).
+*/
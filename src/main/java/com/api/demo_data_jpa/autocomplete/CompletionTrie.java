@@ -0,0 +1,311 @@
+package com.api.demo_data_jpa.autocomplete;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+// Trie comprimida (radix tree): cada aresta guarda um trecho de texto, não um caractere só, então a profundidade
+// acompanha o número de bifurcações e não o tamanho das chaves. Cada nó guarda a maior pontuação da sua subárvore,
+// o que permite buscar os N melhores de um prefixo sem percorrer a subárvore inteira (busca best-first).
+// Filhos e postings ficam em arrays primitivos ordenados: com centenas de milhares de cursos e ~15 termos por curso,
+// coleções com objetos por entrada (TreeMap, TreeSet, Integer) custariam uma ordem de grandeza a mais de heap.
+// Não é thread-safe: o CourseAutocompleteService protege com um ReadWriteLock.
+class CompletionTrie {
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final long[] NO_POSTINGS = new long[0];
+
+    private final Node root = new Node("");
+
+    private static final class Node {
+        private String label;
+        private char[] childKeys = NO_KEYS;          // primeiro caractere do label de cada filho, ordenado
+        private Node[] children = NO_CHILDREN;
+        private long[] postings = NO_POSTINGS;       // posting(score, id), do melhor para o pior
+        private int postingCount;
+        private int maxScore = Integer.MIN_VALUE;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private Node child(char key) {
+            int index = Arrays.binarySearch(childKeys, key);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private void putChild(Node child) {
+            char key = child.label.charAt(0);
+            int index = Arrays.binarySearch(childKeys, key);
+            if (index >= 0) {
+                children[index] = child;
+                return;
+            }
+            int insertAt = -index - 1;
+            childKeys = insert(childKeys, insertAt, key);
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, insertAt);
+            grown[insertAt] = child;
+            System.arraycopy(children, insertAt, grown, insertAt + 1, children.length - insertAt);
+            children = grown;
+        }
+
+        private void removeChild(char key) {
+            int index = Arrays.binarySearch(childKeys, key);
+            if (index < 0) {
+                return;
+            }
+            char[] keys = new char[childKeys.length - 1];
+            Node[] nodes = new Node[children.length - 1];
+            System.arraycopy(childKeys, 0, keys, 0, index);
+            System.arraycopy(childKeys, index + 1, keys, index, keys.length - index);
+            System.arraycopy(children, 0, nodes, 0, index);
+            System.arraycopy(children, index + 1, nodes, index, nodes.length - index);
+            childKeys = keys.length == 0 ? NO_KEYS : keys;
+            children = nodes.length == 0 ? NO_CHILDREN : nodes;
+        }
+
+        private int bestPosting() {
+            return postingCount == 0 ? Integer.MIN_VALUE : scoreOf(postings[0]);
+        }
+
+        private void recomputeMaxScore() {
+            int max = bestPosting();
+            for (Node child : children) {
+                max = Math.max(max, child.maxScore);
+            }
+            maxScore = max;
+        }
+
+        private static char[] insert(char[] array, int index, char value) {
+            char[] grown = new char[array.length + 1];
+            System.arraycopy(array, 0, grown, 0, index);
+            grown[index] = value;
+            System.arraycopy(array, index, grown, index + 1, array.length - index);
+            return grown;
+        }
+    }
+
+
+    /* ==== Postings: (score, id) em um long, ordenado do melhor para o pior ==== */
+
+    // Parte alta = -score (maior score primeiro), parte baixa = id (desempate pelo menor id)
+    static long posting(int score, int id) {
+        return ((long) -score << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    static int scoreOf(long posting) {
+        return -(int) (posting >> 32);
+    }
+
+    static int idOf(long posting) {
+        return (int) posting;
+    }
+
+
+    /* ==== Escrita ==== */
+
+    void add(String key, int id, int score) {
+        List<Node> path = pathCreating(key);
+        Node node = path.get(path.size() - 1);
+        long posting = posting(score, id);
+        int index = Arrays.binarySearch(node.postings, 0, node.postingCount, posting);
+        if (index >= 0) {
+            return;
+        }
+        int insertAt = -index - 1;
+        if (node.postingCount == node.postings.length) {
+            node.postings = Arrays.copyOf(node.postings, Math.max(2, node.postingCount + (node.postingCount >> 1) + 1));
+        }
+        System.arraycopy(node.postings, insertAt, node.postings, insertAt + 1, node.postingCount - insertAt);
+        node.postings[insertAt] = posting;
+        node.postingCount++;
+        for (Node onPath : path) {
+            onPath.maxScore = Math.max(onPath.maxScore, score);
+        }
+    }
+
+    // Carga em lote (rebuild): postings já ordenados com posting(score, id), sem o custo de inserir um por um
+    void addSorted(String key, long[] sortedPostings, int count) {
+        if (count == 0) {
+            return;
+        }
+        List<Node> path = pathCreating(key);
+        Node node = path.get(path.size() - 1);
+        if (node.postingCount == 0) {
+            node.postings = Arrays.copyOf(sortedPostings, count);
+            node.postingCount = count;
+        } else {
+            long[] merged = Arrays.copyOf(node.postings, node.postingCount + count);
+            System.arraycopy(sortedPostings, 0, merged, node.postingCount, count);
+            Arrays.sort(merged);
+            node.postings = merged;
+            node.postingCount = merged.length;
+        }
+        int best = node.bestPosting();
+        for (Node onPath : path) {
+            onPath.maxScore = Math.max(onPath.maxScore, best);
+        }
+    }
+
+    void remove(String key, int id, int score) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        String rest = key;
+        while (!rest.isEmpty()) {
+            Node child = node.child(rest.charAt(0));
+            if (child == null || !rest.startsWith(child.label)) {
+                return;
+            }
+            rest = rest.substring(child.label.length());
+            node = child;
+            path.add(node);
+        }
+        int index = Arrays.binarySearch(node.postings, 0, node.postingCount, posting(score, id));
+        if (index < 0) {
+            return;
+        }
+        System.arraycopy(node.postings, index + 1, node.postings, index, node.postingCount - index - 1);
+        node.postingCount--;
+        if (node.postingCount == 0) {
+            node.postings = NO_POSTINGS;
+        }
+
+        // De baixo para cima: recalcula maxScore, apaga nós vazios e junta nós com um filho só (mantém a trie comprimida)
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node current = path.get(i);
+            Node parent = path.get(i - 1);
+            if (current.postingCount == 0 && current.children.length == 0) {
+                parent.removeChild(current.label.charAt(0));
+            } else if (current.postingCount == 0 && current.children.length == 1) {
+                Node only = current.children[0];
+                only.label = current.label + only.label;
+                parent.putChild(only);
+            } else {
+                current.recomputeMaxScore();
+            }
+        }
+        root.recomputeMaxScore();
+    }
+
+    // Caminho da raiz até o nó da chave, criando/dividindo nós quando necessário
+    private List<Node> pathCreating(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        String rest = key;
+        while (!rest.isEmpty()) {
+            Node child = node.child(rest.charAt(0));
+            if (child == null) {
+                child = new Node(rest);
+                node.putChild(child);
+                rest = "";
+            } else {
+                int common = commonPrefixLength(rest, child.label);
+                if (common < child.label.length()) {
+                    // Divide a aresta: node -> middle(label[0..common)) -> child(label[common..])
+                    Node middle = new Node(child.label.substring(0, common));
+                    child.label = child.label.substring(common);
+                    middle.putChild(child);
+                    middle.maxScore = child.maxScore;
+                    node.putChild(middle);
+                    child = middle;
+                }
+                rest = rest.substring(common);
+            }
+            node = child;
+            path.add(node);
+        }
+        return path;
+    }
+
+
+    /* ==== Leitura ==== */
+
+    // Os limit ids de maior pontuação entre as chaves que começam com prefix (um id aparece uma vez só)
+    List<Integer> top(String prefix, int limit) {
+        Node start = find(prefix);
+        if (start == null || limit <= 0) {
+            return List.of();
+        }
+
+        // Fila com dois tipos de candidato: nós (pela maior pontuação da subárvore) e cursores sobre os postings de um nó
+        // (pela pontuação do próximo posting). Um nó só é expandido quando pode ter algo melhor que tudo o que já está na fila.
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(Comparator.comparingInt(Candidate::score).reversed());
+        queue.add(new Candidate(start.maxScore, start, -1));
+        List<Integer> result = new ArrayList<>(limit);
+        Set<Integer> seen = new HashSet<>();
+        while (!queue.isEmpty() && result.size() < limit) {
+            Candidate candidate = queue.poll();
+            Node node = candidate.node();
+            if (candidate.position() >= 0) {
+                int id = idOf(node.postings[candidate.position()]);
+                if (seen.add(id)) {
+                    result.add(id);
+                }
+                int next = candidate.position() + 1;
+                if (next < node.postingCount) {
+                    queue.add(new Candidate(scoreOf(node.postings[next]), node, next));
+                }
+                continue;
+            }
+            if (node.postingCount > 0) {
+                queue.add(new Candidate(scoreOf(node.postings[0]), node, 0));
+            }
+            for (Node child : node.children) {
+                if (child.maxScore != Integer.MIN_VALUE) {
+                    queue.add(new Candidate(child.maxScore, child, -1));
+                }
+            }
+        }
+        return result;
+    }
+
+    private Node find(String prefix) {
+        Node node = root;
+        String rest = prefix;
+        while (!rest.isEmpty()) {
+            Node child = node.child(rest.charAt(0));
+            if (child == null) {
+                return null;
+            }
+            if (rest.length() <= child.label.length()) {
+                return child.label.startsWith(rest) ? child : null;
+            }
+            if (!rest.startsWith(child.label)) {
+                return null;
+            }
+            rest = rest.substring(child.label.length());
+            node = child;
+        }
+        return node;
+    }
+
+    private static int commonPrefixLength(String a, String b) {
+        int max = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    // position = -1: expandir o nó | position >= 0: cursor no posting daquela posição
+    private record Candidate(int score, Node node, int position) {
+    }
+
+}
+
+/* Anotação:
+ * Trie: Árvore em que cada caminho da raiz até um nó soletra um prefixo; todas as chaves com o mesmo prefixo ficam na mesma subárvore.
+ * Trie comprimida (radix tree): Nós com um filho só são fundidos, e a aresta guarda o trecho inteiro ("curso" em vez de c-u-r-s-o).
+ * Busca best-first: PriorityQueue ordenada pela maior pontuação possível de cada candidato; os N primeiros que saem são os N melhores.
+ *  - O custo depende de N e da profundidade, não de quantas chaves começam com o prefixo.
+ * Posting em um long: 8 bytes por (curso, termo), e Arrays.binarySearch/ordenação natural de long já dão a ordem do ranking.
+*/
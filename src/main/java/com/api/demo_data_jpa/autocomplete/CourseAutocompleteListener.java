@@ -0,0 +1,33 @@
+package com.api.demo_data_jpa.autocomplete;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.api.demo_data_jpa.model.Course;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+public class CourseAutocompleteListener {
+
+    // ObjectProvider evita a dependência circular EntityManagerFactory -> Listener -> Service -> Repository -> EntityManagerFactory.
+    @Autowired
+    private ObjectProvider<CourseAutocompleteService> courseAutocompleteService;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Course course) {
+        courseAutocompleteService.ifAvailable(service -> service.courseSaved(course.getId(), course.getName(), course.getDescription()));
+    }
+
+    @PostRemove
+    public void onRemove(Course course) {
+        courseAutocompleteService.ifAvailable(service -> service.courseRemoved(course.getId()));
+    }
+
+}
+
+/* Anotação:
+ * EntityListener do Course: mantém a trie do CourseAutocompleteService atualizada a cada INSERT, UPDATE e DELETE via JPA.
+*/
@@ -0,0 +1,283 @@
+package com.api.demo_data_jpa.autocomplete;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.api.demo_data_jpa.repository.CourseRepository;
+import com.api.demo_data_jpa.support.TransactionCallbacks;
+
+// Autocomplete do catálogo: prefixo -> N cursos mais relevantes, direto da memória (sem consulta ao banco depois do rebuild)
+@Service
+public class CourseAutocompleteService {
+
+    // Peso de cada tipo de termo; dentro do mesmo peso, nomes mais curtos primeiro
+    private static final int NAME_WEIGHT = 3;
+    private static final int NAME_WORD_WEIGHT = 2;
+    private static final int DESCRIPTION_WORD_WEIGHT = 1;
+
+    private static final int MIN_DESCRIPTION_WORD_LENGTH = 3;
+    private static final int MAX_DESCRIPTION_WORDS = 32;
+
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Rebuilds em fila (não bloqueia as consultas, que usam o lock acima); a leitura dos cursos acontece com a trava
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // Trocados juntos no rebuild(); as escritas incrementais seguram o write lock
+    private CompletionTrie trie = new CompletionTrie();
+    private Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+
+    // Cursos alterados (valor null = removido) enquanto um rebuild() lê o banco; reaplicados na trie nova antes da troca.
+    // Null fora de um rebuild. Protegido pelo write lock, como as escritas incrementais.
+    private Map<Integer, Entry> touchedDuringRebuild;
+
+    private volatile boolean ready = false;
+
+    public record CourseCompletion(Integer courseId, String name) {
+    }
+
+    // Nome e descrição originais: para exibir e para recalcular os termos quando o curso muda ou é removido
+    // (mais barato que guardar os termos de cada curso)
+    private record Entry(String name, String description) {
+    }
+
+
+    /* ==== Consulta ==== */
+
+    public List<CourseCompletion> complete(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        if (!ready) {
+            return courseRepository.findIdsAndNamesByNamePrefix(normalized, PageRequest.of(0, limit)).stream()
+                .map(row -> new CourseCompletion((Integer) row[0], (String) row[1]))
+                .toList();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<CourseCompletion> result = new ArrayList<>(limit);
+            for (Integer id : trie.top(normalized, limit)) {
+                Entry entry = entries.get(id);
+                if (entry != null) {
+                    result.add(new CourseCompletion(id, entry.name()));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    /* ==== Construção e reconciliação ==== */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    // Reconciliação periódica: cobre escritas fora do JPA que não avisaram o serviço
+    @Scheduled(
+        initialDelayString = "${app.course-autocomplete.reconcile-interval-ms:600000}",
+        fixedDelayString = "${app.course-autocomplete.reconcile-interval-ms:600000}"
+    )
+    public void reconcile() {
+        rebuild();
+    }
+
+    // Monta a trie nova por fora e troca de uma vez (as consultas continuam na antiga enquanto isso)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                touchedDuringRebuild = new HashMap<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            CompletionTrie newTrie = null;
+            Map<Integer, Entry> newEntries = new ConcurrentHashMap<>();
+            try {
+                // Agrupa os postings por termo e carrega cada termo já ordenado (inserir um por um seria O(n²) nos termos comuns)
+                Map<String, PostingList> postingsByTerm = new HashMap<>();
+                for (Object[] row : courseRepository.findAllIdsNamesAndDescriptions()) {
+                    Integer id = (Integer) row[0];
+                    Entry entry = new Entry((String) row[1], (String) row[2]);
+                    newEntries.put(id, entry);
+                    termsOf(entry).forEach((term, score) ->
+                        postingsByTerm.computeIfAbsent(term, key -> new PostingList()).add(CompletionTrie.posting(score, id)));
+                }
+                newTrie = new CompletionTrie();
+                for (Map.Entry<String, PostingList> term : postingsByTerm.entrySet()) {
+                    newTrie.addSorted(term.getKey(), term.getValue().sorted(), term.getValue().size);
+                }
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    if (newTrie != null) {
+                        // Um put/remove que commitou durante a leitura foi aplicado na trie antiga: repete na nova (o último estado vale)
+                        for (Map.Entry<Integer, Entry> touched : touchedDuringRebuild.entrySet()) {
+                            removeFrom(newTrie, newEntries, touched.getKey());
+                            if (touched.getValue() != null) {
+                                addTo(newTrie, newEntries, touched.getKey(), touched.getValue());
+                            }
+                        }
+                        trie = newTrie;
+                        entries = newEntries;
+                    }
+                    touchedDuringRebuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            ready = true;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+
+    /* ==== Atualizações incrementais (CourseAutocompleteListener e AggregatePersistService) ==== */
+
+    public void courseSaved(Integer id, String name, String description) {
+        TransactionCallbacks.afterCommit(() -> put(id, name, description));
+    }
+
+    public void courseRemoved(Integer id) {
+        TransactionCallbacks.afterCommit(() -> remove(id));
+    }
+
+    private void put(Integer id, String name, String description) {
+        if (id == null) {
+            return;
+        }
+        Entry entry = new Entry(name, description);
+        lock.writeLock().lock();
+        try {
+            removeFrom(trie, entries, id);
+            addTo(trie, entries, id, entry);
+            if (touchedDuringRebuild != null) {
+                touchedDuringRebuild.put(id, entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Integer id) {
+        lock.writeLock().lock();
+        try {
+            removeFrom(trie, entries, id);
+            if (touchedDuringRebuild != null) {
+                touchedDuringRebuild.put(id, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void addTo(CompletionTrie trie, Map<Integer, Entry> entries, Integer id, Entry entry) {
+        entries.put(id, entry);
+        termsOf(entry).forEach((term, score) -> trie.add(term, id, score));
+    }
+
+    private static void removeFrom(CompletionTrie trie, Map<Integer, Entry> entries, Integer id) {
+        Entry old = entries.remove(id);
+        if (old != null) {
+            termsOf(old).forEach((term, score) -> trie.remove(term, id, score));
+        }
+    }
+
+
+    /* ==== Termos ==== */
+
+    // Termo -> pontuação: nome inteiro ("introducao ao java"), cada palavra do nome ("java") e palavras da descrição
+    private static Map<String, Integer> termsOf(Entry entry) {
+        int lengthPenalty = entry.name() == null ? 0 : Math.min(entry.name().length(), 1023);
+        Map<String, Integer> scoreByTerm = new LinkedHashMap<>();
+
+        String normalizedName = normalize(entry.name());
+        if (!normalizedName.isEmpty()) {
+            scoreByTerm.put(normalizedName, NAME_WEIGHT * 1024 - lengthPenalty);
+        }
+        for (String word : normalizedName.split(" ")) {
+            if (!word.isEmpty()) {
+                scoreByTerm.putIfAbsent(word, NAME_WORD_WEIGHT * 1024 - lengthPenalty);
+            }
+        }
+        int descriptionWords = 0;
+        for (String word : normalize(entry.description()).split(" ")) {
+            if (word.length() >= MIN_DESCRIPTION_WORD_LENGTH && !scoreByTerm.containsKey(word)) {
+                scoreByTerm.put(word, DESCRIPTION_WORD_WEIGHT * 1024 - lengthPenalty);
+                if (++descriptionWords == MAX_DESCRIPTION_WORDS) {
+                    break;
+                }
+            }
+        }
+        return scoreByTerm;
+    }
+
+    // Lista de long que cresce (postings de um termo durante o rebuild)
+    private static final class PostingList {
+        private long[] values = new long[4];
+        private int size;
+
+        void add(long posting) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = posting;
+        }
+
+        long[] sorted() {
+            Arrays.sort(values, 0, size);
+            return values;
+        }
+    }
+
+    // "Introdução ao  Java!" -> "introducao ao java"
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String withoutAccents = ACCENTS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(withoutAccents.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+}
+
+/* Anotação:
+ * Normalizer.Form.NFD: Separa a letra do acento ("ç" -> "c" + cedilha); o regex \p{M} remove as marcas (acentos).
+ * ReentrantReadWriteLock: Várias consultas em paralelo (read lock); uma atualização por vez e sem consultas no meio (write lock).
+ * Ranking: nome inteiro > palavra do nome > palavra da descrição; empate -> nome mais curto.
+ *
+ * Observação:
+ *  - Antes do primeiro rebuild() as consultas vão para o banco de dados (LIKE 'prefixo%' no nome).
+ *  - Alterações incrementais que chegam durante um rebuild() são aplicadas na trie atual e repetidas na nova antes da troca.
+*/
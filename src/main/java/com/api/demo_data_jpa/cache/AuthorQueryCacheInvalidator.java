@@ -0,0 +1,172 @@
+package com.api.demo_data_jpa.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.api.demo_data_jpa.dto.AuthorDTO;
+import com.api.demo_data_jpa.model.Author;
+import com.api.demo_data_jpa.projection.AuthorView;
+import com.github.benmanes.caffeine.cache.Cache;
+
+@Component
+public class AuthorQueryCacheInvalidator {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final Map<String, InvalidationStats> stats = new ConcurrentHashMap<>();
+
+
+    /* ==== Eventos de escrita ==== */
+
+    // Uma linha mudou de (oldFirstName, oldAge) para (newFirstName, newAge).
+    // INSERT: old == null | DELETE: new == null | UPDATE: os dois preenchidos.
+    // Invalida somente as entradas cujo predicado aceita a linha antes OU depois da alteração.
+    public void rowChanged(String oldFirstName, Integer oldAge, String newFirstName, Integer newAge) {
+        invalidateAfterCommit((key, value) ->
+            (oldAge != null && key.matches(oldFirstName, oldAge))
+                || (newAge != null && key.matches(newFirstName, newAge)));
+    }
+
+    // DELETE FROM Author a WHERE a.age < :age
+    // Um DELETE só remove linhas, então só são afetadas as entradas que podem conter alguma linha com idade < age.
+    public void rowsDeletedYoungerThan(int age) {
+        invalidateAfterCommit((key, value) ->
+            key.overlapsAgeBelow(age) && (key.firstName() == null || containsAgeBelow(value, age)));
+    }
+
+
+    /* ==== Métricas ==== */
+
+    public InvalidationStats statsOf(String cacheName) {
+        return stats.computeIfAbsent(cacheName, name -> new InvalidationStats());
+    }
+
+
+    // Invalida depois do commit (um rollback não invalida nada) e mede a partir do beforeCommit:
+    // entre o commit e o fim da varredura, o cache ainda pode responder com a linha antiga.
+    private void invalidateAfterCommit(BiPredicate<AuthorQueryKey, Object> affected) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Sem transação do chamador: o @Transactional do repository já fez o commit
+            invalidateWhere(affected, System.nanoTime());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long commitStartedNanos = System.nanoTime();
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commitStartedNanos = System.nanoTime();
+            }
+
+            @Override
+            public void afterCommit() {
+                invalidateWhere(affected, commitStartedNanos);
+            }
+        });
+    }
+
+    private void invalidateWhere(BiPredicate<AuthorQueryKey, Object> affected, long commitStartedNanos) {
+        for (String cacheName : AuthorQueryCaches.ALL) {
+            if (!(cacheManager.getCache(cacheName) instanceof CaffeineCache caffeineCache)) {
+                continue;
+            }
+            // A geração muda antes da varredura: um carregamento em andamento não grava o valor antigo depois dela
+            if (caffeineCache instanceof GenerationalCaffeineCache generational) {
+                generational.nextGeneration();
+            }
+            Cache<Object, Object> nativeCache = caffeineCache.getNativeCache();
+            int[] invalidated = { 0 };
+            nativeCache.asMap().forEach((key, value) -> {
+                if (key instanceof AuthorQueryKey queryKey && affected.test(queryKey, value)) {
+                    nativeCache.invalidate(key);
+                    invalidated[0]++;
+                }
+            });
+            if (invalidated[0] > 0) {
+                statsOf(cacheName).record(invalidated[0], System.nanoTime() - commitStartedNanos);
+            }
+        }
+    }
+
+    // Verifica o conteúdo cacheado (Author, AuthorView ou AuthorDTO) procurando alguma idade < age.
+    // Tipos desconhecidos são tratados como afetados.
+    private static boolean containsAgeBelow(Object value, int age) {
+        if (!(value instanceof List<?> rows)) {
+            return true;
+        }
+        for (Object row : rows) {
+            int rowAge;
+            if (row instanceof Author author) {
+                rowAge = author.getAge();
+            } else if (row instanceof AuthorView view) {
+                rowAge = view.getAge();
+            } else if (row instanceof AuthorDTO dto) {
+                rowAge = dto.age();
+            } else {
+                return true;
+            }
+            if (rowAge < age) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    public static class InvalidationStats {
+
+        private final LongAdder invalidations = new LongAdder();
+        private final LongAdder commits = new LongAdder();
+        private final LongAdder totalLagNanos = new LongAdder();
+        private final LongAccumulator maxLagNanos = new LongAccumulator(Math::max, 0);
+
+        void record(int entries, long lagNanos) {
+            invalidations.add(entries);
+            commits.increment();
+            totalLagNanos.add(lagNanos);
+            maxLagNanos.accumulate(lagNanos);
+        }
+
+        // Entradas removidas
+        public long getInvalidations() {
+            return invalidations.sum();
+        }
+
+        // Atraso médio (µs) entre o início do commit e o fim da invalidação deste cache:
+        // a janela em que uma leitura pelo cache ainda devolve o que o banco já não tem
+        public double getAverageLagMicros() {
+            long count = commits.sum();
+            return count == 0 ? 0.0 : totalLagNanos.sum() / 1_000.0 / count;
+        }
+
+        public long getMaxLagMicros() {
+            return maxLagNanos.get() / 1_000;
+        }
+
+    }
+
+}
+
+/* Anotação:
+ * CaffeineCache.getNativeCache(): Acessa o cache do Caffeine por trás do cache do Spring, permitindo percorrer as chaves.
+ * TransactionSynchronization: beforeCommit marca o início do commit; afterCommit invalida.
+ * LongAccumulator(Math::max, 0): Acumulador concorrente que guarda o maior valor registrado.
+ *
+ * Observação:
+ *  - Não usamos @CacheEvict(allEntries = true): um UPDATE em um autor só invalida as consultas que poderiam conter esse autor.
+ *  - A invalidação acontece depois do commit, então um leitor concorrente nunca recoloca no cache um valor que foi desfeito por rollback.
+ *  - Uma leitura que começou antes do commit e termina depois da invalidação não grava o valor antigo: a geração do cache mudou (GenerationalCaffeineCache).
+ *  - O atraso medido inclui o próprio commit e os outros afterCommit registrados antes; é um limite superior da janela.
+*/
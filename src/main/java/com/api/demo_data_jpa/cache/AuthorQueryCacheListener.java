@@ -0,0 +1,43 @@
+package com.api.demo_data_jpa.cache;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.api.demo_data_jpa.model.Author;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+public class AuthorQueryCacheListener {
+
+    // ObjectProvider evita a dependência circular EntityManagerFactory -> Listener -> Invalidator.
+    @Autowired
+    private ObjectProvider<AuthorQueryCacheInvalidator> invalidator;
+
+    @PostPersist
+    public void onPersist(Author author) {
+        invalidator.ifAvailable(i -> i.rowChanged(null, null, author.getFirstName(), author.getAge()));
+    }
+
+    // persistedFirstName/persistedAge ainda guardam o estado anterior (ver Author.snapshotPersistedState).
+    @PostUpdate
+    public void onUpdate(Author author) {
+        invalidator.ifAvailable(i -> i.rowChanged(
+            author.getPersistedFirstName(), author.getPersistedAge(),
+            author.getFirstName(), author.getAge()));
+    }
+
+    @PostRemove
+    public void onRemove(Author author) {
+        invalidator.ifAvailable(i -> i.rowChanged(
+            author.getPersistedFirstName(), author.getPersistedAge() != null ? author.getPersistedAge() : author.getAge(),
+            null, null));
+    }
+
+}
+
+/* Anotação:
+ * EntityListener do Author que invalida o cache de consultas (AuthorQueryCaches) a cada INSERT, UPDATE e DELETE feito pelo JPA.
+ * Queries @Modifying não disparam esses eventos; elas são tratadas no AuthorModifyingQueryAspect.
+*/
@@ -0,0 +1,81 @@
+package com.api.demo_data_jpa.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+@Component
+public class AuthorQueryCacheMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthorQueryCacheMetrics.class);
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private AuthorQueryCacheInvalidator invalidator;
+
+    // Métricas de um cache: taxa de acerto (Caffeine) e atraso da invalidação (do início do commit até a entrada sair do cache).
+    public record Snapshot(
+            String cacheName,
+            long size,
+            long hitCount,
+            long missCount,
+            double hitRate,
+            long evictionCount,
+            long invalidations,
+            double averageInvalidationLagMicros,
+            long maxInvalidationLagMicros) {
+    }
+
+    public List<Snapshot> snapshot() {
+        List<Snapshot> snapshots = new ArrayList<>();
+        for (String cacheName : AuthorQueryCaches.ALL) {
+            if (!(cacheManager.getCache(cacheName) instanceof CaffeineCache caffeineCache)) {
+                continue;
+            }
+            CacheStats stats = caffeineCache.getNativeCache().stats();
+            AuthorQueryCacheInvalidator.InvalidationStats invalidationStats = invalidator.statsOf(cacheName);
+            snapshots.add(new Snapshot(
+                cacheName,
+                caffeineCache.getNativeCache().estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount(),
+                invalidationStats.getInvalidations(),
+                invalidationStats.getAverageLagMicros(),
+                invalidationStats.getMaxLagMicros()));
+        }
+        return snapshots;
+    }
+
+    // Publica as métricas no log periodicamente
+    @Scheduled(
+        initialDelayString = "${app.author-query-cache.metrics-log-interval-ms:60000}",
+        fixedDelayString = "${app.author-query-cache.metrics-log-interval-ms:60000}"
+    )
+    public void logSnapshot() {
+        for (Snapshot s : snapshot()) {
+            log.info("cache={} size={} hits={} misses={} hitRate={} evictions={} invalidations={} avgInvalidationLagUs={} maxInvalidationLagUs={}",
+                s.cacheName(), s.size(), s.hitCount(), s.missCount(), String.format("%.3f", s.hitRate()),
+                s.evictionCount(), s.invalidations(), String.format("%.1f", s.averageInvalidationLagMicros()), s.maxInvalidationLagMicros());
+        }
+    }
+
+}
+
+/* Anotação:
+ * CacheStats (Caffeine): hitCount, missCount, hitRate e evictionCount (remoções por tamanho/expiração). Requer recordStats() no CacheConfig.
+ * estimatedSize(): Número aproximado de entradas no cache.
+ * Logger (SLF4J): API de log usada pelo Spring Boot (implementação Logback).
+*/
@@ -0,0 +1,87 @@
+package com.api.demo_data_jpa.cache;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import com.api.demo_data_jpa.dto.AuthorDTO;
+import com.api.demo_data_jpa.model.Author;
+import com.api.demo_data_jpa.projection.AuthorView;
+import com.api.demo_data_jpa.repository.AuthorRepository;
+
+@Component
+public class AuthorQueryCaches {
+
+    public static final String AUTHORS_BY_AGE_BETWEEN = "authorsByAgeBetween";
+    public static final String AUTHORS_BY_FIRST_NAME = "authorsByFirstName";
+    public static final String AUTHOR_VIEWS_BY_AGE_LESS_THAN_EQUAL = "authorViewsByAgeLessThanEqual";
+    public static final String AUTHOR_VIEWS_BY_FIRST_NAME = "authorViewsByFirstName";
+    public static final String AUTHOR_DTOS_BY_AGE_GREATER_THAN = "authorDTOsByAgeGreaterThan";
+
+    public static final List<String> ALL = List.of(
+        AUTHORS_BY_AGE_BETWEEN,
+        AUTHORS_BY_FIRST_NAME,
+        AUTHOR_VIEWS_BY_AGE_LESS_THAN_EQUAL,
+        AUTHOR_VIEWS_BY_FIRST_NAME,
+        AUTHOR_DTOS_BY_AGE_GREATER_THAN
+    );
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    // OBS: As entidades retornadas são compartilhadas entre chamadas e estão detached.
+    // Devem ser tratadas como somente leitura, e coleções LAZY (books, courses) não estão carregadas.
+
+    // Cache de authorRepository.findByAgeBetween
+    @Cacheable(sync = true, cacheNames = AUTHORS_BY_AGE_BETWEEN, key = "T(com.api.demo_data_jpa.cache.AuthorQueryKey).ageBetween(#p0, #p1)")
+    public List<Author> findByAgeBetween(int start, int end) {
+        return authorRepository.findByAgeBetween(start, end);
+    }
+
+    // Cache de authorRepository.findAllByFirstName
+    @Cacheable(sync = true, cacheNames = AUTHORS_BY_FIRST_NAME, key = "T(com.api.demo_data_jpa.cache.AuthorQueryKey).firstName(#p0)")
+    public List<Author> findAllByFirstName(String firstName) {
+        return authorRepository.findAllByFirstName(firstName);
+    }
+
+    // Cache de authorRepository.buscarPorNome (NamedQuery Author.findByFirstName)
+    // Mesmo predicado do findAllByFirstName, por isso compartilha o mesmo cache e a mesma chave.
+    @Cacheable(sync = true, cacheNames = AUTHORS_BY_FIRST_NAME, key = "T(com.api.demo_data_jpa.cache.AuthorQueryKey).firstName(#p0)")
+    public List<Author> buscarPorNome(String firstName) {
+        return authorRepository.buscarPorNome(firstName);
+    }
+
+    // Cache de authorRepository.findByAgeLessThanEqual (projeção AuthorView)
+    @Cacheable(sync = true, cacheNames = AUTHOR_VIEWS_BY_AGE_LESS_THAN_EQUAL, key = "T(com.api.demo_data_jpa.cache.AuthorQueryKey).ageLessThanEqual(#p0)")
+    public List<AuthorView> findByAgeLessThanEqual(int age) {
+        return authorRepository.findByAgeLessThanEqual(age);
+    }
+
+    // Cache de authorRepository.findByFirstName (projeção AuthorView)
+    @Cacheable(sync = true, cacheNames = AUTHOR_VIEWS_BY_FIRST_NAME, key = "T(com.api.demo_data_jpa.cache.AuthorQueryKey).firstName(#p0)")
+    public List<AuthorView> findByFirstName(String firstName) {
+        return authorRepository.findByFirstName(firstName);
+    }
+
+    // Cache de authorRepository.buscarAutoresDTO (DTO AuthorDTO)
+    @Cacheable(sync = true, cacheNames = AUTHOR_DTOS_BY_AGE_GREATER_THAN, key = "T(com.api.demo_data_jpa.cache.AuthorQueryKey).ageGreaterThan(#p0)")
+    public List<AuthorDTO> buscarAutoresDTO(int age) {
+        return authorRepository.buscarAutoresDTO(age);
+    }
+
+}
+
+/* Anotação:
+ * @Cacheable: Antes de executar o método, procura o resultado no cache; se não encontrar, executa e guarda o retorno.
+ *      - cacheNames: Nome do cache (configurado no CacheConfig).
+ *      - key: Expressão SpEL da chave. #p0, #p1 são os parâmetros do método pela posição.
+ *      - T(...): Acessa um tipo Java na SpEL (aqui, os métodos estáticos de AuthorQueryKey).
+ *      - sync = true: Carrega pelo Cache.get(key, loader); leitores da mesma chave esperam um único carregamento,
+ *        e o GenerationalCaffeineCache consegue saber quando o carregamento começou.
+ *
+ * Observação:
+ *  - O @Cacheable funciona via proxy: chamadas internas (this.metodo()) não passam pelo cache.
+ *  - A invalidação é feita pelo AuthorQueryCacheInvalidator, somente nas entradas cujo predicado pode ter sido afetado.
+*/
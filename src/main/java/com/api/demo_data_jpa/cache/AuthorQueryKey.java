@@ -0,0 +1,40 @@
+package com.api.demo_data_jpa.cache;
+
+// Chave de cache que também descreve o predicado da consulta: (firstName opcional) E (idade entre minAge e maxAge).
+// Como toda consulta cacheada do AuthorRepository cabe nesse formato, a invalidação consegue
+// decidir se uma linha alterada pode pertencer (antes ou depois da alteração) ao resultado cacheado.
+public record AuthorQueryKey(String firstName, int minAge, int maxAge) {
+
+    // SQL: WHERE age BETWEEN :start AND :end
+    public static AuthorQueryKey ageBetween(int start, int end) {
+        return new AuthorQueryKey(null, start, end);
+    }
+
+    // SQL: WHERE age <= :age
+    public static AuthorQueryKey ageLessThanEqual(int age) {
+        return new AuthorQueryKey(null, Integer.MIN_VALUE, age);
+    }
+
+    // SQL: WHERE age > :age
+    public static AuthorQueryKey ageGreaterThan(int age) {
+        return new AuthorQueryKey(null, age == Integer.MAX_VALUE ? age : age + 1, Integer.MAX_VALUE);
+    }
+
+    // SQL: WHERE first_name = :firstName
+    public static AuthorQueryKey firstName(String firstName) {
+        return new AuthorQueryKey(firstName, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    // A linha (firstName, age) satisfaz o predicado desta consulta?
+    public boolean matches(String rowFirstName, int rowAge) {
+        return (firstName == null || firstName.equals(rowFirstName))
+            && rowAge >= minAge
+            && rowAge <= maxAge;
+    }
+
+    // Alguma linha com idade menor que "age" pode satisfazer o predicado? (somente pelo intervalo de idade)
+    public boolean overlapsAgeBelow(int age) {
+        return minAge < age;
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.api.demo_data_jpa.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+// CaffeineCache que não guarda um valor carregado antes de uma invalidação.
+// Um leitor que consultou o banco antes do commit e termina depois da invalidação traria o valor antigo de volta para o cache;
+// aqui o loader anota a geração ao começar e, se ela mudou até o valor ser gravado, a entrada é removida de novo.
+public class GenerationalCaffeineCache extends CaffeineCache {
+
+    private final AtomicLong generation = new AtomicLong();
+
+    public GenerationalCaffeineCache(String name, Cache<Object, Object> cache, boolean allowNullValues) {
+        super(name, cache, allowNullValues);
+    }
+
+    // Chamado pelo AuthorQueryCacheInvalidator ANTES de percorrer as entradas:
+    // ou o leitor vê a geração nova e remove o próprio valor, ou o valor já está no mapa quando a varredura passa.
+    public void nextGeneration() {
+        generation.incrementAndGet();
+    }
+
+    // Caminho do @Cacheable(sync = true): o Caffeine carrega uma vez por chave (computeIfAbsent) e este método confere a geração.
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        long[] loadedAt = { -1 };
+        T value = super.get(key, () -> {
+            loadedAt[0] = generation.get();
+            return valueLoader.call();
+        });
+        if (loadedAt[0] >= 0 && generation.get() != loadedAt[0] && value != null) {
+            // remove(key, value): só a entrada que este leitor gravou, não um valor novo carregado por outra thread
+            getNativeCache().asMap().remove(key, value);
+        }
+        return value;
+    }
+
+}
+
+/* Anotação:
+ * CaffeineCache: Implementação do Cache do Spring sobre o Caffeine; a subclasse continua sendo CaffeineCache para o invalidador e as métricas.
+ * get(key, valueLoader): Usado pelo @Cacheable(sync = true); os outros leitores da mesma chave esperam o carregamento em vez de consultar o banco junto.
+ * AtomicLong generation: Contador de invalidações deste cache.
+ *
+ * Observação:
+ *  - Qualquer invalidação durante o carregamento descarta o valor, mesmo que não afete esta chave: custa um miss a mais, nunca um valor velho.
+ *  - O leitor que fez a consulta ainda recebe o valor que carregou (ele leu antes do commit); só o cache deixa de guardá-lo.
+*/
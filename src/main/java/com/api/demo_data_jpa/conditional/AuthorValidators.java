@@ -0,0 +1,153 @@
+package com.api.demo_data_jpa.conditional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import com.api.demo_data_jpa.config.BinaryFormatConfig;
+import com.api.demo_data_jpa.filter.AuthorFilter;
+import com.api.demo_data_jpa.projection.EntityVersionView;
+import com.api.demo_data_jpa.repository.AuthorRepository;
+import com.api.demo_data_jpa.repository.BookRepository;
+import com.api.demo_data_jpa.specification.AuthorFilterQueryPlanCache;
+
+// ETag e Last-Modified das respostas da API de autores, calculados só com id/versão/lastModifiedAt
+// (consultas de metadados: nenhuma entidade é carregada e nada é serializado).
+//  - Um autor: "author-{id}-v{version}".
+//  - Uma página (busca ou livros): hash dos pares id:versão da página + total de elementos; qualquer alteração,
+//    inclusão ou exclusão que mude a página muda o ETag.
+@Component
+public class AuthorValidators {
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorFilterQueryPlanCache filterPlans;
+
+    // etag já entre aspas (ETag forte); lastModifiedMillis = -1 quando não há data
+    public record Validators(String etag, long lastModifiedMillis) {
+
+        // ETag forte é por representação: o mesmo autor em CBOR ou Smile tem outro corpo ("author-1-v3-cbor"); JSON mantém o ETag original
+        public Validators forAccept(String accept) {
+            String format = binaryFormatOf(accept);
+            return format == null ? this : new Validators(etag.substring(0, etag.length() - 1) + "-" + format + "\"", lastModifiedMillis);
+        }
+    }
+
+    public Optional<Validators> author(Integer id) {
+        return authorRepository.findVersionById(id).map(row ->
+            new Validators("\"author-" + row.getId() + "-v" + row.getVersion() + "\"", toMillis(row.getLastModifiedAt())));
+    }
+
+    // Mesmo filtro, ordem e página que o findAll do controller, pelo plano compilado do formato do filtro, selecionando só 3 colunas
+    public Validators authorPage(AuthorFilter filter, Pageable pageable) {
+        Page<Object[]> rows = filterPlans.findVersions(filter, pageable);
+        Tag tag = new Tag("authors", rows.getTotalElements());
+        for (Object[] row : rows) {
+            tag.add((Integer) row[0], (Long) row[1], (LocalDateTime) row[2]);
+        }
+        return tag.validators();
+    }
+
+    // Vazio = autor não existe
+    public Optional<Validators> books(Integer authorId, Pageable pageable) {
+        Page<EntityVersionView> page = bookRepository.findVersionsByAuthorId(authorId, pageable);
+        if (page.getTotalElements() == 0 && !authorRepository.existsById(authorId)) {
+            return Optional.empty();
+        }
+        Tag tag = new Tag("books-" + authorId, page.getTotalElements());
+        for (EntityVersionView row : page) {
+            tag.add(row.getId(), row.getVersion(), row.getLastModifiedAt());
+        }
+        return Optional.of(tag.validators());
+    }
+
+    // Mesma escolha dos conversores (ordem JSON, Smile, CBOR): o tipo aceito de maior qualidade/especificidade que um deles produz
+    private static String binaryFormatOf(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return null;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return null;   // o Spring responde 400/406 depois
+        }
+        MimeTypeUtils.sortBySpecificity(mediaTypes);
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return null;
+            }
+            if (mediaType.isCompatibleWith(BinaryFormatConfig.APPLICATION_SMILE)) {
+                return "smile";
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return "cbor";
+            }
+        }
+        return null;
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        // @LastModifiedDate grava LocalDateTime.now() (fuso do servidor)
+        return dateTime == null ? -1 : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // Acumula as linhas de uma página: SHA-256 de "total|id:versão|id:versão..." (truncado em 128 bits) e a maior data de alteração
+    private static final class Tag {
+
+        private final String prefix;
+        private final MessageDigest digest;
+        private LocalDateTime lastModified;
+
+        private Tag(String prefix, long total) {
+            this.prefix = prefix;
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+            digest.update(Long.toString(total).getBytes(StandardCharsets.US_ASCII));
+        }
+
+        private void add(Integer id, Long version, LocalDateTime lastModifiedAt) {
+            digest.update(("|" + id + ":" + version).getBytes(StandardCharsets.US_ASCII));
+            if (lastModifiedAt != null && (lastModified == null || lastModifiedAt.isAfter(lastModified))) {
+                lastModified = lastModifiedAt;
+            }
+        }
+
+        private Validators validators() {
+            String hash = HexFormat.of().formatHex(digest.digest(), 0, 16);
+            return new Validators("\"" + prefix + "-" + hash + "\"", toMillis(lastModified));
+        }
+    }
+
+}
+
+/* Anotação:
+ * ETag forte: Muda sempre que a representação muda. Aqui a base é o @Version, incrementado em todo UPDATE
+ *  (inclusive nos UPDATEs em JPQL do AuthorRepository, que somam 1 na versão), então duas respostas com o mesmo ETag são iguais.
+ * Last-Modified: Só tem precisão de segundos e não enxerga exclusões nem UPDATEs em JPQL (não passam pelo @LastModifiedDate).
+ *  - Por isso o If-None-Match (ETag) tem prioridade: o If-Modified-Since só é usado por clientes que não mandam ETag.
+ * AuthorFilterQueryPlanCache.findVersions: A query "versions" do formato do filtro seleciona só id, version e lastModifiedAt.
+ * Validators.forAccept(): JSON, CBOR e Smile da mesma versão têm corpos diferentes, então cada um tem seu ETag (o controller manda Vary: Accept).
+ *  - MimeTypeUtils.sortBySpecificity: ordena o Accept por qualidade (q=) e especificidade, como a negociação de conteúdo do Spring MVC.
+*/
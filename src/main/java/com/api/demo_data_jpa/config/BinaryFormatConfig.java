@@ -0,0 +1,43 @@
+package com.api.demo_data_jpa.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+// Formatos binários para a API (mesmo esquema do JSON, negociado pelo Accept):
+//  - Accept: application/cbor          -> CBOR (RFC 8949)
+//  - Accept: application/x-jackson-smile -> Smile
+//  - sem Accept, */* ou application/json -> JSON, como antes.
+// Os ObjectMappers saem do mesmo Jackson2ObjectMapperBuilder do JSON (spring.jackson.*, JavaTimeModule, ApiJsonModule),
+// então campos, nulls e datas (ISO-8601 em texto) são iguais nos três formatos.
+@Configuration
+public class BinaryFormatConfig {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+}
+
+/* Anotação:
+ * Jackson2ObjectMapperBuilder (bean do Spring Boot, escopo prototype): Cada injeção recebe um builder novo já configurado.
+ *  - factory(): Troca o JsonFactory pelo do formato binário; o ObjectMapper continua o mesmo (serializadores, módulos, features).
+ * HttpMessageConverter como @Bean: O Spring Boot coloca o bean no lugar do conversor padrão da mesma classe.
+ *  - A ordem continua JSON, Smile, CBOR: com Accept de qualquer tipo (ou sem Accept) a resposta segue em JSON.
+ * CBOR: Números e tamanhos em binário, strings em UTF-8 sem aspas nem escapes; nomes dos campos repetidos em cada objeto.
+ * Smile: Formato binário do Jackson; nomes de campos repetidos viram referências curtas para a primeira ocorrência.
+*/
@@ -0,0 +1,55 @@
+package com.api.demo_data_jpa.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.api.demo_data_jpa.cache.AuthorQueryCaches;
+import com.api.demo_data_jpa.cache.GenerationalCaffeineCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${app.author-query-cache.maximum-size:1000}") long maximumSize,
+            @Value("${app.author-query-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+
+        // Cada cache é um GenerationalCaffeineCache: um carregamento que cruzou uma invalidação não fica no cache
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return new GenerationalCaffeineCache(name, cache, isAllowNullValues());
+            }
+        };
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)              // Limite de entradas por cache (eviction por frequência/recência - W-TinyLFU)
+                .expireAfterWrite(expireAfterWrite)    // Limite de "staleness" para escritas que não passam pelo JPA nem pelo AuthorModifyingQueryAspect
+                .recordStats());                       // Habilita hit/miss/eviction para o AuthorQueryCacheMetrics
+        cacheManager.setCacheNames(AuthorQueryCaches.ALL);
+        cacheManager.setAllowNullValues(false);
+        return cacheManager;
+    }
+
+}
+
+/* Anotação:
+ * @Configuration: Indica que a classe declara beans do Spring (@Bean).
+ * @EnableCaching: Habilita o processamento das anotações @Cacheable, @CacheEvict e @CachePut.
+ * CaffeineCacheManager: CacheManager do Spring que usa o Caffeine (cache em memória com limite de tamanho e expiração).
+ *      - setCacheNames: Cria os caches de forma fixa (não cria caches dinâmicos para nomes desconhecidos).
+ *      - setAllowNullValues(false): Não guarda null no cache.
+ *      - adaptCaffeineCache: Ponto de extensão que cria o Cache do Spring em volta de cada cache do Caffeine.
+ * Caffeine.newBuilder():
+ *      - maximumSize: Número máximo de entradas; ao passar do limite, as menos úteis são removidas.
+ *      - expireAfterWrite: Remove a entrada depois do tempo informado desde que ela foi gravada.
+ *      - recordStats: Mantém estatísticas (hitCount, missCount, evictionCount).
+*/
@@ -0,0 +1,51 @@
+package com.api.demo_data_jpa.content;
+
+// Intervalo de bytes [start, end] (end inclusive, como no cabeçalho Content-Range)
+public record ByteRange(long start, long end, boolean partial) {
+
+    public long length() {
+        return end - start + 1;
+    }
+
+    public String contentRange(long size) {
+        return "bytes " + start + "-" + end + "/" + size;
+    }
+
+    public static ByteRange full(long size) {
+        return new ByteRange(0, size - 1, false);
+    }
+
+    // Range: bytes=0-499 | bytes=500- | bytes=-500 (últimos 500 bytes)
+    // Sem cabeçalho, com vários intervalos ou com sintaxe inválida: conteúdo inteiro (o servidor pode ignorar o Range).
+    // Intervalo fora do arquivo: null (416 Range Not Satisfiable).
+    public static ByteRange parse(String header, long size) {
+        if (header == null || !header.startsWith("bytes=") || header.contains(",")) {
+            return full(size);
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return full(size);
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) {
+                    return null;
+                }
+                return new ByteRange(Math.max(size - suffix, 0), size - 1, true);
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            if (start >= size || end < start) {
+                return null;
+            }
+            return new ByteRange(start, end, true);
+        } catch (NumberFormatException e) {
+            return full(size);
+        }
+    }
+
+}
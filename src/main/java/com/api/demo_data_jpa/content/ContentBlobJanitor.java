@@ -0,0 +1,50 @@
+package com.api.demo_data_jpa.content;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.api.demo_data_jpa.repository.ResourceRepository;
+
+// Blobs são compartilhados entre Resources, então não dá para apagar o arquivo quando um Resource troca de conteúdo.
+// A limpeza é periódica: apaga o que nenhum Resource referencia (e uploads abandonados), respeitando um período de carência.
+@Component
+public class ContentBlobJanitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentBlobJanitor.class);
+
+    @Autowired
+    private LocalContentStore contentStore;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    // Carência: um blob recém-gravado ainda pode estar esperando o Resource ser ligado a ele
+    @Value("${app.content-store.orphan-grace-ms:3600000}")
+    private long graceMillis;
+
+    @Scheduled(
+        initialDelayString = "${app.content-store.sweep-interval-ms:3600000}",
+        fixedDelayString = "${app.content-store.sweep-interval-ms:3600000}"
+    )
+    public void sweep() throws IOException {
+        Duration grace = Duration.ofMillis(graceMillis);
+        int aborted = contentStore.abortStale(grace);
+        int deleted = contentStore.deleteUnreferenced(resourceRepository.findAllContentHashes(), grace);
+        if (aborted > 0 || deleted > 0) {
+            log.info("Content store: {} blobs sem referência apagados, {} uploads abandonados descartados", deleted, aborted);
+        }
+    }
+
+}
+
+/* Anotação:
+ * Coleta de lixo por marcação: O banco diz quais hashes estão em uso (marcação); o que sobra no disco é apagado (varredura).
+ * @Scheduled: Executa o método periodicamente. Requer @EnableScheduling na aplicação.
+*/
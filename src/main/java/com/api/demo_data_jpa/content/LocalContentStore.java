@@ -0,0 +1,348 @@
+package com.api.demo_data_jpa.content;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+// Content store endereçado por conteúdo: cada blob fica uma única vez em <root>/blobs/<2 primeiros>/<sha-256>,
+// e os Resources apontam para ele pelo contentHash (bytes iguais em cursos diferentes = um arquivo só em disco).
+@Component
+public class LocalContentStore {
+
+    private static final String ALGORITHM = "SHA-256";
+    private static final Pattern DIGEST = Pattern.compile("[0-9a-f]{64}");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Value("${app.content-store.root:./content-store}")
+    private Path root;
+
+    private Path blobs;
+    private Path uploads;
+
+    // Uploads em andamento (em memória: um upload interrompido por restart precisa recomeçar)
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    private final LongAdder logicalBytes = new LongAdder();
+    private final LongAdder storedBytes = new LongAdder();
+    private final LongAdder completedUploads = new LongAdder();
+    private final LongAdder deduplicatedUploads = new LongAdder();
+    private final LongAdder uploadNanos = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        blobs = root.resolve("blobs");
+        uploads = root.resolve("uploads");
+        try {
+            Files.createDirectories(blobs);
+            Files.createDirectories(uploads);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível criar o diretório do content store: " + root, e);
+        }
+    }
+
+
+    /* ==== Upload em partes ==== */
+
+    public String begin(Integer resourceId) throws IOException {
+        String uploadId = UUID.randomUUID().toString();
+        Path part = uploads.resolve(uploadId + ".part");
+        Files.createFile(part);
+        sessions.put(uploadId, new UploadSession(resourceId, part, newDigest()));
+        return uploadId;
+    }
+
+    // Acrescenta uma parte no fim do arquivo temporário e atualiza o hash no mesmo passo (o arquivo não é relido no final).
+    // As partes precisam chegar em ordem: offset diferente do já recebido -> IllegalStateException (o cliente reenvia a partir de received()).
+    public long append(String uploadId, Integer resourceId, long offset, InputStream chunk) throws IOException {
+        UploadSession session = session(uploadId, resourceId);
+        session.lock.lock();
+        try {
+            checkOpen(uploadId, session);
+            if (offset != session.received) {
+                throw new IllegalStateException("Offset " + offset + " inválido para o upload " + uploadId + " (recebido: " + session.received + ")");
+            }
+            long start = System.nanoTime();
+            try (FileChannel channel = FileChannel.open(session.part, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = chunk.read(buffer)) != -1) {
+                    ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, read);
+                    while (bytes.hasRemaining()) {
+                        channel.write(bytes);
+                    }
+                    session.digest.update(buffer, 0, read);
+                    session.received += read;
+                    // A cada buffer, não só no fim da parte: uma parte lenta de vários minutos não parece abandonada para o abortStale
+                    session.lastTouched = Instant.now();
+                }
+            }
+            uploadNanos.add(System.nanoTime() - start);
+            return session.received;
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    public long received(String uploadId, Integer resourceId) {
+        UploadSession session = session(uploadId, resourceId);
+        session.lock.lock();
+        try {
+            return session.received;
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    // Fecha o hash: se o blob já existe o arquivo temporário é descartado (deduplicação), senão vira o blob
+    public StoredBlob complete(String uploadId, Integer resourceId) throws IOException {
+        UploadSession session = session(uploadId, resourceId);
+        session.lock.lock();
+        try {
+            checkOpen(uploadId, session);
+            sessions.remove(uploadId);
+            String digest = HexFormat.of().formatHex(session.digest.digest());
+            Path target = blobPath(digest);
+            boolean deduplicated = Files.exists(target);
+            if (!deduplicated) {
+                Files.createDirectories(target.getParent());
+                deduplicated = !publish(session.part, target);
+                if (!deduplicated) {
+                    storedBytes.add(session.received);
+                }
+            }
+            Files.deleteIfExists(session.part);
+            if (deduplicated) {
+                // Toca no blob para o ContentBlobJanitor não apagá-lo antes do Resource ser ligado a ele
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                deduplicatedUploads.increment();
+            }
+            logicalBytes.add(session.received);
+            completedUploads.increment();
+            return new StoredBlob(digest, session.received, deduplicated);
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    // Cliente que já sabe o hash do arquivo: se o blob existe, nem precisa enviar os bytes
+    public Optional<StoredBlob> reuse(String digest) throws IOException {
+        Optional<Path> path = find(digest);
+        if (path.isEmpty()) {
+            return Optional.empty();
+        }
+        Files.setLastModifiedTime(path.get(), FileTime.from(Instant.now()));
+        long size = Files.size(path.get());
+        logicalBytes.add(size);
+        completedUploads.increment();
+        deduplicatedUploads.increment();
+        return Optional.of(new StoredBlob(digest, size, true));
+    }
+
+    // Espera a parte em andamento (se houver) terminar antes de apagar o arquivo temporário
+    public void abort(String uploadId) throws IOException {
+        UploadSession session = sessions.get(uploadId);
+        if (session == null) {
+            return;
+        }
+        session.lock.lock();
+        try {
+            discard(uploadId, session);
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    // Upload de uma vez só (PUT com o corpo inteiro): mesmo caminho, com uma única parte
+    public StoredBlob store(Integer resourceId, InputStream content) throws IOException {
+        String uploadId = begin(resourceId);
+        try {
+            append(uploadId, resourceId, 0, content);
+            return complete(uploadId, resourceId);
+        } catch (IOException | RuntimeException e) {
+            abort(uploadId);
+            throw e;
+        }
+    }
+
+
+    /* ==== Leitura e limpeza ==== */
+
+    public Optional<Path> find(String digest) {
+        if (digest == null || !DIGEST.matcher(digest).matches()) {
+            return Optional.empty();
+        }
+        Path path = blobPath(digest);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    // Remove blobs que nenhum Resource referencia e que não foram tocados dentro do período de carência
+    public int deleteUnreferenced(Set<String> referenced, Duration grace) throws IOException {
+        Instant limit = Instant.now().minus(grace);
+        int deleted = 0;
+        try (Stream<Path> files = Files.walk(blobs)) {
+            for (Path path : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                String digest = path.getFileName().toString();
+                if (!referenced.contains(digest) && Files.getLastModifiedTime(path).toInstant().isBefore(limit)) {
+                    long size = Files.size(path);
+                    if (Files.deleteIfExists(path)) {
+                        storedBytes.add(-size);
+                        deleted++;
+                    }
+                }
+            }
+        }
+        return deleted;
+    }
+
+    // Descarta uploads abandonados (sem novas partes dentro do período de carência)
+    public int abortStale(Duration grace) throws IOException {
+        Instant limit = Instant.now().minus(grace);
+        int aborted = 0;
+        for (Map.Entry<String, UploadSession> entry : sessions.entrySet()) {
+            UploadSession session = entry.getValue();
+            // Sessão com a trava ocupada está recebendo uma parte (ou terminando): não é abandonada, fica para a próxima passada
+            if (!session.lastTouched.isBefore(limit) || !session.lock.tryLock()) {
+                continue;
+            }
+            try {
+                if (session.lastTouched.isBefore(limit) && discard(entry.getKey(), session)) {
+                    aborted++;
+                }
+            } finally {
+                session.lock.unlock();
+            }
+        }
+        return aborted;
+    }
+
+    // Com a trava da sessão: tira do mapa (se ainda for a mesma sessão) e apaga o arquivo temporário
+    private boolean discard(String uploadId, UploadSession session) throws IOException {
+        if (!sessions.remove(uploadId, session)) {
+            return false;
+        }
+        Files.deleteIfExists(session.part);
+        return true;
+    }
+
+    // Grava o blob sem substituir um existente. O ATOMIC_MOVE é um rename(2), que no Linux troca o destino em silêncio,
+    // então o "já existe" vem do link(2): createLink falha com FileAlreadyExistsException se outro upload do mesmo conteúdo
+    // publicou primeiro. false = o blob já existia (deduplicado).
+    private static boolean publish(Path part, Path target) throws IOException {
+        try {
+            Files.createLink(target, part);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            return false;
+        } catch (UnsupportedOperationException e) {
+            // Sistema de arquivos sem hard links: move sem REPLACE_EXISTING (verifica e renomeia; janela pequena entre os dois)
+            try {
+                Files.move(part, target);
+                return true;
+            } catch (FileAlreadyExistsException alreadyStored) {
+                return false;
+            }
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(completedUploads.sum(), deduplicatedUploads.sum(), logicalBytes.sum(), storedBytes.sum(), uploadNanos.sum() / 1_000_000);
+    }
+
+    private UploadSession session(String uploadId, Integer resourceId) {
+        UploadSession session = sessions.get(uploadId);
+        if (session == null || !session.resourceId.equals(resourceId)) {
+            throw new IllegalArgumentException("Upload não encontrado: " + uploadId);
+        }
+        return session;
+    }
+
+    // Depois de pegar a trava: a sessão pode ter sido concluída ou abortada enquanto esta chamada esperava
+    private void checkOpen(String uploadId, UploadSession session) {
+        if (sessions.get(uploadId) != session) {
+            throw new IllegalArgumentException("Upload não encontrado: " + uploadId);
+        }
+    }
+
+    private Path blobPath(String digest) {
+        return blobs.resolve(digest.substring(0, 2)).resolve(digest);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(ALGORITHM + " indisponível", e);
+        }
+    }
+
+    private static final class UploadSession {
+        private final Integer resourceId;
+        private final Path part;
+        private final MessageDigest digest;
+        private long received;
+        private volatile Instant lastTouched = Instant.now();
+        // ReentrantLock em vez de synchronized: o append lê o corpo da requisição com a trava, e uma thread virtual
+        // bloqueada dentro de synchronized prende a thread carregadora (pinning) até o fim do upload
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private UploadSession(Integer resourceId, Path part, MessageDigest digest) {
+            this.resourceId = resourceId;
+            this.part = part;
+            this.digest = digest;
+        }
+    }
+
+    public record StoredBlob(String digest, long size, boolean deduplicated) {
+    }
+
+    // logicalBytes: bytes recebidos nos uploads | storedBytes: bytes realmente gravados em blobs
+    public record Stats(long uploads, long deduplicatedUploads, long logicalBytes, long storedBytes, long uploadMillis) {
+
+        public long savedBytes() {
+            return logicalBytes - storedBytes;
+        }
+
+        public double uploadMegabytesPerSecond() {
+            return uploadMillis == 0 ? 0 : logicalBytes / 1024.0 / 1024.0 / (uploadMillis / 1000.0);
+        }
+    }
+
+}
+
+/* Anotação:
+ * Content store local: Os bytes de File/Video ficam em disco, fora do banco de dados; o Resource guarda url, size e contentHash.
+ * Endereçamento por conteúdo: O nome do arquivo é o SHA-256 dos bytes, então o mesmo conteúdo sempre cai no mesmo blob (deduplicação).
+ *  - O blob nunca muda depois de gravado; um novo upload com bytes diferentes gera outro blob.
+ * MessageDigest.update: O hash é calculado em pedaços enquanto os bytes chegam (o arquivo nunca fica inteiro no heap).
+ * Files.createLink(blob, part): Hard link atômico; falha com FileAlreadyExistsException se o blob já existe (dois uploads iguais ao mesmo tempo:
+ *  só um conta como gravado, o outro como deduplicado). Depois o arquivo temporário é apagado e o blob fica com o único link.
+ * abortStale: tryLock em cada sessão; uma sessão ocupada (parte chegando) é pulada em vez de ter o arquivo apagado no meio da escrita.
+ * ReentrantLock (UploadSession.lock): Uma parte por vez em cada upload, sem synchronized (ver VirtualThreadPinningMonitor).
+ * @PostConstruct: Executado depois que o bean é criado e as dependências (@Value) são injetadas.
+*/
@@ -0,0 +1,122 @@
+package com.api.demo_data_jpa.controller;
+
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import com.api.demo_data_jpa.conditional.AuthorValidators;
+import com.api.demo_data_jpa.conditional.AuthorValidators.Validators;
+import com.api.demo_data_jpa.dto.AuthorDetailsDTO;
+import com.api.demo_data_jpa.dto.BookDTO;
+import com.api.demo_data_jpa.filter.AuthorFilter;
+import com.api.demo_data_jpa.mapper.AuthorMapper;
+import com.api.demo_data_jpa.repository.AuthorRepository;
+import com.api.demo_data_jpa.repository.BookRepository;
+import com.api.demo_data_jpa.specification.AuthorFilterQueryPlanCache;
+import com.api.demo_data_jpa.specification.AuthorFilterQueryPlanCache.InvalidSortException;
+
+// Leitura de autores com GET condicional: primeiro os validadores (ETag/Last-Modified) saem de uma consulta de metadados;
+// se o cliente já tem essa versão (If-None-Match / If-Modified-Since), a resposta é 304 sem corpo e a entidade nem é carregada.
+// Corpo em JSON, CBOR ou Smile conforme o Accept (ver BinaryFormatConfig); o ETag muda com o formato.
+@RestController
+@RequestMapping("/authors")
+public class AuthorController {
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorValidators authorValidators;
+
+    @Autowired
+    private AuthorFilterQueryPlanCache filterPlans;
+
+    // GET /authors/{id}
+    @GetMapping("/{id}")
+    public ResponseEntity<AuthorDetailsDTO> author(@PathVariable Integer id, WebRequest request) {
+        Optional<Validators> validators = authorValidators.author(id).map(v -> v.forAccept(request.getHeader(HttpHeaders.ACCEPT)));
+        if (validators.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(validators.get().etag(), validators.get().lastModifiedMillis())) {
+            return null;   // 304 já definido pelo checkNotModified
+        }
+        return authorRepository.findById(id)
+            .map(author -> ResponseEntity.ok().cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT).body(AuthorMapper.INSTANCE.toDetailsDto(author)))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // GET /authors?firstName=dan&emailFragment=gmail&minAge=20&maxAge=40&page=0&size=20&sort=age,desc
+    // Validadores e página saem das queries já compiladas para o formato do filtro (sem montar Criteria por requisição)
+    @GetMapping
+    public ResponseEntity<PagedModel<AuthorDetailsDTO>> search(AuthorFilter filter, @PageableDefault(size = 20) Pageable pageable, WebRequest request) {
+        Pageable stablePageable = withIdTieBreaker(pageable);
+        Validators validators = authorValidators.authorPage(filter, stablePageable).forAccept(request.getHeader(HttpHeaders.ACCEPT));
+        if (request.checkNotModified(validators.etag(), validators.lastModifiedMillis())) {
+            return null;
+        }
+        PagedModel<AuthorDetailsDTO> page = new PagedModel<>(
+            filterPlans.findAll(filter, stablePageable).map(AuthorMapper.INSTANCE::toDetailsDto));
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT).body(page);
+    }
+
+    // GET /authors/{id}/books?page=0&size=20&sort=title
+    @GetMapping("/{id}/books")
+    public ResponseEntity<PagedModel<BookDTO>> books(@PathVariable Integer id, @PageableDefault(size = 20) Pageable pageable, WebRequest request) {
+        Pageable stablePageable = withIdTieBreaker(pageable);
+        Optional<Validators> validators = authorValidators.books(id, stablePageable).map(v -> v.forAccept(request.getHeader(HttpHeaders.ACCEPT)));
+        if (validators.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(validators.get().etag(), validators.get().lastModifiedMillis())) {
+            return null;
+        }
+        PagedModel<BookDTO> page = new PagedModel<>(bookRepository.findDtosByAuthorId(id, stablePageable));
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT).body(page);
+    }
+
+    // Propriedade inexistente no sort=... (livros) ou fora das ordenações aceitas pelo plano da busca
+    @ExceptionHandler({ PropertyReferenceException.class, InvalidSortException.class })
+    public ResponseEntity<Map<String, String>> invalidSort(RuntimeException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+
+    // Desempate por id: sem ele, linhas com o mesmo valor de ordenação podem trocar de página entre a consulta de metadados e a de dados
+    private static Pageable withIdTieBreaker(Pageable pageable) {
+        if (pageable.isUnpaged() || pageable.getSort().getOrderFor("id") != null) {
+            return pageable;
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().and(Sort.by("id")));
+    }
+
+}
+
+/* Anotação:
+ * WebRequest.checkNotModified(etag, lastModified): Compara com If-None-Match / If-Modified-Since do pedido.
+ *  - Igual: define 304 Not Modified e o método retorna null (o Spring não escreve corpo).
+ *  - Diferente: adiciona os cabeçalhos ETag e Last-Modified na resposta 200.
+ * varyBy(Accept): Caches intermediários guardam uma cópia por formato (JSON/CBOR/Smile) da mesma URL.
+ * CacheControl.noCache(): O cliente pode guardar a resposta, mas precisa revalidar (GET condicional) antes de reutilizá-la.
+ * PagedModel: Formato estável de página para JSON (content + page { size, number, totalElements, totalPages }).
+ * AuthorFilter sem @RequestParam: Os parâmetros da query string (firstName, emailFragment, minAge, maxAge) preenchem o objeto.
+ * Diferente do ShallowEtagHeaderFilter do Spring, que calcula o ETag do corpo já serializado (economiza banda, mas não banco nem CPU).
+*/
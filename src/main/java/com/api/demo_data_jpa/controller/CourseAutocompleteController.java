@@ -0,0 +1,33 @@
+package com.api.demo_data_jpa.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.api.demo_data_jpa.autocomplete.CourseAutocompleteService;
+import com.api.demo_data_jpa.autocomplete.CourseAutocompleteService.CourseCompletion;
+
+@RestController
+@RequestMapping("/courses")
+public class CourseAutocompleteController {
+
+    private static final int MAX_LIMIT = 50;
+
+    @Autowired
+    private CourseAutocompleteService courseAutocompleteService;
+
+    // GET /courses/autocomplete?q=intro&limit=10
+    @GetMapping("/autocomplete")
+    public List<CourseCompletion> autocomplete(@RequestParam("q") String query, @RequestParam(defaultValue = "10") int limit) {
+        return courseAutocompleteService.complete(query, Math.min(limit, MAX_LIMIT));
+    }
+
+}
+
+/* Anotação:
+ * @RequestParam: Lê o parâmetro da query string; defaultValue é usado quando o parâmetro não é enviado.
+*/
@@ -0,0 +1,30 @@
+package com.api.demo_data_jpa.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.api.demo_data_jpa.dto.CourseOutlineDTO;
+import com.api.demo_data_jpa.ordering.CurriculumOrderingService;
+
+@RestController
+@RequestMapping("/courses")
+public class CourseOutlineController {
+
+    @Autowired
+    private CurriculumOrderingService curriculumOrderingService;
+
+    // GET /courses/{id}/outline -> { id, name, description, sections: [ { id, name, lectures: [ { id, name, resourceId } ] } ] }
+    @GetMapping("/{id}/outline")
+    public ResponseEntity<CourseOutlineDTO> outline(@PathVariable Integer id) {
+        return ResponseEntity.of(curriculumOrderingService.outlineOf(id));
+    }
+
+}
+
+/* Anotação:
+ * ResponseEntity.of(Optional): 200 com o corpo quando presente, 404 quando vazio.
+*/
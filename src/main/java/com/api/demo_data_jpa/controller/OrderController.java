@@ -0,0 +1,61 @@
+package com.api.demo_data_jpa.controller;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.api.demo_data_jpa.dto.OrderDTO;
+import com.api.demo_data_jpa.mapper.OrderMapper;
+import com.api.demo_data_jpa.model.embedded.Order;
+import com.api.demo_data_jpa.repository.OrderRepository;
+
+// Leitura de pedidos em lotes para consumidores internos: janela [from, to) percorrida por keyset (orderDate, username).
+// O próximo lote começa depois do último pedido recebido: ?afterDate={orderDate}&afterUsername={username}.
+// JSON, CBOR ou Smile conforme o Accept (ver BinaryFormatConfig).
+@RestController
+@RequestMapping("/orders")
+public class OrderController {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Value("${app.order-api.max-batch-size:5000}")
+    private int maxBatchSize;
+
+    // GET /orders?from=2024-01-01T00:00:00&to=2024-02-01T00:00:00&limit=1000[&afterDate=...&afterUsername=...]
+    @GetMapping
+    public ResponseEntity<List<OrderDTO>> batch(
+            @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime afterDate,
+            @RequestParam(required = false) String afterUsername,
+            @RequestParam(defaultValue = "1000") int limit) {
+
+        if (limit < 1 || (afterDate == null) != (afterUsername == null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        Limit batchLimit = Limit.of(Math.min(limit, maxBatchSize));
+        List<Order> orders = afterDate == null
+            ? orderRepository.findFirstByPeriod(from, to, batchLimit)
+            : orderRepository.findNextByPeriod(afterDate, afterUsername, to, batchLimit);
+        return ResponseEntity.ok(OrderMapper.INSTANCE.toDtoList(orders));
+    }
+
+}
+
+/* Anotação:
+ * @DateTimeFormat(iso = ISO.DATE_TIME): Converte o parâmetro da query string (2024-01-01T00:00:00) em LocalDateTime.
+ * Keyset em vez de page/size: cada lote é uma busca no índice da PK a partir da última chave, sem OFFSET (ver OrderRepository).
+ *  - afterDate e afterUsername andam juntos (400 se só um vier); sem eles, o lote começa em from.
+ * limit: Limitado por app.order-api.max-batch-size.
+*/
@@ -0,0 +1,64 @@
+package com.api.demo_data_jpa.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.api.demo_data_jpa.dto.AuthorDetailsDTO;
+import com.api.demo_data_jpa.dto.BookDTO;
+import com.api.demo_data_jpa.reactive.ReactiveAuthorReader;
+import com.api.demo_data_jpa.reactive.ReactiveAuthorReader.View;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Caminho de leitura reativo (R2DBC) para o serviço de leitura com muito fan-out; o /authors (JPA) continua como está.
+// Listas saem em NDJSON (um JSON por linha), escritas conforme chegam do banco: o próximo item só é pedido depois que o anterior foi
+// escrito na resposta, então um cliente lento segura a leitura no banco em vez de acumular linhas na memória.
+@RestController
+@RequestMapping("/reactive/authors")
+public class ReactiveAuthorController {
+
+    @Autowired
+    private ReactiveAuthorReader reader;
+
+    // GET /reactive/authors/by-email?email=ana@email.com
+    @GetMapping("/by-email")
+    public Mono<ResponseEntity<AuthorDetailsDTO>> byEmail(@RequestParam String email) {
+        return reader.findByEmail(email)
+            .map(ResponseEntity::ok)
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // GET /reactive/authors?minAge=20&maxAge=40
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<AuthorDetailsDTO> byAge(@RequestParam(defaultValue = "0") int minAge, @RequestParam(defaultValue = "150") int maxAge) {
+        return reader.findByAgeBetween(minAge, maxAge);
+    }
+
+    // GET /reactive/authors/views?minAge=20&maxAge=40 -> { firstName, email, age } por linha
+    @GetMapping(path = "/views", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<View> viewsByAge(@RequestParam(defaultValue = "0") int minAge, @RequestParam(defaultValue = "150") int maxAge) {
+        return reader.findViewsByAgeBetween(minAge, maxAge);
+    }
+
+    // GET /reactive/authors/{id}/books
+    @GetMapping(path = "/{id}/books", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BookDTO> books(@PathVariable Integer id) {
+        return reader.findBooksByAuthorId(id);
+    }
+
+}
+
+/* Anotação:
+ * Mono/Flux em um controller do Spring MVC: A requisição vira assíncrona (a thread do Tomcat é liberada) e a resposta é escrita
+ *  quando os elementos chegam.
+ * produces = application/x-ndjson: Cada elemento do Flux é serializado (mesmo ObjectMapper/ApiJsonModule) e enviado com flush;
+ *  o Spring pede um elemento por vez ao Flux (backpressure até o socket do cliente).
+ * defaultIfEmpty: Mono vazio (e-mail não encontrado) vira 404.
+*/
@@ -0,0 +1,249 @@
+package com.api.demo_data_jpa.controller;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.api.demo_data_jpa.content.ByteRange;
+import com.api.demo_data_jpa.content.LocalContentStore;
+import com.api.demo_data_jpa.content.LocalContentStore.Stats;
+import com.api.demo_data_jpa.content.LocalContentStore.StoredBlob;
+import com.api.demo_data_jpa.model.File;
+import com.api.demo_data_jpa.model.Resource;
+import com.api.demo_data_jpa.model.Video;
+import com.api.demo_data_jpa.repository.ResourceRepository;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+@RestController
+@RequestMapping("/resources")
+public class ResourceContentController {
+
+    // Atributos do Tomcat para sendfile (mesmo mecanismo usado pelo DefaultServlet para arquivos estáticos)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private LocalContentStore contentStore;
+
+    // Abaixo deste tamanho a cópia via transferTo é tão rápida quanto o sendfile (o Tomcat usa 48 KB no DefaultServlet)
+    @Value("${app.content-store.sendfile-min-bytes:49152}")
+    private long sendfileMinBytes;
+
+
+    /* ==== Upload de uma vez ==== */
+
+    // PUT /resources/{id}/content (corpo = bytes do arquivo/vídeo)
+    @PutMapping("/{id}/content")
+    public ResponseEntity<StoredBlob> upload(@PathVariable Integer id, HttpServletRequest request) throws IOException {
+        Optional<Resource> resource = findBinaryResource(id);
+        if (resource.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        StoredBlob blob = contentStore.store(id, request.getInputStream());
+        link(resource.get(), blob);
+        return ResponseEntity.ok(blob);
+    }
+
+
+    /* ==== Upload em partes ==== */
+
+    // POST /resources/{id}/uploads[?digest=sha-256] -> 201 { uploadId }
+    // Com digest de um blob que já existe: o Resource é ligado na hora e a resposta é 200 { digest, size, deduplicated }
+    @PostMapping("/{id}/uploads")
+    public ResponseEntity<?> beginUpload(@PathVariable Integer id, @RequestParam(required = false) String digest) throws IOException {
+        Optional<Resource> resource = findBinaryResource(id);
+        if (resource.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Optional<StoredBlob> existing = contentStore.reuse(digest);
+        if (existing.isPresent()) {
+            link(resource.get(), existing.get());
+            return ResponseEntity.ok(existing.get());
+        }
+        String uploadId = contentStore.begin(id);
+        return ResponseEntity.created(URI.create("/resources/" + id + "/uploads/" + uploadId)).body(Map.of("uploadId", uploadId));
+    }
+
+    // PUT /resources/{id}/uploads/{uploadId}?offset=N (corpo = próxima parte) -> { received }
+    @PutMapping("/{id}/uploads/{uploadId}")
+    public Map<String, Long> appendChunk(@PathVariable Integer id, @PathVariable String uploadId, @RequestParam long offset,
+                                         HttpServletRequest request) throws IOException {
+        return Map.of("received", contentStore.append(uploadId, id, offset, request.getInputStream()));
+    }
+
+    // GET /resources/{id}/uploads/{uploadId} -> { received } (para o cliente retomar depois de uma falha)
+    @GetMapping("/{id}/uploads/{uploadId}")
+    public Map<String, Long> uploadStatus(@PathVariable Integer id, @PathVariable String uploadId) {
+        return Map.of("received", contentStore.received(uploadId, id));
+    }
+
+    // POST /resources/{id}/uploads/{uploadId}/complete -> { digest, size, deduplicated }
+    @PostMapping("/{id}/uploads/{uploadId}/complete")
+    public ResponseEntity<StoredBlob> completeUpload(@PathVariable Integer id, @PathVariable String uploadId) throws IOException {
+        Optional<Resource> resource = findBinaryResource(id);
+        if (resource.isEmpty()) {
+            contentStore.abort(uploadId);
+            return ResponseEntity.notFound().build();
+        }
+        StoredBlob blob = contentStore.complete(uploadId, id);
+        link(resource.get(), blob);
+        return ResponseEntity.ok(blob);
+    }
+
+    @DeleteMapping("/{id}/uploads/{uploadId}")
+    public ResponseEntity<Void> abortUpload(@PathVariable Integer id, @PathVariable String uploadId) throws IOException {
+        contentStore.received(uploadId, id); // 404 se o upload não for deste Resource
+        contentStore.abort(uploadId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // GET /resources/content-stats -> bytes recebidos x gravados, uploads deduplicados e MB/s
+    @GetMapping("/content-stats")
+    public Stats contentStats() {
+        return contentStore.stats();
+    }
+
+    // Upload desconhecido (ou de outro Resource)
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> uploadNotFound(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+    }
+
+    // Parte fora de ordem: o cliente consulta o status e reenvia a partir de received
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Map<String, String>> offsetMismatch(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+    }
+
+
+    /* ==== Download (GET e HEAD, com Range) ==== */
+
+    @RequestMapping(path = "/{id}/content", method = { RequestMethod.GET, RequestMethod.HEAD })
+    public void download(@PathVariable Integer id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<Resource> resource = findBinaryResource(id);
+        Optional<Path> path = resource.flatMap(r -> contentStore.find(r.getContentHash()));
+        if (resource.isEmpty() || path.isEmpty()) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        long size = Files.size(path.get());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        ByteRange range = size == 0 ? null : ByteRange.parse(request.getHeader(HttpHeaders.RANGE), size);
+        if (range == null) {
+            if (size == 0) {
+                response.setContentType(contentTypeOf(resource.get()).toString());
+                response.setContentLengthLong(0);
+                return;
+            }
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+            response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            return;
+        }
+        response.setContentType(contentTypeOf(resource.get()).toString());
+        if (range.partial()) {
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, range.contentRange(size));
+        }
+        response.setContentLengthLong(range.length());
+
+        if (RequestMethod.HEAD.name().equals(request.getMethod())) {
+            return;
+        }
+        send(path.get(), range, request, response);
+    }
+
+    // Zero-copy: com sendfile o Tomcat manda o arquivo do page cache direto para o socket depois que o método retorna
+    // (os bytes nunca passam pelo heap). Sem sendfile (outro conector/servidor), FileChannel.transferTo copia em blocos
+    // pequenos fora do heap.
+    private void send(Path path, ByteRange range, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT)) && range.length() >= sendfileMinBytes) {
+            request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, range.start());
+            request.setAttribute(SENDFILE_END, range.end() + 1);
+            return;
+        }
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = range.start();
+            long remaining = range.length();
+            while (remaining > 0) {
+                long sent = file.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    // Liga o Resource ao blob; o blob antigo (se houver) fica para o ContentBlobJanitor, pois pode ser usado por outro Resource
+    private void link(Resource resource, StoredBlob blob) {
+        resource.setContentHash(blob.digest());
+        resource.setSize((int) Math.min(blob.size(), Integer.MAX_VALUE));
+        resource.setUrl("/resources/" + resource.getId() + "/content");
+        resourceRepository.save(resource);
+    }
+
+    // Somente File e Video têm bytes no content store (o Text fica na coluna content)
+    private Optional<Resource> findBinaryResource(Integer id) {
+        return resourceRepository.findById(id).filter(resource -> resource instanceof File || resource instanceof Video);
+    }
+
+    private static MediaType contentTypeOf(Resource resource) {
+        if (resource instanceof Video) {
+            return MediaType.parseMediaType("video/mp4");
+        }
+        if (resource instanceof File file && file.getType() != null) {
+            return MediaTypeFactory.getMediaType("content." + file.getType()).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        }
+        return MediaType.APPLICATION_OCTET_STREAM;
+    }
+
+}
+
+/* Anotação:
+ * @RestController: Controller REST (o retorno dos métodos vai no corpo da resposta).
+ * HTTP Range (RFC 9110): O cliente pede só um pedaço do arquivo (Range: bytes=1000-1999) e recebe 206 Partial Content + Content-Range.
+ *  - Usado pelos players de vídeo para avançar/voltar (seek) sem baixar o arquivo inteiro.
+ *  - 416 Range Not Satisfiable quando o intervalo está fora do arquivo.
+ * sendfile: Chamada do sistema operacional que copia do arquivo para o socket dentro do kernel (zero-copy).
+ *  - O Tomcat (conector NIO) expõe o recurso pelos atributos org.apache.tomcat.sendfile.*.
+ * FileChannel.transferTo: Versão Java do mesmo conceito; para um socket usa sendfile, para outros canais copia em blocos.
+ * Upload em partes: O cliente manda o arquivo em vários PUTs com offset; se a conexão cair, consulta o status e continua de onde parou.
+ * @ExceptionHandler: Converte exceções lançadas pelos métodos deste controller em respostas HTTP (404, 409).
+*/
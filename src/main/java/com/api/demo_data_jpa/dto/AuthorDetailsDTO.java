@@ -0,0 +1,17 @@
+package com.api.demo_data_jpa.dto;
+
+import java.time.LocalDateTime;
+
+// Representação de um autor na API REST (GET /authors, GET /authors/{id})
+public record AuthorDetailsDTO(
+        Integer id,
+        String firstName,
+        String lastName,
+        String email,
+        int age,
+        String streetName,
+        String houseNumber,
+        String zipCode,
+        LocalDateTime lastModifiedAt,
+        Long version) {
+}
@@ -0,0 +1,11 @@
+package com.api.demo_data_jpa.dto;
+
+import java.time.LocalDateTime;
+
+// Representação de um livro na API REST (GET /authors/{id}/books)
+public record BookDTO(
+        Integer id,
+        String title,
+        LocalDateTime lastModifiedAt,
+        Long version) {
+}
@@ -0,0 +1,24 @@
+package com.api.demo_data_jpa.dto;
+
+import java.util.List;
+
+// Estrutura de um curso para a API REST (GET /courses/{id}/outline): seções e palestras na ordem do currículo
+public record CourseOutlineDTO(
+        Integer id,
+        String name,
+        String description,
+        List<Section> sections) {
+
+    public record Section(
+            Integer id,
+            String name,
+            List<Lecture> lectures) {
+    }
+
+    public record Lecture(
+            Integer id,
+            String name,
+            Integer resourceId) {
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.api.demo_data_jpa.dto;
+
+import java.time.LocalDateTime;
+
+// Representação de um pedido na API REST (GET /orders); username + orderDate formam a chave do pedido
+public record OrderDTO(
+        String username,
+        LocalDateTime orderDate,
+        String streetName,
+        String houseNumber,
+        String zipCode,
+        String orderInfo,
+        String anotherField) {
+}
@@ -0,0 +1,318 @@
+package com.api.demo_data_jpa.ingestion;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.api.demo_data_jpa.model.embedded.Address;
+import com.api.demo_data_jpa.model.embedded.Order;
+import com.api.demo_data_jpa.zipcode.ZipCodeLookupService;
+
+@Service
+public class OrderIngestionService implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIngestionService.class);
+
+    private static final String INSERT_PREFIX =
+        "INSERT INTO order_tbl (order_date, username, street_name, house_number, zip_code, order_info, another_field) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // O INSERT via JDBC não passa pelo ZipCodeIndexListener, então o índice de CEP é avisado aqui
+    @Autowired
+    private ZipCodeLookupService zipCodeLookupService;
+
+    // Commit a cada batchSize pedidos ou a cada flushIntervalMillis, o que acontecer primeiro
+    // (cada pedido usa 7 parâmetros; o MySQL aceita até 65535 parâmetros por statement)
+    @Value("${app.order-ingestion.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.order-ingestion.flush-interval-ms:5}")
+    private long flushIntervalMillis;
+
+    @Value("${app.order-ingestion.queue-capacity:10000}")
+    private int queueCapacity;
+
+    // Backpressure: quanto tempo o chamador espera por espaço na fila antes de receber RejectedExecutionException
+    @Value("${app.order-ingestion.offer-timeout-ms:1000}")
+    private long offerTimeoutMillis;
+
+    private BlockingQueue<PendingOrder> queue;
+    private Thread writer;
+    private volatile boolean running = false;
+
+    // SQL do INSERT multi-linhas por quantidade de linhas (o último lote de um flush costuma ser menor)
+    private final Map<Integer, String> insertSqlByRows = new ConcurrentHashMap<>();
+
+    private final LongAdder rowsInserted = new LongAdder();
+    private final LongAdder rowsFailed = new LongAdder();
+    // Uma tentativa de INSERT multi-linhas por flush (com sucesso ou não); o refazer linha a linha conta à parte
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedRows = new LongAdder();
+    private final LongAdder rowRetries = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+    private volatile long startedAtNanos;
+
+    private record PendingOrder(Order order, long enqueuedAtNanos, CompletableFuture<Void> completion) {
+    }
+
+
+    /* ==== API ==== */
+
+    // Enfileira o pedido; o future é completado quando o lote que contém o pedido for commitado.
+    // Se a fila estiver cheia, espera até offerTimeoutMillis (backpressure) e depois rejeita.
+    public CompletableFuture<Void> submit(Order order) {
+        if (!running) {
+            throw new IllegalStateException("OrderIngestionService não está em execução");
+        }
+        PendingOrder pending = new PendingOrder(order, System.nanoTime(), new CompletableFuture<>());
+        try {
+            if (!queue.offer(pending, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new RejectedExecutionException("Fila de ingestão de pedidos cheia (" + queueCapacity + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrompido aguardando espaço na fila de ingestão", e);
+        }
+        // O stop() pode ter rodado enquanto o offer esperava: se a thread de escrita já não vai pegar o pedido, ele volta como erro
+        if (!running && queue.remove(pending)) {
+            throw new IllegalStateException("OrderIngestionService parou antes de aceitar o pedido");
+        }
+        return pending.completion();
+    }
+
+
+    /* ==== Thread de escrita (group commit) ==== */
+
+    private void writeLoop() {
+        List<PendingOrder> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingOrder first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Junta pedidos até completar o lote ou até passar o intervalo de flush
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingOrder next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (RuntimeException e) {
+                log.error("Erro inesperado na ingestão de pedidos", e);
+            } finally {
+                batch.clear();
+            }
+        }
+        // Pedidos que entraram na fila depois da última leitura (ou sobraram após uma interrupção) não ficam com o future pendente
+        List<PendingOrder> leftovers = new ArrayList<>();
+        queue.drainTo(leftovers);
+        for (PendingOrder pending : leftovers) {
+            pending.completion().completeExceptionally(new IllegalStateException("OrderIngestionService parado antes de gravar o pedido"));
+        }
+    }
+
+    private void flush(List<PendingOrder> batch) {
+        // Só uma falha do INSERT/commit leva ao caminho linha a linha; o que vem depois do commit (complete) fica fora do try
+        // para não regravar linhas já commitadas
+        if (insertBatch(batch)) {
+            complete(batch);
+            return;
+        }
+        // Uma linha ruim (ex: PK duplicada) derruba o lote: refaz linha a linha para isolar a falha
+        for (PendingOrder pending : batch) {
+            rowRetries.increment();
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(List.of(pending)));
+            } catch (RuntimeException rowError) {
+                rowsFailed.increment();
+                pending.completion().completeExceptionally(rowError);
+                continue;
+            }
+            complete(List.of(pending));
+        }
+    }
+
+    // Um único INSERT multi-linhas e um único commit para o lote inteiro
+    private boolean insertBatch(List<PendingOrder> batch) {
+        batches.increment();
+        batchedRows.add(batch.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(batch));
+            return true;
+        } catch (RuntimeException batchError) {
+            log.debug("Lote de {} pedidos falhou, refazendo linha a linha", batch.size(), batchError);
+            return false;
+        }
+    }
+
+    private void insert(List<PendingOrder> rows) {
+        String sql = insertSqlByRows.computeIfAbsent(rows.size(),
+            size -> INSERT_PREFIX + String.join(", ", Collections.nCopies(size, ROW_PLACEHOLDERS)));
+
+        Object[] args = new Object[rows.size() * 7];
+        int i = 0;
+        for (PendingOrder pending : rows) {
+            Order order = pending.order();
+            Address address = order.getAddress() != null ? order.getAddress() : new Address();
+            args[i++] = Timestamp.valueOf(order.getOrderId().getOrderDate());
+            args[i++] = order.getOrderId().getUsername();
+            args[i++] = address.getStreetName();
+            args[i++] = address.getHouseNumber();
+            args[i++] = address.getZipCode();
+            args[i++] = order.getOrderInfo();
+            args[i++] = order.getAnotherField();
+        }
+        jdbcTemplate.update(sql, args);
+    }
+
+    private void complete(List<PendingOrder> rows) {
+        long now = System.nanoTime();
+        for (PendingOrder pending : rows) {
+            long latency = now - pending.enqueuedAtNanos();
+            totalLatencyNanos.add(latency);
+            maxLatencyNanos.accumulate(latency);
+            rowsInserted.increment();
+            pending.completion().complete(null);
+            // O pedido já está gravado: uma falha no índice de CEP só fica no log (a reconciliação do índice corrige)
+            Order order = pending.order();
+            try {
+                zipCodeLookupService.orderSaved(order.getOrderId(), order.getAddress() != null ? order.getAddress().getZipCode() : null);
+            } catch (RuntimeException e) {
+                log.warn("Falha ao atualizar o índice de CEP para o pedido {}", order.getOrderId(), e);
+            }
+        }
+    }
+
+
+    /* ==== Métricas ==== */
+
+    public long getRowsInserted() {
+        return rowsInserted.sum();
+    }
+
+    public long getRowsFailed() {
+        return rowsFailed.sum();
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    // Pedidos por INSERT multi-linhas, contando os lotes que falharam e foram refeitos linha a linha
+    public double getAverageBatchSize() {
+        long count = batches.sum();
+        return count == 0 ? 0.0 : (double) batchedRows.sum() / count;
+    }
+
+    // INSERTs de uma linha feitos depois que o lote falhou
+    public long getRowRetries() {
+        return rowRetries.sum();
+    }
+
+    // Pedidos por segundo desde o início do serviço
+    public double getThroughputPerSecond() {
+        double seconds = (System.nanoTime() - startedAtNanos) / 1_000_000_000.0;
+        return seconds <= 0 ? 0.0 : rowsInserted.sum() / seconds;
+    }
+
+    // Latência média (ms) entre submit() e o commit do lote
+    public double getAverageLatencyMillis() {
+        long count = rowsInserted.sum();
+        return count == 0 ? 0.0 : totalLatencyNanos.sum() / 1_000_000.0 / count;
+    }
+
+    public double getMaxLatencyMillis() {
+        return maxLatencyNanos.get() / 1_000_000.0;
+    }
+
+    public int getQueueSize() {
+        return queue == null ? 0 : queue.size();
+    }
+
+
+    /* ==== Ciclo de vida (SmartLifecycle) ==== */
+
+    @Override
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        startedAtNanos = System.nanoTime();
+        running = true;
+        writer = new Thread(this::writeLoop, "order-ingestion-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // No desligamento, para de aceitar pedidos e grava o que ainda está na fila
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+}
+
+/* Anotação:
+ * Group commit: Em vez de um INSERT + COMMIT por pedido, vários pedidos são juntados e gravados com um INSERT multi-linhas e um único COMMIT.
+ *  - Troca alguns milissegundos de latência (flush-interval-ms) por muito mais pedidos por segundo.
+ * ArrayBlockingQueue: Fila com capacidade fixa. offer(timeout) espera por espaço, criando backpressure para quem produz pedidos.
+ * CompletableFuture: Resultado assíncrono por pedido; completado quando o lote é commitado (ou com erro se a linha falhar).
+ * SmartLifecycle: Permite ao Spring iniciar (start) e parar (stop) a thread de escrita junto com o contexto da aplicação.
+ * JdbcTemplate: Executa SQL direto via JDBC (sem o merge/select que o save() faz para entidades com ID atribuído, como o Order).
+ * TransactionTemplate: Controle programático de transação (uma transação por lote).
+ *
+ * Observação:
+ *  - Se o commit falhar sem resposta (conexão caiu no COMMIT), o lote pode ter sido gravado; o caminho linha a linha então falha por
+ *    PK duplicada e o future daquele pedido termina com erro, mesmo com a linha no banco.
+ *  - O INSERT vai direto para o order_tbl, então listeners JPA e o cache de primeiro nível do Hibernate não veem esses pedidos
+ *    (o índice de CEP é atualizado explicitamente no complete()).
+*/
@@ -0,0 +1,330 @@
+package com.api.demo_data_jpa.json;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.api.demo_data_jpa.autocomplete.CourseAutocompleteService.CourseCompletion;
+import com.api.demo_data_jpa.dto.AuthorDTO;
+import com.api.demo_data_jpa.dto.AuthorDetailsDTO;
+import com.api.demo_data_jpa.dto.BookDTO;
+import com.api.demo_data_jpa.dto.CourseOutlineDTO;
+import com.api.demo_data_jpa.dto.OrderDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+// Serializadores escritos à mão para os DTOs da API (registrados no ObjectMapper do Spring Boot por ser um Module @Component).
+// O JSON é o mesmo que o Jackson gera por reflexão (nomes dos componentes do record, nulls incluídos, datas ISO-8601), mas:
+//  - cada campo é lido pelo acessor do record (chamada direta, sem Method.invoke);
+//  - os nomes dos campos são SerializedString: já entre aspas e em UTF-8, copiados direto para o buffer do JsonGenerator;
+//  - listas internas (seções, palestras) são escritas em laço pelo serializador do elemento, sem procurar serializador por item.
+// O JsonGenerator escreve no OutputStream da resposta (MappingJackson2HttpMessageConverter): nenhuma árvore/String intermediária.
+@Component
+public class ApiJsonModule extends SimpleModule {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString FIRST_NAME = new SerializedString("firstName");
+    private static final SerializedString LAST_NAME = new SerializedString("lastName");
+    private static final SerializedString EMAIL = new SerializedString("email");
+    private static final SerializedString EMAIL_ADDRESS = new SerializedString("emailAddress");
+    private static final SerializedString AGE = new SerializedString("age");
+    private static final SerializedString STREET_NAME = new SerializedString("streetName");
+    private static final SerializedString HOUSE_NUMBER = new SerializedString("houseNumber");
+    private static final SerializedString ZIP_CODE = new SerializedString("zipCode");
+    private static final SerializedString LAST_MODIFIED_AT = new SerializedString("lastModifiedAt");
+    private static final SerializedString VERSION = new SerializedString("version");
+    private static final SerializedString TITLE = new SerializedString("title");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString DESCRIPTION = new SerializedString("description");
+    private static final SerializedString SECTIONS = new SerializedString("sections");
+    private static final SerializedString LECTURES = new SerializedString("lectures");
+    private static final SerializedString RESOURCE_ID = new SerializedString("resourceId");
+    private static final SerializedString COURSE_ID = new SerializedString("courseId");
+    private static final SerializedString USERNAME = new SerializedString("username");
+    private static final SerializedString ORDER_DATE = new SerializedString("orderDate");
+    private static final SerializedString ORDER_INFO = new SerializedString("orderInfo");
+    private static final SerializedString ANOTHER_FIELD = new SerializedString("anotherField");
+
+    // yyyy-MM-ddTHH:mm:ss.nnnnnnnnn = 29 caracteres; o JsonGenerator copia o conteúdo, então o buffer é reaproveitado por thread
+    private static final ThreadLocal<char[]> DATE_TIME_BUFFER = ThreadLocal.withInitial(() -> new char[29]);
+
+    public ApiJsonModule() {
+        super("api-json");
+        addSerializer(AuthorDTO.class, new AuthorDtoSerializer());
+        addSerializer(AuthorDetailsDTO.class, new AuthorDetailsDtoSerializer());
+        addSerializer(BookDTO.class, new BookDtoSerializer());
+        addSerializer(CourseOutlineDTO.class, new CourseOutlineSerializer());
+        addSerializer(CourseOutlineDTO.Section.class, SectionSerializer.INSTANCE);
+        addSerializer(CourseOutlineDTO.Lecture.class, LectureSerializer.INSTANCE);
+        addSerializer(CourseCompletion.class, new CourseCompletionSerializer());
+        addSerializer(OrderDTO.class, new OrderDtoSerializer());
+    }
+
+
+    /* ==== Autores ==== */
+
+    static final class AuthorDtoSerializer extends StdSerializer<AuthorDTO> {
+
+        AuthorDtoSerializer() {
+            super(AuthorDTO.class);
+        }
+
+        @Override
+        public void serialize(AuthorDTO author, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(author);
+            string(gen, FIRST_NAME, author.firstName());
+            string(gen, LAST_NAME, author.lastName());
+            string(gen, EMAIL_ADDRESS, author.emailAddress());
+            gen.writeFieldName(AGE);
+            gen.writeNumber(author.age());
+            string(gen, STREET_NAME, author.streetName());
+            string(gen, HOUSE_NUMBER, author.houseNumber());
+            string(gen, ZIP_CODE, author.zipCode());
+            gen.writeEndObject();
+        }
+    }
+
+    static final class AuthorDetailsDtoSerializer extends StdSerializer<AuthorDetailsDTO> {
+
+        AuthorDetailsDtoSerializer() {
+            super(AuthorDetailsDTO.class);
+        }
+
+        @Override
+        public void serialize(AuthorDetailsDTO author, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(author);
+            number(gen, ID, author.id());
+            string(gen, FIRST_NAME, author.firstName());
+            string(gen, LAST_NAME, author.lastName());
+            string(gen, EMAIL, author.email());
+            gen.writeFieldName(AGE);
+            gen.writeNumber(author.age());
+            string(gen, STREET_NAME, author.streetName());
+            string(gen, HOUSE_NUMBER, author.houseNumber());
+            string(gen, ZIP_CODE, author.zipCode());
+            dateTime(gen, provider, LAST_MODIFIED_AT, author.lastModifiedAt());
+            number(gen, VERSION, author.version());
+            gen.writeEndObject();
+        }
+    }
+
+    static final class BookDtoSerializer extends StdSerializer<BookDTO> {
+
+        BookDtoSerializer() {
+            super(BookDTO.class);
+        }
+
+        @Override
+        public void serialize(BookDTO book, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(book);
+            number(gen, ID, book.id());
+            string(gen, TITLE, book.title());
+            dateTime(gen, provider, LAST_MODIFIED_AT, book.lastModifiedAt());
+            number(gen, VERSION, book.version());
+            gen.writeEndObject();
+        }
+    }
+
+
+    /* ==== Cursos ==== */
+
+    static final class CourseOutlineSerializer extends StdSerializer<CourseOutlineDTO> {
+
+        CourseOutlineSerializer() {
+            super(CourseOutlineDTO.class);
+        }
+
+        @Override
+        public void serialize(CourseOutlineDTO course, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(course);
+            number(gen, ID, course.id());
+            string(gen, NAME, course.name());
+            string(gen, DESCRIPTION, course.description());
+            gen.writeFieldName(SECTIONS);
+            array(gen, provider, course.sections(), SectionSerializer.INSTANCE);
+            gen.writeEndObject();
+        }
+    }
+
+    static final class SectionSerializer extends StdSerializer<CourseOutlineDTO.Section> {
+
+        static final SectionSerializer INSTANCE = new SectionSerializer();
+
+        private SectionSerializer() {
+            super(CourseOutlineDTO.Section.class);
+        }
+
+        @Override
+        public void serialize(CourseOutlineDTO.Section section, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(section);
+            number(gen, ID, section.id());
+            string(gen, NAME, section.name());
+            gen.writeFieldName(LECTURES);
+            array(gen, provider, section.lectures(), LectureSerializer.INSTANCE);
+            gen.writeEndObject();
+        }
+    }
+
+    static final class LectureSerializer extends StdSerializer<CourseOutlineDTO.Lecture> {
+
+        static final LectureSerializer INSTANCE = new LectureSerializer();
+
+        private LectureSerializer() {
+            super(CourseOutlineDTO.Lecture.class);
+        }
+
+        @Override
+        public void serialize(CourseOutlineDTO.Lecture lecture, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(lecture);
+            number(gen, ID, lecture.id());
+            string(gen, NAME, lecture.name());
+            number(gen, RESOURCE_ID, lecture.resourceId());
+            gen.writeEndObject();
+        }
+    }
+
+    static final class CourseCompletionSerializer extends StdSerializer<CourseCompletion> {
+
+        CourseCompletionSerializer() {
+            super(CourseCompletion.class);
+        }
+
+        @Override
+        public void serialize(CourseCompletion completion, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(completion);
+            number(gen, COURSE_ID, completion.courseId());
+            string(gen, NAME, completion.name());
+            gen.writeEndObject();
+        }
+    }
+
+
+    /* ==== Pedidos ==== */
+
+    static final class OrderDtoSerializer extends StdSerializer<OrderDTO> {
+
+        OrderDtoSerializer() {
+            super(OrderDTO.class);
+        }
+
+        @Override
+        public void serialize(OrderDTO order, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(order);
+            string(gen, USERNAME, order.username());
+            dateTime(gen, provider, ORDER_DATE, order.orderDate());
+            string(gen, STREET_NAME, order.streetName());
+            string(gen, HOUSE_NUMBER, order.houseNumber());
+            string(gen, ZIP_CODE, order.zipCode());
+            string(gen, ORDER_INFO, order.orderInfo());
+            string(gen, ANOTHER_FIELD, order.anotherField());
+            gen.writeEndObject();
+        }
+    }
+
+
+    /* ==== Campos ==== */
+
+    private static void string(JsonGenerator gen, SerializableString name, String value) throws IOException {
+        gen.writeFieldName(name);
+        gen.writeString(value);   // null -> null
+    }
+
+    private static void number(JsonGenerator gen, SerializableString name, Number value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else if (value instanceof Integer integer) {
+            gen.writeNumber(integer.intValue());
+        } else {
+            gen.writeNumber(value.longValue());
+        }
+    }
+
+    // Mesmo formato do JavaTimeModule com WRITE_DATES_AS_TIMESTAMPS desligado (padrão do Spring Boot); se ligado, delega a ele
+    private static void dateTime(JsonGenerator gen, SerializerProvider provider, SerializableString name, LocalDateTime value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            provider.defaultSerializeValue(value, gen);
+        } else if (value.getYear() < 0 || value.getYear() > 9999) {
+            gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));   // ano com sinal (+10000-01-01T...)
+        } else {
+            char[] buffer = DATE_TIME_BUFFER.get();
+            gen.writeString(buffer, 0, formatIsoLocalDateTime(value, buffer));
+        }
+    }
+
+    // yyyy-MM-ddTHH:mm:ss[.fração sem zeros à direita], igual ao DateTimeFormatter.ISO_LOCAL_DATE_TIME, direto num char[]
+    // (o DateTimeFormatter monta um StringBuilder e consulta o TemporalAccessor campo a campo a cada data)
+    static int formatIsoLocalDateTime(LocalDateTime value, char[] buffer) {
+        digits(buffer, 0, value.getYear(), 4);
+        buffer[4] = '-';
+        digits(buffer, 5, value.getMonthValue(), 2);
+        buffer[7] = '-';
+        digits(buffer, 8, value.getDayOfMonth(), 2);
+        buffer[10] = 'T';
+        digits(buffer, 11, value.getHour(), 2);
+        buffer[13] = ':';
+        digits(buffer, 14, value.getMinute(), 2);
+        buffer[16] = ':';
+        digits(buffer, 17, value.getSecond(), 2);
+        int length = 19;
+        int nano = value.getNano();
+        if (nano > 0) {
+            int fractionDigits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                fractionDigits--;
+            }
+            buffer[length++] = '.';
+            digits(buffer, length, nano, fractionDigits);
+            length += fractionDigits;
+        }
+        return length;
+    }
+
+    private static void digits(char[] buffer, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static <T> void array(JsonGenerator gen, SerializerProvider provider, List<T> values, StdSerializer<T> elementSerializer) throws IOException {
+        if (values == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartArray(values, values.size());
+        for (T value : values) {
+            if (value == null) {
+                gen.writeNull();
+            } else {
+                elementSerializer.serialize(value, gen, provider);
+            }
+        }
+        gen.writeEndArray();
+    }
+
+}
+
+/* Anotação:
+ * SimpleModule: Conjunto de serializadores registrados por tipo; um bean Module é adicionado pelo Spring Boot ao ObjectMapper da aplicação.
+ * StdSerializer: Serializador de um tipo; serialize() escreve os tokens JSON diretamente no JsonGenerator.
+ * Serialização padrão de um record (BeanSerializer): descobre as propriedades por reflexão uma vez e, para cada objeto, lê cada
+ *  campo por reflexão e procura o serializador do valor; aqui tudo isso foi resolvido em tempo de compilação.
+ * SerializedString: Guarda o nome já codificado (aspas e escapes); o UTF8JsonGenerator só copia os bytes.
+ *  - Os mesmos serializadores atendem CBOR e Smile (BinaryFormatConfig): só escrevem tokens, o JsonGenerator decide a codificação.
+ * LocalDateTime: Formatado à mão em um char[] por thread (sem String nem StringBuilder por data); anos fora de 0000-9999 usam o DateTimeFormatter.
+ * Os campos e a ordem precisam acompanhar os records: um componente novo no DTO só aparece no JSON depois de entrar aqui
+ *  (o ApiJsonModuleTests compara a saída com a do Jackson padrão).
+*/
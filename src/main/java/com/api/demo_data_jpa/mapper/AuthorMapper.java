@@ -10,6 +10,7 @@ import org.mapstruct.Named;
 import org.mapstruct.factory.Mappers;
 
 import com.api.demo_data_jpa.dto.AuthorDTO;
+import com.api.demo_data_jpa.dto.AuthorDetailsDTO;
 import com.api.demo_data_jpa.model.Author;
 
 
@@ -33,6 +34,14 @@ public interface AuthorMapper {
     // Converte uma lista de entidades Author em uma lista de DTOs AuthorDTO
     List<AuthorDTO> toDtoList(List<Author> authors);
 
+    // Converte uma entidade Author no DTO da API REST (com id, versão e data de alteração)
+    @Mappings({
+        @Mapping(source = "address.streetName", target = "streetName"),
+        @Mapping(source = "address.houseNumber", target = "houseNumber"),
+        @Mapping(source = "address.zipCode", target = "zipCode")
+    })
+    AuthorDetailsDTO toDetailsDto(Author author);
+
     @Named("toUpper")
     static String toUpperCase(String value) {
         return value != null ? value.toUpperCase() : null;
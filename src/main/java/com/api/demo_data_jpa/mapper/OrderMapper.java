@@ -0,0 +1,30 @@
+package com.api.demo_data_jpa.mapper;
+
+import java.util.List;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Mappings;
+import org.mapstruct.factory.Mappers;
+
+import com.api.demo_data_jpa.dto.OrderDTO;
+import com.api.demo_data_jpa.model.embedded.Order;
+
+@Mapper
+public interface OrderMapper {
+
+    OrderMapper INSTANCE = Mappers.getMapper(OrderMapper.class);
+
+    // Chave composta (OrderId) e endereço (Address) achatados no DTO
+    @Mappings({
+        @Mapping(source = "orderId.username", target = "username"),
+        @Mapping(source = "orderId.orderDate", target = "orderDate"),
+        @Mapping(source = "address.streetName", target = "streetName"),
+        @Mapping(source = "address.houseNumber", target = "houseNumber"),
+        @Mapping(source = "address.zipCode", target = "zipCode")
+    })
+    OrderDTO toDto(Order order);
+
+    List<OrderDTO> toDtoList(List<Order> orders);
+
+}
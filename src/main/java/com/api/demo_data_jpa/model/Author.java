@@ -3,7 +3,10 @@ package com.api.demo_data_jpa.model;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.api.demo_data_jpa.cache.AuthorQueryCacheListener;
 import com.api.demo_data_jpa.model.embedded.Address;
+import com.api.demo_data_jpa.statistics.AuthorAgeHistogramListener;
+import com.api.demo_data_jpa.zipcode.ZipCodeIndexListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -11,21 +14,31 @@ import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.NamedQueries;
 import jakarta.persistence.NamedQuery;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
 import lombok.experimental.SuperBuilder;
 
 @Entity
-@Table(name = "AUTHOR_TBL")
+@Table(
+    name = "AUTHOR_TBL",
+    indexes = @Index(name = "idx_author_zip_code", columnList = "zip_code")
+)
+@EntityListeners({ AuthorAgeHistogramListener.class, AuthorQueryCacheListener.class, ZipCodeIndexListener.class })
 @NamedQueries({
     @NamedQuery(
         name = "Author.findByEmail",
@@ -45,17 +58,17 @@ import lombok.experimental.SuperBuilder;
     ),
     @NamedQuery(
         name = "Author.updateAgeByEmail",
-        query = "UPDATE Author a SET a.age = :age WHERE a.email = :email"
+        query = "UPDATE Author a SET a.age = :age, a.version = a.version + 1 WHERE a.email = :email"
     ),
     @NamedQuery(
         name = "Author.deleteByAgeLessThan",
         query = "DELETE FROM Author a WHERE a.age < :age"
     )
 })
-@Data
+@Getter
+@Setter
 @AllArgsConstructor
 @NoArgsConstructor
-@EqualsAndHashCode(callSuper = true)
 @ToString(callSuper = true)
 @SuperBuilder
 public class Author extends BaseEntity{
@@ -96,6 +109,7 @@ public class Author extends BaseEntity{
     // Como se lê: Vários autores podem ter vários cursos.
     @ManyToMany(mappedBy = "authors", fetch = FetchType.LAZY)
     @JsonIgnore
+    @ToString.Exclude
     List<Course> courses;
 
     
@@ -108,7 +122,30 @@ public class Author extends BaseEntity{
 
     // Um autor pode ter vários livros, mas um livro pertence a um único autor.
     @OneToMany(mappedBy = "author", cascade = CascadeType.ALL)
+    @ToString.Exclude
     private List<Book> books = new ArrayList<>();
+
+    // Valores que estão gravados no banco de dados (estado anterior a um update).
+    // Não são persistidos, servem para os listeners saberem o que mudou: o histograma de idades e o cache de consultas.
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    private Integer persistedAge;
+
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    private String persistedFirstName;
+
+    // Callbacks da própria entidade rodam depois dos listeners de @EntityListeners,
+    // então os listeners ainda enxergam o estado anterior em persistedAge/persistedFirstName.
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    void snapshotPersistedState() {
+        this.persistedAge = this.age;
+        this.persistedFirstName = this.firstName;
+    }
     
 }
 
@@ -241,7 +278,8 @@ public class Author extends BaseEntity{
  * @JsonProperty: Anotação do Jackson que indica que o campo deve ser serializado e desserializado com um nome específico no JSON. Isso é útil para personalizar o nome do campo no JSON.
  * optional = false: Indica que a relação é obrigatória, ou seja, não pode ser nula. (chave estrangeira obrigatória)
  * 
- * @EqualsAndHashCode(callSuper = true): Garante que o equals e hashCode considerem os campos da superclasse BaseEntity.
+ * @Getter + @Setter + @ToString(callSuper = true) em vez de @Data: o equals/hashCode vem do BaseEntity (baseado no id) e não percorre books/courses.
+ * @ToString.Exclude: Tira o campo do toString (associações LAZY seriam carregadas, e Author <-> Book entraria em recursão infinita).
 */
 
 /* Observação: 
@@ -3,6 +3,7 @@ package com.api.demo_data_jpa.model;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
+import org.hibernate.Hibernate;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -14,6 +15,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -42,6 +44,30 @@ public class BaseEntity {
 
     @LastModifiedBy
     private String lastModifiedBy; // Vai criar o usuário que atualizou o objeto
+
+    @Version
+    private Long version; // Incrementado a cada UPDATE; o UPDATE só é aplicado se a versão no banco ainda for a que foi lida (lock otimista)
+
+
+    // Identidade pelo id: nunca toca em associações, então não dispara lazy loading nem recursão (Author <-> Book).
+    // final: o proxy do Hibernate não intercepta o método, e getId()/Hibernate.getClassLazy não inicializam o proxy.
+    // Entidade nova (id null) só é igual a ela mesma.
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BaseEntity other) || Hibernate.getClassLazy(this) != Hibernate.getClassLazy(other)) {
+            return false;
+        }
+        return getId() != null && getId().equals(other.getId());
+    }
+
+    // Constante por classe: o hashCode não muda quando o persist() atribui o id (a entidade continua achável no HashSet).
+    @Override
+    public final int hashCode() {
+        return Hibernate.getClassLazy(this).hashCode();
+    }
     
 }
 
@@ -53,5 +79,10 @@ public class BaseEntity {
  * @LastModifiedDate: Cria a data e hora automaticamente quando o objeto é atualizado.
  * @CreatedBy: Cria o usuário que criou o objeto.
  * @LastModifiedBy: Cria o usuário que atualizou o objeto.
+ * @Version: Lock otimista. O Hibernate gera UPDATE ... SET version = version + 1 WHERE id = ? AND version = ?
+ *  - Se outra transação já alterou a linha, nenhuma linha é afetada e é lançada OptimisticLockException (no Spring, ObjectOptimisticLockingFailureException).
+ *  - Para repetir a operação automaticamente, use o OptimisticRetryExecutor.
+ * equals/hashCode: Escritos à mão (o @Data não gera quando o método já existe) e as subclasses usam @Getter/@Setter/@ToString em vez de @Data.
+ *  - Hibernate.getClassLazy: Classe da entidade, mesmo para um proxy LAZY ainda não carregado (sem ir ao banco de dados).
  * @SuperBuilder: Permite a construção de objetos usando o padrão Builder, facilitando a criação de instâncias da classe com propriedades opcionais.
 */
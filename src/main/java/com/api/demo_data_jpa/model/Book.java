@@ -5,18 +5,18 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
 import lombok.experimental.SuperBuilder;
 
 @Entity
 @Table(name = "BOOK_TBL")
-@Data
+@Getter
+@Setter
 @AllArgsConstructor
 @NoArgsConstructor
-@EqualsAndHashCode(callSuper = true)
 @ToString(callSuper = true)
 @SuperBuilder
 public class Book extends BaseEntity{
@@ -26,6 +26,7 @@ public class Book extends BaseEntity{
     // Muitos livros podem ter o mesmo autor, mas um livro pertence a um único autor.
     @ManyToOne
     @JoinColumn(name = "author_id")
+    @ToString.Exclude
     private Author author;
     
 }
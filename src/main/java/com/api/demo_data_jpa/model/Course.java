@@ -5,11 +5,14 @@ import java.util.List;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
+import com.api.demo_data_jpa.autocomplete.CourseAutocompleteListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
@@ -17,21 +20,24 @@ import jakarta.persistence.NamedQuery;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.experimental.SuperBuilder;
 
 @Entity
 @Table(name = "COURSE_TBL")
+@EntityListeners(CourseAutocompleteListener.class)
 @NamedQuery(
     name = "Course.findByName",
     query = "SELECT c FROM Course c WHERE c.name = :name"
 )
-@Data
+@Getter
+@Setter
 @AllArgsConstructor
 @NoArgsConstructor
-@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
 @SuperBuilder
 public class Course extends BaseEntity{
 
@@ -52,10 +58,14 @@ public class Course extends BaseEntity{
     @JoinTable(
         name = "courses_authors",
         joinColumns = { @JoinColumn(name = "course_id") },
-        inverseJoinColumns = { @JoinColumn(name = "author_id") }
+        inverseJoinColumns = { @JoinColumn(name = "author_id") },
+        // Vínculo avulso (CourseAuthorLinkService): "este autor já está neste curso?" e DELETE por (course_id, author_id) pelo índice.
+        // Único: o mesmo autor não entra duas vezes no mesmo curso (a bag não impede)
+        indexes = { @Index(name = "idx_courses_authors_course_author", columnList = "course_id, author_id", unique = true) }
     )
     @OnDelete(action = OnDeleteAction.CASCADE)
     @JsonIgnore 
+    @ToString.Exclude
     List<Author> authors;
 
     // Bom Saber: A classe que possuir @JoinColumn é o lado dono (Section). A classe que possuir o mappedBy é o lado inverso (Course).
@@ -65,6 +75,7 @@ public class Course extends BaseEntity{
     // Como se lê: Um curso pode ter várias seções, mas cada seção pertence a um único curso.
     @OneToMany(mappedBy = "course", fetch = FetchType.LAZY)
     @JsonIgnore
+    @ToString.Exclude
     List<Section> sections;
     
 }
@@ -9,28 +9,38 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.ForeignKey;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.experimental.SuperBuilder;
 
 @Entity
-@Table(name = "LECTURE_TBL")
-@Data
+@Table(
+    name = "LECTURE_TBL",
+    indexes = @Index(name = "idx_lecture_section_order", columnList = "section_id, lecture_order") // Leitura ordenada por seek no índice (sem filesort)
+)
+@Getter
+@Setter
 @AllArgsConstructor
 @NoArgsConstructor
-@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
 @SuperBuilder
 public class Lecture extends BaseEntity{
 
     @Column(length = 100)
     private String name;
 
+    // Chave de ordenação esparsa dentro da seção (mesmo esquema do Section.sectionOrder)
+    @Column(name = "lecture_order")
+    private long lectureOrder;
+
     // Bom Saber: A classe que possuir @JoinColumn é o lado dono (Lecture). A classe que possuir o mappedBy é o lado inverso (Resource).
     // O Lecture é o relacionamento principal, é o lado do dono da relação e o Section é o lado dependente da relação.
     // A anotação @JoinColumn é usada para especificar a coluna que será usada como chave estrangeira na tabela de palestras.
@@ -43,6 +53,7 @@ public class Lecture extends BaseEntity{
     @JoinColumn(name = "section_id", foreignKey = @ForeignKey(name = "fk_lecture_section_id"))
     @OnDelete(action = OnDeleteAction.CASCADE)
     @JsonIgnore
+    @ToString.Exclude
     private Section section;
 
     // É uma relação UNIDIRECIONAL OneToOne entre Lecture e Resource - para ser unidirecional não usa a propriedade mappedBy - aqui, para acessar o Resource, você precisa acessar a Lecture.
@@ -57,6 +68,7 @@ public class Lecture extends BaseEntity{
     @OneToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "resource_id", foreignKey = @ForeignKey(name = "fk_lecture_resource_id"))
     @OnDelete(action = OnDeleteAction.CASCADE) 
+    @ToString.Exclude
     private Resource resource;
     
 }
@@ -0,0 +1,75 @@
+package com.api.demo_data_jpa.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+@Entity
+@Table(name = "PURGE_JOB_TBL")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString(callSuper = true)
+@SuperBuilder
+public class PurgeJob extends BaseEntity{
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    // Critério do expurgo: autores com idade menor que ageLessThan (mesmo critério do deleteAuthorsYoungerThan)
+    @Column(name = "age_less_than", nullable = false)
+    private int ageLessThan;
+
+    @Column(name = "chunk_size", nullable = false)
+    private int chunkSize;
+
+    @Column(name = "pause_millis", nullable = false)
+    private long pauseMillis;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    // Checkpoint: maior id de autor já processado. Atualizado na mesma transação que apaga o lote,
+    // então depois de uma queda o job continua exatamente do próximo lote.
+    @Column(name = "last_processed_id", nullable = false)
+    private int lastProcessedId;
+
+    @Column(name = "deleted_authors", nullable = false)
+    private long deletedAuthors;
+
+    @Column(name = "deleted_books", nullable = false)
+    private long deletedBooks;
+
+    @Column(name = "deleted_course_links", nullable = false)
+    private long deletedCourseLinks;
+
+    @Column(name = "chunks", nullable = false)
+    private long chunks;
+
+    // Tempo gasto apagando (sem contar as pausas entre lotes), usado para calcular linhas/segundo
+    @Column(name = "elapsed_millis", nullable = false)
+    private long elapsedMillis;
+
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+
+    // Autores apagados por segundo (somente o tempo de trabalho)
+    public double authorsPerSecond() {
+        return elapsedMillis == 0 ? 0.0 : deletedAuthors * 1000.0 / elapsedMillis;
+    }
+
+}
+
+/* Anotação:
+ * @Enumerated(EnumType.STRING): Grava o nome do enum (RUNNING, COMPLETED, FAILED) em vez da posição (ordinal).
+ * Tabela de controle do AuthorPurgeService: guarda o progresso de cada expurgo para que ele possa ser retomado depois de uma queda.
+*/
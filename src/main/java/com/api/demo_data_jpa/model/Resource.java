@@ -14,22 +14,30 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Inheritance;
 import jakarta.persistence.InheritanceType;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.TableGenerator;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.experimental.SuperBuilder;
 
 @Entity
 @Inheritance(strategy = InheritanceType.TABLE_PER_CLASS)
 @Polymorphism(type = PolymorphismType.EXPLICIT)
-@Data
+@Getter
+@Setter
 @AllArgsConstructor
 @NoArgsConstructor
+@ToString
 @SuperBuilder
 public class Resource{
 
+    // Ids reservados de 1000 em 1000 na hibernate_sequences: uma importação de curso com 10 mil palestras faz 10 reservas, não 200
     @Id
-    @GeneratedValue(strategy = GenerationType.TABLE)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "resource_ids")
+    @TableGenerator(name = "resource_ids", table = "hibernate_sequences", pkColumnName = "sequence_name",
+        valueColumnName = "next_val", pkColumnValue = "resource", allocationSize = 1000)
     private Integer id;
 
     @Column(length = 100)
@@ -38,6 +46,10 @@ public class Resource{
     private int size;
     private String url;
 
+    // SHA-256 dos bytes no LocalContentStore (File/Video com o mesmo conteúdo apontam para o mesmo blob)
+    @Column(length = 64)
+    private String contentHash;
+
     // É uma relação BIDIRECIONAL OneToOne entre Resource e Lecture - para ser bidirecional usa a propriedade mappedBy na classe Lecture. Aqui, para acessar a Lecture, você pode acessar o Resource diretamente através da propriedade lecture ou acessar a Lecture através do Resource, pois a relação é bidirecional. 
     // Bom Saber: A classe que possuir @JoinColumn é o lado dono (Lecture). A classe que possuir o mappedBy é o lado inverso (Resource).
     // Lecture é o relacionamento principal, é o lado do dono da relação e o Resource é o lado inverso da relação.
@@ -46,8 +58,27 @@ public class Resource{
     // Como se lê: Um recurso pode pertencer a uma única palestra, e uma palestra pode ter um único recurso.
     @OneToOne(mappedBy = "resource", fetch = FetchType.LAZY)
     @JsonIgnore
+    @ToString.Exclude
     private Lecture lecture;
 
+    // Identidade pelo id, como no BaseEntity. Os ids são únicos em toda a hierarquia (gerador TABLE compartilhado),
+    // então basta ser um Resource: um proxy de Resource e o Video carregado com o mesmo id são iguais.
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Resource other)) {
+            return false;
+        }
+        return getId() != null && getId().equals(other.getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return Resource.class.hashCode();
+    }
+
 
 /* Exemplo de Relacionamento Composição
     // Resource é o relacionamento inverso, e Video é o relacionamento principal (dono), é o lado do dono da relação.
@@ -68,6 +99,9 @@ public class Resource{
 }
 
 /*Anotação:
+ * @TableGenerator: Configura o gerador TABLE (tabela, linha do segmento e allocationSize).
+ *  - allocationSize: Quantos ids cada reserva na tabela libera; os próximos saem da memória, sem ir ao banco.
+ *  - Ids não usados de um bloco reservado se perdem quando a aplicação reinicia (buracos na sequência).
  * fetch = FetchType.LAZY: O JPA irá carregar os dados somente quando for necessário, caso contrário, irá carregar apenas o ID.
  *  - Isso é útil para evitar carregamento desnecessário de dados, especialmente se a entidade for grande ou se você não precisar dela imediatamente.
  * cascade = CascadeType.ALL:
@@ -14,22 +14,28 @@ import jakarta.persistence.ForeignKey;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.experimental.SuperBuilder;
 
 @Entity
-@Table(name = "SECTION_TBL")
-@Data
+@Table(
+    name = "SECTION_TBL",
+    indexes = @Index(name = "idx_section_course_order", columnList = "course_id, section_order") // Leitura ordenada por seek no índice (sem filesort)
+)
+@Getter
+@Setter
 @AllArgsConstructor
 @NoArgsConstructor
-@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
 @SuperBuilder
 public class Section extends BaseEntity{
 
@@ -40,8 +46,9 @@ public class Section extends BaseEntity{
     @Column(length = 100)
     private String name;
 
+    // Chave de ordenação esparsa (OrderKeys.GAP entre seções vizinhas): mover uma seção altera só a linha dela
     @Column(name = "section_order")
-    private int sectionOrder;
+    private long sectionOrder;
 
     // Bom Saber: A classe que possuir @JoinColumn é o lado dono (Section). A classe que possuir o mappedBy é o lado inverso (Course).
     // O Section é o relacionamento principal, é o lado do dono da relação e o Course é o lado dependente da relação.
@@ -55,6 +62,7 @@ public class Section extends BaseEntity{
     @JoinColumn(name = "course_id", foreignKey = @ForeignKey(name = "fk_section_course_id"))
     @OnDelete(action = OnDeleteAction.CASCADE) 
     @JsonIgnore
+    @ToString.Exclude
     private Course course;
 
     // Bom Saber: A classe que possuir @JoinColumn é o lado dono (Lecture). A classe que possuir o mappedBy é o lado inverso (Section).
@@ -64,6 +72,7 @@ public class Section extends BaseEntity{
     // Como se lê: Uma seção pode ter várias palestras, mas cada palestra pertence a uma única seção.
     @OneToMany(mappedBy = "section", fetch = FetchType.LAZY)
     @JsonIgnore
+    @ToString.Exclude
     private List<Lecture> lectures;
     
 }
@@ -1,22 +1,34 @@
 package com.api.demo_data_jpa.model;
 
+import org.hibernate.Length;
+import org.hibernate.annotations.LazyGroup;
+
+import jakarta.persistence.Basic;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.experimental.SuperBuilder;
 
 @Entity
-@Data
+@Getter
+@Setter
 @AllArgsConstructor
 @NoArgsConstructor
+@ToString(callSuper = true)
 @SuperBuilder
-@EqualsAndHashCode(callSuper = true) // Para garantir que o equals e hashCode considerem os campos da classe pai Resource
 public class Text extends Resource{
 
-    @Column(length = 500)
+    // Coluna pesada: fica fora do SELECT de listagens e buscas e só é lida quando getContent() é chamado
+    // (uma consulta extra que traz o grupo "content" inteiro). Exige o bytecode enhancement do pom.xml.
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("content")
+    @Column(length = Length.LONG32)
+    @ToString.Exclude
     private String content;
 
 /* Exemplo de Relacionamento Composição
@@ -30,6 +42,10 @@ public class Text extends Resource{
 }
 
 /*Anotação:
+ * @Basic(fetch = FetchType.LAZY): Atributo simples (não associação) carregado sob demanda. Sem bytecode enhancement o Hibernate ignora e carrega junto.
+ * @LazyGroup("content"): Atributos LAZY do mesmo grupo são carregados juntos, em uma única consulta, no primeiro acesso a qualquer um deles.
+ * Length.LONG32: Tamanho máximo de texto (no MySQL vira LONGTEXT).
+ * @ToString.Exclude: O toString não dispara a carga do conteúdo.
  * fetch = FetchType.LAZY:
  * - Significa que a entidade Resource não será carregada automaticamente quando a entidade Text for carregada. A Resource só será carregada quando for explicitamente acessada.
  * Isso é útil para evitar carregamento desnecessário de dados, especialmente se a Resource for grande ou se você não precisar dela imediatamente.
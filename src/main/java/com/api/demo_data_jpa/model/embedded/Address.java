@@ -1,5 +1,6 @@
 package com.api.demo_data_jpa.model.embedded;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Embeddable;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -13,6 +14,8 @@ public class Address {
 
     private String streetName;
     private String houseNumber;
+    // Nome explícito pois a coluna é indexada em AUTHOR_TBL e ORDER_TBL (busca por CEP e por prefixo de CEP)
+    @Column(name = "zip_code", length = 20)
     private String zipCode;
     
 }
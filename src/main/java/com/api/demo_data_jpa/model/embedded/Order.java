@@ -1,22 +1,40 @@
 package com.api.demo_data_jpa.model.embedded;
 
+import com.api.demo_data_jpa.zipcode.ZipCodeIndexListener;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Embedded;
 import jakarta.persistence.EmbeddedId;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 @Entity
-@Table(name = "ORDER_TBL")
+@Table(
+    name = "ORDER_TBL",
+    indexes = {
+        // Histórico de um usuário por período: WHERE username = ? AND order_date BETWEEN ? AND ? ORDER BY order_date
+        // A ordem das colunas da PK composta é decidida pelo Hibernate (ordem alfabética dos atributos do OrderId: order_date, username).
+        // A PK já atende a janela de tempo global (ORDER BY order_date, username), mas não o filtro por username, daí este índice.
+        @Index(name = "idx_order_username_order_date", columnList = "username, order_date"),
+        // Busca por CEP exato e por prefixo de CEP (LIKE '99999-%' usa o índice)
+        @Index(name = "idx_order_zip_code", columnList = "zip_code")
+    }
+)
+@EntityListeners(ZipCodeIndexListener.class)
 @Data
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @AllArgsConstructor
 @NoArgsConstructor
 public class Order {
 
     @EmbeddedId
+    @EqualsAndHashCode.Include        // Identidade pela chave (username + orderDate), não pelos campos alteráveis
     private OrderId orderId;          // Chave primária composta
 
     @Embedded
@@ -42,6 +60,9 @@ public class Order {
  *   - Deve haver apenas uma anotação EmbeddedId e nenhuma anotação Id quando a anotação EmbeddedId for usada.
  *   - Indica que a classe OrderId é uma classe que contém o ID da classe Order.
  * 
+ * @Table(indexes = @Index(...)): Cria índices no DDL gerado pelo Hibernate.
+ *   - columnList: Colunas do índice, na ordem (a ordem importa: o índice só é usado a partir da primeira coluna).
+ * 
  * @Embedded:
  *   - Especifica um campo ou propriedade persistente de uma entidade cujo valor é uma instância de uma classe incorporável. A classe incorporável 
  *     deve ser anotada como Incorporável.
@@ -3,6 +3,7 @@ package com.api.demo_data_jpa.model.embedded;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Embeddable;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -14,8 +15,11 @@ import lombok.NoArgsConstructor;
 @Embeddable
 public class OrderId implements Serializable{
 
+    // Nomes das colunas explícitos, pois são usados nos índices do ORDER_TBL (ver Order).
+    @Column(name = "username", length = 100)
     private String username;
 
+    @Column(name = "order_date")
     private LocalDateTime orderDate;
     
 }
@@ -0,0 +1,228 @@
+package com.api.demo_data_jpa.ordering;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.api.demo_data_jpa.dto.CourseOutlineDTO;
+import com.api.demo_data_jpa.model.Lecture;
+import com.api.demo_data_jpa.model.Section;
+import com.api.demo_data_jpa.repository.CourseRepository;
+import com.api.demo_data_jpa.repository.LectureRepository;
+import com.api.demo_data_jpa.repository.SectionRepository;
+
+import jakarta.transaction.Transactional;
+
+// Ordem das seções de um curso e das palestras de uma seção com chaves esparsas (OrderKeys):
+// adicionar ou mover um item é um UPDATE de uma linha; o rebalanceamento (todos os irmãos) fica para segundo plano.
+@Service
+public class CurriculumOrderingService {
+
+    private static final Logger log = LoggerFactory.getLogger(CurriculumOrderingService.class);
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private SectionRepository sectionRepository;
+
+    @Autowired
+    private LectureRepository lectureRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Pais cujas chaves ficaram apertadas (rebalanceados pelo job agendado)
+    private final Set<Integer> crowdedCourses = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> crowdedSections = ConcurrentHashMap.newKeySet();
+
+
+    /* ==== Leitura ordenada ==== */
+
+    public List<Section> sectionsOf(Integer courseId) {
+        return sectionRepository.findByCourseIdOrderBySectionOrderAscIdAsc(courseId);
+    }
+
+    public List<Lecture> lecturesOf(Integer sectionId) {
+        return lectureRepository.findBySectionIdOrderByLectureOrderAscIdAsc(sectionId);
+    }
+
+    // Curso inteiro em 3 consultas (curso, seções, todas as palestras), em vez de uma consulta de palestras por seção
+    @Transactional
+    public Optional<CourseOutlineDTO> outlineOf(Integer courseId) {
+        return courseRepository.findById(courseId).map(course -> {
+            Map<Integer, List<CourseOutlineDTO.Lecture>> lecturesBySection = new HashMap<>();
+            for (Object[] row : lectureRepository.findOutlineRowsByCourseId(courseId)) {
+                lecturesBySection.computeIfAbsent((Integer) row[0], id -> new ArrayList<>())
+                    .add(new CourseOutlineDTO.Lecture((Integer) row[1], (String) row[2], (Integer) row[3]));
+            }
+            List<CourseOutlineDTO.Section> sections = new ArrayList<>();
+            for (Section section : sectionsOf(courseId)) {
+                sections.add(new CourseOutlineDTO.Section(section.getId(), section.getName(),
+                    lecturesBySection.getOrDefault(section.getId(), List.of())));
+            }
+            return new CourseOutlineDTO(course.getId(), course.getName(), course.getDescription(), sections);
+        });
+    }
+
+
+    /* ==== Seções ==== */
+
+    // Nova seção no fim do curso (section.course precisa estar preenchido)
+    @Transactional
+    public Section appendSection(Section section) {
+        Long last = sectionRepository.findLastOrder(section.getCourse().getId());
+        section.setSectionOrder(OrderKeys.between(last, null).orElseThrow());
+        return sectionRepository.save(section);
+    }
+
+    // Move a seção para logo depois de afterSectionId (null = primeira do curso). Retorna a nova chave.
+    @Transactional
+    public long moveSection(Integer sectionId, Integer afterSectionId) {
+        Section section = sectionRepository.findById(sectionId)
+            .orElseThrow(() -> new IllegalArgumentException("Seção não encontrada: " + sectionId));
+        Integer courseId = section.getCourse().getId();
+        Section after = null;
+        if (afterSectionId != null) {
+            after = sectionRepository.findById(afterSectionId)
+                .filter(candidate -> candidate.getCourse().getId().equals(courseId))
+                .orElseThrow(() -> new IllegalArgumentException("Seção " + afterSectionId + " não pertence ao curso " + courseId));
+        }
+
+        OptionalLong key = sectionKeyAfter(courseId, after, sectionId);
+        if (key.isEmpty()) {
+            // Sem espaço entre os vizinhos: rebalanceia agora (after é gerenciada, então recebe a chave nova)
+            rebalanceSections(courseId);
+            key = sectionKeyAfter(courseId, after, sectionId);
+        }
+        section.setSectionOrder(key.getAsLong());
+        return key.getAsLong();
+    }
+
+    @Transactional
+    public void rebalanceSections(Integer courseId) {
+        List<Section> sections = sectionsOf(courseId);
+        for (int i = 0; i < sections.size(); i++) {
+            sections.get(i).setSectionOrder(OrderKeys.at(i));
+        }
+        crowdedCourses.remove(courseId);
+    }
+
+    private OptionalLong sectionKeyAfter(Integer courseId, Section after, Integer movingId) {
+        Long previous = after == null ? null : after.getSectionOrder();
+        Long next = previous == null
+            ? sectionRepository.findFirstOrder(courseId, movingId)
+            : sectionRepository.findNextOrder(courseId, previous, movingId);
+        OptionalLong key = OrderKeys.between(previous, next);
+        if (key.isPresent() && OrderKeys.crowded(previous, key.getAsLong(), next)) {
+            crowdedCourses.add(courseId);
+        }
+        return key;
+    }
+
+
+    /* ==== Palestras ==== */
+
+    // Nova palestra no fim da seção (lecture.section precisa estar preenchido)
+    @Transactional
+    public Lecture appendLecture(Lecture lecture) {
+        Long last = lectureRepository.findLastOrder(lecture.getSection().getId());
+        lecture.setLectureOrder(OrderKeys.between(last, null).orElseThrow());
+        return lectureRepository.save(lecture);
+    }
+
+    // Move a palestra para a seção sectionId, logo depois de afterLectureId (null = primeira da seção). Retorna a nova chave.
+    @Transactional
+    public long moveLecture(Integer lectureId, Integer sectionId, Integer afterLectureId) {
+        Lecture lecture = lectureRepository.findById(lectureId)
+            .orElseThrow(() -> new IllegalArgumentException("Palestra não encontrada: " + lectureId));
+        Lecture after = null;
+        if (afterLectureId != null) {
+            after = lectureRepository.findById(afterLectureId)
+                .filter(candidate -> candidate.getSection().getId().equals(sectionId))
+                .orElseThrow(() -> new IllegalArgumentException("Palestra " + afterLectureId + " não pertence à seção " + sectionId));
+        }
+        if (!lecture.getSection().getId().equals(sectionId)) {
+            lecture.setSection(sectionRepository.getReferenceById(sectionId));
+        }
+
+        OptionalLong key = lectureKeyAfter(sectionId, after, lectureId);
+        if (key.isEmpty()) {
+            rebalanceLectures(sectionId);
+            key = lectureKeyAfter(sectionId, after, lectureId);
+        }
+        lecture.setLectureOrder(key.getAsLong());
+        return key.getAsLong();
+    }
+
+    @Transactional
+    public void rebalanceLectures(Integer sectionId) {
+        List<Lecture> lectures = lecturesOf(sectionId);
+        for (int i = 0; i < lectures.size(); i++) {
+            lectures.get(i).setLectureOrder(OrderKeys.at(i));
+        }
+        crowdedSections.remove(sectionId);
+    }
+
+    private OptionalLong lectureKeyAfter(Integer sectionId, Lecture after, Integer movingId) {
+        Long previous = after == null ? null : after.getLectureOrder();
+        Long next = previous == null
+            ? lectureRepository.findFirstOrder(sectionId, movingId)
+            : lectureRepository.findNextOrder(sectionId, previous, movingId);
+        OptionalLong key = OrderKeys.between(previous, next);
+        if (key.isPresent() && OrderKeys.crowded(previous, key.getAsLong(), next)) {
+            crowdedSections.add(sectionId);
+        }
+        return key;
+    }
+
+
+    /* ==== Rebalanceamento em segundo plano ==== */
+
+    // Um curso/seção por transação; conflito de versão com um movimento concorrente -> tenta de novo na próxima rodada
+    @Scheduled(
+        initialDelayString = "${app.ordering.rebalance-interval-ms:60000}",
+        fixedDelayString = "${app.ordering.rebalance-interval-ms:60000}"
+    )
+    public void rebalanceCrowded() {
+        for (Integer courseId : List.copyOf(crowdedCourses)) {
+            rebalanceInBackground(courseId, crowdedCourses, () -> rebalanceSections(courseId));
+        }
+        for (Integer sectionId : List.copyOf(crowdedSections)) {
+            rebalanceInBackground(sectionId, crowdedSections, () -> rebalanceLectures(sectionId));
+        }
+    }
+
+    private void rebalanceInBackground(Integer parentId, Set<Integer> pending, Runnable rebalance) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> rebalance.run());
+        } catch (OptimisticLockingFailureException e) {
+            pending.add(parentId);
+            log.debug("Rebalanceamento de {} adiado por conflito de versão", parentId);
+        }
+    }
+
+}
+
+/* Anotação:
+ * Mover uma seção para o topo de um curso com 200 seções:
+ *  - Ordem densa: 200 UPDATEs (todas as seções depois dela mudam de número).
+ *  - Ordem esparsa: 1 UPDATE (a seção recebe uma chave menor que a da primeira).
+ * Vizinhos: MIN(section_order) WHERE course_id = ? AND section_order > ? usa o índice (course_id, section_order) e lê uma entrada só.
+ * Rebalanceamento: Renumera os irmãos com espaço GAP de novo. Acontece na hora só quando não sobra espaço nenhum; quando o espaço fica
+ *  apertado (OrderKeys.REBALANCE_THRESHOLD) o pai vai para uma fila e o job agendado rebalanceia fora do caminho da requisição.
+ * Dois movimentos concorrentes para o mesmo lugar podem gerar a mesma chave; a leitura desempata pelo id.
+*/
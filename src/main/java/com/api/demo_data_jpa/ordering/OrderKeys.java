@@ -0,0 +1,51 @@
+package com.api.demo_data_jpa.ordering;
+
+import java.util.OptionalLong;
+
+// Chaves de ordenação esparsas: vizinhos começam separados por GAP, e um item movido recebe o ponto médio entre os novos vizinhos.
+// Cada movimento consome metade do espaço livre; com GAP = 2^20 cabem ~20 inserções seguidas no mesmo lugar antes de rebalancear.
+public final class OrderKeys {
+
+    public static final long GAP = 1L << 20;
+
+    // Abaixo deste espaço entre vizinhos, o pai (curso/seção) entra na fila de rebalanceamento em segundo plano
+    public static final long REBALANCE_THRESHOLD = 1L << 4;
+
+    private OrderKeys() {
+    }
+
+    // Chave da i-ésima posição (0, 1, 2...) numa lista recém-rebalanceada
+    public static long at(int position) {
+        return (position + 1L) * GAP;
+    }
+
+    // Chave entre previous e next (null = sem vizinho daquele lado). Vazio quando não há inteiro livre entre os dois.
+    public static OptionalLong between(Long previous, Long next) {
+        if (previous == null && next == null) {
+            return OptionalLong.of(GAP);
+        }
+        if (previous == null) {
+            return next > Long.MIN_VALUE + GAP ? OptionalLong.of(next - GAP) : OptionalLong.empty();
+        }
+        if (next == null) {
+            return previous < Long.MAX_VALUE - GAP ? OptionalLong.of(previous + GAP) : OptionalLong.empty();
+        }
+        if (next - previous <= 1) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(previous + (next - previous) / 2);
+    }
+
+    // true quando a chave nova ficou perto demais de algum vizinho
+    public static boolean crowded(Long previous, long key, Long next) {
+        return (previous != null && key - previous < REBALANCE_THRESHOLD)
+            || (next != null && next - key < REBALANCE_THRESHOLD);
+    }
+
+}
+
+/* Anotação:
+ * Ordenação densa (1, 2, 3...): Colocar um item no topo obriga a renumerar todos os que vêm depois (O(n) UPDATEs).
+ * Ordenação esparsa (gap-based): Sobra espaço entre as chaves, então mover um item é um único UPDATE (O(1) linhas).
+ *  - Quando o espaço acaba naquele ponto, todos os irmãos são renumerados com GAP de novo (rebalanceamento, raro).
+*/
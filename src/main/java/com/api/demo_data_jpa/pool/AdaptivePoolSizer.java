@@ -0,0 +1,171 @@
+package com.api.demo_data_jpa.pool;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+
+// Ajusta o maximumPoolSize do pool principal dentro de [min-size, max-size] comparando, a cada intervalo,
+// a espera para obter conexão com o tempo que cada conexão fica em uso (a latência do banco vista pela aplicação).
+//  - Espera alta e latência estável -> faltam conexões: cresce.
+//  - Espera alta e latência subindo  -> o banco já está saturado; mais conexões só formariam fila dentro dele: diminui.
+//  - Sem espera e com conexões sobrando -> devolve uma conexão.
+// Desligado por padrão (app.connection-pool.adaptive.enabled).
+@Component
+public class AdaptivePoolSizer {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptivePoolSizer.class);
+
+    public enum Decision { GROW, SHRINK, KEEP }
+
+    // O que foi medido no intervalo e o que foi feito (para log e para o benchmark)
+    public record Evaluation(
+            int poolSize,
+            long acquires,
+            long waitP95Micros,
+            long holdMeanMicros,
+            long baselineHoldMicros,
+            int idle,
+            int pending,
+            Decision decision,
+            int newPoolSize) {
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ConnectionPoolTelemetry telemetry;
+
+    @Value("${app.connection-pool.adaptive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.connection-pool.adaptive.min-size:5}")
+    private int minSize;
+
+    @Value("${app.connection-pool.adaptive.max-size:40}")
+    private int maxSize;
+
+    @Value("${app.connection-pool.adaptive.step:2}")
+    private int step;
+
+    // Espera (p95) acima desta fração da latência (média do uso) = threads paradas esperando conexão por tempo relevante
+    @Value("${app.connection-pool.adaptive.wait-to-hold-ratio:0.5}")
+    private double waitToHoldRatio;
+
+    // Latência acima de baseline * tolerância = o banco ficou mais lento com mais conexões
+    @Value("${app.connection-pool.adaptive.latency-tolerance:1.5}")
+    private double latencyTolerance;
+
+    // Intervalos com menos conexões obtidas do que isso não decidem nada (pouca amostra)
+    @Value("${app.connection-pool.adaptive.min-samples:50}")
+    private long minSamples;
+
+    private LatencyHistogram.Snapshot lastWait = LatencyHistogram.Snapshot.EMPTY;
+    private LatencyHistogram.Snapshot lastHold = LatencyHistogram.Snapshot.EMPTY;
+
+    // Menor latência observada; sobe 1% por intervalo para acompanhar um banco que ficou mais lento de vez
+    private long baselineHoldMicros = 0;
+
+    @Scheduled(
+        initialDelayString = "${app.connection-pool.adaptive.interval-ms:5000}",
+        fixedDelayString = "${app.connection-pool.adaptive.interval-ms:5000}"
+    )
+    public void tick() {
+        if (enabled) {
+            Evaluation evaluation = evaluate();
+            if (evaluation != null && evaluation.decision() != Decision.KEEP) {
+                log.info("Pool {} -> {} ({}) waitP95us={} holdMeanUs={} baselineHoldUs={}", evaluation.poolSize(), evaluation.newPoolSize(),
+                    evaluation.decision(), evaluation.waitP95Micros(), evaluation.holdMeanMicros(), evaluation.baselineHoldMicros());
+            }
+        }
+    }
+
+    // Um passo do controle: mede o intervalo desde a última chamada e redimensiona se for o caso (null = pool não é Hikari)
+    public synchronized Evaluation evaluate() {
+        if (!(dataSource instanceof HikariDataSource hikari) || hikari.getHikariPoolMXBean() == null) {
+            return null;
+        }
+        ConnectionPoolTelemetry.PoolSnapshot snapshot = telemetry.snapshot(hikari.getPoolName());
+        if (snapshot == null) {
+            return null;
+        }
+        LatencyHistogram.Snapshot wait = snapshot.acquireWait().minus(lastWait);
+        LatencyHistogram.Snapshot hold = snapshot.hold().minus(lastHold);
+        lastWait = snapshot.acquireWait();
+        lastHold = snapshot.hold();
+
+        HikariConfigMXBean config = hikari.getHikariConfigMXBean();
+        int size = config.getMaximumPoolSize();
+        long waitP95 = wait.percentileMicros(0.95);
+        // Média e não p50: com fila dentro do banco, parte das consultas espera muito e a mediana não mostra (a média acompanha a fila)
+        long holdMean = Math.max(1, Math.round(hold.meanMicros()));
+        if (hold.count() >= minSamples) {
+            baselineHoldMicros = baselineHoldMicros == 0 ? holdMean : Math.min(holdMean, Math.max(baselineHoldMicros + 1, (long) (baselineHoldMicros * 1.01)));
+        }
+
+        Decision decision = Decision.KEEP;
+        if (wait.count() >= minSamples && waitP95 > waitToHoldRatio * holdMean) {
+            if (holdMean > latencyTolerance * baselineHoldMicros) {
+                decision = size > minSize ? Decision.SHRINK : Decision.KEEP;
+            } else {
+                decision = size < maxSize ? Decision.GROW : Decision.KEEP;
+            }
+        } else if (snapshot.pending() == 0 && snapshot.idle() > step && size > minSize) {
+            decision = Decision.SHRINK;
+        }
+
+        int newSize = switch (decision) {
+            case GROW -> Math.min(maxSize, size + step);
+            case SHRINK -> Math.max(minSize, size - (waitP95 > 0 ? step : 1));
+            case KEEP -> size;
+        };
+        if (newSize != size) {
+            resize(hikari, newSize);
+        }
+        return new Evaluation(size, wait.count(), waitP95, holdMean, baselineHoldMicros, snapshot.idle(), snapshot.pending(), decision, newSize);
+    }
+
+    // Esquece o histórico: o próximo evaluate() mede a partir de agora e recalcula a latência de referência
+    public synchronized void reset() {
+        if (dataSource instanceof HikariDataSource hikari) {
+            ConnectionPoolTelemetry.PoolSnapshot snapshot = telemetry.snapshot(hikari.getPoolName());
+            if (snapshot != null) {
+                lastWait = snapshot.acquireWait();
+                lastHold = snapshot.hold();
+            }
+        }
+        baselineHoldMicros = 0;
+    }
+
+    // O Hikari aceita mudar o tamanho com o pool rodando. Para crescer basta o novo máximo (conexões são abertas sob demanda);
+    // para diminuir, as conexões que já existem continuariam emprestáveis até o idleTimeout, então são substituídas
+    // (softEvict: as ociosas fecham agora, as em uso ao voltar para o pool) e o pool reabre no máximo newSize.
+    private static void resize(HikariDataSource hikari, int newSize) {
+        HikariConfigMXBean config = hikari.getHikariConfigMXBean();
+        boolean shrinking = newSize < config.getMaximumPoolSize();
+        if (config.getMinimumIdle() > newSize) {
+            config.setMinimumIdle(newSize);
+        }
+        config.setMaximumPoolSize(newSize);
+        if (shrinking) {
+            hikari.getHikariPoolMXBean().softEvictConnections();
+        }
+    }
+
+}
+
+/* Anotação:
+ * HikariConfigMXBean: Configurações que podem mudar com o pool rodando (maximumPoolSize, minimumIdle, timeouts).
+ * p95 da espera x média do uso da conexão: a espera precisa ser comparável ao próprio trabalho no banco para valer uma conexão a mais.
+ * Baseline: menor latência recente; quando a latência passa dela * tolerância, conexões extras não aumentam a vazão (fila no banco).
+ * Redução: de step em step se o banco está saturado; de 1 em 1 quando só sobram conexões ociosas.
+ *  - Cada redução reabre as conexões do pool (softEvictConnections); por isso no máximo uma por intervalo.
+*/
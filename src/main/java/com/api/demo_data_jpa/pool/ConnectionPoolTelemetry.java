@@ -0,0 +1,191 @@
+package com.api.demo_data_jpa.pool;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+// Métricas dos pools Hikari: espera para obter conexão, tempo com a conexão na mão (total e por método de repositório),
+// timeouts e conexões ativas/ociosas/threads esperando. Registrado no pool principal pelo HikariTelemetryInstaller
+// e nos pools dos shards de autores.
+@Component
+public class ConnectionPoolTelemetry implements MetricsTrackerFactory {
+
+    private static final Logger log = LoggerFactory.getLogger(ConnectionPoolTelemetry.class);
+
+    static final String OUTSIDE_REPOSITORY = "(sem repositório)";
+
+    // Conexões abertas pela thread atual (a mais recente no topo) e o método de repositório em execução
+    private static final ThreadLocal<ArrayDeque<Hold>> HOLDS = ThreadLocal.withInitial(ArrayDeque::new);
+    private static final ThreadLocal<String> CURRENT_METHOD = new ThreadLocal<>();
+
+    // Limite de segurança: conexão obtida em uma thread e devolvida em outra deixaria um Hold para trás
+    private static final int MAX_OPEN_HOLDS = 16;
+
+    private final Map<String, PoolMetrics> pools = new ConcurrentHashMap<>();
+
+    private static final class Hold {
+        private final long acquiredAt = System.nanoTime();
+        private String method;
+
+        private Hold(String method) {
+            this.method = method;
+        }
+    }
+
+    static final class PoolMetrics {
+        private final PoolStats poolStats;
+        private final LatencyHistogram acquireWait = new LatencyHistogram();
+        private final LatencyHistogram hold = new LatencyHistogram();
+        private final Map<String, LatencyHistogram> holdByMethod = new ConcurrentHashMap<>();
+        private final LongAdder timeouts = new LongAdder();
+
+        private PoolMetrics(PoolStats poolStats) {
+            this.poolStats = poolStats;
+        }
+    }
+
+    public record PoolSnapshot(
+            String poolName,
+            int active,
+            int idle,
+            int pending,
+            int total,
+            int max,
+            long timeouts,
+            LatencyHistogram.Snapshot acquireWait,
+            LatencyHistogram.Snapshot hold,
+            Map<String, LatencyHistogram.Snapshot> holdByMethod) {
+    }
+
+
+    /* ==== Hikari ==== */
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        PoolMetrics metrics = new PoolMetrics(poolStats);
+        pools.put(poolName, metrics);
+        return new IMetricsTracker() {
+
+            // Chamado na thread que pediu a conexão, logo depois de obtê-la
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                metrics.acquireWait.record(elapsedAcquiredNanos);
+                ArrayDeque<Hold> holds = HOLDS.get();
+                if (holds.size() == MAX_OPEN_HOLDS) {
+                    holds.clear();
+                }
+                holds.push(new Hold(CURRENT_METHOD.get()));
+            }
+
+            // Chamado no close() da conexão (devolução ao pool); o Hikari só mede em ms, o Hold mede em ns
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                Hold hold = HOLDS.get().poll();
+                long nanos = hold != null ? System.nanoTime() - hold.acquiredAt : elapsedBorrowedMillis * 1_000_000;
+                String method = hold != null && hold.method != null ? hold.method : OUTSIDE_REPOSITORY;
+                metrics.hold.record(nanos);
+                metrics.holdByMethod.computeIfAbsent(method, key -> new LatencyHistogram()).record(nanos);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                metrics.timeouts.increment();
+            }
+        };
+    }
+
+
+    /* ==== Métodos de repositório (RepositoryConnectionAspect) ==== */
+
+    // Retorna o método anterior para o exit(); chamadas aninhadas ficam com o método mais externo
+    static String enter(String method) {
+        String previous = CURRENT_METHOD.get();
+        if (previous == null) {
+            CURRENT_METHOD.set(method);
+            // Conexão aberta antes do repositório (transação de um serviço): fica com o primeiro método chamado dentro dela
+            for (Hold hold : HOLDS.get()) {
+                if (hold.method == null) {
+                    hold.method = method;
+                }
+            }
+        }
+        return previous;
+    }
+
+    static void exit(String previous) {
+        if (previous == null) {
+            CURRENT_METHOD.remove();
+        }
+    }
+
+
+    /* ==== Leitura ==== */
+
+    public List<String> poolNames() {
+        return List.copyOf(pools.keySet());
+    }
+
+    public PoolSnapshot snapshot(String poolName) {
+        PoolMetrics metrics = pools.get(poolName);
+        if (metrics == null) {
+            return null;
+        }
+        Map<String, LatencyHistogram.Snapshot> byMethod = new LinkedHashMap<>();
+        metrics.holdByMethod.entrySet().stream()
+            .sorted(Map.Entry.comparingByKey())
+            .forEach(entry -> byMethod.put(entry.getKey(), entry.getValue().snapshot()));
+        PoolStats stats = metrics.poolStats;
+        return new PoolSnapshot(poolName, stats.getActiveConnections(), stats.getIdleConnections(), stats.getPendingThreads(),
+            stats.getTotalConnections(), stats.getMaxConnections(), metrics.timeouts.sum(),
+            metrics.acquireWait.snapshot(), metrics.hold.snapshot(), byMethod);
+    }
+
+    public List<PoolSnapshot> snapshot() {
+        List<PoolSnapshot> snapshots = new ArrayList<>();
+        for (String poolName : pools.keySet()) {
+            snapshots.add(snapshot(poolName));
+        }
+        snapshots.sort(Comparator.comparing(PoolSnapshot::poolName));
+        return snapshots;
+    }
+
+    // Publica as métricas no log periodicamente (valores acumulados desde o início)
+    @Scheduled(
+        initialDelayString = "${app.connection-pool.metrics-log-interval-ms:60000}",
+        fixedDelayString = "${app.connection-pool.metrics-log-interval-ms:60000}"
+    )
+    public void logSnapshot() {
+        for (PoolSnapshot s : snapshot()) {
+            log.info("pool={} active={} idle={} pending={} total={} max={} timeouts={} acquires={} waitP50us={} waitP99us={} waitMaxUs={} holdP50us={} holdP99us={}",
+                s.poolName(), s.active(), s.idle(), s.pending(), s.total(), s.max(), s.timeouts(),
+                s.acquireWait().count(), s.acquireWait().percentileMicros(0.50), s.acquireWait().percentileMicros(0.99), s.acquireWait().maxMicros(),
+                s.hold().percentileMicros(0.50), s.hold().percentileMicros(0.99));
+            s.holdByMethod().forEach((method, hold) ->
+                log.info("pool={} method={} holds={} holdMeanUs={} holdP99us={}",
+                    s.poolName(), method, hold.count(), String.format("%.1f", hold.meanMicros()), hold.percentileMicros(0.99)));
+        }
+    }
+
+}
+
+/* Anotação:
+ * MetricsTrackerFactory / IMetricsTracker: Ganchos do Hikari para métricas; ele chama o tracker a cada conexão obtida/devolvida.
+ * PoolStats: Contagens do pool (ativas, ociosas, threads esperando) lidas na hora, sem custo por conexão.
+ * Espera para obter conexão (acquire wait): tempo dentro de getConnection(); alto = faltam conexões no pool.
+ * Tempo com a conexão (hold): de getConnection() até close(); inclui as consultas e o que a aplicação faz com a transação aberta.
+ * ThreadLocal: O Hikari chama o tracker na thread da aplicação, então a conexão é associada ao método de repositório daquela thread.
+*/
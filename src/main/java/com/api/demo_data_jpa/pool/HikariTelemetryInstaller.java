@@ -0,0 +1,33 @@
+package com.api.demo_data_jpa.pool;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+// Liga o ConnectionPoolTelemetry ao HikariDataSource criado pelo Spring Boot (spring.datasource.*)
+@Component
+public class HikariTelemetryInstaller implements BeanPostProcessor {
+
+    // ObjectProvider: um BeanPostProcessor é criado antes dos outros beans; o telemetry só é criado quando o DataSource aparece
+    private final ObjectProvider<ConnectionPoolTelemetry> telemetry;
+
+    public HikariTelemetryInstaller(ObjectProvider<ConnectionPoolTelemetry> telemetry) {
+        this.telemetry = telemetry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource && dataSource.getMetricsTrackerFactory() == null) {
+            dataSource.setMetricsTrackerFactory(telemetry.getObject());
+        }
+        return bean;
+    }
+
+}
+
+/* Anotação:
+ * BeanPostProcessor: Recebe cada bean depois de criado; aqui só altera o HikariDataSource (os outros passam direto).
+ * setMetricsTrackerFactory(): Pode ser chamado uma vez só; o pool do Hikari é iniciado na primeira getConnection(), depois disso.
+*/
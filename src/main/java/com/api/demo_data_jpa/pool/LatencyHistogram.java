@@ -0,0 +1,115 @@
+package com.api.demo_data_jpa.pool;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Histograma de latência em microssegundos com buckets log-lineares: cada potência de 2 é dividida em 8 buckets
+// (0..15 µs exatos, 16-17, 18-19, ..., 1024-1151, 1152-1279 ...). Erro máximo de 12,5% em qualquer escala.
+// Gravar é uma soma atômica, sem lock; percentis saem com a precisão do bucket (o limite superior).
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 39;   // até 2^40 µs (~12 dias)
+    private static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder totalNanos = new LongAdder();
+
+    public void record(long nanos) {
+        counts.incrementAndGet(bucketOf(Math.max(0, nanos / 1_000)));
+        totalNanos.add(Math.max(0, nanos));
+    }
+
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new Snapshot(copy, totalNanos.sum());
+    }
+
+    // Expoente = posição do bit mais alto; os 3 bits seguintes escolhem o sub-bucket
+    static int bucketOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (micros >> shift) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBoundMicros(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        long lower = (long) (SUB_BUCKETS + (bucket - SUB_BUCKETS) % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    // Cópia dos contadores em um instante; minus() dá o que aconteceu entre duas cópias (um intervalo)
+    public record Snapshot(long[] counts, long totalNanos) {
+
+        public static final Snapshot EMPTY = new Snapshot(new long[BUCKETS], 0);
+
+        public Snapshot minus(Snapshot earlier) {
+            long[] difference = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                difference[i] = counts[i] - earlier.counts[i];
+            }
+            return new Snapshot(difference, totalNanos - earlier.totalNanos);
+        }
+
+        public long count() {
+            long count = 0;
+            for (long bucket : counts) {
+                count += bucket;
+            }
+            return count;
+        }
+
+        public double meanMicros() {
+            long count = count();
+            return count == 0 ? 0 : totalNanos / 1_000.0 / count;
+        }
+
+        // Limite superior do bucket onde cai o percentil (0 < p <= 1)
+        public long percentileMicros(double p) {
+            long count = count();
+            if (count == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(p * count);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return upperBoundMicros(i);
+                }
+            }
+            return upperBoundMicros(BUCKETS - 1);
+        }
+
+        public long maxMicros() {
+            for (int i = BUCKETS - 1; i >= 0; i--) {
+                if (counts[i] > 0) {
+                    return upperBoundMicros(i);
+                }
+            }
+            return 0;
+        }
+    }
+
+}
+
+/* Anotação:
+ * Log-linear (como o HdrHistogram): buckets de largura fixa dentro de cada potência de 2, então a precisão é relativa ao valor
+ *  (12,5%) com só 8 buckets por potência de 2 (~300 contadores para cobrir de 1 µs a dias).
+ * AtomicLongArray: Um contador atômico por bucket; threads diferentes gravando ao mesmo tempo não se bloqueiam.
+ * A precisão importa para o AdaptivePoolSizer: com buckets de potência de 2 (erro de até 2x), uma tolerância de 1,5x na latência não seria medível.
+*/
@@ -0,0 +1,47 @@
+package com.api.demo_data_jpa.pool;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import com.api.demo_data_jpa.repository.AuthorRepository;
+
+// Marca a thread com o método de repositório em execução ("AuthorRepository.findByEmail"),
+// para o ConnectionPoolTelemetry separar o tempo com a conexão por método
+@Aspect
+@Component
+public class RepositoryConnectionAspect {
+
+    // Classe do proxy -> nome da interface do repositório (o save() herdado aparece como AuthorRepository.save, não CrudRepository.save)
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object aroundRepositoryMethod(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repository = repositoryNames.computeIfAbsent(joinPoint.getThis().getClass(), RepositoryConnectionAspect::repositoryName);
+        String previous = ConnectionPoolTelemetry.enter(repository + "." + joinPoint.getSignature().getName());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ConnectionPoolTelemetry.exit(previous);
+        }
+    }
+
+    private static String repositoryName(Class<?> proxyClass) {
+        for (Class<?> type : proxyClass.getInterfaces()) {
+            if (type.getPackageName().equals(AuthorRepository.class.getPackageName())) {
+                return type.getSimpleName();
+            }
+        }
+        return proxyClass.getSimpleName();
+    }
+
+}
+
+/* Anotação:
+ * this(Repository): Todos os métodos dos beans de repositório do Spring Data, inclusive os herdados (save, findAll, findById...).
+ * O proxy do repositório implementa a interface da aplicação (AuthorRepository) e as do Spring Data; o nome vem da primeira.
+*/
@@ -0,0 +1,12 @@
+package com.api.demo_data_jpa.projection;
+
+import java.time.LocalDateTime;
+
+// Só o que identifica uma versão da linha (sem carregar a entidade): usado para calcular ETag/Last-Modified
+public interface EntityVersionView {
+
+    Integer getId();
+    Long getVersion();
+    LocalDateTime getLastModifiedAt();
+
+}
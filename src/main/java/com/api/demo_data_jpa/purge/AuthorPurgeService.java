@@ -0,0 +1,217 @@
+package com.api.demo_data_jpa.purge;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.api.demo_data_jpa.cache.AuthorQueryCacheInvalidator;
+import com.api.demo_data_jpa.model.PurgeJob;
+import com.api.demo_data_jpa.repository.PurgeJobRepository;
+import com.api.demo_data_jpa.statistics.AuthorAgeHistogram;
+import com.api.demo_data_jpa.zipcode.ZipCodeLookupService;
+
+import jakarta.annotation.PreDestroy;
+
+@Service
+public class AuthorPurgeService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthorPurgeService.class);
+
+    // Próximo lote em ordem de PK: o índice da PK começa direto depois do último id processado.
+    // FOR UPDATE trava os autores do lote até o commit: um UPDATE da idade (ou um livro novo, pela FK) espera o lote terminar,
+    // então a idade lida aqui é a que está no banco no momento do DELETE.
+    private static final String SELECT_CHUNK =
+        "SELECT id, age FROM author_tbl WHERE age < :age AND id > :lastId ORDER BY id LIMIT :limit FOR UPDATE";
+    // Dependentes primeiro: livros (BOOK_TBL.author_id) e vínculos com cursos (courses_authors.author_id)
+    private static final String DELETE_BOOKS = "DELETE FROM book_tbl WHERE author_id IN (:ids)";
+    private static final String DELETE_COURSE_LINKS = "DELETE FROM courses_authors WHERE author_id IN (:ids)";
+    private static final String DELETE_AUTHORS = "DELETE FROM author_tbl WHERE id IN (:ids) AND age < :age";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PurgeJobRepository purgeJobRepository;
+
+    @Autowired
+    private AuthorAgeHistogram histogram;
+
+    @Autowired
+    private AuthorQueryCacheInvalidator cacheInvalidator;
+
+    @Autowired
+    private ZipCodeLookupService zipCodeLookupService;
+
+    @Value("${app.author-purge.chunk-size:1000}")
+    private int defaultChunkSize;
+
+    @Value("${app.author-purge.pause-ms:200}")
+    private long defaultPauseMillis;
+
+    // Um expurgo por vez: vários DELETE em paralelo na mesma tabela só disputariam locks
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "author-purge");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+
+    /* ==== API ==== */
+
+    // Alternativa em lotes ao authorRepository.deleteAuthorsYoungerThan(age) / deletarPorIdadeMenorQue(age)
+    public PurgeJob purgeAuthorsYoungerThan(int age) {
+        return purgeAuthorsYoungerThan(age, defaultChunkSize, defaultPauseMillis);
+    }
+
+    public PurgeJob purgeAuthorsYoungerThan(int age, int chunkSize, long pauseMillis) {
+        PurgeJob job = purgeJobRepository.save(PurgeJob.builder()
+            .ageLessThan(age)
+            .chunkSize(chunkSize)
+            .pauseMillis(pauseMillis)
+            .status(PurgeJob.Status.RUNNING)
+            .build());
+        executor.submit(() -> run(job.getId()));
+        return job;
+    }
+
+    // Retoma um job que falhou (continua do último checkpoint)
+    public PurgeJob resume(Integer jobId) {
+        PurgeJob job = purgeJobRepository.findById(jobId)
+            .orElseThrow(() -> new IllegalArgumentException("Job de expurgo não encontrado: " + jobId));
+        if (job.getStatus() == PurgeJob.Status.COMPLETED) {
+            return job;
+        }
+        job.setStatus(PurgeJob.Status.RUNNING);
+        job.setErrorMessage(null);
+        PurgeJob saved = purgeJobRepository.save(job);
+        executor.submit(() -> run(saved.getId()));
+        return saved;
+    }
+
+    // Progresso: autores/livros/vínculos apagados, último id, lotes e autores por segundo (PurgeJob.authorsPerSecond)
+    public Optional<PurgeJob> progress(Integer jobId) {
+        return purgeJobRepository.findById(jobId);
+    }
+
+    // Jobs que estavam RUNNING quando a aplicação caiu voltam a rodar a partir do checkpoint
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        for (PurgeJob job : purgeJobRepository.findByStatus(PurgeJob.Status.RUNNING)) {
+            log.info("Retomando expurgo {} a partir do id {}", job.getId(), job.getLastProcessedId());
+            executor.submit(() -> run(job.getId()));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+
+    /* ==== Execução ==== */
+
+    private void run(Integer jobId) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                int deleted = transactionTemplate.execute(status -> deleteNextChunk(jobId));
+                if (deleted == 0) {
+                    transactionTemplate.executeWithoutResult(status -> updateStatus(jobId, PurgeJob.Status.COMPLETED, null));
+                    purgeJobRepository.findById(jobId).ifPresent(job -> log.info(
+                        "Expurgo {} concluído: {} autores, {} livros, {} vínculos com cursos, {} autores/s",
+                        job.getId(), job.getDeletedAuthors(), job.getDeletedBooks(), job.getDeletedCourseLinks(),
+                        String.format("%.0f", job.authorsPerSecond())));
+                    return;
+                }
+                // Pausa entre lotes: libera a tabela para o tráfego normal e dá tempo para o purge do undo log/replicação
+                Thread.sleep(pauseMillisOf(jobId));
+            }
+        } catch (InterruptedException e) {
+            // Desligamento da aplicação: o job continua RUNNING e é retomado na próxima inicialização
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Expurgo {} falhou", jobId, e);
+            transactionTemplate.executeWithoutResult(status -> updateStatus(jobId, PurgeJob.Status.FAILED, e.getMessage()));
+        }
+    }
+
+    // Um lote = uma transação curta: seleciona os próximos ids, apaga dependentes e autores e grava o checkpoint
+    private int deleteNextChunk(Integer jobId) {
+        long start = System.nanoTime();
+        PurgeJob job = purgeJobRepository.findById(jobId).orElseThrow();
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(SELECT_CHUNK, new MapSqlParameterSource()
+            .addValue("age", job.getAgeLessThan())
+            .addValue("lastId", job.getLastProcessedId())
+            .addValue("limit", job.getChunkSize()));
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        List<Integer> ids = rows.stream().map(row -> ((Number) row.get("id")).intValue()).toList();
+        MapSqlParameterSource idParams = new MapSqlParameterSource("ids", ids).addValue("age", job.getAgeLessThan());
+        int books = jdbcTemplate.update(DELETE_BOOKS, idParams);
+        int courseLinks = jdbcTemplate.update(DELETE_COURSE_LINKS, idParams);
+        int authors = jdbcTemplate.update(DELETE_AUTHORS, idParams);
+        // Com as linhas travadas, todo autor do lote ainda atende ao filtro; se não, desfaz o lote em vez de apagar livros de quem ficou
+        if (authors != ids.size()) {
+            throw new IllegalStateException("Lote do expurgo " + jobId + " mudou durante a exclusão: " + authors + " de " + ids.size() + " autores");
+        }
+
+        job.setLastProcessedId(ids.get(ids.size() - 1));
+        job.setDeletedAuthors(job.getDeletedAuthors() + authors);
+        job.setDeletedBooks(job.getDeletedBooks() + books);
+        job.setDeletedCourseLinks(job.getDeletedCourseLinks() + courseLinks);
+        job.setChunks(job.getChunks() + 1);
+        job.setElapsedMillis(job.getElapsedMillis() + (System.nanoTime() - start) / 1_000_000);
+        purgeJobRepository.save(job);
+
+        // Estruturas em memória (aplicado somente após o commit do lote); as idades são as das linhas travadas e apagadas
+        for (Map<String, Object> row : rows) {
+            histogram.decrement(((Number) row.get("age")).intValue());
+            zipCodeLookupService.authorRemoved(((Number) row.get("id")).intValue());
+        }
+        cacheInvalidator.rowsDeletedYoungerThan(job.getAgeLessThan());
+        return rows.size();
+    }
+
+    private void updateStatus(Integer jobId, PurgeJob.Status status, String errorMessage) {
+        purgeJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(status);
+            job.setErrorMessage(errorMessage != null && errorMessage.length() > 500 ? errorMessage.substring(0, 500) : errorMessage);
+            purgeJobRepository.save(job);
+        });
+    }
+
+    private long pauseMillisOf(Integer jobId) {
+        return purgeJobRepository.findById(jobId).map(PurgeJob::getPauseMillis).orElse(defaultPauseMillis);
+    }
+
+}
+
+/* Anotação:
+ * Expurgo em lotes (chunked delete):
+ *  - Um único DELETE ... WHERE age < ? segura locks de todas as linhas até o fim e gera um undo log enorme.
+ *  - Aqui cada lote apaga no máximo chunkSize autores em uma transação curta, seguindo a ordem da PK (id > último id processado).
+ * SELECT ... FOR UPDATE: Leitura com trava exclusiva nas linhas lidas (até o commit); escritas concorrentes nesses autores esperam.
+ *  - O DELETE dos autores repete o age < :age como conferência: se o número de linhas apagadas não bater, o lote volta atrás.
+ * NamedParameterJdbcTemplate: JdbcTemplate com parâmetros nomeados (:ids); uma List no parâmetro vira IN (?, ?, ...).
+ * TransactionTemplate: Uma transação por lote (o checkpoint no PURGE_JOB_TBL é gravado junto com os DELETEs).
+ * Executors.newSingleThreadExecutor: Executa os jobs em uma thread separada, um de cada vez.
+ * @PreDestroy: Executado quando o bean é destruído (desligamento da aplicação).
+*/
@@ -0,0 +1,166 @@
+package com.api.demo_data_jpa.reactive;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+
+import com.api.demo_data_jpa.dto.AuthorDetailsDTO;
+import com.api.demo_data_jpa.dto.BookDTO;
+import com.api.demo_data_jpa.projection.AuthorView;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Leitura não bloqueante de autores e livros (R2DBC), ao lado dos repositórios JPA e nas mesmas tabelas (author_tbl, book_tbl).
+// Só consultas: as escritas continuam pelo JPA (auditoria, @Version, listeners de cache e índices).
+// O pool R2DBC fica dentro deste componente e não vira bean ConnectionFactory: com um bean desses no contexto,
+// o Spring Boot deixaria de configurar o DataSource do JPA (ver exclude no DemoDataJpaApplication).
+@Component
+public class ReactiveAuthorReader implements DisposableBean {
+
+    private static final String AUTHOR_COLUMNS =
+        "id, first_name, last_name, email, age, street_name, house_number, zip_code, last_modified_at, version";
+
+    // Linhas por ida ao banco nas consultas que podem devolver muitos autores (mesmo valor do fetch size dos streams JPA)
+    private static final int FETCH_SIZE = 500;
+
+    private final ConnectionPool pool;
+    private final DatabaseClient client;
+
+    // Projeção com os mesmos campos da AuthorView dos repositórios JPA
+    public record View(String firstName, String email, int age) implements AuthorView {
+
+        @Override
+        public String getFirstName() {
+            return firstName;
+        }
+
+        @Override
+        public String getEmail() {
+            return email;
+        }
+
+        @Override
+        public int getAge() {
+            return age;
+        }
+    }
+
+    public ReactiveAuthorReader(
+            @Value("${app.reactive-read.url:r2dbc:mysql://localhost:3306/demo_data_jpa_bd}") String url,
+            @Value("${app.reactive-read.username:${spring.datasource.username:}}") String username,
+            @Value("${app.reactive-read.password:${spring.datasource.password:}}") String password,
+            @Value("${app.reactive-read.pool-size:10}") int poolSize) {
+
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+            .option(ConnectionFactoryOptions.USER, username)
+            .option(ConnectionFactoryOptions.PASSWORD, password)
+            .build();
+        pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+            .name("reactive-read")
+            .initialSize(0)                       // nenhuma conexão na subida: o banco pode ainda não estar no ar
+            .maxSize(poolSize)
+            .maxIdleTime(Duration.ofMinutes(10))
+            .build());
+        client = DatabaseClient.create(pool);
+    }
+
+
+    /* ==== Autores ==== */
+
+    // SQL: SELECT ... FROM author_tbl WHERE email = ? (coluna única)
+    public Mono<AuthorDetailsDTO> findByEmail(String email) {
+        return client.sql("SELECT " + AUTHOR_COLUMNS + " FROM author_tbl WHERE email = :email")
+            .bind("email", email)
+            .map(ReactiveAuthorReader::toDetails)
+            .one();
+    }
+
+    public Mono<View> findViewByEmail(String email) {
+        return client.sql("SELECT first_name, email, age FROM author_tbl WHERE email = :email")
+            .bind("email", email)
+            .map(ReactiveAuthorReader::toView)
+            .one();
+    }
+
+    // Autores com idade em [minAge, maxAge], em ordem de idade e id; as linhas chegam conforme o assinante pede (request(n))
+    public Flux<AuthorDetailsDTO> findByAgeBetween(int minAge, int maxAge) {
+        return client.sql("SELECT " + AUTHOR_COLUMNS + " FROM author_tbl WHERE age BETWEEN :minAge AND :maxAge ORDER BY age, id")
+            .bind("minAge", minAge)
+            .bind("maxAge", maxAge)
+            .filter(statement -> statement.fetchSize(FETCH_SIZE))
+            .map(ReactiveAuthorReader::toDetails)
+            .all();
+    }
+
+    public Flux<View> findViewsByAgeBetween(int minAge, int maxAge) {
+        return client.sql("SELECT first_name, email, age FROM author_tbl WHERE age BETWEEN :minAge AND :maxAge ORDER BY age, id")
+            .bind("minAge", minAge)
+            .bind("maxAge", maxAge)
+            .filter(statement -> statement.fetchSize(FETCH_SIZE))
+            .map(ReactiveAuthorReader::toView)
+            .all();
+    }
+
+
+    /* ==== Livros ==== */
+
+    public Flux<BookDTO> findBooksByAuthorId(Integer authorId) {
+        return client.sql("SELECT id, title, last_modified_at, version FROM book_tbl WHERE author_id = :authorId ORDER BY id")
+            .bind("authorId", authorId)
+            .filter(statement -> statement.fetchSize(FETCH_SIZE))
+            .map(row -> new BookDTO(
+                row.get("id", Integer.class),
+                row.get("title", String.class),
+                row.get("last_modified_at", LocalDateTime.class),
+                row.get("version", Long.class)))
+            .all();
+    }
+
+
+    /* ==== Linhas -> DTOs ==== */
+
+    private static AuthorDetailsDTO toDetails(Readable row) {
+        return new AuthorDetailsDTO(
+            row.get("id", Integer.class),
+            row.get("first_name", String.class),
+            row.get("last_name", String.class),
+            row.get("email", String.class),
+            row.get("age", Integer.class),
+            row.get("street_name", String.class),
+            row.get("house_number", String.class),
+            row.get("zip_code", String.class),
+            row.get("last_modified_at", LocalDateTime.class),
+            row.get("version", Long.class));
+    }
+
+    private static View toView(Readable row) {
+        return new View(row.get("first_name", String.class), row.get("email", String.class), row.get("age", Integer.class));
+    }
+
+    @Override
+    public void destroy() {
+        pool.dispose();
+    }
+
+}
+
+/* Anotação:
+ * R2DBC: API reativa de acesso a banco relacional; a consulta devolve um Publisher e nenhuma thread fica bloqueada esperando o banco.
+ *  - app.reactive-read.url: URL R2DBC do mesmo banco do spring.datasource (r2dbc:mysql://host:porta/banco).
+ * DatabaseClient (spring-r2dbc): SQL com parâmetros nomeados (:email) e mapeamento de linha; sem entidades nem contexto de persistência.
+ * ConnectionPool (r2dbc-pool): Pool de conexões R2DBC, separado do Hikari; quem espera uma conexão não ocupa thread.
+ * Flux / Mono (Reactor): 0..N / 0..1 elementos. A consulta só roda quando alguém assina.
+ *  - Backpressure: O assinante pede n linhas por vez (request(n)); o driver lê do banco conforme a demanda.
+ * fetchSize: Quantas linhas o driver busca por vez (cursor no servidor quando o driver suporta).
+ * Readable.get(coluna, tipo): Valor da coluna já convertido (LocalDateTime, Long...).
+*/
@@ -5,6 +5,7 @@ import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,7 +14,9 @@ import org.springframework.stereotype.Repository;
 import com.api.demo_data_jpa.dto.AuthorDTO;
 import com.api.demo_data_jpa.model.Author;
 import com.api.demo_data_jpa.projection.AuthorView;
+import com.api.demo_data_jpa.projection.EntityVersionView;
 
+import jakarta.persistence.LockModeType;
 import jakarta.transaction.Transactional;
 
 @Repository
@@ -90,6 +93,11 @@ public interface AuthorRepository extends JpaRepository<Author, Integer>, JpaSpe
     // Contar autores com idade maior ou igual a...
     long countByAgeGreaterThanEqual(int age);
 
+    // SQL: SELECT COUNT(*) FROM author WHERE age BETWEEN 30 AND 40
+    // JPQL: SELECT COUNT(a) FROM Author a WHERE a.age BETWEEN :start AND :end
+    // Contar autores com idade entre...
+    long countByAgeBetween(int start, int end);
+
     // Buscar todos com o nome começando com...
     // SQL: SELECT * FROM author WHERE first_name LIKE 'Dan%'
     // JPQL: SELECT a FROM Author a WHERE a.first_name LIKE :prefix
@@ -98,22 +106,25 @@ public interface AuthorRepository extends JpaRepository<Author, Integer>, JpaSpe
 
 
     // Atualizar nome do autor pelo Id
+    // a.version + 1: UPDATE em JPQL não passa pelo @Version, então a versão é incrementada na própria query (quem leu antes recebe conflito no save)
+    // MANDATORY: o AuthorModifyingQueryAspect lê e trava o estado anterior na mesma transação do UPDATE
     @Modifying(clearAutomatically = true)   // Indica que é uma query de modificação | clearAutomatically limpa o cache do EntityManager após a atualização e evita inconsistências de leitura logo após um @Modifying.
-    @Transactional         // Necessário, pois update precisa estar em uma transação
-    @Query("UPDATE Author a SET a.firstName = :firstName WHERE a.id = :id")
+    @Transactional(Transactional.TxType.MANDATORY)         // Update precisa estar em uma transação (a do chamador)
+    @Query("UPDATE Author a SET a.firstName = :firstName, a.version = a.version + 1 WHERE a.id = :id")
     int updateFirstNameById(@Param("id") Integer id, @Param("firstName") String firstName);
 
 
     // Atualizar idade do autor pelo Id
     @Modifying(clearAutomatically = true)
-    @Transactional
-    @Query("UPDATE Author a SET a.age = :age WHERE a.id = :id")
+    @Transactional(Transactional.TxType.MANDATORY)
+    @Query("UPDATE Author a SET a.age = :age, a.version = a.version + 1 WHERE a.id = :id")
     int updateAgeById(@Param("id") Integer id, @Param("age") Integer age);
 
 
     // Excluir autor com idade menor que...
+    // MANDATORY: o AuthorModifyingQueryAspect trava e lê as linhas antes do DELETE, e as duas coisas precisam estar na mesma transação
     @Modifying(clearAutomatically = true)
-    @Transactional
+    @Transactional(Transactional.TxType.MANDATORY)
     @Query("DELETE FROM Author a WHERE a.age < :age")
     int deleteAuthorsYoungerThan(@Param("age") int age);
 
@@ -134,12 +145,12 @@ public interface AuthorRepository extends JpaRepository<Author, Integer>, JpaSpe
 
     /* ==== Utilizando NamedQueries com Modifying e Transactional ==== */
     @Modifying
-    @Transactional
+    @Transactional(Transactional.TxType.MANDATORY)
     @Query(name = "Author.updateAgeByEmail")
     int atualizarIdadePorEmail(@Param("age") int age, @Param("email") String email);
 
     @Modifying
-    @Transactional
+    @Transactional(Transactional.TxType.MANDATORY)
     @Query(name = "Author.deleteByAgeLessThan")
     int deletarPorIdadeMenorQue(@Param("age") int age);
 
@@ -165,6 +176,55 @@ public interface AuthorRepository extends JpaRepository<Author, Integer>, JpaSpe
     // Buscar por idade menor ou que...
     <T> List<T> findByAgeLessThan(int age, Class<T> type);  
 
+
+    /* ==== Consultas de apoio ao histograma de idades e ao cache de consultas ==== */
+    // SQL: SELECT age, COUNT(*) FROM author GROUP BY age
+    @Query("SELECT a.age, COUNT(a) FROM Author a GROUP BY a.age")
+    List<Object[]> countGroupByAge();
+
+    // SQL: SELECT id, age FROM author_tbl WHERE age < ? FOR UPDATE
+    // Ids e idades das linhas que o DELETE por idade vai apagar, travadas até o fim da transação (o GROUP BY não aceita FOR UPDATE)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a.id, a.age FROM Author a WHERE a.age < :age")
+    List<Object[]> findIdsAndAgesYoungerThanForUpdate(@Param("age") int age);
+
+    // Buscar o estado atual (nome, email e idade) pelo Id sem carregar a entidade
+    @Query("SELECT a.firstName AS firstName, a.email AS email, a.age AS age FROM Author a WHERE a.id = :id")
+    Optional<AuthorView> findViewById(@Param("id") Integer id);
+
+    // Estado anterior dos updates @Modifying: SELECT ... FOR UPDATE, nenhuma outra escrita muda a linha até o commit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a.firstName AS firstName, a.email AS email, a.age AS age FROM Author a WHERE a.id = :id")
+    Optional<AuthorView> findViewByIdForUpdate(@Param("id") Integer id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a.firstName AS firstName, a.email AS email, a.age AS age FROM Author a WHERE a.email = :email")
+    Optional<AuthorView> findViewByEmailForUpdate(@Param("email") String email);
+
+    // Buscar o estado atual (nome, email e idade) pelo email sem carregar a entidade
+    @Query("SELECT a.firstName AS firstName, a.email AS email, a.age AS age FROM Author a WHERE a.email = :email")
+    Optional<AuthorView> findViewByEmail(@Param("email") String email);
+
+
+    /* ==== Validadores HTTP (ETag / Last-Modified) ==== */
+    // Só id, versão e data de alteração: decide o 304 Not Modified sem carregar o autor
+    @Query("SELECT a.id AS id, a.version AS version, a.lastModifiedAt AS lastModifiedAt FROM Author a WHERE a.id = :id")
+    Optional<EntityVersionView> findVersionById(@Param("id") Integer id);
+
+
+    /* ==== Consultas por CEP (índice idx_author_zip_code) ==== */
+    // Buscar somente os ids pelo CEP exato
+    @Query("SELECT a.id FROM Author a WHERE a.address.zipCode = :zipCode")
+    List<Integer> findIdsByZipCode(@Param("zipCode") String zipCode);
+
+    // Buscar somente os ids pelo prefixo do CEP - LIKE '99999-%'
+    @Query("SELECT a.id FROM Author a WHERE a.address.zipCode LIKE CONCAT(:prefix, '%')")
+    List<Integer> findIdsByZipCodeStartingWith(@Param("prefix") String prefix);
+
+    // Todos os pares (id, CEP) para montar o índice do ZipCodeLookupService
+    @Query("SELECT a.id, a.address.zipCode FROM Author a WHERE a.address.zipCode IS NOT NULL")
+    List<Object[]> findAllIdsAndZipCodes();
+
 }
 
 /*Anotação:
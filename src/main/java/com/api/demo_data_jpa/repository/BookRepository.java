@@ -0,0 +1,32 @@
+package com.api.demo_data_jpa.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.api.demo_data_jpa.dto.BookDTO;
+import com.api.demo_data_jpa.model.Book;
+import com.api.demo_data_jpa.projection.EntityVersionView;
+
+@Repository
+public interface BookRepository extends JpaRepository<Book, Integer> {
+
+    // Livros do autor já no formato da API (sem carregar as entidades Book nem o Author de cada uma)
+    @Query(value = "SELECT new com.api.demo_data_jpa.dto.BookDTO(b.id, b.title, b.lastModifiedAt, b.version) FROM Book b WHERE b.author.id = :authorId",
+           countQuery = "SELECT COUNT(b) FROM Book b WHERE b.author.id = :authorId")
+    Page<BookDTO> findDtosByAuthorId(@Param("authorId") Integer authorId, Pageable pageable);
+
+    // A mesma página, só id/versão/data de alteração: base do ETag da listagem
+    @Query(value = "SELECT b.id AS id, b.version AS version, b.lastModifiedAt AS lastModifiedAt FROM Book b WHERE b.author.id = :authorId",
+           countQuery = "SELECT COUNT(b) FROM Book b WHERE b.author.id = :authorId")
+    Page<EntityVersionView> findVersionsByAuthorId(@Param("authorId") Integer authorId, Pageable pageable);
+
+}
+
+/* Anotação:
+ * Page + countQuery: O Spring Data executa a consulta com LIMIT/OFFSET e a countQuery para o total de elementos.
+ *  - Sort do Pageable é aplicado nas duas primeiras consultas (mesma ordem = mesma página).
+*/
@@ -3,6 +3,7 @@ package com.api.demo_data_jpa.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -17,5 +18,15 @@ public interface CourseRepository extends JpaRepository<Course, Integer>{
 
     @Query(name = "Course.findByName")
     Optional<Course> buscarPorNome(@Param("name") String name);
+
+
+    /* ==== Autocomplete (CourseAutocompleteService) ==== */
+
+    @Query("SELECT c.id, c.name, c.description FROM Course c")
+    List<Object[]> findAllIdsNamesAndDescriptions();
+
+    // Fallback antes da trie ficar pronta
+    @Query("SELECT c.id, c.name FROM Course c WHERE LOWER(c.name) LIKE CONCAT(:prefix, '%') ORDER BY LENGTH(c.name), c.name")
+    List<Object[]> findIdsAndNamesByNamePrefix(@Param("prefix") String prefix, Pageable pageable);
     
 }
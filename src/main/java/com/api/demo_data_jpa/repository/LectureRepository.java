@@ -0,0 +1,38 @@
+package com.api.demo_data_jpa.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.api.demo_data_jpa.model.Lecture;
+
+@Repository
+public interface LectureRepository extends JpaRepository<Lecture, Integer>{
+
+    /* ==== Leitura ordenada (índice section_id, lecture_order) ==== */
+
+    // id desempata chaves iguais (dois movimentos concorrentes para o mesmo lugar)
+    List<Lecture> findBySectionIdOrderByLectureOrderAscIdAsc(Integer sectionId);
+
+
+    // Todas as palestras do curso em uma consulta (id da seção, id, nome, id do recurso), agrupadas por seção e na ordem do currículo.
+    // l.resource.id sai da chave estrangeira, sem JOIN com a tabela de recursos.
+    @Query("SELECT l.section.id, l.id, l.name, l.resource.id FROM Lecture l WHERE l.section.course.id = :courseId ORDER BY l.section.id, l.lectureOrder, l.id")
+    List<Object[]> findOutlineRowsByCourseId(@Param("courseId") Integer courseId);
+
+
+    /* ==== Vizinhos para o CurriculumOrderingService ==== */
+
+    @Query("SELECT MAX(l.lectureOrder) FROM Lecture l WHERE l.section.id = :sectionId")
+    Long findLastOrder(@Param("sectionId") Integer sectionId);
+
+    @Query("SELECT MIN(l.lectureOrder) FROM Lecture l WHERE l.section.id = :sectionId AND l.id <> :excludedId")
+    Long findFirstOrder(@Param("sectionId") Integer sectionId, @Param("excludedId") Integer excludedId);
+
+    @Query("SELECT MIN(l.lectureOrder) FROM Lecture l WHERE l.section.id = :sectionId AND l.lectureOrder > :order AND l.id <> :excludedId")
+    Long findNextOrder(@Param("sectionId") Integer sectionId, @Param("order") long order, @Param("excludedId") Integer excludedId);
+    
+}
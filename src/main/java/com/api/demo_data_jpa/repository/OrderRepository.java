@@ -1,15 +1,23 @@
 package com.api.demo_data_jpa.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.api.demo_data_jpa.model.embedded.Order;
 import com.api.demo_data_jpa.model.embedded.OrderId;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface OrderRepository extends JpaRepository<Order, OrderId>{
 
@@ -22,5 +30,115 @@ public interface OrderRepository extends JpaRepository<Order, OrderId>{
     // Buscando endereço pelo zipCode
     @Query("SELECT o FROM Order o WHERE o.address.zipCode = :zipCode")
     List<Order> findByZipCode(@Param("zipCode") String zipCode);
-    
+
+
+    // Buscar somente os ids pelo CEP exato (índice idx_order_zip_code)
+    @Query("SELECT o.orderId FROM Order o WHERE o.address.zipCode = :zipCode")
+    List<OrderId> findIdsByZipCode(@Param("zipCode") String zipCode);
+
+    // Buscar somente os ids pelo prefixo do CEP - LIKE '99999-%' (o índice é usado pois o curinga está só no final)
+    @Query("SELECT o.orderId FROM Order o WHERE o.address.zipCode LIKE CONCAT(:prefix, '%')")
+    List<OrderId> findIdsByZipCodeStartingWith(@Param("prefix") String prefix);
+
+    // Todos os pares (id, CEP) para montar o índice do ZipCodeLookupService
+    @Query("SELECT o.orderId, o.address.zipCode FROM Order o WHERE o.address.zipCode IS NOT NULL")
+    List<Object[]> findAllIdsAndZipCodes();
+
+
+    /* ==== Consultas por período (índice idx_order_username_order_date) ==== */
+
+    // SQL: SELECT * FROM order_tbl WHERE username = ? AND order_date >= ? AND order_date < ? ORDER BY order_date
+    // Stream: os pedidos são lidos aos poucos do ResultSet (precisa de transação aberta e o Stream deve ser fechado - try-with-resources).
+    // No MySQL, o fetch size só é respeitado com useCursorFetch=true na URL de conexão.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT o FROM Order o WHERE o.orderId.username = :username"
+        + " AND o.orderId.orderDate >= :from AND o.orderId.orderDate < :to"
+        + " ORDER BY o.orderId.orderDate")
+    Stream<Order> streamByUsernameAndPeriod(@Param("username") String username,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to);
+
+    // Paginação por keyset (seek): em vez de OFFSET, continua a partir da última orderDate lida.
+    // O custo de cada página não cresce com o tamanho do histórico, pois o índice começa direto na posição certa.
+    // Dentro de um mesmo usuário a orderDate é única (faz parte da PK), então ela sozinha serve de keyset.
+    // A primeira página vem do findFirstByUsernameAndPeriod.
+    @Query("SELECT o FROM Order o WHERE o.orderId.username = :username"
+        + " AND o.orderId.orderDate > :after AND o.orderId.orderDate < :to"
+        + " ORDER BY o.orderId.orderDate")
+    List<Order> findNextByUsernameAndPeriod(@Param("username") String username,
+                                            @Param("after") LocalDateTime after,
+                                            @Param("to") LocalDateTime to,
+                                            Limit limit);
+
+
+    /* ==== Janela de tempo global (PK: order_date, username) ==== */
+
+    // SQL: SELECT * FROM order_tbl WHERE order_date >= ? AND order_date < ? ORDER BY order_date, username
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT o FROM Order o WHERE o.orderId.orderDate >= :from AND o.orderId.orderDate < :to"
+        + " ORDER BY o.orderId.orderDate, o.orderId.username")
+    Stream<Order> streamByPeriod(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Keyset pela chave completa (orderDate, username): vários usuários podem ter pedidos no mesmo instante.
+    @Query("SELECT o FROM Order o WHERE o.orderId.orderDate < :to"
+        + " AND (o.orderId.orderDate > :afterDate"
+        + "      OR (o.orderId.orderDate = :afterDate AND o.orderId.username > :afterUsername))"
+        + " ORDER BY o.orderId.orderDate, o.orderId.username")
+    List<Order> findNextByPeriod(@Param("afterDate") LocalDateTime afterDate,
+                                 @Param("afterUsername") String afterUsername,
+                                 @Param("to") LocalDateTime to,
+                                 Limit limit);
+
+    @Query("SELECT o FROM Order o WHERE o.orderId.orderDate >= :from AND o.orderId.orderDate < :to"
+        + " ORDER BY o.orderId.orderDate, o.orderId.username")
+    List<Order> findFirstByPeriod(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to, Limit limit);
+
+    @Query("SELECT o FROM Order o WHERE o.orderId.username = :username"
+        + " AND o.orderId.orderDate >= :from AND o.orderId.orderDate < :to"
+        + " ORDER BY o.orderId.orderDate")
+    List<Order> findFirstByUsernameAndPeriod(@Param("username") String username,
+                                             @Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to,
+                                             Limit limit);
+
+
+    /* ==== Percorrer um período inteiro em lotes (keyset) ==== */
+
+    // Percorre todos os pedidos do usuário no período [from, to), em lotes de batchSize, sem OFFSET.
+    // Cada lote é uma consulta curta (não segura conexão/transação durante todo o processamento).
+    default void forEachByUsernameAndPeriod(String username, LocalDateTime from, LocalDateTime to, int batchSize, Consumer<Order> action) {
+        List<Order> batch = findFirstByUsernameAndPeriod(username, from, to, Limit.of(batchSize));
+        while (!batch.isEmpty()) {
+            batch.forEach(action);
+            if (batch.size() < batchSize) {
+                return;
+            }
+            LocalDateTime last = batch.get(batch.size() - 1).getOrderId().getOrderDate();
+            batch = findNextByUsernameAndPeriod(username, last, to, Limit.of(batchSize));
+        }
+    }
+
+    // Percorre todos os pedidos (de todos os usuários) no período [from, to), em lotes de batchSize.
+    default void forEachByPeriod(LocalDateTime from, LocalDateTime to, int batchSize, Consumer<Order> action) {
+        List<Order> batch = findFirstByPeriod(from, to, Limit.of(batchSize));
+        while (!batch.isEmpty()) {
+            batch.forEach(action);
+            if (batch.size() < batchSize) {
+                return;
+            }
+            OrderId last = batch.get(batch.size() - 1).getOrderId();
+            batch = findNextByPeriod(last.getOrderDate(), last.getUsername(), to, Limit.of(batchSize));
+        }
+    }
+
 }
+
+/*Anotação:
+ * Stream<T> no repository: O Spring Data devolve os resultados como um Stream ligado ao ResultSet aberto.
+ *  - Deve ser consumido dentro de uma transação (@Transactional) e fechado (try-with-resources).
+ * @QueryHints / HibernateHints.HINT_FETCH_SIZE: Quantas linhas o driver JDBC busca por ida ao banco.
+ * Limit: Parâmetro do Spring Data que aplica LIMIT na consulta (Limit.of(100)).
+ * Keyset pagination (seek method):
+ *  - Em vez de OFFSET (que lê e descarta todas as linhas anteriores), filtra a partir da última chave lida: WHERE chave > :ultimaChave ORDER BY chave LIMIT n.
+ *  - Com um índice começando pelas colunas do filtro/ordenação, o tempo de cada página é constante mesmo com centenas de milhões de linhas.
+*/
@@ -0,0 +1,16 @@
+package com.api.demo_data_jpa.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.api.demo_data_jpa.model.PurgeJob;
+
+@Repository
+public interface PurgeJobRepository extends JpaRepository<PurgeJob, Integer>{
+
+    // Jobs que estavam em execução quando a aplicação parou (retomados na inicialização)
+    List<PurgeJob> findByStatus(PurgeJob.Status status);
+    
+}
@@ -1,11 +1,20 @@
 package com.api.demo_data_jpa.repository;
 
+import java.util.Set;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.api.demo_data_jpa.model.Resource;
 
 @Repository
 public interface ResourceRepository extends JpaRepository<Resource, Integer>{
+
+    // Blobs do LocalContentStore ainda em uso (os demais podem ser apagados pelo ContentBlobJanitor)
+    @Query("SELECT DISTINCT r.contentHash FROM Resource r WHERE r.contentHash IS NOT NULL")
+    Set<String> findAllContentHashes();
+
+    long countByContentHash(String contentHash);
     
 }
@@ -0,0 +1,32 @@
+package com.api.demo_data_jpa.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.api.demo_data_jpa.model.Section;
+
+@Repository
+public interface SectionRepository extends JpaRepository<Section, Integer>{
+
+    /* ==== Leitura ordenada (índice course_id, section_order) ==== */
+
+    // id desempata chaves iguais (dois movimentos concorrentes para o mesmo lugar)
+    List<Section> findByCourseIdOrderBySectionOrderAscIdAsc(Integer courseId);
+
+
+    /* ==== Vizinhos para o CurriculumOrderingService ==== */
+
+    @Query("SELECT MAX(s.sectionOrder) FROM Section s WHERE s.course.id = :courseId")
+    Long findLastOrder(@Param("courseId") Integer courseId);
+
+    @Query("SELECT MIN(s.sectionOrder) FROM Section s WHERE s.course.id = :courseId AND s.id <> :excludedId")
+    Long findFirstOrder(@Param("courseId") Integer courseId, @Param("excludedId") Integer excludedId);
+
+    @Query("SELECT MIN(s.sectionOrder) FROM Section s WHERE s.course.id = :courseId AND s.sectionOrder > :order AND s.id <> :excludedId")
+    Long findNextOrder(@Param("courseId") Integer courseId, @Param("order") long order, @Param("excludedId") Integer excludedId);
+    
+}
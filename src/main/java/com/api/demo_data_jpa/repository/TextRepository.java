@@ -1,11 +1,27 @@
 package com.api.demo_data_jpa.repository;
 
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import com.api.demo_data_jpa.model.Text;
 
+import jakarta.transaction.Transactional;
+
 @Repository
 public interface TextRepository extends JpaRepository<Text, Integer>{
-    
+
+    // Listagem/busca: SELECT somente das colunas leves (id, name, size, url) - o content é LAZY
+    List<Text> findAllByNameContainingIgnoreCase(String name);
+
+    // Detalhe: carrega o texto e, em seguida, o grupo "content" (uma consulta a mais)
+    @Transactional
+    default Optional<Text> findWithContentById(Integer id) {
+        Optional<Text> text = findById(id);
+        text.ifPresent(Text::getContent);
+        return text;
+    }
+
 }
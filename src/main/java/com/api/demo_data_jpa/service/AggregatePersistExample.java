@@ -0,0 +1,105 @@
+package com.api.demo_data_jpa.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+//import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.api.demo_data_jpa.aggregate.AggregatePersistService;
+import com.api.demo_data_jpa.model.Author;
+import com.api.demo_data_jpa.model.Course;
+import com.api.demo_data_jpa.model.Lecture;
+import com.api.demo_data_jpa.model.Section;
+import com.api.demo_data_jpa.model.Video;
+import com.api.demo_data_jpa.ordering.OrderKeys;
+import com.api.demo_data_jpa.sqllog.SqlStatementLog;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+//@Component
+public class AggregatePersistExample implements CommandLineRunner {
+
+    private static final int SECTIONS = 100;
+    private static final int LECTURES_PER_SECTION = 100;
+
+    @Autowired
+    private AggregatePersistService aggregatePersistService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Comandos executados no banco (um batch JDBC conta uma vez), inclusive os do gerador de ids em hibernate_sequences
+    @Autowired
+    private SqlStatementLog statementLog;
+
+    @Override
+    public void run(String... args) throws Exception {
+
+        // 1) Entidade por entidade: um INSERT (e uma ida ao banco) por curso, seção, recurso e palestra
+        System.out.println("\n=== persist() entidade por entidade ===");
+        Course course = newCourse("Curso persist()", "persist");
+        long statements = statementLog.getStatements();
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            course.getAuthors().forEach(entityManager::persist);
+            entityManager.persist(course);
+            for (Section section : course.getSections()) {
+                entityManager.persist(section);
+                for (Lecture lecture : section.getLectures()) {
+                    entityManager.persist(lecture.getResource());
+                    entityManager.persist(lecture);
+                }
+            }
+        });
+        System.out.println("Palestras: " + SECTIONS * LECTURES_PER_SECTION
+            + " | Comandos SQL: " + (statementLog.getStatements() - statements)
+            + " | Tempo (ms): " + (System.nanoTime() - start) / 1_000_000);
+
+
+        // 2) Agregado inteiro: um batch por tipo, chaves estrangeiras resolvidas em memória
+        System.out.println("\n=== AggregatePersistService.persistCourses ===");
+        statements = statementLog.getStatements();
+        AggregatePersistService.Result result = aggregatePersistService.persistCourses(List.of(newCourse("Curso em lote", "aggregate")));
+        System.out.println("Linhas por tabela: " + result.rowsByTable()
+            + " | Batches: " + result.batches()
+            + " | Comandos SQL: " + (statementLog.getStatements() - statements)
+            + " | Tempo (ms): " + result.elapsedMillis());
+    }
+
+    private static Course newCourse(String name, String emailPrefix) {
+        Author author = Author.builder()
+            .firstName("Daniel")
+            .lastName("Penelva")
+            .email(emailPrefix + "@gmail.com")
+            .age(37)
+            .books(new ArrayList<>())
+            .build();
+
+        List<Section> sections = new ArrayList<>();
+        for (int s = 0; s < SECTIONS; s++) {
+            Section section = Section.builder().name("Seção " + s).sectionOrder(OrderKeys.at(s)).lectures(new ArrayList<>()).build();
+            for (int l = 0; l < LECTURES_PER_SECTION; l++) {
+                Video video = Video.builder().name("Vídeo " + s + "." + l).size(1024).url("https://videos/" + s + "/" + l).length(600).build();
+                section.getLectures().add(Lecture.builder().name("Aula " + s + "." + l).lectureOrder(OrderKeys.at(l)).section(section).resource(video).build());
+            }
+            sections.add(section);
+        }
+
+        Course course = Course.builder()
+            .name(name)
+            .description("Importação de curso com " + SECTIONS * LECTURES_PER_SECTION + " palestras")
+            .authors(new ArrayList<>(List.of(author)))
+            .sections(sections)
+            .build();
+        sections.forEach(section -> section.setCourse(course));
+        return course;
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.api.demo_data_jpa.service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+//import org.springframework.stereotype.Component;
+
+import com.api.demo_data_jpa.model.Author;
+import com.api.demo_data_jpa.model.Book;
+import com.api.demo_data_jpa.repository.AuthorRepository;
+
+// GET com e sem If-None-Match nos endpoints do AuthorController (o CommandLineRunner roda com o Tomcat já no ar):
+// bytes recebidos e latência média por requisição quando o cliente já tem a versão atual.
+//@Component
+public class AuthorConditionalGetExample implements CommandLineRunner {
+
+    private static final int AUTHORS = 500;
+    private static final int BOOKS_PER_AUTHOR = 20;
+    private static final int REQUESTS = 1000;
+    private static final int WARMUP_REQUESTS = 200;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    // updateAgeById exige a transação do chamador
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${server.port:8080}")
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Override
+    public void run(String... args) throws Exception {
+        List<Author> authors = new ArrayList<>();
+        for (int i = 0; i < AUTHORS; i++) {
+            Author author = new Author("Etag" + i, "Autor", "etag" + i + "@email.com", 20 + i % 40);
+            for (int b = 0; b < BOOKS_PER_AUTHOR; b++) {
+                author.getBooks().add(Book.builder().title("Livro " + b + " do autor " + i).author(author).build());
+            }
+            authors.add(author);
+        }
+        authorRepository.saveAll(authors);
+        Author first = authors.get(0);
+        String base = "http://localhost:" + port + "/authors";
+
+        System.out.println("\n=== GET condicional (ETag) | " + REQUESTS + " requisições por linha ===");
+        System.out.println("endpoint              | modo           | status | bytes/resp | total (KB) | latência média (µs)");
+        for (String path : List.of("/" + first.getId(), "?firstName=etag&size=50", "/" + first.getId() + "/books?size=20")) {
+            URI uri = URI.create(base + path);
+            String etag = send(uri, null).headers().firstValue("ETag").orElseThrow();
+            for (int i = 0; i < WARMUP_REQUESTS; i++) {   // aquecimento (JIT) dos dois caminhos
+                send(uri, null);
+                send(uri, etag);
+            }
+            measure(path, uri, null);
+            measure(path, uri, etag);
+        }
+
+        // Alteração: o ETag guardado deixa de valer e o próximo GET condicional traz o corpo novo
+        URI uri = URI.create(base + "/" + first.getId());
+        String etag = send(uri, null).headers().firstValue("ETag").orElseThrow();
+        transactionTemplate.executeWithoutResult(status -> authorRepository.updateAgeById(first.getId(), 99));
+        HttpResponse<byte[]> afterUpdate = send(uri, etag);
+        System.out.println("Depois do UPDATE: If-None-Match " + etag + " -> " + afterUpdate.statusCode()
+            + " com ETag " + afterUpdate.headers().firstValue("ETag").orElse("-"));
+    }
+
+    private void measure(String path, URI uri, String etag) throws Exception {
+        long bytes = 0;
+        int status = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            HttpResponse<byte[]> response = send(uri, etag);
+            bytes += response.body().length;
+            status = response.statusCode();
+        }
+        long micros = (System.nanoTime() - start) / 1_000 / REQUESTS;
+        System.out.printf("%-21s | %-14s | %6d | %10d | %10.1f | %d%n", path.length() > 21 ? path.substring(0, 21) : path,
+            etag == null ? "sem ETag" : "If-None-Match", status, bytes / REQUESTS, bytes / 1024.0, micros);
+    }
+
+    private HttpResponse<byte[]> send(URI uri, String etag) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).GET();
+        if (etag != null) {
+            request.header("If-None-Match", etag);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+}
+
+/* Anotação:
+ * If-None-Match: O cliente manda o ETag da cópia que já tem; 304 Not Modified = pode reutilizar a cópia (sem corpo na resposta).
+ * Latência do 304: só a consulta de metadados (id/versão/data); sem carregar entidades, sem mapear para DTO e sem gerar JSON.
+*/
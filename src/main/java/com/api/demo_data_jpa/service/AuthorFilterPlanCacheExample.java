@@ -0,0 +1,94 @@
+package com.api.demo_data_jpa.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+//import org.springframework.stereotype.Component;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.api.demo_data_jpa.aggregate.AggregatePersistService;
+import com.api.demo_data_jpa.filter.AuthorFilter;
+import com.api.demo_data_jpa.model.Author;
+import com.api.demo_data_jpa.repository.AuthorRepository;
+import com.api.demo_data_jpa.specification.AuthorFilterQueryPlanCache;
+import com.api.demo_data_jpa.specification.AuthorSpecifications;
+
+// Mesmas buscas do GET /authors pelos dois caminhos: Criteria montada a cada chamada (AuthorSpecifications.build)
+// e query compilada uma vez por formato (AuthorFilterQueryPlanCache). Mostra o tempo por busca e a taxa de acerto dos planos.
+//@Component
+public class AuthorFilterPlanCacheExample implements CommandLineRunner {
+
+    private static final int AUTHORS = 10_000;
+    private static final int WARMUP_SEARCHES = 2_000;
+    private static final int SEARCHES = 10_000;
+    private static final List<Sort> SORTS = List.of(Sort.by("lastName", "id"), Sort.by(Sort.Order.desc("age"), Sort.Order.asc("id")));
+
+    @Autowired
+    private AggregatePersistService aggregatePersistService;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private AuthorFilterQueryPlanCache filterPlans;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Override
+    public void run(String... args) throws Exception {
+        List<Author> authors = new ArrayList<>(AUTHORS);
+        for (int i = 0; i < AUTHORS; i++) {
+            authors.add(Author.builder().firstName(i % 2 == 0 ? "Daniel" : "Maria").lastName("Plano " + i)
+                .email("plano" + i + (i % 3 == 0 ? "@gmail.com" : "@email.com")).age(18 + i % 60).build());
+        }
+        aggregatePersistService.persistAuthors(authors);
+
+        BiFunction<AuthorFilter, Pageable, Page<Author>> specification =
+            (filter, pageable) -> authorRepository.findAll(AuthorSpecifications.build(filter), pageable);
+        BiFunction<AuthorFilter, Pageable, Page<Author>> plan = filterPlans::findAll;
+
+        // Aquecimento (JIT) dos dois caminhos; os planos compilados aqui contam nas métricas abaixo
+        measure(specification, WARMUP_SEARCHES);
+        measure(plan, WARMUP_SEARCHES);
+
+        System.out.println("\n=== Busca por AuthorFilter | " + SEARCHES + " buscas, 16 formatos x " + SORTS.size() + " ordenações ===");
+        System.out.printf("Criteria por chamada:   %.1f µs/busca%n", measure(specification, SEARCHES));
+        System.out.printf("Plano por formato:      %.1f µs/busca%n", measure(plan, SEARCHES));
+        System.out.println("Planos compilados: " + filterPlans.getCompiledShapes()
+            + " | hits: " + filterPlans.getHits() + " | misses: " + filterPlans.getMisses()
+            + " | taxa de acerto: " + String.format("%.4f", filterPlans.getHitRate())
+            + " | compilação total: " + String.format("%.1f", filterPlans.getTotalCompileMillis()) + " ms");
+    }
+
+    // Mesma sequência de filtros (semente fixa) nos dois caminhos; cada busca na sua transação, como uma requisição
+    private double measure(BiFunction<AuthorFilter, Pageable, Page<Author>> search, int searches) {
+        Random random = new Random(42);
+        long start = System.nanoTime();
+        for (int i = 0; i < searches; i++) {
+            AuthorFilter filter = new AuthorFilter(
+                random.nextBoolean() ? (random.nextBoolean() ? "dan" : "mar") : null,
+                random.nextBoolean() ? "gmail" : null,
+                random.nextBoolean() ? 20 + random.nextInt(20) : null,
+                random.nextBoolean() ? 40 + random.nextInt(30) : null);
+            Pageable pageable = PageRequest.of(random.nextInt(3), 20, SORTS.get(random.nextInt(SORTS.size())));
+            transactionTemplate.executeWithoutResult(status -> search.apply(filter, pageable).getTotalElements());
+        }
+        return (System.nanoTime() - start) / 1_000.0 / searches;
+    }
+
+}
+
+/* Anotação:
+ * Formato (shape): 4 campos opcionais no AuthorFilter = 16 combinações; com 2 ordenações, no máximo 32 planos.
+ * AuthorSpecifications.build: Monta a árvore Criteria a cada busca, e o Hibernate a interpreta de novo (Criteria não entra no cache de planos HQL).
+ * AuthorFilterQueryPlanCache: Compila o JPQL uma vez por formato (addNamedQuery); as buscas seguintes só fazem o bind dos parâmetros.
+*/
@@ -0,0 +1,76 @@
+package com.api.demo_data_jpa.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+//import org.springframework.stereotype.Component;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.api.demo_data_jpa.filter.AuthorFilter;
+import com.api.demo_data_jpa.model.Author;
+import com.api.demo_data_jpa.sharding.AuthorShards;
+import com.api.demo_data_jpa.specification.AuthorSpecifications;
+import com.github.javafaker.Faker;
+
+// 20 mil autores em N shards: distribuição do hash, busca por email (1 shard) e busca paginada (todos os shards)
+// Requer app.author-shards.urls com pelo menos dois bancos.
+//@Component
+public class AuthorShardingExample implements CommandLineRunner {
+
+    private static final int AUTHORS = 20_000;
+    private static final int LOOKUPS = 5_000;
+    private static final int SEARCHES = 200;
+
+    @Autowired
+    private AuthorShards authorShards;
+
+    private final Faker faker = new Faker(new Random(42));
+
+    @Override
+    public void run(String... args) throws Exception {
+
+        List<Author> authors = new ArrayList<>(AUTHORS);
+        for (int i = 0; i < AUTHORS; i++) {
+            authors.add(new Author(faker.name().firstName(), faker.name().lastName(), "autor" + i + "@email.com", 18 + faker.number().numberBetween(0, 60)));
+        }
+        long start = System.nanoTime();
+        authorShards.saveAll(authors);
+        System.out.println("\n=== Sharding de autores | " + authorShards.shardCount() + " shards, " + AUTHORS + " autores ===");
+        System.out.println("Gravação (ms): " + (System.nanoTime() - start) / 1_000_000 + " | Autores por shard: " + authorShards.countPerShard());
+
+        // Busca por email: uma consulta em um shard só
+        Random random = new Random(7);
+        start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            authorShards.findByEmail("autor" + random.nextInt(AUTHORS) + "@email.com").orElseThrow();
+        }
+        System.out.printf("findByEmail: %.3f ms por busca%n", (System.nanoTime() - start) / 1_000_000.0 / LOOKUPS);
+
+        // Specification + paginação: a mesma consulta em todos os shards ao mesmo tempo + merge
+        AuthorFilter filter = new AuthorFilter();
+        filter.setMinAge(30);
+        filter.setMaxAge(50);
+        Sort sort = Sort.by(Sort.Order.desc("age"), Sort.Order.asc("lastName").ignoreCase());
+        for (int page : new int[] { 0, 10, 100 }) {
+            Page<Author> result = null;
+            start = System.nanoTime();
+            for (int i = 0; i < SEARCHES; i++) {
+                result = authorShards.findAll(AuthorSpecifications.build(filter), PageRequest.of(page, 20, sort));
+            }
+            System.out.printf("Página %d (20 por página): %.2f ms por busca | total: %d | primeiro: %s%n", page,
+                (System.nanoTime() - start) / 1_000_000.0 / SEARCHES, result.getTotalElements(),
+                result.getContent().isEmpty() ? "-" : result.getContent().get(0).getEmail());
+        }
+    }
+
+}
+
+/* Anotação:
+ * Página 0 x página 100: cada shard devolve offset + size linhas, então páginas profundas custam mais (o merge descarta o offset).
+ * Faker(new Random(42)): Dados falsos reproduzíveis (mesma seed = mesmos nomes a cada execução).
+*/
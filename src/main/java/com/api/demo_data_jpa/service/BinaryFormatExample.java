@@ -0,0 +1,151 @@
+package com.api.demo_data_jpa.service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+//import org.springframework.stereotype.Component;
+
+import com.api.demo_data_jpa.config.BinaryFormatConfig;
+import com.api.demo_data_jpa.dto.AuthorDetailsDTO;
+import com.api.demo_data_jpa.dto.BookDTO;
+import com.api.demo_data_jpa.dto.OrderDTO;
+import com.api.demo_data_jpa.model.Author;
+import com.api.demo_data_jpa.model.embedded.Address;
+import com.api.demo_data_jpa.model.embedded.Order;
+import com.api.demo_data_jpa.model.embedded.OrderId;
+import com.api.demo_data_jpa.repository.AuthorRepository;
+import com.api.demo_data_jpa.repository.OrderRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// JSON x CBOR x Smile com os ObjectMappers dos conversores HTTP da aplicação:
+//  1) lotes em memória (autores, livros, pedidos): tamanho, tempo de codificação e de decodificação;
+//  2) as mesmas URLs via HTTP com cada Accept: Content-Type, ETag e bytes recebidos.
+//@Component
+public class BinaryFormatExample implements CommandLineRunner {
+
+    private static final int BATCH = 5000;
+    private static final int WARMUP = 30;
+    private static final int ITERATIONS = 50;
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter jsonConverter;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Value("${server.port:8080}")
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Override
+    public void run(String... args) throws Exception {
+        Map<String, ObjectMapper> formats = Map.of(
+            "JSON", jsonConverter.getObjectMapper(),
+            "CBOR", cborConverter.getObjectMapper(),
+            "Smile", smileConverter.getObjectMapper());
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        List<AuthorDetailsDTO> authors = new ArrayList<>();
+        List<BookDTO> books = new ArrayList<>();
+        List<OrderDTO> orders = new ArrayList<>();
+        for (int i = 0; i < BATCH; i++) {
+            LocalDateTime modified = start.plusSeconds(i * 37L).plusNanos(i % 1000 * 1_000_000L);
+            authors.add(new AuthorDetailsDTO(i, "Nome" + i, "Sobrenome" + i % 300, "autor" + i + "@email.com", 20 + i % 50,
+                "Rua " + i % 700, String.valueOf(i % 1000), String.format("%05d-%03d", i % 100000, i % 1000), modified, (long) i % 9));
+            books.add(new BookDTO(i, "Livro " + i + " da coleção " + i % 40, modified, (long) i % 4));
+            orders.add(new OrderDTO("cliente" + i % 200, modified, "Rua " + i % 700, String.valueOf(i % 1000),
+                String.format("%05d-%03d", i % 100000, i % 1000), "Pedido " + i + " com " + (1 + i % 9) + " itens", null));
+        }
+
+        System.out.println("\n=== JSON x CBOR x Smile | lotes de " + BATCH + " | média de " + ITERATIONS + " execuções ===");
+        System.out.println("lote     | formato | bytes     | % do JSON | codificar (µs) | decodificar (µs)");
+        measure("autores", authors, new TypeReference<List<AuthorDetailsDTO>>() { }, formats);
+        measure("livros", books, new TypeReference<List<BookDTO>>() { }, formats);
+        measure("pedidos", orders, new TypeReference<List<OrderDTO>>() { }, formats);
+
+        // Via HTTP: mesmas URLs, só o Accept muda
+        List<Author> saved = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            saved.add(new Author("Binario" + i, "Autor", "binario" + i + "@email.com", 20 + i % 40));
+        }
+        authorRepository.saveAll(saved);
+        List<Order> savedOrders = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            savedOrders.add(new Order(new OrderId("cliente" + i % 20, start.plusMinutes(i)),
+                new Address("Rua " + i, String.valueOf(i), String.format("%05d-000", i)), "Pedido " + i, null));
+        }
+        orderRepository.saveAll(savedOrders);
+
+        String base = "http://localhost:" + port;
+        System.out.println("\nGET                    | Accept                     | status | Content-Type               | bytes  | ETag");
+        for (String path : List.of("/authors?firstName=binario&size=100", "/orders?from=2024-01-01T00:00:00&to=2024-02-01T00:00:00&limit=1000")) {
+            for (MediaType accept : List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, BinaryFormatConfig.APPLICATION_SMILE)) {
+                HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(URI.create(base + path))
+                    .header("Accept", accept.toString()).GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+                System.out.printf("%-22s | %-26s | %6d | %-26s | %6d | %s%n", path.substring(0, Math.min(22, path.length())), accept,
+                    response.statusCode(), response.headers().firstValue("Content-Type").orElse("-"), response.body().length,
+                    response.headers().firstValue("ETag").orElse("-"));
+            }
+        }
+    }
+
+    private <T> void measure(String name, List<T> batch, TypeReference<List<T>> type, Map<String, ObjectMapper> formats) throws Exception {
+        long jsonBytes = formats.get("JSON").writeValueAsBytes(batch).length;
+        for (String format : List.of("JSON", "CBOR", "Smile")) {
+            ObjectMapper mapper = formats.get(format);
+            JavaType javaType = mapper.getTypeFactory().constructType(type);
+            byte[] encoded = mapper.writeValueAsBytes(batch);
+            if (!batch.equals(mapper.readValue(encoded, javaType))) {
+                throw new IllegalStateException(format + ": o lote decodificado é diferente do original");
+            }
+            for (int i = 0; i < WARMUP; i++) {   // aquecimento (JIT)
+                mapper.readValue(mapper.writeValueAsBytes(batch), javaType);
+            }
+
+            long encodeNanos = 0;
+            long decodeNanos = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                long t0 = System.nanoTime();
+                encoded = mapper.writeValueAsBytes(batch);
+                long t1 = System.nanoTime();
+                mapper.readValue(encoded, javaType);
+                decodeNanos += System.nanoTime() - t1;
+                encodeNanos += t1 - t0;
+            }
+            System.out.printf("%-8s | %-7s | %9d | %8.0f%% | %14d | %16d%n", name, format, encoded.length, 100.0 * encoded.length / jsonBytes,
+                encodeNanos / 1_000 / ITERATIONS, decodeNanos / 1_000 / ITERATIONS);
+        }
+    }
+
+}
+
+/* Anotação:
+ * getObjectMapper(): O ObjectMapper de cada conversor é o que o Spring MVC usa nas respostas (mesmos módulos e serializadores).
+ * readValue(bytes, JavaType): Decodifica o lote como um consumidor faria; records são desserializados pelo construtor canônico.
+ * Com Accept: application/cbor ou application/x-jackson-smile, o ETag do /authors ganha o sufixo do formato (ver AuthorValidators).
+*/
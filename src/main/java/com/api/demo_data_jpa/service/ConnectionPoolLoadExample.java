@@ -0,0 +1,151 @@
+package com.api.demo_data_jpa.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+//import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.api.demo_data_jpa.pool.AdaptivePoolSizer;
+import com.api.demo_data_jpa.pool.ConnectionPoolTelemetry;
+import com.api.demo_data_jpa.pool.LatencyHistogram;
+import com.api.demo_data_jpa.repository.AuthorRepository;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+
+// 64 threads disputando o pool contra um "banco" que atende 8 consultas ao mesmo tempo (2 ms cada):
+// pool fixo de 10, pool fixo de 40 e o AdaptivePoolSizer começando em 5. Uma linha por segundo.
+//@Component
+public class ConnectionPoolLoadExample implements CommandLineRunner {
+
+    private static final int THREADS = 64;
+    private static final int SECONDS_PER_PHASE = 15;
+    private static final int WARMUP_SECONDS = 10;
+    private static final int DATABASE_CONCURRENCY = 8;
+    private static final long DATABASE_WORK_MILLIS = 2;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ConnectionPoolTelemetry telemetry;
+
+    @Autowired
+    private AdaptivePoolSizer adaptivePoolSizer;
+
+    // Capacidade do banco simulado: acima de 8 conexões trabalhando, as outras esperam com a conexão na mão
+    private final Semaphore database = new Semaphore(DATABASE_CONCURRENCY, true);
+
+    @Override
+    public void run(String... args) throws Exception {
+        HikariDataSource hikari = (HikariDataSource) dataSource;
+        System.out.println("\n=== Pool de conexões sob carga | " + THREADS + " threads, banco com " + DATABASE_CONCURRENCY
+            + " consultas simultâneas de " + DATABASE_WORK_MILLIS + " ms ===");
+
+        phase(hikari, "Aquecimento (JIT)", 10, false, WARMUP_SECONDS, false);
+        phase(hikari, "Fixo 10", 10, false);
+        phase(hikari, "Fixo 40", 40, false);
+        phase(hikari, "Adaptativo", 5, true);
+
+        System.out.println("Tempo com a conexão por método:");
+        telemetry.snapshot(hikari.getPoolName()).holdByMethod().forEach((method, hold) ->
+            System.out.printf("  %-40s %8d conexões | média %.0f µs | p99 <= %d µs%n", method, hold.count(), hold.meanMicros(), hold.percentileMicros(0.99)));
+    }
+
+    private void phase(HikariDataSource hikari, String name, int poolSize, boolean adaptive) throws InterruptedException {
+        phase(hikari, name, poolSize, adaptive, SECONDS_PER_PHASE, true);
+    }
+
+    private void phase(HikariDataSource hikari, String name, int poolSize, boolean adaptive, int seconds, boolean print) throws InterruptedException {
+        resize(hikari, poolSize);
+        adaptivePoolSizer.reset();
+        System.out.println("-- " + name + " --");
+        if (print) {
+            System.out.println(" seg | pool | ativas | esperando | espera p95 (µs) | uso médio (µs) | ops/s");
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder operations = new LongAdder();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Thread worker = new Thread(() -> {
+                while (running.get()) {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        authorRepository.existsByEmail("carga@email.com");
+                        simulatedDatabaseWork();
+                    });
+                    operations.increment();
+                }
+            }, "pool-load-" + i);
+            worker.start();
+            workers.add(worker);
+        }
+
+        long totalOperations = 0;
+        LatencyHistogram.Snapshot lastWait = telemetry.snapshot(hikari.getPoolName()).acquireWait();
+        LatencyHistogram.Snapshot lastHold = telemetry.snapshot(hikari.getPoolName()).hold();
+        for (int second = 1; second <= seconds; second++) {
+            Thread.sleep(1000);
+            ConnectionPoolTelemetry.PoolSnapshot snapshot = telemetry.snapshot(hikari.getPoolName());
+            LatencyHistogram.Snapshot wait = snapshot.acquireWait().minus(lastWait);
+            LatencyHistogram.Snapshot hold = snapshot.hold().minus(lastHold);
+            lastWait = snapshot.acquireWait();
+            lastHold = snapshot.hold();
+            long ops = operations.sumThenReset();
+            totalOperations += ops;
+            if (print) {
+                System.out.printf(" %3d | %4d | %6d | %9d | %15d | %14.0f | %5d%n", second, hikari.getHikariConfigMXBean().getMaximumPoolSize(),
+                    snapshot.active(), snapshot.pending(), wait.percentileMicros(0.95), hold.meanMicros(), ops);
+            }
+            if (adaptive) {
+                adaptivePoolSizer.evaluate();
+            }
+        }
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        System.out.println("Média: " + totalOperations / seconds + " ops/s");
+    }
+
+    private void simulatedDatabaseWork() {
+        try {
+            database.acquire();
+            try {
+                Thread.sleep(DATABASE_WORK_MILLIS);
+            } finally {
+                database.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void resize(HikariDataSource hikari, int size) {
+        HikariConfigMXBean config = hikari.getHikariConfigMXBean();
+        config.setMinimumIdle(Math.min(config.getMinimumIdle(), size));
+        config.setMaximumPoolSize(size);
+        hikari.getHikariPoolMXBean().softEvictConnections();
+    }
+
+}
+
+/* Anotação:
+ * Semaphore(8, true) + sleep(2 ms): Banco que atende 8 consultas por vez; a 9ª espera na fila (FIFO) dentro do "banco" segurando a conexão.
+ * Fixo 10: pouca espera no pool e o banco trabalhando perto do limite.
+ * Fixo 40: a vazão não aumenta; a fila só muda de lugar (do pool para dentro do banco) e o uso de cada conexão fica mais lento.
+ * Adaptativo: cresce enquanto a espera no pool domina e recua quando o uso da conexão passa a subir.
+*/
@@ -0,0 +1,126 @@
+package com.api.demo_data_jpa.service;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+//import org.springframework.stereotype.Component;
+
+import com.api.demo_data_jpa.content.LocalContentStore;
+import com.api.demo_data_jpa.content.LocalContentStore.Stats;
+import com.api.demo_data_jpa.model.File;
+import com.api.demo_data_jpa.repository.FileRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Vários cursos subindo o mesmo material (apostila, slides, certificado) + um arquivo próprio por curso, em partes pelo HTTP
+//@Component
+public class ContentDedupExample implements CommandLineRunner {
+
+    private static final int COURSES = 20;
+    private static final int[] SHARED_MATERIALS_MB = { 8, 16, 32 };
+    private static final int OWN_MATERIAL_MB = 4;
+    private static final int CHUNK_SIZE = 4 * 1024 * 1024;
+
+    @Autowired
+    private FileRepository fileRepository;
+
+    @Autowired
+    private LocalContentStore contentStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${server.port:8080}")
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Override
+    public void run(String... args) throws Exception {
+
+        Stats before = contentStore.stats();
+        long start = System.nanoTime();
+        long skippedBytes = 0;
+        for (int course = 0; course < COURSES; course++) {
+            for (int material = 0; material < SHARED_MATERIALS_MB.length; material++) {
+                if (upload("Material " + material + " (curso " + course + ")", SHARED_MATERIALS_MB[material], material)) {
+                    skippedBytes += (long) SHARED_MATERIALS_MB[material] << 20;
+                }
+            }
+            upload("Material próprio (curso " + course + ")", OWN_MATERIAL_MB, 1000 + course);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        Stats after = contentStore.stats();
+
+        long logical = after.logicalBytes() - before.logicalBytes();
+        long stored = after.storedBytes() - before.storedBytes();
+        System.out.println("\n=== Upload com deduplicação | " + COURSES + " cursos ===");
+        System.out.println("Uploads: " + (after.uploads() - before.uploads())
+            + " | Deduplicados: " + (after.deduplicatedUploads() - before.deduplicatedUploads()));
+        System.out.println("Recebido (MB): " + (logical >> 20) + " | Gravado (MB): " + (stored >> 20)
+            + " | Economia: " + String.format("%.1f%%", 100.0 * (logical - stored) / logical)
+            + " | Não enviados pela rede (MB): " + (skippedBytes >> 20));
+        System.out.println("Throughput de ponta a ponta (MB/s): " + String.format("%.1f", (logical >> 20) / seconds)
+            + " | Só gravação + hash no servidor (MB/s): " + String.format("%.1f", after.uploadMegabytesPerSecond()));
+    }
+
+    // Retorna true quando o servidor já tinha o blob e os bytes nem foram enviados
+    private boolean upload(String name, int megabytes, long seed) throws Exception {
+        File file = fileRepository.save(File.builder().name(name).type("pdf").build());
+        String base = "http://localhost:" + port + "/resources/" + file.getId() + "/uploads";
+        long total = (long) megabytes * 1024 * 1024;
+
+        // O cliente calcula o hash antes (lendo o arquivo em partes) e pergunta se o servidor já tem o conteúdo
+        HttpResponse<String> begin = client.send(HttpRequest.newBuilder(URI.create(base + "?digest=" + digestOf(seed, total)))
+            .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+        if (begin.statusCode() == 200) {
+            return true;
+        }
+        String uploadId = objectMapper.readTree(begin.body()).get("uploadId").asText();
+
+        Random random = new Random(seed);
+        byte[] chunk = new byte[CHUNK_SIZE];
+        for (long offset = 0; offset < total; offset += CHUNK_SIZE) {
+            int length = (int) Math.min(CHUNK_SIZE, total - offset);
+            random.nextBytes(chunk);
+            client.send(HttpRequest.newBuilder(URI.create(base + "/" + uploadId + "?offset=" + offset))
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(chunk, 0, length)).build(), HttpResponse.BodyHandlers.discarding());
+        }
+
+        HttpResponse<InputStream> complete = client.send(HttpRequest.newBuilder(URI.create(base + "/" + uploadId + "/complete"))
+            .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofInputStream());
+        JsonNode blob = objectMapper.readTree(complete.body());
+        if (blob.get("size").asLong() != total) {
+            throw new IllegalStateException("Upload incompleto: " + name);
+        }
+        return false;
+    }
+
+    // Conteúdo determinístico pela seed: o mesmo material gera os mesmos bytes (e o mesmo hash) em todos os cursos
+    private static String digestOf(long seed, long total) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        Random random = new Random(seed);
+        byte[] chunk = new byte[CHUNK_SIZE];
+        for (long offset = 0; offset < total; offset += CHUNK_SIZE) {
+            random.nextBytes(chunk);
+            digest.update(chunk, 0, (int) Math.min(CHUNK_SIZE, total - offset));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+}
+
+/* Anotação:
+ * Economia de armazenamento: (bytes recebidos - bytes gravados) / bytes recebidos. Cada material compartilhado é gravado uma vez só.
+ * POST /uploads?digest=...: Se o servidor já tem o blob, o Resource é ligado sem transferir nada (economia de rede e de tempo).
+ *  - Sem o digest (ou com blob novo), o hash é calculado no servidor enquanto as partes chegam e a deduplicação acontece no complete.
+*/
@@ -0,0 +1,125 @@
+package com.api.demo_data_jpa.service;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+//import org.springframework.stereotype.Component;
+
+import com.api.demo_data_jpa.content.LocalContentStore;
+import com.api.demo_data_jpa.content.LocalContentStore.StoredBlob;
+import com.api.demo_data_jpa.model.Video;
+import com.api.demo_data_jpa.repository.VideoRepository;
+
+// Clientes concorrentes baixando o mesmo vídeo pelo ResourceContentController (o CommandLineRunner roda com o Tomcat já no ar)
+//@Component
+public class ContentStreamingExample implements CommandLineRunner {
+
+    private static final int VIDEO_SIZE = 256 * 1024 * 1024;
+    private static final int RANGE_SIZE = 1024 * 1024;
+    private static final int[] CLIENTS = { 1, 4, 16, 64 };
+    private static final int REQUESTS_PER_CLIENT = 8;
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Autowired
+    private LocalContentStore contentStore;
+
+    @Value("${server.port:8080}")
+    private int port;
+
+    @Override
+    public void run(String... args) throws Exception {
+
+        Video video = videoRepository.save(Video.builder().name("Streaming Bench").length(3600).size(VIDEO_SIZE).build());
+        StoredBlob blob = contentStore.store(video.getId(), new InputStream() {
+            private long remaining = VIDEO_SIZE;
+
+            @Override
+            public int read() {
+                return remaining-- > 0 ? 'x' : -1;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) {
+                if (remaining <= 0) {
+                    return -1;
+                }
+                int count = (int) Math.min(length, remaining);
+                Arrays.fill(buffer, offset, offset + count, (byte) 'x');
+                remaining -= count;
+                return count;
+            }
+        });
+        video.setContentHash(blob.digest());
+        videoRepository.save(video);
+        URI uri = URI.create("http://localhost:" + port + "/resources/" + video.getId() + "/content");
+
+        System.out.println("\n=== Streaming de conteúdo | vídeo de " + (VIDEO_SIZE >> 20) + " MB ===");
+        HttpClient client = HttpClient.newHttpClient();
+        for (int clients : CLIENTS) {
+            measure(client, uri, clients, false);
+            measure(client, uri, clients, true);
+        }
+    }
+
+    private void measure(HttpClient client, URI uri, int clients, boolean ranges) throws Exception {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+        int requests = ranges ? REQUESTS_PER_CLIENT * 16 : REQUESTS_PER_CLIENT;
+
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        List<Future<Long>> results = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            results.add(executor.submit(() -> {
+                long bytes = 0;
+                for (int r = 0; r < requests; r++) {
+                    HttpRequest.Builder request = HttpRequest.newBuilder(uri).GET();
+                    if (ranges) {
+                        // Seek aleatório como faz um player de vídeo
+                        long offset = ThreadLocalRandom.current().nextLong(VIDEO_SIZE - RANGE_SIZE);
+                        request.header("Range", "bytes=" + offset + "-" + (offset + RANGE_SIZE - 1));
+                    }
+                    HttpResponse<Void> response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+                    bytes += response.headers().firstValueAsLong("Content-Length").orElse(0);
+                }
+                return bytes;
+            }));
+        }
+        long totalBytes = 0;
+        for (Future<Long> result : results) {
+            totalBytes += result.get();
+        }
+        executor.shutdown();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long heapAfter = memory.getHeapMemoryUsage().getUsed();
+
+        System.out.printf("Clientes: %2d | %-12s | %8.1f MB/s | Heap antes/depois (MB): %d / %d%n",
+            clients, ranges ? "Range 1 MB" : "Arquivo todo",
+            totalBytes / 1024.0 / 1024.0 / seconds, heapBefore >> 20, heapAfter >> 20);
+    }
+
+}
+
+/* Anotação:
+ * O heap quase não deve crescer: com sendfile/transferTo os bytes do vídeo vão do page cache para o socket sem passar por byte[] na JVM.
+ * HttpResponse.BodyHandlers.discarding(): O cliente descarta o corpo (o benchmark mede o servidor, não o cliente).
+ * Range aleatório: Simula o seek de um player de vídeo; cada requisição devolve 206 Partial Content com 1 MB.
+*/
@@ -0,0 +1,119 @@
+package com.api.demo_data_jpa.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+//import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.api.demo_data_jpa.aggregate.AggregatePersistService;
+import com.api.demo_data_jpa.association.CourseAuthorLinkService;
+import com.api.demo_data_jpa.model.Author;
+import com.api.demo_data_jpa.model.Course;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+// Curso com 5000 autores: adicionar/remover um autor pela coleção (bag) x pelo CourseAuthorLinkService
+// Requer spring.jpa.properties.hibernate.generate_statistics=true para contar entidades e coleções carregadas/reescritas.
+//@Component
+public class CourseAuthorLinkExample implements CommandLineRunner {
+
+    private static final int AUTHORS = 5_000;
+    private static final int OPERATIONS = 50;
+    private static final int BULK = 1_000;
+
+    @Autowired
+    private AggregatePersistService aggregatePersistService;
+
+    @Autowired
+    private CourseAuthorLinkService courseAuthorLinkService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void run(String... args) throws Exception {
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        System.out.println("\n=== Adicionar/remover 1 autor | curso com " + AUTHORS + " autores, " + OPERATIONS + " operações ===");
+
+        // Autores extras, fora do curso, para adicionar e remover
+        List<Author> extras = authors("Extra", OPERATIONS + BULK);
+        aggregatePersistService.persistAuthors(extras);
+
+        // 1) Pela coleção: carrega os 5000 autores, apaga as 5000 linhas do curso e insere 5001 (ou 4999)
+        Integer bagCourse = newCourse("Curso pela coleção");
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            Author extra = extras.get(i);
+            transactionTemplate.executeWithoutResult(status -> {
+                Course course = entityManager.find(Course.class, bagCourse);
+                course.getAuthors().add(entityManager.getReference(Author.class, extra.getId()));
+            });
+            transactionTemplate.executeWithoutResult(status -> {
+                Course course = entityManager.find(Course.class, bagCourse);
+                course.getAuthors().removeIf(author -> author.getId().equals(extra.getId()));
+            });
+        }
+        System.out.println("Coleção (bag)   | Entidades carregadas: " + statistics.getEntityLoadCount()
+            + " | Coleções carregadas: " + statistics.getCollectionLoadCount() + " | reescritas: " + statistics.getCollectionUpdateCount()
+            + " | Linhas por operação: ~" + (2 * AUTHORS + 1)
+            + " | Tempo por operação (ms): " + (System.nanoTime() - start) / 1_000_000 / (2 * OPERATIONS));
+
+        // 2) Linha a linha: 1 SELECT + 1 INSERT para adicionar, 1 DELETE para remover (+ UPDATE da versão do curso)
+        Integer linkCourse = newCourse("Curso linha a linha");
+        statistics.clear();
+        start = System.nanoTime();
+        int rows = 0;
+        for (int i = 0; i < OPERATIONS; i++) {
+            rows += courseAuthorLinkService.addAuthor(linkCourse, extras.get(i).getId());
+            rows += courseAuthorLinkService.removeAuthor(linkCourse, extras.get(i).getId());
+        }
+        System.out.println("Linha a linha   | Entidades carregadas: " + statistics.getEntityLoadCount()
+            + " | Linhas por operação: " + rows / (2 * OPERATIONS)
+            + " | Tempo por operação (ms): " + String.format("%.2f", (System.nanoTime() - start) / 1_000_000.0 / (2 * OPERATIONS)));
+
+        // 3) Em lote: 1000 autores de uma vez (1 SELECT ... IN + 1 batch de INSERT), depois a remoção dos mesmos 1000
+        List<Integer> bulkIds = extras.subList(OPERATIONS, OPERATIONS + BULK).stream().map(Author::getId).toList();
+        start = System.nanoTime();
+        int added = courseAuthorLinkService.addAuthors(linkCourse, bulkIds);
+        int again = courseAuthorLinkService.addAuthors(linkCourse, bulkIds);
+        long addMillis = (System.nanoTime() - start) / 1_000_000;
+        start = System.nanoTime();
+        int removed = courseAuthorLinkService.removeAuthors(linkCourse, bulkIds);
+        System.out.println("Lote de " + BULK + "     | Inseridos: " + added + " (repetindo: " + again + ") em " + addMillis + " ms"
+            + " | Removidos: " + removed + " em " + (System.nanoTime() - start) / 1_000_000 + " ms"
+            + " | Autores no final: " + courseAuthorLinkService.countAuthors(linkCourse));
+    }
+
+    private Integer newCourse(String name) {
+        Course course = Course.builder().name(name).authors(authors(name, AUTHORS)).build();
+        aggregatePersistService.persistCourses(List.of(course));
+        return course.getId();
+    }
+
+    private List<Author> authors(String prefix, int count) {
+        List<Author> authors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            authors.add(Author.builder().firstName(prefix).lastName("Autor " + i).email(prefix.replace(' ', '.') + "." + i + "@email.com").age(30).build());
+        }
+        return authors;
+    }
+
+}
+
+/* Anotação:
+ * getReference(): Proxy do Author sem SELECT; para o vínculo só o id importa.
+ * Coleção (bag): a cada operação o Hibernate carrega a coleção inteira (5000 Authors no contexto) e reescreve todas as linhas do curso.
+ * Linha a linha: o custo não depende de quantos autores o curso já tem (índice (course_id, author_id)).
+ * Repetir o mesmo lote não insere nada: o SELECT ... IN encontra os vínculos e eles são ignorados.
+*/
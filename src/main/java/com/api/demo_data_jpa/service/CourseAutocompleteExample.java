@@ -0,0 +1,78 @@
+package com.api.demo_data_jpa.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+//import org.springframework.stereotype.Component;
+
+import com.api.demo_data_jpa.aggregate.AggregatePersistService;
+import com.api.demo_data_jpa.autocomplete.CourseAutocompleteService;
+import com.api.demo_data_jpa.model.Course;
+import com.github.javafaker.Faker;
+
+// Catálogo de 300 mil cursos: tempo do rebuild e latência (p50/p99/máx) das consultas por prefixo
+//@Component
+public class CourseAutocompleteExample implements CommandLineRunner {
+
+    private static final int COURSES = 300_000;
+    private static final int INSERT_CHUNK = 10_000;
+    private static final int QUERIES = 100_000;
+    private static final int LIMIT = 10;
+
+    @Autowired
+    private AggregatePersistService aggregatePersistService;
+
+    @Autowired
+    private CourseAutocompleteService courseAutocompleteService;
+
+    private final Faker faker = new Faker(new Random(42));
+
+    @Override
+    public void run(String... args) throws Exception {
+
+        // Cursos via JDBC em lote (o AggregatePersistService também avisa a trie a cada commit)
+        List<String> names = new ArrayList<>(COURSES);
+        for (int inserted = 0; inserted < COURSES; inserted += INSERT_CHUNK) {
+            List<Course> chunk = new ArrayList<>(INSERT_CHUNK);
+            for (int i = 0; i < INSERT_CHUNK; i++) {
+                String name = faker.educator().course() + " " + faker.programmingLanguage().name();
+                name = name.substring(0, Math.min(name.length(), 100)); // Course.name tem 100 caracteres
+                names.add(name);
+                chunk.add(Course.builder().name(name).description(faker.lorem().sentence(12)).build());
+            }
+            aggregatePersistService.persistCourses(chunk);
+        }
+
+        long start = System.nanoTime();
+        courseAutocompleteService.rebuild();
+        System.out.println("\n=== Autocomplete de cursos | " + COURSES + " cursos ===");
+        System.out.println("Rebuild da trie (ms): " + (System.nanoTime() - start) / 1_000_000);
+
+        // Prefixos de 1 a 8 caracteres de nomes existentes (1-2 caracteres = muitos candidatos, o caso mais caro)
+        Random random = new Random(7);
+        long[] nanos = new long[QUERIES];
+        int results = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            String name = names.get(random.nextInt(names.size()));
+            String prefix = name.substring(0, Math.min(name.length(), 1 + random.nextInt(8)));
+            long queryStart = System.nanoTime();
+            results += courseAutocompleteService.complete(prefix, LIMIT).size();
+            nanos[i] = System.nanoTime() - queryStart;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("Consultas: %d | Média de resultados: %.1f | p50: %.1f µs | p99: %.1f µs | máx: %.1f µs%n",
+            QUERIES, (double) results / QUERIES, nanos[QUERIES / 2] / 1000.0, nanos[QUERIES * 99 / 100] / 1000.0, nanos[QUERIES - 1] / 1000.0);
+        String sample = names.get(0).substring(0, Math.min(names.get(0).length(), 5));
+        System.out.println("Exemplo '" + sample + "': " + courseAutocompleteService.complete(sample, 5));
+    }
+
+}
+
+/* Anotação:
+ * Latência em microssegundos (µs): 1 ms = 1000 µs. O alvo é p99 abaixo de 1 ms sem nenhuma consulta ao banco.
+ * Faker(new Random(42)): Dados falsos reproduzíveis (mesma seed = mesmos nomes a cada execução).
+*/
@@ -0,0 +1,99 @@
+package com.api.demo_data_jpa.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+//import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.api.demo_data_jpa.aggregate.AggregatePersistService;
+import com.api.demo_data_jpa.model.Author;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+// Rodar duas vezes e comparar:
+//  - mvn spring-boot:run                    -> entidades com bytecode enhancement (dirty tracking in-line)
+//  - mvn spring-boot:run -DskipEnhancement  -> entidades sem enhancement (dirty checking por snapshot)
+// Com 1M de entidades gerenciadas o heap precisa ser grande (ex: -Dspring-boot.run.jvmArguments=-Xmx4g).
+//@Component
+public class FlushDirtyCheckingExample implements CommandLineRunner {
+
+    private static final int[] MANAGED_ENTITIES = { 10_000, 100_000, 1_000_000 };
+    private static final int MODIFIED_ENTITIES = 100;
+    private static final int INSERT_CHUNK = 10_000;
+    // Cada flush é medido algumas vezes e vale o menor tempo (a primeira rodada ainda paga o JIT)
+    private static final int FLUSH_ROUNDS = 3;
+
+    @Autowired
+    private AggregatePersistService aggregatePersistService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void run(String... args) throws Exception {
+
+        boolean enhanced = SelfDirtinessTracker.class.isAssignableFrom(Author.class);
+        System.out.println("\n=== Tempo de flush | " + (enhanced ? "bytecode enhancement (dirty tracking in-line)" : "snapshot (sem enhancement)") + " ===");
+
+        int inserted = 0;
+        for (int managed : MANAGED_ENTITIES) {
+            // Insere os autores que faltam via JDBC (rápido e sem encher o contexto de persistência)
+            for (; inserted < managed; inserted += INSERT_CHUNK) {
+                List<Author> chunk = new ArrayList<>(INSERT_CHUNK);
+                for (int i = inserted; i < inserted + INSERT_CHUNK; i++) {
+                    chunk.add(Author.builder().firstName("Flush").lastName("Bench").email("flush" + i + "@gmail.com").age(30).build());
+                }
+                aggregatePersistService.persistAuthors(chunk);
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                // Todas as entidades ficam gerenciadas no mesmo contexto de persistência
+                List<Author> authors = entityManager
+                    .createQuery("SELECT a FROM Author a WHERE a.email LIKE 'flush%' ORDER BY a.id", Author.class)
+                    .setMaxResults(managed)
+                    .getResultList();
+
+                long cleanFlushMillis = Long.MAX_VALUE;
+                long dirtyFlushMillis = Long.MAX_VALUE;
+                int step = authors.size() / MODIFIED_ENTITIES;
+                for (int round = 0; round < FLUSH_ROUNDS; round++) {
+                    // 1) Nada alterado: o flush só procura entidades sujas
+                    long start = System.nanoTime();
+                    entityManager.flush();
+                    cleanFlushMillis = Math.min(cleanFlushMillis, (System.nanoTime() - start) / 1_000_000);
+
+                    // 2) Poucas entidades alteradas (outras a cada rodada): mesmo custo de procura + MODIFIED_ENTITIES UPDATEs
+                    for (int i = 0; i < MODIFIED_ENTITIES; i++) {
+                        authors.get(i * step + round % step).setLastName("Bench " + round + "." + i);
+                    }
+                    start = System.nanoTime();
+                    entityManager.flush();
+                    dirtyFlushMillis = Math.min(dirtyFlushMillis, (System.nanoTime() - start) / 1_000_000);
+                }
+
+                System.out.println("Entidades gerenciadas: " + authors.size()
+                    + " | Flush sem alterações (ms): " + cleanFlushMillis
+                    + " | Flush com " + MODIFIED_ENTITIES + " alteradas (ms): " + dirtyFlushMillis);
+
+                entityManager.clear();
+            });
+        }
+    }
+
+}
+
+/* Anotação:
+ * Dirty checking por snapshot: No flush, o Hibernate compara cada atributo de TODAS as entidades gerenciadas com a cópia (snapshot) feita na leitura.
+ *  - O custo do flush cresce com o número de entidades gerenciadas, mesmo que nenhuma tenha mudado.
+ * Dirty tracking in-line (bytecode enhancement): Os setters das entidades registram quais atributos mudaram ($$_hibernate_trackChange).
+ *  - No flush, o Hibernate só olha as entidades marcadas como sujas.
+ * SelfDirtinessTracker: Interface que o hibernate-enhance-maven-plugin adiciona às entidades enhanced.
+*/
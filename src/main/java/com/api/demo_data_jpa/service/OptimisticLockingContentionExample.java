@@ -0,0 +1,134 @@
+package com.api.demo_data_jpa.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+//import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.api.demo_data_jpa.model.Author;
+import com.api.demo_data_jpa.repository.AuthorRepository;
+import com.api.demo_data_jpa.support.OptimisticRetryExecutor;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+
+//@Component
+public class OptimisticLockingContentionExample implements CommandLineRunner {
+
+    private static final int HOT_ROWS = 4;
+    private static final int UPDATES_PER_WRITER = 200;
+    private static final int[] WRITERS = { 1, 2, 4, 8, 16, 32, 64 };
+    private static final int WARMUP_WRITERS = 4;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private OptimisticRetryExecutor retryExecutor;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void run(String... args) throws Exception {
+
+        // Poucas linhas "quentes" disputadas por todos os escritores
+        List<Integer> hotIds = new ArrayList<>();
+        for (int i = 0; i < HOT_ROWS; i++) {
+            hotIds.add(authorRepository.save(Author.builder()
+                .firstName("Hot")
+                .lastName("Row " + i)
+                .email("hot" + i + "@gmail.com")
+                .age(30)
+                .build()).getId());
+        }
+
+        // Aquecimento (JIT, pool de conexões) dos dois caminhos, fora da tabela: sem ele a linha de 1 escritor mede o JIT
+        measure(WARMUP_WRITERS, this::optimisticUpdate, hotIds);
+        measure(WARMUP_WRITERS, this::pessimisticUpdate, hotIds);
+
+        System.out.println("\n=== Contenção em " + HOT_ROWS + " autores | " + UPDATES_PER_WRITER + " updates por escritor ===");
+        System.out.println("(o pool do Hikari tem 10 conexões por padrão: acima disso os escritores também esperam por conexão)");
+        for (int writers : WRITERS) {
+
+            // 1) Lock otimista (@Version) + OptimisticRetryExecutor
+            retryExecutor.resetMetrics();
+            double optimistic = measure(writers, this::optimisticUpdate, hotIds);
+            long conflicts = retryExecutor.getConflicts();
+            long exhausted = retryExecutor.getExhausted();
+
+            // 2) Lock pessimista: SELECT ... FOR UPDATE segura a linha até o commit
+            double pessimistic = measure(writers, this::pessimisticUpdate, hotIds);
+
+            System.out.println("Escritores: " + writers
+                + " | Otimista (updates/s): " + String.format("%.0f", optimistic)
+                + " | Conflitos: " + conflicts
+                + " | Desistências: " + exhausted
+                + " | Pessimista (updates/s): " + String.format("%.0f", pessimistic));
+        }
+    }
+
+    private void optimisticUpdate(int id) {
+        retryExecutor.execute(() -> {
+            Author author = authorRepository.findById(id).orElseThrow();
+            author.setLastName("Writer " + Thread.currentThread().getName());
+            authorRepository.save(author);
+        });
+    }
+
+    private void pessimisticUpdate(int id) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Author author = entityManager.find(Author.class, id, LockModeType.PESSIMISTIC_WRITE);
+            author.setLastName("Writer " + Thread.currentThread().getName());
+        });
+    }
+
+    // Dispara os escritores ao mesmo tempo e devolve updates concluídos por segundo
+    private double measure(int writers, IntConsumer update, List<Integer> hotIds) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(writers);
+        AtomicLong completed = new AtomicLong();
+
+        for (int w = 0; w < writers; w++) {
+            pool.submit(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < UPDATES_PER_WRITER; i++) {
+                        try {
+                            update.accept(hotIds.get(ThreadLocalRandom.current().nextInt(hotIds.size())));
+                            completed.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            // Desistiu depois de max-attempts conflitos: não conta como update concluído
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        double seconds = (System.nanoTime() - begin) / 1_000_000_000.0;
+        pool.shutdown();
+        return completed.get() / seconds;
+    }
+
+}
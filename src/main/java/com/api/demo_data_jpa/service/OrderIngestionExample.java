@@ -0,0 +1,71 @@
+package com.api.demo_data_jpa.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+//import org.springframework.stereotype.Component;
+
+import com.api.demo_data_jpa.ingestion.OrderIngestionService;
+import com.api.demo_data_jpa.model.embedded.Address;
+import com.api.demo_data_jpa.model.embedded.Order;
+import com.api.demo_data_jpa.model.embedded.OrderId;
+import com.api.demo_data_jpa.repository.OrderRepository;
+
+//@Component
+public class OrderIngestionExample implements CommandLineRunner {
+
+    private static final int ORDERS = 20_000;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderIngestionService orderIngestionService;
+
+    @Override
+    public void run(String... args) throws Exception {
+
+        LocalDateTime base = LocalDateTime.now().withNano(0);
+
+        // 1) Um save() por pedido: uma transação e idas ao banco para cada pedido
+        System.out.println("\n=== save() pedido a pedido ===");
+        long start = System.nanoTime();
+        for (int i = 0; i < ORDERS; i++) {
+            orderRepository.save(newOrder("save", base.plusSeconds(i)));
+        }
+        printThroughput(start);
+
+
+        // 2) Ingestão com group commit: os pedidos são juntados em INSERTs multi-linhas
+        System.out.println("\n=== OrderIngestionService (group commit) ===");
+        start = System.nanoTime();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            futures.add(orderIngestionService.submit(newOrder("ingestion", base.plusSeconds(i))));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        printThroughput(start);
+
+        System.out.println("Lotes: " + orderIngestionService.getBatches()
+            + " | Tamanho médio do lote: " + String.format("%.1f", orderIngestionService.getAverageBatchSize())
+            + " | Refeitos linha a linha: " + orderIngestionService.getRowRetries()
+            + " | Latência média (ms): " + String.format("%.2f", orderIngestionService.getAverageLatencyMillis())
+            + " | Latência máxima (ms): " + String.format("%.2f", orderIngestionService.getMaxLatencyMillis()));
+    }
+
+    private static Order newOrder(String username, LocalDateTime orderDate) {
+        return new Order(new OrderId(username, orderDate), new Address("Rua A", "123", "99999-999"), "Pedido", "Outro campo");
+    }
+
+    private static void printThroughput(long start) {
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        System.out.println("Pedidos: " + ORDERS
+            + " | Tempo (s): " + String.format("%.2f", seconds)
+            + " | Pedidos/s: " + String.format("%.0f", ORDERS / seconds));
+    }
+
+}
@@ -0,0 +1,165 @@
+package com.api.demo_data_jpa.service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+//import org.springframework.stereotype.Component;
+
+import com.api.demo_data_jpa.model.Author;
+import com.api.demo_data_jpa.projection.AuthorView;
+import com.api.demo_data_jpa.reactive.ReactiveAuthorReader;
+import com.api.demo_data_jpa.repository.AuthorRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+// Mesma leitura (AuthorView por e-mail) pelo repositório JPA e pelo ReactiveAuthorReader, com o mesmo número de threads:
+//  - bloqueante: pool fixo de THREADS threads, cada uma presa à consulta (e à latência de rede até o banco) do início ao fim;
+//  - reativo: Scheduler com THREADS threads e até IN_FLIGHT consultas em andamento; enquanto uma espera, a thread atende outra.
+// A latência de rede até o banco é simulada (sleep x Mono.delay), porque aqui o banco roda na mesma máquina.
+// Depois: um Flux por faixa de idade lido aos poucos (primeira linha x lista inteira) e o endpoint NDJSON.
+//@Component
+public class ReactiveReadExample implements CommandLineRunner {
+
+    private static final int AUTHORS = 5000;
+    private static final int LOOKUPS = 10000;
+    private static final int THREADS = 8;
+    private static final int IN_FLIGHT = 256;
+    private static final long[] NETWORK_RTT_MS = {0, 2};
+    private static final int WARMUP_ROUNDS = 3;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private ReactiveAuthorReader reactiveReader;
+
+    @Value("${server.port:8080}")
+    private int port;
+
+    @Override
+    public void run(String... args) throws Exception {
+        List<Author> authors = new ArrayList<>();
+        for (int i = 0; i < AUTHORS; i++) {
+            authors.add(new Author("Reativo" + i, "Autor", email(i), 20 + i % 60));
+        }
+        authorRepository.saveAll(authors);
+
+        // Os dois caminhos devolvem os mesmos dados
+        AuthorView jpa = authorRepository.findViewByEmail(email(42)).orElseThrow();
+        AuthorView reactive = reactiveReader.findViewByEmail(email(42)).block();
+        System.out.println("\n=== JPA x R2DBC | mesma AuthorView: "
+            + (Objects.equals(jpa.getFirstName(), reactive.getFirstName()) && jpa.getAge() == reactive.getAge()) + " ===");
+
+        Scheduler scheduler = Schedulers.newParallel("reactive-read", THREADS);
+        ExecutorService blocking = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {   // aquecimento (JIT, pools de conexão) dos dois caminhos
+                measureBlocking(blocking, 0);
+                measureReactive(scheduler, 0);
+            }
+            System.out.println(LOOKUPS + " consultas por e-mail chegando juntas | " + THREADS + " threads nos dois caminhos");
+            System.out.println("caminho    | RTT (ms) | consultas/s | p50 (ms) | p99 (ms)");
+            for (long rtt : NETWORK_RTT_MS) {
+                print("JPA", rtt, measureBlocking(blocking, rtt));
+                print("R2DBC", rtt, measureReactive(scheduler, rtt));
+            }
+        } finally {
+            blocking.shutdown();
+            scheduler.dispose();
+        }
+
+        // Faixa de idade: a lista do JPA só existe depois de ler tudo; o Flux entrega a primeira linha antes
+        long start = System.nanoTime();
+        int listed = authorRepository.findByAgeBetween(20, 79).size();
+        long listMillis = (System.nanoTime() - start) / 1_000_000;
+        start = System.nanoTime();
+        reactiveReader.findByAgeBetween(20, 79).next().block();
+        long firstRowMillis = (System.nanoTime() - start) / 1_000_000;
+        long streamed = reactiveReader.findByAgeBetween(20, 79).limitRate(100).count().block();
+        System.out.println("Faixa 20-79: JPA " + listed + " autores em " + listMillis + " ms (lista inteira) | R2DBC " + streamed
+            + " autores, primeira linha em " + firstRowMillis + " ms");
+
+        // Endpoint NDJSON (o CommandLineRunner roda com o Tomcat já no ar)
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+            HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/reactive/authors/views?minAge=30&maxAge=31")).build(),
+            HttpResponse.BodyHandlers.ofString());
+        System.out.println("GET /reactive/authors/views -> " + response.statusCode() + " " + response.headers().firstValue("Content-Type").orElse("-")
+            + ", " + response.body().lines().count() + " linhas; primeira: " + response.body().lines().findFirst().orElse("-"));
+    }
+
+    private record Result(double lookupsPerSecond, double p50Millis, double p99Millis) {
+    }
+
+    // Tempo de cada consulta contado a partir do mesmo instante (todas chegam juntas), incluindo a espera por uma thread livre
+    private Result measureBlocking(ExecutorService executor, long rttMillis) throws Exception {
+        long[] latencies = new long[LOOKUPS];
+        long start = System.nanoTime();
+        List<Future<?>> lookups = new ArrayList<>(LOOKUPS);
+        for (int i = 0; i < LOOKUPS; i++) {
+            int lookup = i;
+            lookups.add(executor.submit(() -> {
+                if (rttMillis > 0) {
+                    Thread.sleep(rttMillis);
+                }
+                authorRepository.findViewByEmail(email(lookup % AUTHORS)).orElseThrow();
+                latencies[lookup] = System.nanoTime() - start;
+                return null;
+            }));
+        }
+        for (Future<?> lookup : lookups) {
+            lookup.get();
+        }
+        return result(latencies, System.nanoTime() - start);
+    }
+
+    private Result measureReactive(Scheduler scheduler, long rttMillis) {
+        long[] latencies = new long[LOOKUPS];
+        long start = System.nanoTime();
+        Flux.range(0, LOOKUPS)
+            .flatMap(lookup -> Mono.delay(Duration.ofMillis(rttMillis), scheduler)
+                .then(reactiveReader.findViewByEmail(email(lookup % AUTHORS)))
+                .doOnNext(view -> latencies[lookup] = System.nanoTime() - start), IN_FLIGHT)
+            .blockLast();
+        return result(latencies, System.nanoTime() - start);
+    }
+
+    private static Result result(long[] latencies, long elapsedNanos) {
+        Arrays.sort(latencies);
+        return new Result(LOOKUPS / (elapsedNanos / 1e9), latencies[LOOKUPS / 2] / 1e6, latencies[(int) (LOOKUPS * 0.99)] / 1e6);
+    }
+
+    private static void print(String path, long rtt, Result result) {
+        System.out.printf("%-10s | %8d | %11.0f | %8.1f | %8.1f%n", path, rtt, result.lookupsPerSecond(), result.p50Millis(), result.p99Millis());
+    }
+
+    private static String email(int i) {
+        return "reativo" + i + "@email.com";
+    }
+
+}
+
+/* Anotação:
+ * Mono.delay(rtt, scheduler): Espera sem ocupar thread (um timer agenda a continuação); o equivalente bloqueante é o Thread.sleep.
+ * flatMap(..., IN_FLIGHT): Até IN_FLIGHT consultas assinadas ao mesmo tempo; o pool R2DBC (app.reactive-read.pool-size) limita
+ *  quantas estão de fato no banco, e as outras esperam uma conexão sem segurar thread.
+ * Bloqueante com RTT: Cada thread fica parada o RTT inteiro, então o teto é THREADS / RTT consultas por segundo.
+ * r2dbc-h2 (banco em memória): O driver executa a consulta na própria thread que assina; o ganho de não bloquear aparece com um driver
+ *  de rede de verdade (r2dbc-mysql), onde a thread é liberada enquanto o MySQL responde.
+ * limitRate(100): Pede as linhas de 100 em 100 (backpressure); o driver não lê o resultado inteiro de uma vez.
+*/
@@ -0,0 +1,117 @@
+package com.api.demo_data_jpa.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+//import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.api.demo_data_jpa.model.Course;
+import com.api.demo_data_jpa.model.Section;
+import com.api.demo_data_jpa.ordering.CurriculumOrderingService;
+import com.api.demo_data_jpa.ordering.OrderKeys;
+import com.api.demo_data_jpa.repository.CourseRepository;
+import com.api.demo_data_jpa.repository.SectionRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+// Move a última seção de um curso com 200 seções para o topo, várias vezes: ordem densa x chaves esparsas
+// Requer spring.jpa.properties.hibernate.generate_statistics=true para contar os UPDATEs.
+//@Component
+public class SectionReorderExample implements CommandLineRunner {
+
+    private static final int SECTIONS = 200;
+    private static final int MOVES = 500;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private SectionRepository sectionRepository;
+
+    @Autowired
+    private CurriculumOrderingService orderingService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void run(String... args) throws Exception {
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        System.out.println("\n=== Mover a última seção para o topo | " + SECTIONS + " seções, " + MOVES + " movimentos ===");
+
+        // 1) Ordem densa (1, 2, 3...): todas as seções antes da posição antiga andam uma casa
+        Integer denseCourse = newCourse("Curso ordem densa", true);
+        long rows = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < MOVES; i++) {
+            rows += transactionTemplate.execute(status -> {
+                Section last = sectionRepository.findByCourseIdOrderBySectionOrderAscIdAsc(denseCourse).get(SECTIONS - 1);
+                int shifted = entityManager.createQuery(
+                        "UPDATE Section s SET s.sectionOrder = s.sectionOrder + 1, s.version = s.version + 1"
+                        + " WHERE s.course.id = :courseId AND s.sectionOrder < :order")
+                    .setParameter("courseId", denseCourse)
+                    .setParameter("order", last.getSectionOrder())
+                    .executeUpdate();
+                entityManager.createQuery("UPDATE Section s SET s.sectionOrder = 1, s.version = s.version + 1 WHERE s.id = :id")
+                    .setParameter("id", last.getId())
+                    .executeUpdate();
+                return shifted + 1L;
+            });
+        }
+        System.out.println("Ordem densa     | Linhas alteradas: " + rows + " (" + rows / MOVES + " por movimento)"
+            + " | Tempo (ms): " + (System.nanoTime() - start) / 1_000_000);
+
+        // 2) Chaves esparsas: só a seção movida muda (e, de vez em quando, um rebalanceamento)
+        Integer sparseCourse = newCourse("Curso chaves esparsas", false);
+        statistics.clear();
+        start = System.nanoTime();
+        for (int i = 0; i < MOVES; i++) {
+            Integer lastId = sectionRepository.findByCourseIdOrderBySectionOrderAscIdAsc(sparseCourse).get(SECTIONS - 1).getId();
+            orderingService.moveSection(lastId, null);
+        }
+        System.out.println("Chaves esparsas | Linhas alteradas: " + statistics.getEntityUpdateCount()
+            + " (" + String.format("%.2f", (double) statistics.getEntityUpdateCount() / MOVES) + " por movimento, rebalanceamentos incluídos)"
+            + " | Tempo (ms): " + (System.nanoTime() - start) / 1_000_000);
+
+        // 3) Pior caso das chaves esparsas: sempre para o mesmo ponto do meio (o espaço cai pela metade a cada movimento)
+        Integer middleCourse = newCourse("Curso meio", false);
+        Integer anchorId = sectionRepository.findByCourseIdOrderBySectionOrderAscIdAsc(middleCourse).get(SECTIONS / 2).getId();
+        statistics.clear();
+        start = System.nanoTime();
+        for (int i = 0; i < MOVES; i++) {
+            Integer lastId = sectionRepository.findByCourseIdOrderBySectionOrderAscIdAsc(middleCourse).get(SECTIONS - 1).getId();
+            orderingService.moveSection(lastId, anchorId);
+        }
+        System.out.println("Sempre no meio  | Linhas alteradas: " + statistics.getEntityUpdateCount()
+            + " (" + String.format("%.2f", (double) statistics.getEntityUpdateCount() / MOVES) + " por movimento, rebalanceamentos incluídos)"
+            + " | Tempo (ms): " + (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private Integer newCourse(String name, boolean dense) {
+        Course course = courseRepository.save(Course.builder().name(name).build());
+        List<Section> sections = new ArrayList<>();
+        for (int i = 0; i < SECTIONS; i++) {
+            sections.add(Section.builder().name("Seção " + i).course(course).sectionOrder(dense ? i + 1 : OrderKeys.at(i)).build());
+        }
+        sectionRepository.saveAll(sections);
+        return course.getId();
+    }
+
+}
+
+/* Anotação:
+ * A leitura da última seção usa o mesmo caminho ordenado nos dois casos (índice course_id, section_order).
+ * Mover para o topo não consome espaço (a chave nova é a da primeira - GAP), então nunca rebalanceia.
+ * Mover sempre para logo depois da mesma seção divide o mesmo espaço ao meio a cada vez: a cada ~20 movimentos o curso é
+ *  rebalanceado inteiro (200 linhas), o que ainda dá bem menos linhas por movimento que a ordem densa.
+*/
@@ -0,0 +1,114 @@
+package com.api.demo_data_jpa.service;
+
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.hibernate.engine.jdbc.spi.SqlStatementLogger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+//import org.springframework.stereotype.Component;
+
+import com.api.demo_data_jpa.repository.AuthorRepository;
+import com.api.demo_data_jpa.sqllog.SqlStatementLog;
+
+// Consultas por segundo com 8 threads em cada modo de log de SQL:
+// show-sql + format_sql do Hibernate (síncrono, na thread da consulta) x SqlStatementLog com 100%, 1% e 0% de amostragem.
+// A saída do show-sql vai para um arquivo temporário (como um console redirecionado), para não misturar com a tabela.
+//@Component
+public class SqlLoggingExample implements CommandLineRunner {
+
+    private static final int THREADS = 8;
+    private static final int SECONDS_PER_MODE = 5;
+    private static final String SQL =
+        "select a1_0.id from author_tbl a1_0 where a1_0.email=? fetch first ? rows only";
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private SqlStatementLog sqlStatementLog;
+
+    @Override
+    public void run(String... args) throws Exception {
+        System.out.println("\n=== Log de SQL | " + THREADS + " threads, " + SECONDS_PER_MODE + " s por modo ===");
+        double configuredRate = sqlStatementLog.getSampleRate();
+        Path stdoutFile = Files.createTempFile("show-sql", ".log");
+        PrintStream console = System.out;
+
+        try (PrintStream redirected = new PrintStream(new FileOutputStream(stdoutFile.toFile()), true)) {
+            // Aquecimento (JIT, pool), sem medir
+            sqlStatementLog.setSampleRate(0);
+            measure(null);
+
+            // O mesmo SqlStatementLogger que o Hibernate usa com show-sql=true e format_sql=true
+            SqlStatementLogger showSql = new SqlStatementLogger(true, true, false, 0);
+            System.setOut(redirected);
+            double hibernate;
+            try {
+                hibernate = measure(showSql);
+            } finally {
+                System.setOut(console);
+            }
+
+            sqlStatementLog.setSampleRate(1.0);
+            long droppedBefore = sqlStatementLog.getDropped();
+            double everything = measure(null);
+            long dropped = sqlStatementLog.getDropped() - droppedBefore;
+
+            sqlStatementLog.setSampleRate(0.01);
+            double onePercent = measure(null);
+
+            sqlStatementLog.setSampleRate(0);
+            double slowOnly = measure(null);
+
+            System.out.printf("show-sql + format_sql (síncrono)     %8.0f consultas/s%n", hibernate);
+            System.out.printf("SqlStatementLog 100%% (assíncrono)    %8.0f consultas/s (%d descartados com a fila cheia)%n", everything, dropped);
+            System.out.printf("SqlStatementLog 1%%                   %8.0f consultas/s%n", onePercent);
+            System.out.printf("SqlStatementLog 0%% (só lentos)       %8.0f consultas/s%n", slowOnly);
+            System.out.println("Statements vistos: " + sqlStatementLog.getStatements() + " | amostrados escritos: " + sqlStatementLog.getSampled()
+                + " | lentos: " + sqlStatementLog.getSlow());
+        } finally {
+            sqlStatementLog.setSampleRate(configuredRate);
+            Files.deleteIfExists(stdoutFile);
+        }
+    }
+
+    // Consultas por segundo; showSql != null = cada consulta também passa pelo log síncrono do Hibernate
+    private double measure(SqlStatementLogger showSql) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder queries = new LongAdder();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Thread worker = new Thread(() -> {
+                while (running.get()) {
+                    if (showSql != null) {
+                        showSql.logStatement(SQL);
+                    }
+                    authorRepository.existsByEmail("log@email.com");
+                    queries.increment();
+                }
+            }, "sql-log-load-" + i);
+            worker.start();
+            workers.add(worker);
+        }
+        Thread.sleep(SECONDS_PER_MODE * 1000L);
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return queries.sum() / (double) SECONDS_PER_MODE;
+    }
+
+}
+
+/* Anotação:
+ * SqlStatementLogger(logToStdout, format, highlight, logSlowQuery): A classe do Hibernate por trás do show-sql/format_sql.
+ *  - logStatement(): formata o SQL e faz System.out.println na thread que executou a consulta.
+ * setSampleRate(): A amostragem do SqlStatementLog pode mudar com a aplicação rodando.
+*/
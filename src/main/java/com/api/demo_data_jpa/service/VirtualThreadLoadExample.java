@@ -0,0 +1,158 @@
+package com.api.demo_data_jpa.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+//import org.springframework.stereotype.Component;
+
+import com.api.demo_data_jpa.model.Author;
+import com.api.demo_data_jpa.repository.AuthorRepository;
+import com.api.demo_data_jpa.virtualthreads.VirtualThreadPinningMonitor;
+import com.api.demo_data_jpa.virtualthreads.VirtualThreadPinningMonitor.PinnedSite;
+
+// Requisições simultâneas (1k a 10k) em threads de plataforma x threads virtuais, em duas cargas:
+//  - só espera: uma chamada bloqueante a outro serviço (simulada com sleep), para isolar o custo de cada modelo de thread;
+//  - banco + espera: o que um endpoint típico faz, uma leitura no banco (transação curta, conexão do Hikari) e a chamada externa.
+//  - plataforma: pool fixo de 200 threads, o padrão do Tomcat (server.tomcat.threads.max);
+//  - virtual: uma thread virtual por requisição, como o Tomcat faz com spring.threads.virtual.enabled=true.
+// No fim, a mesma carga com a chamada externa dentro de synchronized mostra o efeito do pinning (e o que o monitor reporta).
+//@Component
+public class VirtualThreadLoadExample implements CommandLineRunner {
+
+    private static final int AUTHORS = 1000;
+    private static final int PLATFORM_THREADS = 200;
+    private static final long REMOTE_CALL_MS = 50;
+    private static final int[] CONCURRENCY = {1000, 2500, 5000, 10000};
+    private static final int PINNED_REQUESTS = 200;
+    private static final int WARMUP_ROUNDS = 3;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private VirtualThreadPinningMonitor pinningMonitor;
+
+    private List<Integer> ids;
+    private TransactionTemplate readOnly;
+
+    @Override
+    public void run(String... args) throws Exception {
+        List<Author> authors = new ArrayList<>();
+        for (int i = 0; i < AUTHORS; i++) {
+            authors.add(new Author("Virtual" + i, "Autor", "virtual" + i + "@email.com", 20 + i % 40));
+        }
+        ids = authorRepository.saveAll(authors).stream().map(Author::getId).toList();
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        System.out.println("\n=== Threads de plataforma x virtuais | leitura no banco + chamada externa de " + REMOTE_CALL_MS + " ms ===");
+        System.out.println("Carregadoras (CPUs): " + Runtime.getRuntime().availableProcessors()
+            + " | monitor de pinning: " + (pinningMonitor.isEnabled() ? "ligado" : "desligado (app.virtual-threads.pinning-monitor.enabled)"));
+        System.out.println("carga         | simultâneas | threads    | req/s  | p50 (ms) | p99 (ms) | pinning");
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {   // aquecimento (JIT, pool) dos dois caminhos
+            measure(2000, false, Workload.DATABASE_AND_REMOTE);
+            measure(2000, true, Workload.DATABASE_AND_REMOTE);
+        }
+        for (Workload workload : List.of(Workload.REMOTE_ONLY, Workload.DATABASE_AND_REMOTE)) {
+            for (int concurrency : CONCURRENCY) {
+                print(workload, concurrency, false, measure(concurrency, false, workload));
+                print(workload, concurrency, true, measure(concurrency, true, workload));
+            }
+        }
+
+        // Chamada externa dentro de synchronized: cada thread virtual fica presa à carregadora durante o sleep
+        pinningMonitor.reset();
+        print(Workload.PINNED, PINNED_REQUESTS, true, measure(PINNED_REQUESTS, true, Workload.PINNED));
+        for (PinnedSite site : pinningMonitor.snapshot()) {
+            System.out.printf("  pinning: %s %s (chamador %s) x%d, %.0f ms no total, máx %.1f ms%n",
+                site.library(), site.frame(), site.caller(), site.count(), site.totalMillis(), site.maxMillis());
+        }
+    }
+
+    private enum Workload {
+        REMOTE_ONLY("só espera"),
+        DATABASE_AND_REMOTE("banco+espera"),
+        PINNED("banco+sync");
+
+        private final String label;
+
+        Workload(String label) {
+            this.label = label;
+        }
+    }
+
+    private record Result(double requestsPerSecond, double p50Millis, double p99Millis, long pinnedEvents) {
+    }
+
+    private Result measure(int concurrency, boolean virtual, Workload workload) throws Exception {
+        long pinnedBefore = pinningMonitor.getPinnedEvents();
+        long[] latencies = new long[concurrency];
+        long start = System.nanoTime();
+        try (ExecutorService executor = virtual ? Executors.newVirtualThreadPerTaskExecutor() : Executors.newFixedThreadPool(PLATFORM_THREADS)) {
+            List<Future<?>> requests = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                int request = i;
+                long submitted = System.nanoTime();
+                requests.add(executor.submit(() -> {
+                    handle(workload);
+                    latencies[request] = System.nanoTime() - submitted;
+                    return null;
+                }));
+            }
+            for (Future<?> request : requests) {
+                request.get();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (pinningMonitor.isEnabled()) {
+            pinningMonitor.awaitFlush(Duration.ofSeconds(5));
+        }
+        Arrays.sort(latencies);
+        return new Result(concurrency / seconds, latencies[concurrency / 2] / 1e6, latencies[(int) (concurrency * 0.99)] / 1e6,
+            pinningMonitor.getPinnedEvents() - pinnedBefore);
+    }
+
+    private void handle(Workload workload) throws InterruptedException {
+        if (workload != Workload.REMOTE_ONLY) {
+            Integer id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+            readOnly.executeWithoutResult(status -> authorRepository.findById(id));
+        }
+        if (workload == Workload.PINNED) {
+            Object monitor = new Object();
+            synchronized (monitor) {
+                Thread.sleep(REMOTE_CALL_MS);
+            }
+        } else {
+            Thread.sleep(REMOTE_CALL_MS);
+        }
+    }
+
+    private void print(Workload workload, int concurrency, boolean virtual, Result result) {
+        System.out.printf("%-13s | %11d | %-10s | %6.0f | %8.1f | %8.1f | %s%n", workload.label, concurrency, virtual ? "virtuais" : "plataforma",
+            result.requestsPerSecond(),
+            result.p50Millis(), result.p99Millis(), pinningMonitor.isEnabled() ? result.pinnedEvents() + " eventos" : "-");
+    }
+
+}
+
+/* Anotação:
+ * Executors.newVirtualThreadPerTaskExecutor(): Uma thread virtual nova por tarefa; close() (try-with-resources) espera todas terminarem.
+ * Threads de plataforma: Com 200 threads e 50 ms de espera por requisição, o teto é 200 / 0,05 s = 4000 req/s; o resto espera na fila.
+ * Threads virtuais: O teto passa a ser CPU e o pool de conexões (o sleep não ocupa carregadora).
+ *  - Com o banco na mesma máquina (H2 em memória) e poucas CPUs, a leitura no banco é trabalho de CPU: nenhum modelo de thread ganha ali,
+ *    e o escalonador FIFO das threads virtuais faz as requisições terminarem juntas (p50 perto do p99).
+ * synchronized + sleep: Pinning proposital; a carregadora fica parada os 50 ms e as requisições andam uma por carregadora.
+*/
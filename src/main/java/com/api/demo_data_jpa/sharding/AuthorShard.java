@@ -0,0 +1,112 @@
+package com.api.demo_data_jpa.sharding;
+
+import java.util.Map;
+import java.util.function.Function;
+
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.AutowiredAnnotationBeanPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.hibernate5.SpringBeanContainer;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.api.demo_data_jpa.model.Author;
+import com.api.demo_data_jpa.repository.AuthorRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Um banco de dados de autores: pool, EntityManagerFactory, AuthorRepository e transações próprios.
+// Nada aqui é bean do Spring: um segundo DataSource/EntityManagerFactory no contexto desligaria a autoconfiguração do banco principal.
+final class AuthorShard implements AutoCloseable {
+
+    final int index;
+
+    private final HikariDataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final AuthorRepository repository;
+    private final TransactionTemplate writeTemplate;
+    private final TransactionTemplate readTemplate;
+
+    AuthorShard(int index, String url, String username, String password, int maximumPoolSize, String ddlAuto,
+            MetricsTrackerFactory metricsTrackerFactory, ConfigurableListableBeanFactory applicationBeanFactory) {
+        this.index = index;
+
+        dataSource = new HikariDataSource();
+        dataSource.setPoolName("author-shard-" + index);
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        dataSource.setMetricsTrackerFactory(metricsTrackerFactory);
+
+        // Mesmos nomes de tabela/coluna do banco principal (o Spring Boot configura essas estratégias só no EntityManagerFactory dele)
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPersistenceUnitName("author-shard-" + index);
+        factoryBean.setPackagesToScan(Author.class.getPackageName());
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of(
+            AvailableSettings.HBM2DDL_AUTO, ddlAuto,
+            AvailableSettings.PHYSICAL_NAMING_STRATEGY, CamelCaseToUnderscoresNamingStrategy.class.getName(),
+            AvailableSettings.IMPLICIT_NAMING_STRATEGY, SpringImplicitNamingStrategy.class.getName(),
+            AvailableSettings.BEAN_CONTAINER, new SpringBeanContainer(listenerBeans(applicationBeanFactory))));
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+
+        // O AuthorRepository de sempre (consultas derivadas, @Query, Specification), ligado ao EntityManager deste shard
+        repository = new JpaRepositoryFactory(SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory))
+            .getRepository(AuthorRepository.class);
+
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        writeTemplate = new TransactionTemplate(transactionManager);
+        readTemplate = new TransactionTemplate(transactionManager);
+        readTemplate.setReadOnly(true);
+    }
+
+    <T> T write(Function<AuthorRepository, T> work) {
+        return writeTemplate.execute(status -> work.apply(repository));
+    }
+
+    <T> T read(Function<AuthorRepository, T> work) {
+        return readTemplate.execute(status -> work.apply(repository));
+    }
+
+    @Override
+    public void close() {
+        entityManagerFactory.close();
+        dataSource.close();
+    }
+
+    // Beans visíveis para os EntityListeners do shard: só a auditoria (createdAt/lastModifiedAt).
+    // Histograma de idades, índice de CEP e cache de consultas refletem o banco principal; com o contexto da aplicação,
+    // ids de autores de outro banco entrariam neles e colidiriam com os ids do banco principal.
+    private static DefaultListableBeanFactory listenerBeans(ConfigurableListableBeanFactory applicationBeanFactory) {
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        AutowiredAnnotationBeanPostProcessor autowiring = new AutowiredAnnotationBeanPostProcessor();
+        autowiring.setBeanFactory(beans);
+        beans.addBeanPostProcessor(autowiring);
+        applicationBeanFactory.getBeanProvider(AuditingEntityListener.class)
+            .ifAvailable(listener -> beans.registerSingleton(AuditingEntityListener.class.getName(), listener));
+        return beans;
+    }
+
+}
+
+/* Anotação:
+ * LocalContainerEntityManagerFactoryBean: Monta um EntityManagerFactory a partir de um DataSource e dos pacotes de entidades.
+ *  - afterPropertiesSet() + getObject(): Fora do contexto do Spring, o ciclo de vida do FactoryBean é chamado à mão.
+ * JpaRepositoryFactory: A mesma fábrica que o Spring Data usa para os @Repository; aqui, uma instância por shard.
+ * SharedEntityManagerCreator: EntityManager "compartilhado" que usa o EntityManager da transação atual (aberta pelo JpaTransactionManager).
+ * SpringBeanContainer: Cria os EntityListeners (AuthorAgeHistogramListener, ZipCodeIndexListener...) com @Autowired.
+ *  - Sem os beans da aplicação, os ObjectProvider.ifAvailable(...) dos listeners não fazem nada.
+*/
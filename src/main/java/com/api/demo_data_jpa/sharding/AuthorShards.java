@@ -0,0 +1,321 @@
+package com.api.demo_data_jpa.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import com.api.demo_data_jpa.model.Author;
+import com.api.demo_data_jpa.model.Book;
+import com.api.demo_data_jpa.pool.ConnectionPoolTelemetry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+// Autores (e seus livros) distribuídos em N bancos de dados pelo hash do email.
+// Busca por email -> um shard só; Specification/paginação -> todos os shards em paralelo + merge ordenado (scatter-gather).
+@Slf4j
+@Service
+public class AuthorShards {
+
+    private static final String EMAIL = "email";
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    // Pools dos shards nas mesmas métricas do pool principal (pool-name author-shard-N)
+    @Autowired
+    private ConnectionPoolTelemetry connectionPoolTelemetry;
+
+    // URLs JDBC separadas por vírgula; vazio = sharding desligado (Author fica só no banco principal)
+    @Value("${app.author-shards.urls:}")
+    private String urls;
+
+    @Value("${app.author-shards.username:}")
+    private String username;
+
+    @Value("${app.author-shards.password:}")
+    private String password;
+
+    @Value("${app.author-shards.maximum-pool-size:5}")
+    private int maximumPoolSize;
+
+    @Value("${app.author-shards.ddl-auto:update}")
+    private String ddlAuto;
+
+    private List<AuthorShard> shards = List.of();
+
+    // maximumPoolSize threads por shard (o mesmo limite do pool de conexões de cada shard): com vários
+    // scatters simultâneos, cada shard atende até maximumPoolSize consultas ao mesmo tempo; além disso
+    // as tarefas esperam na fila do executor em vez de ocupar uma thread esperando conexão do Hikari
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        List<String> shardUrls = Arrays.stream(urls.split(",")).map(String::trim).filter(url -> !url.isEmpty()).toList();
+        if (shardUrls.isEmpty()) {
+            return;
+        }
+        List<AuthorShard> opened = new ArrayList<>();
+        for (String url : shardUrls) {
+            opened.add(new AuthorShard(opened.size(), url, username, password, maximumPoolSize, ddlAuto, connectionPoolTelemetry, beanFactory));
+        }
+        shards = List.copyOf(opened);
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(shards.size() * maximumPoolSize, runnable -> {
+            Thread thread = new Thread(runnable, "author-shard-" + threads.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("Sharding de autores: {} shards", shards.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        shards.forEach(AuthorShard::close);
+    }
+
+    public boolean isEnabled() {
+        return !shards.isEmpty();
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    // Shard do email: CRC32 do email normalizado (estável entre JVMs e versões, ao contrário de um hash de objeto)
+    public int shardOf(String email) {
+        return shardOf(email, requireShards().size());
+    }
+
+    static int shardOf(String email, int shardCount) {
+        if (email == null || email.isBlank()) {
+            throw new IllegalArgumentException("Author sem email não tem shard (o email é a chave de sharding)");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(email.trim().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+        return (int) (crc.getValue() % shardCount);
+    }
+
+
+    /* ==== Escrita (um shard por autor) ==== */
+
+    public Author save(Author author) {
+        linkBooks(author);
+        return shardFor(author.getEmail()).write(repository -> repository.save(author));
+    }
+
+    // Agrupa por shard e grava os grupos em paralelo (uma transação por shard, não uma transação global)
+    public List<Author> saveAll(Collection<Author> authors) {
+        List<List<Author>> byShard = new ArrayList<>();
+        requireShards().forEach(shard -> byShard.add(new ArrayList<>()));
+        for (Author author : authors) {
+            linkBooks(author);
+            byShard.get(shardOf(author.getEmail())).add(author);
+        }
+        return scatter(shard -> byShard.get(shard.index).isEmpty()
+                ? List.<Author>of()
+                : shard.write(repository -> repository.saveAll(byShard.get(shard.index))))
+            .stream().flatMap(List::stream).toList();
+    }
+
+    public boolean deleteByEmail(String email) {
+        return shardFor(email).write(repository -> {
+            Author author = repository.findByEmail(email);
+            if (author == null) {
+                return false;
+            }
+            repository.delete(author);
+            return true;
+        });
+    }
+
+
+    /* ==== Leitura em um shard só ==== */
+
+    public Optional<Author> findByEmail(String email) {
+        return shardFor(email).read(repository -> Optional.ofNullable(repository.findByEmail(email)));
+    }
+
+    public boolean existsByEmail(String email) {
+        return shardFor(email).read(repository -> repository.existsByEmail(email));
+    }
+
+
+    /* ==== Scatter-gather ==== */
+
+    public long count(Specification<Author> specification) {
+        return scatter(shard -> shard.read(repository -> repository.count(specification)))
+            .stream().mapToLong(Long::longValue).sum();
+    }
+
+    // Autores por shard (distribuição do hash)
+    public List<Long> countPerShard() {
+        return scatter(shard -> shard.read(repository -> repository.count()));
+    }
+
+    public List<Author> findAll(Specification<Author> specification, Sort sort) {
+        Sort shardSort = withTieBreaker(sort);
+        List<List<Author>> results = scatter(shard -> shard.read(repository -> repository.findAll(specification, shardSort)));
+        return merge(results, comparator(shardSort), 0, Integer.MAX_VALUE);
+    }
+
+    // Página N do resultado global: cada shard devolve as offset + size primeiras linhas já ordenadas,
+    // e o merge pula offset e fica com size. O total é a soma dos counts dos shards.
+    public Page<Author> findAll(Specification<Author> specification, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(findAll(specification, pageable.getSort()));
+        }
+        Sort shardSort = withTieBreaker(pageable.getSort());
+        int window = (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize());
+        List<Page<Author>> pages = scatter(shard -> shard.read(repository ->
+            repository.findAll(specification, PageRequest.of(0, window, shardSort))));
+        List<Author> content = merge(pages.stream().map(Page::getContent).toList(), comparator(shardSort),
+            pageable.getOffset(), pageable.getPageSize());
+        long total = pages.stream().mapToLong(Page::getTotalElements).sum();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+
+    /* ==== Auxiliares ==== */
+
+    private List<AuthorShard> requireShards() {
+        if (shards.isEmpty()) {
+            throw new IllegalStateException("Sharding de autores desligado (app.author-shards.urls vazio)");
+        }
+        return shards;
+    }
+
+    private AuthorShard shardFor(String email) {
+        return requireShards().get(shardOf(email));
+    }
+
+    // Livros vão para o mesmo shard do autor (cascade a partir do Author)
+    private static void linkBooks(Author author) {
+        if (author.getBooks() != null) {
+            for (Book book : author.getBooks()) {
+                book.setAuthor(author);
+            }
+        }
+    }
+
+    // Executa em todos os shards em paralelo e devolve os resultados na ordem dos shards
+    private <T> List<T> scatter(Function<AuthorShard, T> work) {
+        List<CompletableFuture<T>> futures = requireShards().stream()
+            .map(shard -> CompletableFuture.supplyAsync(() -> work.apply(shard), executor))
+            .toList();
+        try {
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    // Email é único: com ele no fim da ordenação, todos os shards e o merge usam exatamente a mesma ordem total
+    private static Sort withTieBreaker(Sort sort) {
+        return sort.getOrderFor(EMAIL) != null ? sort : sort.and(Sort.by(EMAIL));
+    }
+
+    // A mesma ordem do ORDER BY: nulls como o menor valor (padrão do MySQL e do H2), ignoreCase comparando sem caixa
+    private static Comparator<Author> comparator(Sort sort) {
+        Comparator<Author> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<Object> values = order.isIgnoreCase()
+                ? Comparator.comparing(Object::toString, String.CASE_INSENSITIVE_ORDER)
+                : AuthorShards::compareValues;
+            if (order.isDescending()) {
+                values = values.reversed();
+            }
+            boolean nullsFirst = switch (order.getNullHandling()) {
+                case NULLS_FIRST -> true;
+                case NULLS_LAST -> false;
+                case NATIVE -> order.isAscending();
+            };
+            Comparator<Object> withNulls = nullsFirst ? Comparator.nullsFirst(values) : Comparator.nullsLast(values);
+            String property = order.getProperty();
+            comparator = comparator.thenComparing(author -> new BeanWrapperImpl(author).getPropertyValue(property), withNulls);
+        }
+        return comparator;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static int compareValues(Object a, Object b) {
+        return ((Comparable) a).compareTo(b);
+    }
+
+    // Merge de k listas já ordenadas: a fila guarda o próximo elemento de cada lista
+    private static List<Author> merge(List<List<Author>> sortedLists, Comparator<Author> comparator, long offset, int limit) {
+        record Cursor(List<Author> list, int position) {
+            Author current() {
+                return list.get(position);
+            }
+        }
+        PriorityQueue<Cursor> queue = new PriorityQueue<>(Comparator.comparing(Cursor::current, comparator));
+        for (List<Author> list : sortedLists) {
+            if (!list.isEmpty()) {
+                queue.add(new Cursor(list, 0));
+            }
+        }
+        List<Author> result = new ArrayList<>();
+        long skipped = 0;
+        while (!queue.isEmpty() && result.size() < limit) {
+            Cursor cursor = queue.poll();
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                result.add(cursor.current());
+            }
+            if (cursor.position() + 1 < cursor.list().size()) {
+                queue.add(new Cursor(cursor.list(), cursor.position() + 1));
+            }
+        }
+        return result;
+    }
+
+}
+
+/* Anotação:
+ * Sharding: Divide as linhas de uma tabela entre vários bancos de dados; a chave de sharding (email) decide o banco de cada linha.
+ * Scatter-gather: Envia a mesma consulta para todos os shards (scatter) e junta as respostas (gather).
+ * CRC32: Hash rápido e estável; email.trim().toLowerCase() para "A@x.com" e "a@x.com" caírem no mesmo shard.
+ * Merge de k listas: Cada shard já devolve ordenado (ORDER BY); a PriorityQueue só escolhe o menor entre os k primeiros.
+ *
+ * Observação:
+ *  - Trocar o email de um autor muda o shard: apague no shard antigo (deleteByEmail) e salve de novo.
+ *  - Ids são gerados por shard (IDENTITY) e se repetem entre shards; o identificador global é o email.
+ *  - Páginas profundas custam offset + size linhas por shard; para navegar longe, prefira filtros mais restritos.
+ *  - Ordenação por texto sem ignoreCase depende da collation do banco; o merge compara com String.compareTo.
+ *  - O executor tem shards x maximum-pool-size threads; scatters além disso entram na fila, como entrariam na fila do Hikari.
+ *  - Não há transação entre shards: saveAll() pode gravar em alguns shards e falhar em outros.
+ *  - Mudar o número de shards muda o shard de quase todos os emails (exige migração dos dados).
+ *  - Course.authors continua no banco principal; o vínculo curso-autor não atravessa bancos.
+*/
@@ -0,0 +1,389 @@
+package com.api.demo_data_jpa.specification;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+
+import com.api.demo_data_jpa.filter.AuthorBookFilter;
+import com.api.demo_data_jpa.filter.AuthorFilter;
+import com.api.demo_data_jpa.model.Author;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceUnit;
+import jakarta.persistence.TypedQuery;
+
+@Component
+public class AuthorFilterQueryPlanCache {
+
+    // Alternativa ao AuthorSpecifications.build(...) / buildBookFilter(...):
+    // em vez de montar uma árvore Criteria nova a cada chamada, calcula o "formato" (shape) do filtro
+    // - quais campos estão preenchidos + a ordenação - e compila UMA query JPQL parametrizada por formato.
+    // As chamadas seguintes com o mesmo formato só fazem o bind dos valores.
+    // Usado pelo GET /authors (AuthorController.search), tanto para a página quanto para os validadores (ETag).
+
+    // Bits do formato do AuthorFilter (mesmas regras de "campo presente" do AuthorSpecifications.build)
+    static final int FIRST_NAME = 1;
+    static final int EMAIL_FRAGMENT = 1 << 1;
+    static final int MIN_AGE = 1 << 2;
+    static final int MAX_AGE = 1 << 3;
+
+    // Bits do formato do AuthorBookFilter (mesmas regras do AuthorSpecifications.buildBookFilter)
+    static final int BOOK_FIRST_NAME = 1;
+    static final int BOOK_MIN_AGE = 1 << 1;
+    static final int BOOK_TITLE = 1 << 2;
+
+    // Ordenações aceitas: os atributos do Author que fazem sentido no ORDER BY, até MAX_SORT_ORDERS por consulta.
+    // Sem essa lista, cada permutação de sort enviada pelo cliente viraria um plano (e duas named queries) para sempre.
+    static final Set<String> SORTABLE = Set.of("id", "firstName", "lastName", "email", "age", "createdAt", "lastModifiedAt");
+    static final Set<String> CASE_INSENSITIVE_SORTABLE = Set.of("firstName", "lastName", "email");
+    // 3 do cliente + o desempate por id que o AuthorController acrescenta
+    static final int MAX_SORT_ORDERS = 4;
+
+    // Teto de planos registrados; acima dele a query é compilada a cada chamada, sem entrar no mapa nem no EntityManagerFactory
+    static final int MAX_PLANS = 256;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    private final Map<String, CompiledShape> plans = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder compileNanos = new LongAdder();
+
+    // Query compilada para um formato: nomes das named queries registradas no EntityManagerFactory
+    // (ou só o JPQL, quando o teto de planos foi atingido). versions* só existe no AuthorFilter.
+    record CompiledShape(String selectQueryName, String countQueryName, String versionsQueryName,
+            String selectJpql, String countJpql, String versionsJpql, long compileNanos) {
+    }
+
+    // Ordenação fora das regras de checkSort (o controller responde 400)
+    public static class InvalidSortException extends IllegalArgumentException {
+        InvalidSortException(String message) {
+            super(message);
+        }
+    }
+
+
+    /* ==== AuthorFilter ==== */
+
+    public List<Author> findAll(AuthorFilter filter) {
+        return findAll(filter, Pageable.unpaged()).getContent();
+    }
+
+    public Page<Author> findAll(AuthorFilter filter, Pageable pageable) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        CompiledShape plan = planFor(filter, pageable.getSort(), parameters);
+        return execute(plan.selectQueryName(), plan.selectJpql(), Author.class, plan, parameters, pageable);
+    }
+
+    // Mesmo filtro, ordem e página do findAll, selecionando só id, version e lastModifiedAt (ETag/Last-Modified do AuthorValidators)
+    public Page<Object[]> findVersions(AuthorFilter filter, Pageable pageable) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        CompiledShape plan = planFor(filter, pageable.getSort(), parameters);
+        return execute(plan.versionsQueryName(), plan.versionsJpql(), Object[].class, plan, parameters, pageable);
+    }
+
+    // Preenche os parâmetros do filtro e devolve o plano do formato (compilando na primeira vez)
+    private CompiledShape planFor(AuthorFilter filter, Sort sort, Map<String, Object> parameters) {
+        int shape = shapeOf(filter);
+        if ((shape & FIRST_NAME) != 0) {
+            parameters.put("firstName", "%" + filter.getFirstName().toLowerCase() + "%");
+        }
+        if ((shape & EMAIL_FRAGMENT) != 0) {
+            parameters.put("emailFragment", "%" + filter.getEmailFragment().toLowerCase() + "%");
+        }
+        if ((shape & MIN_AGE) != 0) {
+            parameters.put("minAge", filter.getMinAge());
+        }
+        if ((shape & MAX_AGE) != 0) {
+            parameters.put("maxAge", filter.getMaxAge());
+        }
+
+        return planFor("AuthorFilter", shape, sort, () -> {
+            List<String> predicates = new ArrayList<>();
+            if ((shape & FIRST_NAME) != 0) {
+                predicates.add("LOWER(a.firstName) LIKE :firstName");
+            }
+            if ((shape & EMAIL_FRAGMENT) != 0) {
+                predicates.add("LOWER(a.email) LIKE :emailFragment");
+            }
+            if ((shape & MIN_AGE) != 0) {
+                predicates.add("a.age >= :minAge");
+            }
+            if ((shape & MAX_AGE) != 0) {
+                predicates.add("a.age <= :maxAge");
+            }
+            String where = where(predicates);
+            return new String[] {
+                "SELECT a FROM Author a" + where + orderBy(sort),
+                "SELECT COUNT(a) FROM Author a" + where,
+                "SELECT a.id, a.version, a.lastModifiedAt FROM Author a" + where + orderBy(sort)
+            };
+        });
+    }
+
+    static int shapeOf(AuthorFilter filter) {
+        int shape = 0;
+        if (filter.getFirstName() != null && !filter.getFirstName().isEmpty()) {
+            shape |= FIRST_NAME;
+        }
+        if (filter.getEmailFragment() != null) {
+            shape |= EMAIL_FRAGMENT;
+        }
+        if (filter.getMinAge() != null && filter.getMinAge() > 0) {
+            shape |= MIN_AGE;
+        }
+        if (filter.getMaxAge() != null && filter.getMaxAge() > 0) {
+            shape |= MAX_AGE;
+        }
+        return shape;
+    }
+
+
+    /* ==== AuthorBookFilter ==== */
+
+    public List<Author> findAll(AuthorBookFilter filter) {
+        return findAll(filter, Pageable.unpaged()).getContent();
+    }
+
+    public Page<Author> findAll(AuthorBookFilter filter, Pageable pageable) {
+        int shape = shapeOf(filter);
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if ((shape & BOOK_FIRST_NAME) != 0) {
+            parameters.put("firstName", filter.getFirstName());
+        }
+        if ((shape & BOOK_MIN_AGE) != 0) {
+            parameters.put("minAge", filter.getMinAge());
+        }
+        if ((shape & BOOK_TITLE) != 0) {
+            parameters.put("bookTitle", "%" + filter.getBookTitleFragment().toLowerCase() + "%");
+        }
+
+        CompiledShape plan = planFor("AuthorBookFilter", shape, pageable.getSort(), () -> {
+            List<String> predicates = new ArrayList<>();
+            if ((shape & BOOK_FIRST_NAME) != 0) {
+                predicates.add("a.firstName = :firstName");
+            }
+            if ((shape & BOOK_MIN_AGE) != 0) {
+                predicates.add("a.age > :minAge");
+            }
+            if ((shape & BOOK_TITLE) != 0) {
+                predicates.add("LOWER(b.title) LIKE :bookTitle");
+            }
+            String where = where(predicates);
+
+            // Com filtro de título: faz o join com Book, busca os livros junto (fetch) e garante resultados distintos.
+            if ((shape & BOOK_TITLE) != 0) {
+                return new String[] {
+                    "SELECT DISTINCT a FROM Author a LEFT JOIN FETCH a.books LEFT JOIN a.books b" + where + orderBy(pageable.getSort()),
+                    "SELECT COUNT(DISTINCT a) FROM Author a LEFT JOIN a.books b" + where
+                };
+            }
+            return new String[] {
+                "SELECT a FROM Author a" + where + orderBy(pageable.getSort()),
+                "SELECT COUNT(a) FROM Author a" + where
+            };
+        });
+        return execute(plan.selectQueryName(), plan.selectJpql(), Author.class, plan, parameters, pageable);
+    }
+
+    static int shapeOf(AuthorBookFilter filter) {
+        int shape = 0;
+        if (filter.getFirstName() != null) {
+            shape |= BOOK_FIRST_NAME;
+        }
+        if (filter.getMinAge() != null && filter.getMinAge() > 0) {
+            shape |= BOOK_MIN_AGE;
+        }
+        if (filter.getBookTitleFragment() != null && !filter.getBookTitleFragment().isEmpty()) {
+            shape |= BOOK_TITLE;
+        }
+        return shape;
+    }
+
+
+    /* ==== Métricas ==== */
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public double getHitRate() {
+        long total = hits.sum() + misses.sum();
+        return total == 0 ? 0.0 : (double) hits.sum() / total;
+    }
+
+    // Tempo total (ms) gasto compilando as queries de todos os formatos
+    public double getTotalCompileMillis() {
+        return compileNanos.sum() / 1_000_000.0;
+    }
+
+    public int getCompiledShapes() {
+        return plans.size();
+    }
+
+
+    /* ==== Compilação e execução ==== */
+
+    private interface JpqlBuilder {
+        String[] build();
+    }
+
+    private CompiledShape planFor(String filterType, int shape, Sort sort, JpqlBuilder builder) {
+        String key = filterType + "#" + shape + "#" + sortKey(sort);
+        CompiledShape plan = plans.get(key);
+        if (plan != null) {
+            hits.increment();
+            return plan;
+        }
+        if (plans.size() >= MAX_PLANS) {
+            misses.increment();
+            String[] jpql = builder.build();
+            return new CompiledShape(null, null, null, jpql[0], jpql[1], jpql.length > 2 ? jpql[2] : null, 0);
+        }
+
+        return plans.computeIfAbsent(key, k -> {
+            misses.increment();
+            long start = System.nanoTime();
+            String[] jpql = builder.build();
+            String selectName = "AuthorFilterPlan." + k + ".select";
+            String countName = "AuthorFilterPlan." + k + ".count";
+            String versionsName = jpql.length > 2 ? "AuthorFilterPlan." + k + ".versions" : null;
+            // createQuery faz o parse/compilação do JPQL; addNamedQuery guarda a query compilada no EntityManagerFactory
+            entityManagerFactory.addNamedQuery(selectName, entityManager.createQuery(jpql[0], Author.class));
+            entityManagerFactory.addNamedQuery(countName, entityManager.createQuery(jpql[1], Long.class));
+            if (versionsName != null) {
+                entityManagerFactory.addNamedQuery(versionsName, entityManager.createQuery(jpql[2], Object[].class));
+            }
+            long elapsed = System.nanoTime() - start;
+            compileNanos.add(elapsed);
+            return new CompiledShape(selectName, countName, versionsName, jpql[0], jpql[1], versionsName != null ? jpql[2] : null, elapsed);
+        });
+    }
+
+    private <T> Page<T> execute(String queryName, String jpql, Class<T> type, CompiledShape plan, Map<String, Object> parameters, Pageable pageable) {
+        TypedQuery<T> select = queryName != null
+            ? entityManager.createNamedQuery(queryName, type)
+            : entityManager.createQuery(jpql, type);
+        parameters.forEach(select::setParameter);
+
+        if (pageable.isUnpaged()) {
+            List<T> content = select.getResultList();
+            return new PageImpl<>(content, pageable, content.size());
+        }
+
+        select.setFirstResult((int) pageable.getOffset());
+        select.setMaxResults(pageable.getPageSize());
+        List<T> content = select.getResultList();
+
+        // Página incompleta: o total já é conhecido sem o COUNT (como no SimpleJpaRepository)
+        return PageableExecutionUtils.getPage(content, pageable, () -> {
+            TypedQuery<Long> count = plan.countQueryName() != null
+                ? entityManager.createNamedQuery(plan.countQueryName(), Long.class)
+                : entityManager.createQuery(plan.countJpql(), Long.class);
+            parameters.forEach(count::setParameter);
+            return count.getSingleResult();
+        });
+    }
+
+    private static String where(List<String> predicates) {
+        return predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+    }
+
+    // O nome da propriedade vai direto para o JPQL, então só aceitamos os atributos de SORTABLE (ver checkSort).
+    private static String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return "";
+        }
+        return " ORDER BY " + sort.stream()
+            .map(order -> {
+                String path = "a." + order.getProperty();
+                if (ignoresCase(order)) {
+                    path = "LOWER(" + path + ")";
+                }
+                return path + (order.isAscending() ? " ASC" : " DESC") + switch (order.getNullHandling()) {
+                    case NULLS_FIRST -> " NULLS FIRST";
+                    case NULLS_LAST -> " NULLS LAST";
+                    case NATIVE -> "";
+                };
+            })
+            .collect(Collectors.joining(", "));
+    }
+
+    // Chave normalizada (propriedade:direção[:ic][:nulls]) só com o que muda o JPQL; valida a ordenação antes de virar plano
+    static String sortKey(Sort sort) {
+        if (sort.isUnsorted()) {
+            return "unsorted";
+        }
+        checkSort(sort);
+        return sort.stream()
+            .map(order -> order.getProperty() + ":" + order.getDirection()
+                + (ignoresCase(order) ? ":ic" : "")
+                + (order.getNullHandling() == Sort.NullHandling.NATIVE ? "" : ":" + order.getNullHandling()))
+            .collect(Collectors.joining(","));
+    }
+
+    static void checkSort(Sort sort) {
+        Set<String> seen = new HashSet<>();
+        int orders = 0;
+        for (Sort.Order order : sort) {
+            if (!SORTABLE.contains(order.getProperty())) {
+                throw new InvalidSortException("Ordenação não permitida: " + order.getProperty() + " (aceitas: " + SORTABLE + ")");
+            }
+            if (!seen.add(order.getProperty())) {
+                throw new InvalidSortException("Propriedade repetida na ordenação: " + order.getProperty());
+            }
+            if (++orders > MAX_SORT_ORDERS) {
+                throw new InvalidSortException("No máximo " + MAX_SORT_ORDERS + " critérios de ordenação");
+            }
+        }
+    }
+
+    // ignoreCase só tem efeito em atributos texto; em número/data a ordenação é a mesma
+    private static boolean ignoresCase(Sort.Order order) {
+        return order.isIgnoreCase() && CASE_INSENSITIVE_SORTABLE.contains(order.getProperty());
+    }
+
+}
+
+/* Anotação:
+ * Query "shape": Conjunto de campos preenchidos no filtro. Filtros com os mesmos campos preenchidos (valores diferentes) geram o mesmo JPQL.
+ * @PersistenceContext: Injeta o EntityManager compartilhado (ligado à transação corrente).
+ * @PersistenceUnit: Injeta o EntityManagerFactory.
+ * EntityManagerFactory.addNamedQuery(name, query): Registra uma query em tempo de execução como named query (igual a uma @NamedQuery),
+ *      guardando a query já compilada; createNamedQuery(name) depois só cria uma cópia e faz o bind dos parâmetros.
+ * PageableExecutionUtils.getPage: Só executa o COUNT quando a página não mostra o total sozinha.
+ * TypedQuery:
+ *      - setParameter: Faz o bind do valor no parâmetro nomeado (:firstName, :minAge, ...).
+ *      - setFirstResult / setMaxResults: Paginação (OFFSET / LIMIT).
+ * Ordenação: Só atributos de SORTABLE (o nome vai direto para o JPQL), sem repetição e no máximo MAX_SORT_ORDERS; fora disso, InvalidSortException.
+ *      - ignoreCase(): ORDER BY LOWER(a.campo) nos atributos texto.
+ *      - nullsFirst()/nullsLast(): NULLS FIRST / NULLS LAST.
+ *      - A chave do plano usa só propriedade, direção, ignoreCase e nulls (o Sort.toString() não entra).
+ *
+ * Observação:
+ *  - Com o filtro de título do livro a query usa JOIN FETCH; com paginação o Hibernate pagina em memória (mesmo comportamento do buildBookFilter).
+*/
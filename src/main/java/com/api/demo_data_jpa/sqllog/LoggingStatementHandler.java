@@ -0,0 +1,180 @@
+package com.api.demo_data_jpa.sqllog;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.BitSet;
+
+// Proxy de Statement/PreparedStatement/CallableStatement: conta os parâmetros ligados (setXxx), as linhas do batch (addBatch)
+// e mede o execute*. Atualizações/batches são registrados na hora; consultas quando o ResultSet (ou o Statement) é fechado,
+// para incluir quantas linhas foram lidas. Um Statement é usado por uma thread por vez, então nada aqui é sincronizado.
+final class LoggingStatementHandler implements InvocationHandler {
+
+    private final Statement statement;
+    private final String preparedSql;
+    private final SqlStatementLog statementLog;
+
+    private final BitSet parameters = new BitSet();
+    private int parametersPerRow;
+    private int batchSize;
+    private String batchSql;
+
+    // Consulta executada cujo ResultSet ainda está aberto
+    private boolean pending;
+    private String pendingSql;
+    private int pendingParameters;
+    private long pendingLatencyNanos;
+    private long pendingRows;
+
+    private LoggingStatementHandler(Statement statement, String preparedSql, SqlStatementLog statementLog) {
+        this.statement = statement;
+        this.preparedSql = preparedSql;
+        this.statementLog = statementLog;
+    }
+
+    static Statement wrap(Statement statement, Class<? extends Statement> type, String sql, SqlStatementLog statementLog) {
+        return (Statement) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+            new LoggingStatementHandler(statement, sql, statementLog));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        if (name.startsWith("execute")) {
+            return execute(method, args);
+        }
+        if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+            parameters.set(index);
+        } else if (name.equals("clearParameters")) {
+            parameters.clear();
+        } else if (name.equals("addBatch")) {
+            batchSize++;
+            if (args == null) {
+                parametersPerRow = Math.max(parametersPerRow, parameters.cardinality());
+            } else if (batchSql == null) {
+                batchSql = (String) args[0];
+            }
+        } else if (name.equals("clearBatch")) {
+            clearBatch();
+        } else if (name.equals("close")) {
+            finish();
+        }
+
+        Object result = call(statement, method, args);
+
+        if (name.equals("getResultSet") && result != null) {
+            if (pending && pendingRows < 0) {
+                pendingRows = 0;
+            }
+            return wrap((ResultSet) result);
+        }
+        if (name.equals("getUpdateCount") && pending && (Integer) result >= 0) {
+            pendingRows = (Integer) result;
+        }
+        return result;
+    }
+
+    private Object execute(Method method, Object[] args) throws Throwable {
+        finish();   // consulta anterior cujo ResultSet não foi fechado
+
+        String name = method.getName();
+        boolean batch = name.equals("executeBatch") || name.equals("executeLargeBatch");
+        String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : batch && preparedSql == null ? batchSql : preparedSql;
+        int parameterCount = batch ? parametersPerRow : parameters.cardinality();
+        int rowsInBatch = batch ? batchSize : 1;
+
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = call(statement, method, args);
+        } catch (Throwable e) {
+            statementLog.record(sql, parameterCount, rowsInBatch, -1, System.nanoTime() - start);
+            throw e;
+        } finally {
+            if (batch) {
+                clearBatch();
+            }
+        }
+        long latencyNanos = System.nanoTime() - start;
+
+        switch (name) {
+            case "executeQuery" -> {
+                startPending(sql, parameterCount, latencyNanos, 0);
+                return wrap((ResultSet) result);
+            }
+            case "execute" -> startPending(sql, parameterCount, latencyNanos, -1);
+            case "executeUpdate", "executeLargeUpdate" ->
+                statementLog.record(sql, parameterCount, 1, ((Number) result).longValue(), latencyNanos);
+            case "executeBatch" -> {
+                long rows = 0;
+                for (int count : (int[]) result) {
+                    rows += Math.max(0, count);   // SUCCESS_NO_INFO (-2): o driver não informou
+                }
+                statementLog.record(sql, parameterCount, rowsInBatch, rows, latencyNanos);
+            }
+            case "executeLargeBatch" -> {
+                long rows = 0;
+                for (long count : (long[]) result) {
+                    rows += Math.max(0, count);
+                }
+                statementLog.record(sql, parameterCount, rowsInBatch, rows, latencyNanos);
+            }
+            default -> statementLog.record(sql, parameterCount, 1, -1, latencyNanos);
+        }
+        return result;
+    }
+
+    private void startPending(String sql, int parameterCount, long latencyNanos, long rows) {
+        pending = true;
+        pendingSql = sql;
+        pendingParameters = parameterCount;
+        pendingLatencyNanos = latencyNanos;
+        pendingRows = rows;
+    }
+
+    private void finish() {
+        if (pending) {
+            pending = false;
+            statementLog.record(pendingSql, pendingParameters, 1, pendingRows, pendingLatencyNanos);
+        }
+    }
+
+    private void clearBatch() {
+        batchSize = 0;
+        batchSql = null;
+        parametersPerRow = 0;
+    }
+
+    // ResultSet que conta os next() com linha e fecha a consulta pendente no close()
+    private ResultSet wrap(ResultSet resultSet) {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] {ResultSet.class}, (proxy, method, args) -> {
+            Object result = call(resultSet, method, args);
+            String name = method.getName();
+            if (name.equals("next") && Boolean.TRUE.equals(result) && pending) {
+                pendingRows++;
+            } else if (name.equals("close")) {
+                finish();
+            }
+            return result;
+        });
+    }
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+}
+
+/* Anotação:
+ * Parâmetros: índices distintos passados para setXxx(int, ...) (BitSet); em batch, o maior número de parâmetros de uma linha.
+ * Linhas: executeUpdate/executeBatch devolvem as linhas alteradas; em consultas, os next() que trouxeram linha.
+ * Latência: só o execute* (o tempo no banco + rede); o tempo que a aplicação leva lendo o ResultSet não entra.
+ * Statement com erro: registrado com rows=-1 e a exceção segue para quem chamou.
+*/
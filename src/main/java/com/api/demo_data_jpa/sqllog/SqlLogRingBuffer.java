@@ -0,0 +1,78 @@
+package com.api.demo_data_jpa.sqllog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Fila circular de tamanho fixo, sem lock: várias threads gravam (offer), uma única thread lê (poll).
+// Cada posição tem um número de sequência que diz de quem é a vez:
+//  - sequência == posição      -> livre para o produtor daquela volta
+//  - sequência == posição + 1  -> preenchida, o consumidor pode ler
+// Cheia = offer() devolve false na hora (quem chama decide descartar); nunca bloqueia a thread da aplicação.
+final class SqlLogRingBuffer<T> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLongArray sequences;
+
+    // Próxima posição a ser reservada pelos produtores (disputada via CAS)
+    private final AtomicLong tail = new AtomicLong();
+
+    // Próxima posição a ser lida; só a thread consumidora mexe
+    private long head = 0;
+
+    SqlLogRingBuffer(int requestedCapacity) {
+        // Potência de 2: posição -> índice com um AND em vez de módulo
+        capacity = 1 << (32 - Integer.numberOfLeadingZeros(Math.max(2, requestedCapacity) - 1));
+        mask = capacity - 1;
+        slots = new AtomicReferenceArray<>(capacity);
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(T item) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, item);
+                    sequences.set(index, position + 1);   // publica: o consumidor só lê depois de ver a sequência nova
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;   // o consumidor ainda não liberou esta posição da volta anterior
+            } else {
+                position = tail.get();   // outro produtor reservou a posição antes
+            }
+        }
+    }
+
+    T poll() {
+        int index = (int) head & mask;
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        T item = slots.get(index);
+        slots.set(index, null);
+        sequences.set(index, head + capacity);   // libera a posição para a próxima volta
+        head++;
+        return item;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+}
+
+/* Anotação:
+ * Fila MPSC (multi-producer, single-consumer) limitada, no estilo de Dmitry Vyukov / LMAX Disruptor.
+ * AtomicLong.compareAndSet: Reserva a posição; se outra thread chegou antes, tenta de novo com a posição atualizada (sem lock, sem espera).
+ * AtomicLongArray (sequências): Escrita/leitura volátil, então o item gravado no slot fica visível para o consumidor antes da sequência nova.
+*/
@@ -0,0 +1,70 @@
+package com.api.demo_data_jpa.sqllog;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+// Entrega conexões "físicas" com Statements que medem a si mesmos e avisam o SqlStatementLog ao terminar.
+// Fica por baixo do Hikari (HikariConfig.dataSource): o pool guarda estas conexões, e o DataSource da aplicação
+// continua sendo o HikariDataSource (AdaptivePoolSizer, telemetria e JdbcTemplate não percebem diferença).
+final class SqlLoggingDataSource extends DelegatingDataSource {
+
+    private final SqlStatementLog statementLog;
+
+    SqlLoggingDataSource(DataSource targetDataSource, SqlStatementLog statementLog) {
+        super(targetDataSource);
+        this.statementLog = statementLog;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+            new ConnectionHandler(connection, statementLog));
+    }
+
+    // prepareStatement/prepareCall/createStatement devolvem Statements embrulhados; o resto vai direto para a conexão
+    private record ConnectionHandler(Connection connection, SqlStatementLog statementLog) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result;
+            try {
+                result = method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            return switch (method.getName()) {
+                case "prepareStatement" -> LoggingStatementHandler.wrap((Statement) result, PreparedStatement.class, (String) args[0], statementLog);
+                case "prepareCall" -> LoggingStatementHandler.wrap((Statement) result, CallableStatement.class, (String) args[0], statementLog);
+                case "createStatement" -> LoggingStatementHandler.wrap((Statement) result, Statement.class, null, statementLog);
+                default -> result;
+            };
+        }
+    }
+
+}
+
+/* Anotação:
+ * DelegatingDataSource: DataSource do Spring que repassa tudo para outro; aqui só getConnection() é sobrescrito.
+ * Proxy.newProxyInstance: Implementa a interface Connection em tempo de execução, mandando cada chamada para o InvocationHandler.
+ * Por baixo do pool: o embrulho acontece uma vez por conexão física (não a cada empréstimo), e o Hikari embrulha por cima com os proxies dele.
+*/
@@ -0,0 +1,44 @@
+package com.api.demo_data_jpa.sqllog;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.util.DriverDataSource;
+
+// Põe o SqlLoggingDataSource por baixo do HikariDataSource criado pelo Spring Boot (spring.datasource.*):
+// o Hikari passa a abrir as conexões físicas por ele em vez de ir direto ao driver JDBC.
+@Component
+public class SqlLoggingInstaller implements BeanPostProcessor {
+
+    private final ObjectProvider<SqlStatementLog> statementLog;
+
+    // false = conexões direto do driver, sem proxy nenhum (custo zero)
+    private final boolean enabled;
+
+    public SqlLoggingInstaller(ObjectProvider<SqlStatementLog> statementLog, @Value("${app.sql-log.enabled:true}") boolean enabled) {
+        this.statementLog = statementLog;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (enabled && bean instanceof HikariDataSource hikari && hikari.getDataSource() == null && hikari.getJdbcUrl() != null) {
+            // O mesmo DataSource que o Hikari montaria sozinho a partir de jdbcUrl/driverClassName
+            DriverDataSource driver = new DriverDataSource(hikari.getJdbcUrl(), hikari.getDriverClassName(),
+                hikari.getDataSourceProperties(), hikari.getUsername(), hikari.getPassword());
+            hikari.setDataSource(new SqlLoggingDataSource(driver, statementLog.getObject()));
+        }
+        return bean;
+    }
+
+}
+
+/* Anotação:
+ * HikariConfig.setDataSource(): Fonte das conexões físicas do pool; quando preenchida, o Hikari ignora jdbcUrl para abrir conexões
+ *  (o jdbcUrl continua lá para quem só lê a configuração).
+ * DriverDataSource: Classe do próprio Hikari que abre conexões via DriverManager.
+ * ObjectProvider: Mesmo motivo do HikariTelemetryInstaller; o SqlStatementLog só é criado quando o DataSource aparece.
+*/
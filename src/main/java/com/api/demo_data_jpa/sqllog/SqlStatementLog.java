@@ -0,0 +1,194 @@
+package com.api.demo_data_jpa.sqllog;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.hibernate.engine.jdbc.internal.FormatStyle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+// Log de SQL fora do caminho da requisição (substitui o show-sql/format_sql do Hibernate):
+//  - a thread da aplicação só decide se o statement entra no log (amostragem ou lento) e enfileira um registro;
+//  - uma thread própria formata o SQL e escreve no log.
+// Amostrados: logger com.api.demo_data_jpa.sqllog.SQL (INFO), 1 em cada 1/sample-rate statements.
+// Lentos (>= slow-threshold-ms): logger com.api.demo_data_jpa.sqllog.SLOW (WARN), sempre, independente da amostragem.
+@Component
+public class SqlStatementLog implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementLog.class);
+    private static final Logger sqlLog = LoggerFactory.getLogger("com.api.demo_data_jpa.sqllog.SQL");
+    private static final Logger slowLog = LoggerFactory.getLogger("com.api.demo_data_jpa.sqllog.SLOW");
+
+    // Fração dos statements que vai para o log (0 = nenhum, 1 = todos)
+    @Value("${app.sql-log.sample-rate:0.01}")
+    private volatile double sampleRate;
+
+    @Value("${app.sql-log.slow-threshold-ms:200}")
+    private long slowThresholdMillis;
+
+    @Value("${app.sql-log.buffer-size:8192}")
+    private int bufferSize;
+
+    // Quebra de linha e indentação (como o format_sql), feitas na thread do log
+    @Value("${app.sql-log.format:true}")
+    private boolean format;
+
+    private SqlLogRingBuffer<Entry> buffer;
+    private Thread writer;
+    private volatile boolean running = false;
+
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder sampled = new LongAdder();
+    private final LongAdder slow = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    // Um statement executado: parâmetros ligados (por linha), linhas do batch, linhas lidas/alteradas (-1 = desconhecido) e tempo de execução
+    record Entry(
+            long timestampMillis,
+            String thread,
+            String sql,
+            int parameters,
+            int batchSize,
+            long rows,
+            long latencyNanos,
+            boolean slow) {
+    }
+
+
+    /* ==== Caminho da aplicação ==== */
+
+    // Chamado pelos proxies JDBC ao fim de cada statement, na thread que executou
+    void record(String sql, int parameters, int batchSize, long rows, long latencyNanos) {
+        statements.increment();
+        boolean isSlow = latencyNanos >= TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        if (!isSlow && (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+        Entry entry = new Entry(System.currentTimeMillis(), Thread.currentThread().getName(), sql, parameters, batchSize, rows, latencyNanos, isSlow);
+        if (running && buffer.offer(entry)) {
+            return;
+        }
+        if (isSlow) {
+            // Lento nunca é descartado: com a fila cheia, escreve aqui mesmo (o statement já levou slow-threshold-ms)
+            write(entry);
+        } else {
+            dropped.increment();
+        }
+    }
+
+
+    /* ==== Thread do log ==== */
+
+    private void writeLoop() {
+        while (true) {
+            Entry entry = buffer.poll();
+            if (entry != null) {
+                write(entry);
+            } else if (running) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void write(Entry entry) {
+        try {
+            String sql = entry.sql() == null ? "" : format ? FormatStyle.BASIC.getFormatter().format(entry.sql()) : entry.sql();
+            long latencyMicros = TimeUnit.NANOSECONDS.toMicros(entry.latencyNanos());
+            if (entry.slow()) {
+                slow.increment();
+                slowLog.warn("slow=true latencyUs={} rows={} params={} batch={} thread={} at={} sql={}",
+                    latencyMicros, entry.rows(), entry.parameters(), entry.batchSize(), entry.thread(), entry.timestampMillis(), sql);
+            } else {
+                sampled.increment();
+                sqlLog.info("latencyUs={} rows={} params={} batch={} thread={} at={} sql={}",
+                    latencyMicros, entry.rows(), entry.parameters(), entry.batchSize(), entry.thread(), entry.timestampMillis(), sql);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Falha ao escrever o log de SQL", e);
+        }
+    }
+
+
+    /* ==== Configuração em execução ==== */
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    // Ex.: subir para 1.0 por alguns minutos durante uma investigação e voltar depois
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = Math.max(0, Math.min(1, sampleRate));
+    }
+
+
+    /* ==== Métricas ==== */
+
+    public long getStatements() {
+        return statements.sum();
+    }
+
+    public long getSampled() {
+        return sampled.sum();
+    }
+
+    public long getSlow() {
+        return slow.sum();
+    }
+
+    // Amostrados que não couberam na fila (a thread do log não acompanhou)
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+
+    /* ==== Ciclo de vida (SmartLifecycle) ==== */
+
+    @Override
+    public void start() {
+        buffer = new SqlLogRingBuffer<>(bufferSize);
+        running = true;
+        writer = new Thread(this::writeLoop, "sql-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Escreve o que ainda está na fila antes de parar
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Inicia antes e para depois dos outros componentes com ciclo de vida (a ingestão de pedidos ainda grava no desligamento)
+    @Override
+    public int getPhase() {
+        return Integer.MIN_VALUE;
+    }
+
+}
+
+/* Anotação:
+ * show-sql / format_sql: O Hibernate formata e escreve cada statement no System.out na própria thread, dentro da transação.
+ *  - System.out é sincronizado: com várias threads, elas esperam umas pelas outras para escrever.
+ * SqlLogRingBuffer: Fila sem lock entre as threads da aplicação e a thread do log; cheia = descarta (contado em getDropped()).
+ * Amostragem (sample-rate): ThreadLocalRandom decide na hora; statements fora da amostra custam só o contador.
+ * Lentos: Sempre registrados, mesmo com sample-rate 0; não entram na conta de descartados.
+ * FormatStyle.BASIC: O mesmo formatador do format_sql, agora executado na thread do log.
+ * SmartLifecycle: getPhase() = Integer.MIN_VALUE faz o log iniciar antes e parar depois de todos os outros componentes com ciclo de vida.
+*/
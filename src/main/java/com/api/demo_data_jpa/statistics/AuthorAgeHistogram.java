@@ -0,0 +1,237 @@
+package com.api.demo_data_jpa.statistics;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.api.demo_data_jpa.repository.AuthorRepository;
+import com.api.demo_data_jpa.support.TransactionCallbacks;
+
+@Component
+public class AuthorAgeHistogram {
+
+    // Um bucket por idade de 0 a MAX_AGE; idades fora desse intervalo vão para o bucket OVERFLOW.
+    public static final int MAX_AGE = 150;
+    private static final int OVERFLOW = MAX_AGE + 1;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    // Um LongAdder por idade: cada LongAdder já é "striped" internamente, então incrementos concorrentes não disputam o mesmo contador.
+    // O rebuild() monta um array novo e troca a referência: nenhuma leitura vê buckets zerados no meio de uma reconciliação.
+    private volatile LongAdder[] buckets = newBuckets();
+
+    // Enquanto o histograma não foi construído, as contagens vão para o banco de dados.
+    private volatile boolean ready = false;
+
+    // Serializa os rebuilds sem synchronized: o GROUP BY roda com a trava e não deve prender a thread carregadora
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // Alterações (afterCommit) seguram a leitura: aplicam no array atual e, durante um rebuild(), ficam registradas em pending.
+    // A escrita só é pega para ligar/desligar o registro e na troca do array, quando as registradas são reaplicadas no novo.
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private Queue<Consumer<LongAdder[]>> pending;
+
+
+    /* ==== Construção e reconciliação com o banco de dados ==== */
+
+    // Constrói o histograma na inicialização da aplicação
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    // Reconciliação periódica: corrige qualquer desvio (rollback, deleteAllInBatch, SQL nativo, etc.)
+    @Scheduled(
+        initialDelayString = "${app.author-age-histogram.reconcile-interval-ms:60000}",
+        fixedDelayString = "${app.author-age-histogram.reconcile-interval-ms:60000}"
+    )
+    public void reconcile() {
+        rebuild();
+    }
+
+    // SQL: SELECT age, COUNT(*) FROM author_tbl GROUP BY age
+    // Substitui todos os buckets pelo estado atual do banco de dados.
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            // O registro começa antes do GROUP BY: um commit que a consulta não enxerga tem o afterCommit registrado e reaplicado
+            setPending(new ConcurrentLinkedQueue<>());
+            LongAdder[] newBuckets = newBuckets();
+            boolean loaded = false;
+            try {
+                for (Object[] row : authorRepository.countGroupByAge()) {
+                    newBuckets[bucket(((Number) row[0]).intValue())].add(((Number) row[1]).longValue());
+                }
+                loaded = true;
+            } finally {
+                swap(loaded ? newBuckets : null);
+            }
+            ready = true;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void setPending(Queue<Consumer<LongAdder[]>> queue) {
+        swapLock.writeLock().lock();
+        try {
+            pending = queue;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    // newBuckets nulo: o GROUP BY falhou, fica o array atual
+    private void swap(LongAdder[] newBuckets) {
+        swapLock.writeLock().lock();
+        try {
+            if (newBuckets != null) {
+                pending.forEach(change -> change.accept(newBuckets));
+                buckets = newBuckets;
+            }
+            pending = null;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Consumer<LongAdder[]> change) {
+        swapLock.readLock().lock();
+        try {
+            change.accept(buckets);
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private static LongAdder[] newBuckets() {
+        LongAdder[] buckets = new LongAdder[OVERFLOW + 1];
+        for (int i = 0; i <= OVERFLOW; i++) {
+            buckets[i] = new LongAdder();
+        }
+        return buckets;
+    }
+
+
+    /* ==== Atualizações incrementais (listener JPA e @Modifying) ==== */
+
+    public void increment(int age) {
+        TransactionCallbacks.afterCommit(() -> apply(b -> b[bucket(age)].increment()));
+    }
+
+    public void decrement(int age) {
+        TransactionCallbacks.afterCommit(() -> apply(b -> b[bucket(age)].decrement()));
+    }
+
+    public void move(int oldAge, int newAge) {
+        if (bucket(oldAge) == bucket(newAge)) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> apply(b -> {
+            b[bucket(oldAge)].decrement();
+            b[bucket(newAge)].increment();
+        }));
+    }
+
+    // DELETE FROM Author a WHERE a.age < :age
+    // lockedAges: idades das linhas travadas (SELECT ... FOR UPDATE) na mesma transação, antes do DELETE.
+    // Zerar os buckets não serve: um INSERT concorrente que já foi contado e não foi apagado também seria zerado.
+    public void removeDeleted(List<Integer> lockedAges, int deletedRows) {
+        if (lockedAges.size() != deletedRows) {
+            // O DELETE apagou linhas que o SELECT não viu (ou o contrário): recalcula tudo depois do commit
+            TransactionCallbacks.afterCommit(this::rebuild);
+            return;
+        }
+        long[] counts = new long[OVERFLOW + 1];
+        for (int age : lockedAges) {
+            counts[bucket(age)]++;
+        }
+        TransactionCallbacks.afterCommit(() -> apply(b -> {
+            for (int i = 0; i <= OVERFLOW; i++) {
+                if (counts[i] != 0) {
+                    b[i].add(-counts[i]);
+                }
+            }
+        }));
+    }
+
+
+    /* ==== Consultas sem ir ao banco de dados ==== */
+
+    // Equivalente a authorRepository.countByAgeGreaterThan(age)
+    public long countByAgeGreaterThan(int age) {
+        if (age == Integer.MAX_VALUE) {
+            return 0;
+        }
+        return count(age + 1, Integer.MAX_VALUE, () -> authorRepository.countByAgeGreaterThan(age));
+    }
+
+    // Equivalente a authorRepository.countByAgeGreaterThanEqual(age)
+    public long countByAgeGreaterThanEqual(int age) {
+        return count(age, Integer.MAX_VALUE, () -> authorRepository.countByAgeGreaterThanEqual(age));
+    }
+
+    // Equivalente a authorRepository.countByAgeBetween(start, end) (inclusive)
+    public long countByAgeBetween(int start, int end) {
+        return count(start, end, () -> authorRepository.countByAgeBetween(start, end));
+    }
+
+    // Soma os buckets de from a to. O bucket OVERFLOW não sabe a idade exata das linhas:
+    // se o intervalo passa de 0..MAX_AGE e existe alguma linha fora dele, a contagem vai para o banco de dados.
+    private long count(int from, int to, LongSupplier database) {
+        if (!ready) {
+            return database.getAsLong();
+        }
+        LongAdder[] current = buckets;
+        if ((from < 0 || to > MAX_AGE) && current[OVERFLOW].sum() != 0) {
+            return database.getAsLong();
+        }
+        int start = Math.max(from, 0);
+        int end = Math.min(to, MAX_AGE);
+        long total = 0;
+        for (int i = start; i <= end; i++) {
+            total += current[i].sum();
+        }
+        return total;
+    }
+
+    private static int bucket(int age) {
+        return age >= 0 && age <= MAX_AGE ? age : OVERFLOW;
+    }
+
+}
+
+/* Anotação:
+ * LongAdder: Contador concorrente que distribui os incrementos em várias células internas (striping) e soma tudo em sum().
+ *  - Ideal para contadores com muitas escritas concorrentes e leituras ocasionais.
+ * @EventListener(ApplicationReadyEvent.class): Executa o método quando a aplicação termina de inicializar (depois dos CommandLineRunner).
+ * @Scheduled: Executa o método periodicamente. Requer @EnableScheduling na aplicação.
+ *  - fixedDelayString: Intervalo entre o fim de uma execução e o início da próxima.
+ *  - initialDelayString: Espera antes da primeira execução.
+ * TransactionCallbacks.afterCommit: Só aplica a alteração no histograma depois do commit, assim um rollback não deixa o histograma inconsistente.
+ * ReentrantReadWriteLock: Várias leituras ao mesmo tempo (as alterações incrementais), escrita exclusiva (ligar o registro e trocar o array).
+ *
+ * Observação:
+ *  - O histograma é uma cópia aproximada entre duas reconciliações: escritas feitas fora do JPA (SQL nativo, deleteAllInBatch) só aparecem após o próximo rebuild().
+ *  - Idades negativas ou acima de MAX_AGE ficam juntas no OVERFLOW; consultas que alcançam esse bucket só usam o histograma enquanto ele está vazio.
+ *  - Resta uma janela pequena: commit antes do GROUP BY com o afterCommit rodando depois que o registro começou (conta duas vezes até o próximo rebuild()).
+*/
@@ -0,0 +1,48 @@
+package com.api.demo_data_jpa.statistics;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.api.demo_data_jpa.model.Author;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+public class AuthorAgeHistogramListener {
+
+    // ObjectProvider evita a dependência circular EntityManagerFactory -> Listener -> Histograma -> Repository -> EntityManagerFactory.
+    @Autowired
+    private ObjectProvider<AuthorAgeHistogram> histogram;
+
+    @PostPersist
+    public void onPersist(Author author) {
+        histogram.ifAvailable(h -> h.increment(author.getAge()));
+    }
+
+    // persistedAge ainda guarda a idade que estava no banco de dados (ver Author.snapshotPersistedState).
+    @PostUpdate
+    public void onUpdate(Author author) {
+        Integer oldAge = author.getPersistedAge();
+        if (oldAge != null) {
+            histogram.ifAvailable(h -> h.move(oldAge, author.getAge()));
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Author author) {
+        int age = author.getPersistedAge() != null ? author.getPersistedAge() : author.getAge();
+        histogram.ifAvailable(h -> h.decrement(age));
+    }
+
+}
+
+/* Anotação:
+ * @PostPersist: Executado depois do INSERT da entidade.
+ * @PostUpdate: Executado depois do UPDATE da entidade (somente quando o Hibernate detecta alteração).
+ * @PostRemove: Executado depois do DELETE da entidade.
+ *
+ * Observação:
+ *  - O Spring Boot registra o SpringBeanContainer no Hibernate, por isso o @Autowired funciona dentro de um EntityListener.
+ *  - Queries @Modifying (UPDATE/DELETE em JPQL) não disparam esses eventos; elas são tratadas no AuthorModifyingQueryAspect.
+*/
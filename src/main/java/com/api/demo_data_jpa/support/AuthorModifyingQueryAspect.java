@@ -0,0 +1,119 @@
+package com.api.demo_data_jpa.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.api.demo_data_jpa.cache.AuthorQueryCacheInvalidator;
+import com.api.demo_data_jpa.projection.AuthorView;
+import com.api.demo_data_jpa.repository.AuthorRepository;
+import com.api.demo_data_jpa.statistics.AuthorAgeHistogram;
+import com.api.demo_data_jpa.zipcode.ZipCodeLookupService;
+
+@Aspect
+@Component
+public class AuthorModifyingQueryAspect {
+
+    // Queries @Modifying (UPDATE/DELETE em JPQL) não passam pelos EntityListeners do Author.
+    // Este aspecto avisa as estruturas em memória (histograma de idades, cache de consultas e índice de CEP) sobre essas alterações.
+
+    @Autowired
+    private AuthorAgeHistogram histogram;
+
+    @Autowired
+    private AuthorQueryCacheInvalidator cacheInvalidator;
+
+    @Autowired
+    private ZipCodeLookupService zipCodeLookupService;
+
+    @Autowired
+    @Lazy
+    private AuthorRepository authorRepository;
+
+    // DELETE FROM Author a WHERE a.age < :age -> trava e lê ids e idades das linhas na mesma transação do DELETE,
+    // desconta as idades do histograma, tira os ids do índice de CEP e invalida as consultas que podem conter essas linhas
+    @Around("(execution(* com.api.demo_data_jpa.repository.AuthorRepository.deleteAuthorsYoungerThan(..))"
+        + " || execution(* com.api.demo_data_jpa.repository.AuthorRepository.deletarPorIdadeMenorQue(..))) && args(age)")
+    public Object aroundDeleteYoungerThan(ProceedingJoinPoint joinPoint, int age) throws Throwable {
+        requireTransaction(joinPoint);
+        List<Object[]> locked = authorRepository.findIdsAndAgesYoungerThanForUpdate(age);
+        Object rows = joinPoint.proceed();
+        if (rows instanceof Integer deleted && deleted > 0) {
+            List<Integer> lockedIds = new ArrayList<>(locked.size());
+            List<Integer> lockedAges = new ArrayList<>(locked.size());
+            for (Object[] row : locked) {
+                lockedIds.add((Integer) row[0]);
+                lockedAges.add((Integer) row[1]);
+            }
+            histogram.removeDeleted(lockedAges, deleted);
+            // As linhas travadas foram todas apagadas; se o DELETE apagou mais (linha inserida depois do SELECT), o índice é remontado
+            zipCodeLookupService.authorsRemoved(lockedIds);
+            if (lockedIds.size() != deleted) {
+                TransactionCallbacks.afterCommit(zipCodeLookupService::rebuild);
+            }
+            cacheInvalidator.rowsDeletedYoungerThan(age);
+        }
+        return rows;
+    }
+
+    // UPDATE Author a SET a.age = :age WHERE a.id = :id -> trava a linha e lê o estado anterior pela PK antes do update.
+    // Sem a trava, outra escrita podia mudar a idade entre a leitura e o UPDATE e o histograma/cache usariam a idade errada.
+    @Around("execution(* com.api.demo_data_jpa.repository.AuthorRepository.updateAgeById(..)) && args(id, age)")
+    public Object aroundUpdateAgeById(ProceedingJoinPoint joinPoint, Integer id, Integer age) throws Throwable {
+        requireTransaction(joinPoint);
+        Optional<AuthorView> before = authorRepository.findViewByIdForUpdate(id);
+        return afterUpdate(joinPoint.proceed(), before, before.map(AuthorView::getFirstName).orElse(null), age);
+    }
+
+    // UPDATE Author a SET a.age = :age WHERE a.email = :email -> email é único, então no máximo uma linha muda
+    @Around("execution(* com.api.demo_data_jpa.repository.AuthorRepository.atualizarIdadePorEmail(..)) && args(age, email)")
+    public Object aroundAtualizarIdadePorEmail(ProceedingJoinPoint joinPoint, int age, String email) throws Throwable {
+        requireTransaction(joinPoint);
+        Optional<AuthorView> before = authorRepository.findViewByEmailForUpdate(email);
+        return afterUpdate(joinPoint.proceed(), before, before.map(AuthorView::getFirstName).orElse(null), age);
+    }
+
+    // UPDATE Author a SET a.firstName = :firstName WHERE a.id = :id -> a idade não muda, só o cache é afetado
+    @Around("execution(* com.api.demo_data_jpa.repository.AuthorRepository.updateFirstNameById(..)) && args(id, firstName)")
+    public Object aroundUpdateFirstNameById(ProceedingJoinPoint joinPoint, Integer id, String firstName) throws Throwable {
+        requireTransaction(joinPoint);
+        Optional<AuthorView> before = authorRepository.findViewByIdForUpdate(id);
+        return afterUpdate(joinPoint.proceed(), before, firstName, before.map(AuthorView::getAge).orElse(null));
+    }
+
+    private Object afterUpdate(Object rows, Optional<AuthorView> before, String newFirstName, Integer newAge) {
+        if (rows instanceof Integer updated && updated > 0 && before.isPresent() && newAge != null) {
+            AuthorView old = before.get();
+            histogram.move(old.getAge(), newAge);
+            cacheInvalidator.rowChanged(old.getFirstName(), old.getAge(), newFirstName, newAge);
+        }
+        return rows;
+    }
+
+    // Sem a transação do chamador, a leitura e o UPDATE/DELETE rodariam em transações separadas (o mesmo que o MANDATORY do repository)
+    private static void requireTransaction(ProceedingJoinPoint joinPoint) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalTransactionStateException(
+                "AuthorRepository." + joinPoint.getSignature().getName() + " precisa ser chamado dentro de uma transação (@Transactional)");
+        }
+    }
+
+}
+
+/* Anotação:
+ * @Aspect: Define uma classe de AOP (AspectJ) que intercepta chamadas de métodos de outros beans (aqui, o proxy do AuthorRepository).
+ * @Around: Envolve a chamada do método; joinPoint.proceed() executa o método original.
+ * execution(...): Expressão de pointcut que seleciona os métodos interceptados.
+ * args(...): Liga os argumentos do método interceptado aos parâmetros do advice.
+ * IllegalTransactionStateException: A mesma exceção que o Spring lança para propagation MANDATORY sem transação ativa.
+ * @Lazy: Injeta um proxy preguiçoso do repository, evitando ciclo na criação dos beans.
+*/
@@ -0,0 +1,111 @@
+package com.api.demo_data_jpa.support;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.OptimisticLockException;
+
+@Component
+public class OptimisticRetryExecutor {
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.optimistic-retry.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.optimistic-retry.initial-backoff-ms:5}")
+    private long initialBackoffMillis;
+
+    @Value("${app.optimistic-retry.max-backoff-ms:200}")
+    private long maxBackoffMillis;
+
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    // Cada tentativa roda em uma transação NOVA: depois de um conflito a transação anterior fica rollback-only
+    // e o contexto de persistência guarda o estado velho, então repetir dentro dela não adiantaria.
+    public OptimisticRetryExecutor(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+
+    /* ==== API ==== */
+
+    // work deve LER e ALTERAR a entidade (ex: findById -> setAge -> save); a cada tentativa ela é relida com a versão atual
+    public <T> T execute(Supplier<T> work) {
+        long backoff = initialBackoffMillis;
+        for (int attempt = 1; ; attempt++) {
+            attempts.increment();
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    throw e;
+                }
+                sleep(backoff);
+                backoff = Math.min(backoff * 2, maxBackoffMillis);
+            }
+        }
+    }
+
+    public void execute(Runnable work) {
+        execute(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+
+    /* ==== Métricas ==== */
+
+    public long getAttempts() {
+        return attempts.sum();
+    }
+
+    public long getConflicts() {
+        return conflicts.sum();
+    }
+
+    // Operações que desistiram depois de maxAttempts conflitos
+    public long getExhausted() {
+        return exhausted.sum();
+    }
+
+    public void resetMetrics() {
+        attempts.reset();
+        conflicts.reset();
+        exhausted.reset();
+    }
+
+    // Backoff exponencial com jitter: escritores que colidiram não tentam de novo todos no mesmo instante
+    private static void sleep(long backoffMillis) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMillis + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando nova tentativa", e);
+        }
+    }
+
+}
+
+/* Anotação:
+ * Lock otimista (@Version no BaseEntity) + nova tentativa:
+ *  - Não bloqueia linhas: cada transação lê, altera e grava com WHERE version = ?. Em caso de conflito, a operação inteira é refeita.
+ *  - Com lock pessimista (SELECT ... FOR UPDATE) os escritores esperam em fila pelo lock durante toda a transação.
+ * OptimisticLockingFailureException: Exceção do Spring para conflito de versão (o Hibernate lança StaleObjectStateException / OptimisticLockException).
+ * PROPAGATION_REQUIRES_NEW: Abre uma transação nova mesmo se já existir uma (a de fora fica suspensa).
+ * Backoff exponencial com jitter: espera aleatória entre 0 e o backoff atual, que dobra a cada conflito até max-backoff-ms.
+*/
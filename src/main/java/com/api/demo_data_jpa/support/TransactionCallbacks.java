@@ -0,0 +1,31 @@
+package com.api.demo_data_jpa.support;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public final class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+    }
+
+    // Executa a ação somente depois do commit da transação corrente.
+    // Sem transação ativa (ex: o @Transactional do repository já fez o commit), executa imediatamente.
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+}
+
+/* Anotação:
+ * TransactionSynchronizationManager: Permite registrar callbacks (afterCommit, afterCompletion) na transação corrente do Spring.
+ *  - Um rollback descarta os callbacks afterCommit, então estruturas em memória (histogramas, caches) não ficam com dados que nunca foram gravados.
+*/
@@ -0,0 +1,231 @@
+package com.api.demo_data_jpa.virtualthreads;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+// Detecta threads virtuais presas à thread carregadora (pinning): bloquear dentro de synchronized ou de código nativo
+// impede a thread virtual de desmontar, e a carregadora (uma por CPU) fica parada junto.
+// Lê o evento jdk.VirtualThreadPinned do JFR na própria aplicação (RecordingStream) e agrupa por local:
+// a biblioteca (driver MySQL, Hibernate, Hikari...) e o frame dela mais próximo do bloqueio, com o primeiro frame da aplicação como chamador.
+@Component
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.api.demo_data_jpa.";
+    private static final int LOGGED_SITES = 10;
+
+    // Prefixo do pacote -> nome no relatório (a ordem não importa: um frame só casa com um prefixo)
+    private static final Map<String, String> LIBRARIES = new LinkedHashMap<>();
+    static {
+        LIBRARIES.put("com.mysql.", "MySQL Connector/J");
+        LIBRARIES.put("org.hibernate.", "Hibernate");
+        LIBRARIES.put("com.zaxxer.hikari.", "HikariCP");
+        LIBRARIES.put("org.h2.", "H2");
+        LIBRARIES.put("org.springframework.", "Spring");
+        LIBRARIES.put("org.apache.", "Tomcat/Apache");
+        LIBRARIES.put(APPLICATION_PACKAGE, "aplicação");
+    }
+
+    // Liga junto com spring.threads.virtual.enabled, a menos que configurado à parte
+    @Value("${app.virtual-threads.pinning-monitor.enabled:${spring.threads.virtual.enabled:false}}")
+    private boolean enabled;
+
+    // Só registra bloqueios com a carregadora presa por pelo menos este tempo (o padrão do JFR é 20 ms)
+    @Value("${app.virtual-threads.pinning-monitor.threshold-ms:5}")
+    private long thresholdMs;
+
+    private final Map<String, SiteStats> sites = new ConcurrentHashMap<>();
+    private final LongAdder pinnedEvents = new LongAdder();
+    private volatile long flushes;
+    private long lastLoggedEvents;
+
+    private RecordingStream stream;
+    private volatile boolean running = false;
+
+    public record PinnedSite(String library, String frame, String caller, long count, double totalMillis, double maxMillis) {
+    }
+
+    private static final class SiteStats {
+        private final String library;
+        private final String frame;
+        private volatile String caller;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private SiteStats(String library, String frame) {
+            this.library = library;
+            this.frame = frame;
+        }
+    }
+
+
+    /* ==== Eventos do JFR (thread do RecordingStream) ==== */
+
+    private void onPinned(RecordedEvent event) {
+        pinnedEvents.increment();
+        String library = "desconhecida";
+        String frame = "(sem stack trace)";
+        String caller = "-";
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace != null) {
+            // Do topo (o park) para baixo: o primeiro frame de uma biblioteca conhecida é o local do bloqueio
+            for (RecordedFrame recordedFrame : stackTrace.getFrames()) {
+                if (!recordedFrame.isJavaFrame()) {
+                    continue;
+                }
+                String type = recordedFrame.getMethod().getType().getName();
+                String owner = libraryOf(type);
+                if (owner != null && frame.startsWith("(")) {
+                    library = owner;
+                    frame = describe(recordedFrame);
+                }
+                if (type.startsWith(APPLICATION_PACKAGE)) {
+                    caller = describe(recordedFrame);
+                    break;
+                }
+            }
+        }
+        long nanos = event.getDuration().toNanos();
+        SiteStats stats = siteOf(library, frame);
+        stats.caller = caller;
+        stats.count.increment();
+        stats.nanos.add(nanos);
+        stats.maxNanos.accumulate(nanos);
+    }
+
+    private SiteStats siteOf(String library, String frame) {
+        return sites.computeIfAbsent(library + "|" + frame, key -> new SiteStats(library, frame));
+    }
+
+    private static String libraryOf(String type) {
+        for (Map.Entry<String, String> library : LIBRARIES.entrySet()) {
+            if (type.startsWith(library.getKey())) {
+                return library.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String describe(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        return type.substring(type.lastIndexOf('.') + 1) + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+
+    /* ==== Consulta ==== */
+
+    // Locais ordenados pelo tempo total com a carregadora presa
+    public List<PinnedSite> snapshot() {
+        List<PinnedSite> snapshot = new ArrayList<>();
+        for (SiteStats stats : sites.values()) {
+            snapshot.add(new PinnedSite(stats.library, stats.frame, stats.caller, stats.count.sum(),
+                stats.nanos.sum() / 1_000_000.0, stats.maxNanos.get() / 1_000_000.0));
+        }
+        snapshot.sort(Comparator.comparingDouble(PinnedSite::totalMillis).reversed());
+        return snapshot;
+    }
+
+    public long getPinnedEvents() {
+        return pinnedEvents.sum();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // O JFR entrega os eventos em lotes (cerca de 1 s); espera dois lotes para que o que já aconteceu esteja no snapshot()
+    public void awaitFlush(Duration timeout) throws InterruptedException {
+        long target = flushes + 2;
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (running && flushes < target && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+
+    public void reset() {
+        sites.clear();
+    }
+
+    // Publica no log os locais com pinning, só quando houve eventos novos
+    @Scheduled(
+        initialDelayString = "${app.virtual-threads.pinning-monitor.log-interval-ms:60000}",
+        fixedDelayString = "${app.virtual-threads.pinning-monitor.log-interval-ms:60000}"
+    )
+    public void logSnapshot() {
+        long events = getPinnedEvents();
+        if (!running || events == lastLoggedEvents) {
+            return;
+        }
+        lastLoggedEvents = events;
+        List<PinnedSite> snapshot = snapshot();
+        for (PinnedSite site : snapshot.subList(0, Math.min(LOGGED_SITES, snapshot.size()))) {
+            log.warn("pinning library={} frame={} caller={} count={} totalMs={} maxMs={}", site.library(), site.frame(), site.caller(),
+                site.count(), String.format("%.1f", site.totalMillis()), String.format("%.1f", site.maxMillis()));
+        }
+    }
+
+
+    /* ==== Ciclo de vida (SmartLifecycle) ==== */
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.onFlush(() -> flushes++);
+        stream.startAsync();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+}
+
+/* Anotação:
+ * Thread virtual: Executada sobre poucas threads de plataforma (carregadoras). Ao bloquear (I/O, lock, sleep), ela desmonta e
+ *  a carregadora passa a executar outra thread virtual.
+ * Pinning (Java 21): Dentro de um bloco synchronized ou de um frame nativo a thread virtual não desmonta; se bloquear ali,
+ *  a carregadora fica parada até o fim do bloqueio. Com poucas carregadoras, poucas threads presas param a aplicação inteira.
+ *  - Correção habitual: trocar synchronized por ReentrantLock em volta de operações que bloqueiam.
+ * jdk.VirtualThreadPinned: Evento do JFR emitido quando uma thread virtual bloqueia presa à carregadora por mais que o threshold.
+ * RecordingStream: Gravação JFR consumida na própria JVM (sem arquivo .jfr); onEvent() roda na thread do stream, onFlush() a cada lote.
+ * -Djdk.tracePinnedThreads=full: Alternativa sem código (imprime a stack no System.out a cada pinning), útil só em diagnóstico pontual.
+ * LongAccumulator(Math::max): Máximo concorrente sem lock.
+*/
@@ -0,0 +1,53 @@
+package com.api.demo_data_jpa.zipcode;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.api.demo_data_jpa.model.Author;
+import com.api.demo_data_jpa.model.embedded.Address;
+import com.api.demo_data_jpa.model.embedded.Order;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+public class ZipCodeIndexListener {
+
+    // ObjectProvider evita a dependência circular EntityManagerFactory -> Listener -> Service -> Repository -> EntityManagerFactory.
+    @Autowired
+    private ObjectProvider<ZipCodeLookupService> zipCodeLookupService;
+
+    // Usado no Author e no Order (os dois têm o Address incorporado)
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        zipCodeLookupService.ifAvailable(service -> {
+            if (entity instanceof Author author) {
+                service.authorSaved(author.getId(), zipCodeOf(author.getAddress()));
+            } else if (entity instanceof Order order) {
+                service.orderSaved(order.getOrderId(), zipCodeOf(order.getAddress()));
+            }
+        });
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        zipCodeLookupService.ifAvailable(service -> {
+            if (entity instanceof Author author) {
+                service.authorRemoved(author.getId());
+            } else if (entity instanceof Order order) {
+                service.orderRemoved(order.getOrderId());
+            }
+        });
+    }
+
+    private static String zipCodeOf(Address address) {
+        return address != null ? address.getZipCode() : null;
+    }
+
+}
+
+/* Anotação:
+ * EntityListener compartilhado por Author e Order: mantém o índice de CEP do ZipCodeLookupService atualizado a cada INSERT, UPDATE e DELETE via JPA.
+ * O parâmetro Object permite usar o mesmo listener em entidades diferentes.
+*/
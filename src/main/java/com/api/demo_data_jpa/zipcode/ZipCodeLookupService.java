@@ -0,0 +1,273 @@
+package com.api.demo_data_jpa.zipcode;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.api.demo_data_jpa.model.embedded.OrderId;
+import com.api.demo_data_jpa.repository.AuthorRepository;
+import com.api.demo_data_jpa.repository.OrderRepository;
+import com.api.demo_data_jpa.support.TransactionCallbacks;
+
+@Service
+public class ZipCodeLookupService {
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    // Prefixo mínimo (sem o "*"): "", "*" ou "9" devolveriam quase todos os autores e pedidos (ou um LIKE '%' antes do índice ficar pronto)
+    @Value("${app.zip-code-index.min-prefix-length:3}")
+    private int minPrefixLength;
+
+    // Índice em memória: CEP ordenado -> ids. A ordenação permite buscar por prefixo com subMap (ex: "99999-*").
+    private volatile ZipIndex<Integer> authors = new ZipIndex<>();
+    private volatile ZipIndex<OrderId> orders = new ZipIndex<>();
+
+    private volatile boolean ready = false;
+
+    // Um rebuild por vez: as duas consultas de CEP rodam com a trava, e com ReentrantLock a thread virtual pode desmontar durante o JDBC
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // Escritas incrementais e a troca do rebuild() seguram esta trava; as buscas não (leem a referência volatile)
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    // Ids alterados enquanto um rebuild() lê o banco (CEP null = removido); reaplicados nos índices novos antes da troca.
+    // Null fora de um rebuild. Protegidos pelo updateLock.
+    private Map<Integer, String> authorsTouchedDuringRebuild;
+    private Map<OrderId, String> ordersTouchedDuringRebuild;
+
+    // Resultado de uma busca: ids dos autores e dos pedidos com o CEP (ou prefixo) informado
+    public record ZipCodeMatches(List<Integer> authorIds, List<OrderId> orderIds) {
+    }
+
+
+    /* ==== Consultas ==== */
+
+    // CEP exato
+    public ZipCodeMatches findByZipCode(String zipCode) {
+        if (!ready) {
+            return new ZipCodeMatches(authorRepository.findIdsByZipCode(zipCode), orderRepository.findIdsByZipCode(zipCode));
+        }
+        return new ZipCodeMatches(authors.exact(zipCode), orders.exact(zipCode));
+    }
+
+    // Prefixo de CEP (região): "99999-", "99999-*" ou "999*"
+    public ZipCodeMatches findByZipCodePrefix(String prefix) {
+        String normalized = normalizePrefix(prefix);
+        if (normalized.length() < minPrefixLength) {
+            throw new IllegalArgumentException(
+                "Prefixo de CEP precisa de pelo menos " + minPrefixLength + " caracteres (sem o *): '" + prefix + "'");
+        }
+        if (!ready) {
+            return new ZipCodeMatches(
+                authorRepository.findIdsByZipCodeStartingWith(normalized),
+                orderRepository.findIdsByZipCodeStartingWith(normalized));
+        }
+        return new ZipCodeMatches(authors.prefix(normalized), orders.prefix(normalized));
+    }
+
+    static String normalizePrefix(String prefix) {
+        String normalized = prefix == null ? "" : prefix.trim();
+        while (normalized.endsWith("*")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized;
+    }
+
+
+    /* ==== Construção e reconciliação ==== */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    // Reconciliação periódica: cobre escritas que não avisam o índice (SQL nativo, falha ao atualizar o índice depois do commit)
+    @Scheduled(
+        initialDelayString = "${app.zip-code-index.reconcile-interval-ms:300000}",
+        fixedDelayString = "${app.zip-code-index.reconcile-interval-ms:300000}"
+    )
+    public void reconcile() {
+        rebuild();
+    }
+
+    // Monta os índices novos por fora e troca a referência de uma vez (leitores nunca veem um índice pela metade)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            updateLock.lock();
+            try {
+                authorsTouchedDuringRebuild = new HashMap<>();
+                ordersTouchedDuringRebuild = new HashMap<>();
+            } finally {
+                updateLock.unlock();
+            }
+
+            ZipIndex<Integer> newAuthors = null;
+            ZipIndex<OrderId> newOrders = null;
+            try {
+                ZipIndex<Integer> readAuthors = new ZipIndex<>();
+                for (Object[] row : authorRepository.findAllIdsAndZipCodes()) {
+                    readAuthors.put((Integer) row[0], (String) row[1]);
+                }
+                ZipIndex<OrderId> readOrders = new ZipIndex<>();
+                for (Object[] row : orderRepository.findAllIdsAndZipCodes()) {
+                    readOrders.put((OrderId) row[0], (String) row[1]);
+                }
+                newAuthors = readAuthors;
+                newOrders = readOrders;
+            } finally {
+                updateLock.lock();
+                try {
+                    if (newAuthors != null) {
+                        // Um save/remove que commitou durante a leitura foi aplicado no índice antigo: repete no novo (o último estado vale)
+                        authorsTouchedDuringRebuild.forEach(newAuthors::put);
+                        ordersTouchedDuringRebuild.forEach(newOrders::put);
+                        authors = newAuthors;
+                        orders = newOrders;
+                        ready = true;
+                    }
+                    authorsTouchedDuringRebuild = null;
+                    ordersTouchedDuringRebuild = null;
+                } finally {
+                    updateLock.unlock();
+                }
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+
+    /* ==== Atualizações incrementais (ZipCodeIndexListener, OrderIngestionService e AuthorModifyingQueryAspect) ==== */
+
+    public void authorSaved(Integer id, String zipCode) {
+        TransactionCallbacks.afterCommit(() -> putAuthor(id, zipCode));
+    }
+
+    public void authorRemoved(Integer id) {
+        TransactionCallbacks.afterCommit(() -> putAuthor(id, null));
+    }
+
+    // DELETE em massa (@Modifying): um único callback para todas as linhas apagadas
+    public void authorsRemoved(Collection<Integer> ids) {
+        List<Integer> removed = List.copyOf(ids);
+        TransactionCallbacks.afterCommit(() -> removed.forEach(id -> putAuthor(id, null)));
+    }
+
+    public void orderSaved(OrderId id, String zipCode) {
+        TransactionCallbacks.afterCommit(() -> putOrder(id, zipCode));
+    }
+
+    public void orderRemoved(OrderId id) {
+        TransactionCallbacks.afterCommit(() -> putOrder(id, null));
+    }
+
+    // CEP null remove o id (o mesmo que ZipIndex.put faz)
+    private void putAuthor(Integer id, String zipCode) {
+        if (id == null) {
+            return;
+        }
+        updateLock.lock();
+        try {
+            authors.put(id, zipCode);
+            if (authorsTouchedDuringRebuild != null) {
+                authorsTouchedDuringRebuild.put(id, zipCode);
+            }
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private void putOrder(OrderId id, String zipCode) {
+        if (id == null) {
+            return;
+        }
+        updateLock.lock();
+        try {
+            orders.put(id, zipCode);
+            if (ordersTouchedDuringRebuild != null) {
+                ordersTouchedDuringRebuild.put(id, zipCode);
+            }
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+
+    // CEP -> ids, mais o caminho inverso id -> CEP para saber de onde remover quando o CEP muda
+    static class ZipIndex<ID> {
+
+        private final ConcurrentSkipListMap<String, Set<ID>> idsByZip = new ConcurrentSkipListMap<>();
+        private final Map<ID, String> zipById = new ConcurrentHashMap<>();
+
+        synchronized void put(ID id, String zipCode) {
+            remove(id);
+            if (id == null || zipCode == null) {
+                return;
+            }
+            zipById.put(id, zipCode);
+            idsByZip.computeIfAbsent(zipCode, zip -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+
+        synchronized void remove(ID id) {
+            if (id == null) {
+                return;
+            }
+            String oldZip = zipById.remove(id);
+            if (oldZip != null) {
+                Set<ID> ids = idsByZip.get(oldZip);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        idsByZip.remove(oldZip);
+                    }
+                }
+            }
+        }
+
+        List<ID> exact(String zipCode) {
+            Set<ID> ids = zipCode == null ? null : idsByZip.get(zipCode);
+            return ids == null ? List.of() : List.copyOf(ids);
+        }
+
+        // Todas as chaves entre prefix (inclusive) e prefix + Character.MAX_VALUE (exclusive) começam com o prefixo
+        List<ID> prefix(String prefix) {
+            NavigableMap<String, Set<ID>> range = idsByZip.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+            List<ID> result = new ArrayList<>();
+            range.values().forEach(result::addAll);
+            return result;
+        }
+
+    }
+
+}
+
+/* Anotação:
+ * ConcurrentSkipListMap: Mapa ordenado e concorrente. subMap(de, até) devolve a faixa de chaves em O(log n) + tamanho do resultado.
+ *  - Busca por prefixo: subMap(prefixo, prefixo + Character.MAX_VALUE) contém exatamente as chaves que começam com o prefixo.
+ * ConcurrentHashMap.newKeySet(): Set concorrente.
+ * volatile + troca de referência no rebuild(): Os leitores continuam no índice antigo até o novo estar pronto.
+ *
+ * Observação:
+ *  - Antes do primeiro rebuild() as buscas vão para o banco de dados (colunas zip_code indexadas em AUTHOR_TBL e ORDER_TBL).
+ *  - Alterações incrementais que chegam durante um rebuild() são aplicadas no índice atual e repetidas no novo antes da troca.
+ *  - Prefixos menores que app.zip-code-index.min-prefix-length (vazio, "*", espaços) são recusados com IllegalArgumentException.
+*/
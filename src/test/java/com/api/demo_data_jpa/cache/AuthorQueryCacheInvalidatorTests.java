@@ -0,0 +1,94 @@
+package com.api.demo_data_jpa.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.api.demo_data_jpa.config.CacheConfig;
+import com.api.demo_data_jpa.model.Author;
+import com.api.demo_data_jpa.repository.AuthorRepository;
+
+// Cache de consultas sem banco de dados: o repository é um mock que controla quando cada leitura termina
+@SpringBootTest(classes = { CacheConfig.class, AuthorQueryCaches.class, AuthorQueryCacheInvalidator.class })
+class AuthorQueryCacheInvalidatorTests {
+
+	@Autowired
+	private AuthorQueryCaches caches;
+
+	@Autowired
+	private AuthorQueryCacheInvalidator invalidator;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@MockitoBean
+	private AuthorRepository authorRepository;
+
+	@BeforeEach
+	void clearCaches() {
+		AuthorQueryCaches.ALL.forEach(name -> cacheManager.getCache(name).clear());
+	}
+
+	// Leitor consulta o banco antes do commit, o escritor faz commit e invalida, e só então o leitor grava no cache
+	@Test
+	void loadThatOverlapsAnInvalidationIsNotCached() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch invalidated = new CountDownLatch(1);
+		when(authorRepository.findByAgeBetween(20, 40))
+			.thenAnswer(invocation -> {
+				loading.countDown();
+				invalidated.await();
+				return List.of(new Author("Ana", "Souza", "ana@email.com", 30));
+			})
+			.thenReturn(List.of(new Author("Ana", "Souza", "ana@email.com", 31)));
+
+		ExecutorService reader = Executors.newSingleThreadExecutor();
+		try {
+			Future<List<Author>> concurrentRead = reader.submit(() -> caches.findByAgeBetween(20, 40));
+			loading.await();
+			// Sem transação ativa a invalidação roda na hora, como depois do commit do escritor
+			invalidator.rowChanged("Ana", 30, "Ana", 31);
+			invalidated.countDown();
+
+			// O leitor concorrente recebe o que leu, mas o valor antigo não fica no cache
+			assertEquals(30, concurrentRead.get().get(0).getAge());
+			assertEquals(31, caches.findByAgeBetween(20, 40).get(0).getAge());
+			assertEquals(31, caches.findByAgeBetween(20, 40).get(0).getAge());
+			verify(authorRepository, times(2)).findByAgeBetween(20, 40);
+		} finally {
+			reader.shutdownNow();
+		}
+	}
+
+	@Test
+	void invalidatesOnlyEntriesWhosePredicateMatchesTheRow() {
+		when(authorRepository.findByAgeBetween(20, 29)).thenReturn(List.of(new Author("Ana", "Souza", "ana@email.com", 25)));
+		when(authorRepository.findByAgeBetween(50, 59)).thenReturn(List.of(new Author("Bia", "Lima", "bia@email.com", 55)));
+		caches.findByAgeBetween(20, 29);
+		caches.findByAgeBetween(50, 59);
+		long invalidationsBefore = invalidator.statsOf(AuthorQueryCaches.AUTHORS_BY_AGE_BETWEEN).getInvalidations();
+
+		invalidator.rowChanged(null, null, "Caio", 27);
+		caches.findByAgeBetween(20, 29);
+		caches.findByAgeBetween(50, 59);
+
+		verify(authorRepository, times(2)).findByAgeBetween(20, 29);
+		verify(authorRepository, times(1)).findByAgeBetween(50, 59);
+		assertEquals(1, invalidator.statsOf(AuthorQueryCaches.AUTHORS_BY_AGE_BETWEEN).getInvalidations() - invalidationsBefore);
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.api.demo_data_jpa.json;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.api.demo_data_jpa.autocomplete.CourseAutocompleteService.CourseCompletion;
+import com.api.demo_data_jpa.dto.AuthorDTO;
+import com.api.demo_data_jpa.dto.AuthorDetailsDTO;
+import com.api.demo_data_jpa.dto.BookDTO;
+import com.api.demo_data_jpa.dto.CourseOutlineDTO;
+import com.api.demo_data_jpa.dto.OrderDTO;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+// Os serializadores do ApiJsonModule precisam gerar exatamente o JSON (e o CBOR/Smile) do Jackson padrão (mesmos campos, ordem, nulls e datas)
+class ApiJsonModuleTests {
+
+	// Mesma configuração do ObjectMapper do Spring Boot, com e sem o módulo
+	private final ObjectMapper defaultMapper = Jackson2ObjectMapperBuilder.json().build();
+	private final ObjectMapper apiMapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(new ApiJsonModule()).build();
+
+	@Test
+	void authorPayloadsMatchDefaultSerialization() throws Exception {
+		List<AuthorDTO> authors = List.of(
+			new AuthorDTO("Ana", "Souza", "ana@email.com", 31, "Rua \"A\"", "12\\b", "01000-000"),
+			new AuthorDTO("José\u0001", null, null, 0, null, null, null));
+		assertSameJson(authors);
+
+		assertSameJson(new AuthorDetailsDTO(1, "Ana", "Souza", "ana@email.com", 31, "Rua A", "12", "01000-000",
+			LocalDateTime.of(2024, 5, 1, 10, 0), 3L));
+		assertSameJson(new AuthorDetailsDTO(2, "Bia", "Lima", "bia@email.com", 40, null, null, null,
+			LocalDateTime.of(2024, 5, 1, 10, 15, 30, 123_456_000), null));
+		assertSameJson(new AuthorDetailsDTO(null, null, null, null, 0, null, null, null, null, null));
+
+		// Frações de segundo (sem zeros à direita) e anos fora de 4 dígitos
+		for (LocalDateTime dateTime : List.of(LocalDateTime.of(1, 1, 1, 0, 0), LocalDateTime.of(2024, 12, 31, 23, 59, 59, 500_000_000),
+				LocalDateTime.of(2024, 2, 29, 0, 0, 0, 1), LocalDateTime.of(2024, 2, 29, 0, 0, 0, 120_000), LocalDateTime.of(12024, 1, 1, 0, 0),
+				LocalDateTime.of(-5, 1, 1, 0, 0), LocalDateTime.MAX, LocalDateTime.MIN)) {
+			assertSameJson(new BookDTO(1, "Livro", dateTime, 1L));
+		}
+
+		assertSameJson(List.of(new BookDTO(7, "Livro", LocalDateTime.of(2023, 1, 2, 3, 4, 5), 0L), new BookDTO(null, null, null, null)));
+	}
+
+	@Test
+	void coursePayloadsMatchDefaultSerialization() throws Exception {
+		List<CourseOutlineDTO.Lecture> lectures = new ArrayList<>();
+		lectures.add(new CourseOutlineDTO.Lecture(10, "Introdução", 100));
+		lectures.add(new CourseOutlineDTO.Lecture(11, "Sem recurso", null));
+		lectures.add(null);
+		assertSameJson(new CourseOutlineDTO(1, "Java", "Curso \"completo\"", List.of(
+			new CourseOutlineDTO.Section(5, "Básico", lectures),
+			new CourseOutlineDTO.Section(6, "Vazia", List.of()),
+			new CourseOutlineDTO.Section(7, null, null))));
+		assertSameJson(new CourseOutlineDTO(2, null, null, List.of()));
+
+		assertSameJson(List.of(new CourseCompletion(1, "Java"), new CourseCompletion(null, null)));
+	}
+
+	@Test
+	void orderAndBinaryPayloadsMatchDefaultSerialization() throws Exception {
+		List<OrderDTO> orders = List.of(
+			new OrderDTO("ana", LocalDateTime.of(2024, 5, 1, 10, 0, 0, 5_000_000), "Rua A", "12", "01000-000", "Pedido", "extra"),
+			new OrderDTO(null, null, null, null, null, null, null));
+		assertSameJson(orders);
+
+		// CBOR e Smile usam os mesmos serializadores: os bytes também precisam ser os do Jackson padrão
+		AuthorDetailsDTO author = new AuthorDetailsDTO(1, "Ana", "Souza", "ana@email.com", 31, "Rua A", "12", "01000-000",
+			LocalDateTime.of(2024, 5, 1, 10, 15, 30, 123_456_000), 3L);
+		for (JsonFactory factory : List.of(new CBORFactory(), new SmileFactory())) {
+			ObjectMapper defaultBinary = Jackson2ObjectMapperBuilder.json().factory(factory).build();
+			ObjectMapper apiBinary = Jackson2ObjectMapperBuilder.json().factory(factory).modulesToInstall(new ApiJsonModule()).build();
+			for (Object value : List.of(orders, List.of(author), new BookDTO(7, "Livro", null, 0L))) {
+				assertArrayEquals(defaultBinary.writeValueAsBytes(value), apiBinary.writeValueAsBytes(value), factory.getFormatName());
+			}
+		}
+	}
+
+	private void assertSameJson(Object value) throws Exception {
+		assertEquals(defaultMapper.writeValueAsString(value), apiMapper.writeValueAsString(value));
+	}
+
+}
@@ -0,0 +1,153 @@
+package com.api.demo_data_jpa.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.api.demo_data_jpa.dto.AuthorDTO;
+import com.api.demo_data_jpa.dto.AuthorDetailsDTO;
+import com.api.demo_data_jpa.dto.CourseOutlineDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+// ObjectMapper padrão (reflexão) x ObjectMapper com o ApiJsonModule, escrevendo num OutputStream que só conta bytes
+// (o papel do stream da resposta HTTP). Rodar: mvn -Pjmh test-compile exec:exec [-Djmh.args="ApiJsonSerialization -prof gc"]
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiJsonSerializationBenchmark {
+
+	private static final int LECTURES_PER_SECTION = 50;
+
+	@Param({ "1000", "100000" })
+	private int size;
+
+	private List<AuthorDTO> authors;
+	private List<AuthorDetailsDTO> authorDetails;
+	private CourseOutlineDTO outline;
+
+	// writerFor(tipo): como o MappingJackson2HttpMessageConverter faz para o tipo de retorno do controller
+	private ObjectWriter defaultAuthors;
+	private ObjectWriter defaultAuthorDetails;
+	private ObjectWriter defaultOutline;
+	private ObjectWriter apiAuthors;
+	private ObjectWriter apiAuthorDetails;
+	private ObjectWriter apiOutline;
+
+	private final CountingOutputStream out = new CountingOutputStream();
+
+	@Setup
+	public void setUp() {
+		authors = new ArrayList<>(size);
+		authorDetails = new ArrayList<>(size);
+		LocalDateTime modified = LocalDateTime.of(2024, 5, 1, 10, 15, 30, 123_456_000);
+		for (int i = 0; i < size; i++) {
+			authors.add(new AuthorDTO("Nome" + i, "Sobrenome" + i, "autor" + i + "@email.com", 20 + i % 50,
+				"Rua " + i, String.valueOf(i % 1000), String.format("%05d-000", i % 100000)));
+			authorDetails.add(new AuthorDetailsDTO(i, "Nome" + i, "Sobrenome" + i, "autor" + i + "@email.com", 20 + i % 50,
+				"Rua " + i, String.valueOf(i % 1000), String.format("%05d-000", i % 100000), modified.plusSeconds(i), (long) i % 7));
+		}
+		List<CourseOutlineDTO.Section> sections = new ArrayList<>();
+		for (int s = 0; s * LECTURES_PER_SECTION < size; s++) {
+			List<CourseOutlineDTO.Lecture> lectures = new ArrayList<>();
+			for (int l = 0; l < LECTURES_PER_SECTION; l++) {
+				int id = s * LECTURES_PER_SECTION + l;
+				lectures.add(new CourseOutlineDTO.Lecture(id, "Palestra " + id, id % 3 == 0 ? null : id));
+			}
+			sections.add(new CourseOutlineDTO.Section(s, "Seção " + s, lectures));
+		}
+		outline = new CourseOutlineDTO(1, "Curso", "Estrutura com " + size + " palestras", sections);
+
+		var defaultMapper = Jackson2ObjectMapperBuilder.json().build();
+		var apiMapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(new ApiJsonModule()).build();
+		defaultAuthors = defaultMapper.writerFor(new TypeReference<List<AuthorDTO>>() { });
+		defaultAuthorDetails = defaultMapper.writerFor(new TypeReference<List<AuthorDetailsDTO>>() { });
+		defaultOutline = defaultMapper.writerFor(CourseOutlineDTO.class);
+		apiAuthors = apiMapper.writerFor(new TypeReference<List<AuthorDTO>>() { });
+		apiAuthorDetails = apiMapper.writerFor(new TypeReference<List<AuthorDetailsDTO>>() { });
+		apiOutline = apiMapper.writerFor(CourseOutlineDTO.class);
+	}
+
+	@Benchmark
+	public long authorsDefault() throws IOException {
+		return write(defaultAuthors, authors);
+	}
+
+	@Benchmark
+	public long authorsPrecompiled() throws IOException {
+		return write(apiAuthors, authors);
+	}
+
+	@Benchmark
+	public long authorDetailsDefault() throws IOException {
+		return write(defaultAuthorDetails, authorDetails);
+	}
+
+	@Benchmark
+	public long authorDetailsPrecompiled() throws IOException {
+		return write(apiAuthorDetails, authorDetails);
+	}
+
+	@Benchmark
+	public long outlineDefault() throws IOException {
+		return write(defaultOutline, outline);
+	}
+
+	@Benchmark
+	public long outlinePrecompiled() throws IOException {
+		return write(apiOutline, outline);
+	}
+
+	private long write(ObjectWriter writer, Object value) throws IOException {
+		out.count = 0;
+		writer.writeValue(out, value);
+		return out.count;
+	}
+
+	// Descarta os bytes (sem custo de rede/cópia) e devolve quantos foram escritos, para o JIT não eliminar a escrita
+	private static final class CountingOutputStream extends OutputStream {
+
+		private long count;
+
+		@Override
+		public void write(int b) {
+			count++;
+		}
+
+		@Override
+		public void write(byte[] buffer, int offset, int length) {
+			count += length;
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+}
+
+/* Anotação:
+ * JMH: Ferramenta de microbenchmark da OpenJDK; cuida de aquecimento (JIT), fork de JVM e eliminação de código morto.
+ * @Param: Cada benchmark roda para 1 mil e 100 mil elementos.
+ * Mode.AverageTime: Tempo médio por operação (serializar a lista inteira / a estrutura do curso inteira).
+ * -prof gc: Mostra também bytes alocados por operação.
+*/
@@ -0,0 +1,158 @@
+package com.api.demo_data_jpa.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+// Hashing, equals e toString de entidades não podem ir ao banco de dados nem inicializar associações LAZY
+@DataJpaTest(properties = {
+	"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+	"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class EntityIdentityTests {
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	private Statistics statistics;
+
+	private Integer authorId;
+	private Integer bookId;
+	private Integer courseId;
+	private Integer lectureId;
+	private Integer videoId;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+		Author author = Author.builder()
+				.firstName("Daniel")
+				.lastName("Penelva")
+				.email("daniel@gmail.com")
+				.age(37)
+				.books(new ArrayList<>())
+				.build();
+		author.getBooks().add(Book.builder().title("Livro 1").author(author).build());
+		author.getBooks().add(Book.builder().title("Livro 2").author(author).build());
+		entityManager.persist(author);
+
+		Course course = Course.builder().name("Curso").authors(new ArrayList<>(List.of(author))).build();
+		entityManager.persist(course);
+		Section section = Section.builder().name("Seção").course(course).build();
+		entityManager.persist(section);
+		Video video = Video.builder().name("Vídeo").length(600).build();
+		entityManager.persist(video);
+		Lecture lecture = Lecture.builder().name("Aula").section(section).resource(video).build();
+		entityManager.persist(lecture);
+
+		authorId = author.getId();
+		bookId = author.getBooks().get(0).getId();
+		courseId = course.getId();
+		lectureId = lecture.getId();
+		videoId = video.getId();
+
+		entityManager.flush();
+		entityManager.clear();
+		statistics.clear();
+	}
+
+	@Test
+	void hashingComparingAndPrintingAuthorRunsNoSql() {
+		Author author = entityManager.find(Author.class, authorId);
+		Author other = entityManager.find(Author.class, authorId);
+		statistics.clear();
+
+		Set<Author> authors = new HashSet<>();
+		authors.add(author);
+		assertTrue(authors.contains(other));
+		assertEquals(author, other);
+		author.toString();
+
+		assertEquals(0, statistics.getPrepareStatementCount());
+		assertFalse(Hibernate.isInitialized(author.getBooks()));
+		assertFalse(Hibernate.isInitialized(author.getCourses()));
+	}
+
+	@Test
+	void uninitializedProxyEqualsLoadedEntityWithoutLoading() {
+		Author loaded = entityManager.find(Author.class, authorId);
+		entityManager.detach(loaded);
+		Author proxy = entityManager.getEntityManager().getReference(Author.class, authorId);
+		statistics.clear();
+
+		assertEquals(loaded, proxy);
+		assertEquals(proxy, loaded);
+		assertEquals(loaded.hashCode(), proxy.hashCode());
+		assertTrue(Set.of(loaded).contains(proxy));
+
+		assertEquals(0, statistics.getPrepareStatementCount());
+		assertFalse(Hibernate.isInitialized(proxy));
+	}
+
+	@Test
+	void printingBookDoesNotRecurseIntoAuthor() {
+		Book book = entityManager.find(Book.class, bookId);
+		statistics.clear();
+
+		String text = book.toString() + book.getAuthor().toString();
+		Set<Object> entities = new HashSet<>(List.of(book, book.getAuthor()));
+
+		assertTrue(text.contains("Livro 1"));
+		assertEquals(2, entities.size());
+		assertEquals(0, statistics.getPrepareStatementCount());
+		assertFalse(Hibernate.isInitialized(book.getAuthor().getBooks()));
+	}
+
+	@Test
+	void courseAndLectureLeaveLazyAssociationsUntouched() {
+		Video video = entityManager.find(Video.class, videoId);
+		entityManager.clear(); // o find do Video também carrega a Lecture (lado inverso do OneToOne)
+		Course course = entityManager.find(Course.class, courseId);
+		Lecture lecture = entityManager.find(Lecture.class, lectureId);
+		statistics.clear();
+
+		Set<Object> entities = new HashSet<>(List.of(course, lecture, lecture.getSection(), lecture.getResource()));
+		course.toString();
+		lecture.toString();
+
+		assertEquals(4, entities.size());
+		assertEquals(video, lecture.getResource());
+		assertEquals(lecture.getResource(), video);
+		assertEquals(0, statistics.getPrepareStatementCount());
+		assertFalse(Hibernate.isInitialized(course.getAuthors()));
+		assertFalse(Hibernate.isInitialized(course.getSections()));
+		assertFalse(Hibernate.isInitialized(lecture.getSection()));
+		assertFalse(Hibernate.isInitialized(lecture.getResource()));
+	}
+
+	@Test
+	void newEntityKeepsHashCodeAcrossPersist() {
+		Author first = Author.builder().firstName("Maria").lastName("Nunes").email("maria@gmail.com").age(25).build();
+		Author second = Author.builder().firstName("Maria").lastName("Nunes").email("maria@gmail.com").age(25).build();
+		assertNotEquals(first, second);
+
+		Set<Author> authors = new HashSet<>();
+		authors.add(first);
+		entityManager.persist(first);
+
+		assertTrue(authors.contains(first));
+		assertEquals(first, entityManager.find(Author.class, first.getId()));
+	}
+
+}
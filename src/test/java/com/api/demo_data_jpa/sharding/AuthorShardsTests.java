@@ -0,0 +1,90 @@
+package com.api.demo_data_jpa.sharding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.api.demo_data_jpa.model.Author;
+import com.api.demo_data_jpa.model.Book;
+import com.api.demo_data_jpa.pool.ConnectionPoolTelemetry;
+
+// Três bancos H2 em memória fazendo o papel de três instâncias MySQL
+@DataJpaTest(properties = {
+	"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+	"app.author-shards.urls=jdbc:h2:mem:author_shard_0;DB_CLOSE_DELAY=-1,jdbc:h2:mem:author_shard_1;DB_CLOSE_DELAY=-1,jdbc:h2:mem:author_shard_2;DB_CLOSE_DELAY=-1",
+	"app.author-shards.username=sa",
+	"app.author-shards.ddl-auto=create-drop"
+})
+@Import({ AuthorShards.class, ConnectionPoolTelemetry.class })
+class AuthorShardsTests {
+
+	@Autowired
+	private AuthorShards authorShards;
+
+	@Test
+	void routesByEmailAndReadsFromASingleShard() {
+		List<Author> authors = new ArrayList<>();
+		for (int i = 0; i < 90; i++) {
+			Author author = new Author("Rota", "Autor " + i, "rota" + i + "@email.com", 20 + i % 40);
+			author.getBooks().add(Book.builder().title("Livro " + i).build());
+			authors.add(author);
+		}
+		authorShards.saveAll(authors);
+
+		assertEquals(3, authorShards.shardCount());
+		assertEquals(authorShards.shardOf("rota7@email.com"), authorShards.shardOf("  ROTA7@Email.com "));
+		assertTrue(authorShards.countPerShard().stream().allMatch(count -> count > 0));
+		assertEquals(90, authorShards.count(lastNameStartsWith("Autor ")));
+
+		assertEquals("Autor 7", authorShards.findByEmail("rota7@email.com").orElseThrow().getLastName());
+		assertTrue(authorShards.existsByEmail("rota8@email.com"));
+		assertTrue(authorShards.deleteByEmail("rota8@email.com"));
+		assertFalse(authorShards.existsByEmail("rota8@email.com"));
+		assertFalse(authorShards.deleteByEmail("rota8@email.com"));
+	}
+
+	@Test
+	void pagesAreMergedInGlobalOrder() {
+		List<Author> authors = new ArrayList<>();
+		for (int i = 0; i < 120; i++) {
+			authors.add(new Author("Pagina", "Sobrenome " + (i % 7), "pagina" + i + "@email.com", 18 + i % 13));
+		}
+		authorShards.saveAll(authors);
+
+		Specification<Author> onlyThisTest = (root, query, cb) -> cb.equal(root.get("firstName"), "Pagina");
+		Sort sort = Sort.by(Sort.Order.desc("age"), Sort.Order.asc("lastName"));
+		List<String> expected = authors.stream()
+			.sorted(Comparator.comparing(Author::getAge).reversed()
+				.thenComparing(Author::getLastName)
+				.thenComparing(Author::getEmail))
+			.map(Author::getEmail)
+			.toList();
+
+		List<String> actual = new ArrayList<>();
+		for (int page = 0; page < 5; page++) {
+			Page<Author> result = authorShards.findAll(onlyThisTest, PageRequest.of(page, 25, sort));
+			assertEquals(120, result.getTotalElements());
+			result.forEach(author -> actual.add(author.getEmail()));
+		}
+		assertEquals(expected, actual);
+		assertEquals(expected, authorShards.findAll(onlyThisTest, sort).stream().map(Author::getEmail).toList());
+	}
+
+	private static Specification<Author> lastNameStartsWith(String prefix) {
+		return (root, query, cb) -> cb.like(root.get("lastName"), prefix + "%");
+	}
+
+}
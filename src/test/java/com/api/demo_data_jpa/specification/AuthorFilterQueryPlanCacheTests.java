@@ -0,0 +1,105 @@
+package com.api.demo_data_jpa.specification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import com.api.demo_data_jpa.filter.AuthorFilter;
+import com.api.demo_data_jpa.model.Author;
+import com.api.demo_data_jpa.repository.AuthorRepository;
+import com.api.demo_data_jpa.specification.AuthorFilterQueryPlanCache.InvalidSortException;
+
+// Um plano compilado por formato (campos preenchidos + ordenação), com o mesmo resultado do AuthorSpecifications.build
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(AuthorFilterQueryPlanCache.class)
+class AuthorFilterQueryPlanCacheTests {
+
+	@Autowired
+	private AuthorFilterQueryPlanCache plans;
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	@BeforeEach
+	void authors() {
+		List<Author> authors = new ArrayList<>();
+		for (int i = 0; i < 60; i++) {
+			authors.add(new Author(i % 2 == 0 ? "Daniel" : "Maria", "Autor " + i, "plano" + i + (i % 3 == 0 ? "@gmail.com" : "@email.com"), 18 + i));
+		}
+		authorRepository.saveAll(authors);
+	}
+
+	@Test
+	void sameShapeIsCompiledOnceAndMatchesTheSpecification() {
+		long shapes = plans.getCompiledShapes();
+		long misses = plans.getMisses();
+		long hits = plans.getHits();
+
+		for (int i = 0; i < 50; i++) {
+			// Valores diferentes, mesmo formato: firstName + minAge, ordenado por lastName
+			AuthorFilter filter = new AuthorFilter(i % 2 == 0 ? "dan" : "mar", null, 20 + i, null);
+			Pageable pageable = PageRequest.of(i % 3, 5, Sort.by("lastName"));
+			Page<Author> cached = plans.findAll(filter, pageable);
+			Page<Author> specification = authorRepository.findAll(AuthorSpecifications.build(filter), pageable);
+			assertEquals(ids(specification.getContent()), ids(cached.getContent()));
+			assertEquals(specification.getTotalElements(), cached.getTotalElements());
+		}
+
+		assertEquals(1, plans.getCompiledShapes() - shapes);
+		assertEquals(1, plans.getMisses() - misses);
+		assertEquals(49, plans.getHits() - hits);
+	}
+
+	@Test
+	void eachShapeAndSortHasItsOwnPlanSharedByTheVersionsQuery() {
+		long shapes = plans.getCompiledShapes();
+		long misses = plans.getMisses();
+		List<AuthorFilter> filters = List.of(
+			new AuthorFilter(null, null, null, null),
+			new AuthorFilter("dan", null, null, null),
+			new AuthorFilter(null, "gmail", 30, 60),
+			new AuthorFilter("mar", "email", null, 50));
+		List<Sort> sorts = List.of(Sort.by(Sort.Order.desc("age")), Sort.by(Sort.Order.asc("email").ignoreCase(), Sort.Order.asc("id")));
+
+		for (int round = 0; round < 3; round++) {
+			for (AuthorFilter filter : filters) {
+				for (Sort sort : sorts) {
+					Pageable pageable = PageRequest.of(0, 7, sort);
+					List<Integer> page = ids(plans.findAll(filter, pageable).getContent());
+					List<Integer> versions = plans.findVersions(filter, pageable).map(row -> (Integer) row[0]).getContent();
+					assertEquals(page, versions);
+				}
+			}
+		}
+
+		// 4 formatos x 2 ordenações compilados uma vez; as outras 2 x 3 x 8 - 8 chamadas reaproveitam o plano
+		assertEquals(8, plans.getCompiledShapes() - shapes);
+		assertEquals(8, plans.getMisses() - misses);
+	}
+
+	@Test
+	void rejectsSortsOutsideTheWhitelist() {
+		AuthorFilter filter = new AuthorFilter("dan", null, null, null);
+		assertThrows(InvalidSortException.class, () -> plans.findAll(filter, PageRequest.of(0, 5, Sort.by("books"))));
+		assertThrows(InvalidSortException.class, () -> plans.findAll(filter, PageRequest.of(0, 5, Sort.by("age", "age"))));
+		assertThrows(InvalidSortException.class,
+			() -> plans.findAll(filter, PageRequest.of(0, 5, Sort.by("id", "firstName", "lastName", "email", "age"))));
+	}
+
+	private static List<Integer> ids(List<Author> authors) {
+		return authors.stream().map(Author::getId).toList();
+	}
+
+}